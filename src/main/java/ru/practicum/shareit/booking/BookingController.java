@@ -1,11 +1,14 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.FieldSet;
 
 import java.util.List;
 
@@ -16,6 +19,8 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingVersionTracker versionTracker;
+    private final ObjectMapper objectMapper;
     public static final String USER_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
@@ -48,16 +53,40 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestHeader(USER_HEADER) Long userId,
-                                            @RequestParam(defaultValue = "ALL") String state) {
-        log.info("GET /bookings?state={} | userid={}", state, userId);
-        return bookingService.getUserBookings(userId, state);
+    public List<?> getUserBookings(@RequestHeader(USER_HEADER) Long userId,
+                                   @RequestParam(defaultValue = "ALL") String state,
+                                   @RequestParam(required = false) String fields,
+                                   WebRequest request) {
+        log.info("GET /bookings?state={}&fields={} | userid={}", state, fields, userId);
+        FieldSet fieldSet = FieldSet.parse(fields, BookingDto.FIELDS);
+        if (isNotModified(request, versionTracker.listTag(userId, scope("booker", fieldSet), state))) {
+            log.debug("Список бронирований пользователя с ID: {} не изменился", userId);
+            return null;
+        }
+        return fieldSet.write(bookingService.getUserBookings(userId, state, fieldSet), objectMapper);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestHeader(USER_HEADER) Long userId,
-                                             @RequestParam(defaultValue = "ALL") String state) {
-        log.info("GET /bookings/owner?state={} | userid={}", state, userId);
-        return bookingService.getOwnerBookings(userId, state);
+    public List<?> getOwnerBookings(@RequestHeader(USER_HEADER) Long userId,
+                                    @RequestParam(defaultValue = "ALL") String state,
+                                    @RequestParam(required = false) String fields,
+                                    WebRequest request) {
+        log.info("GET /bookings/owner?state={}&fields={} | userid={}", state, fields, userId);
+        FieldSet fieldSet = FieldSet.parse(fields, BookingDto.FIELDS);
+        if (isNotModified(request, versionTracker.listTag(userId, scope("owner", fieldSet), state))) {
+            log.debug("Список бронирований владельца с ID: {} не изменился", userId);
+            return null;
+        }
+        return fieldSet.write(bookingService.getOwnerBookings(userId, state, fieldSet), objectMapper);
+    }
+
+    private static String scope(String list, FieldSet fields) {
+        // Разные наборы полей — разные представления списка, и ETag у них разный
+        return fields.isAll() ? list : list + ":" + fields;
+    }
+
+    private boolean isNotModified(WebRequest request, String etag) {
+        // Проверка выполняется до любых запросов к базе: при совпадении ETag отдаётся 304 без тела
+        return etag != null && request.checkNotModified(etag);
     }
 }
\ No newline at end of file
@@ -6,11 +6,24 @@ import ru.practicum.shareit.booking.dto.BookingInfoDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dao.ItemMapper;
 import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.util.FieldSet;
 
 @UtilityClass
 public class BookingMapper {
 
     public BookingDto toBookingDto(Booking booking) {
+        return toBookingDto(booking, FieldSet.ALL);
+    }
+
+    /**
+     * Преобразует бронирование, обращаясь к вещи и букеру только если они запрошены:
+     * они загружаются лениво, и каждое обращение — отдельный запрос к базе
+     *
+     * @param booking бронирование
+     * @param fields  запрошенные поля
+     * @return бронирование без незапрошенных вещи и букера
+     */
+    public BookingDto toBookingDto(Booking booking, FieldSet fields) {
         if (booking == null) {
             return null;
         }
@@ -20,8 +33,10 @@ public class BookingMapper {
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(booking.getStatus())
-                .item(booking.getItem() != null ? ItemMapper.toItemDto(booking.getItem()) : null)
-                .booker(booking.getBooker() != null ? UserMapper.toUserDto(booking.getBooker()) : null)
+                .item(booking.getItem() != null && fields.includes("item")
+                        ? ItemMapper.toItemDto(booking.getItem()) : null)
+                .booker(booking.getBooker() != null && fields.includes("booker")
+                        ? UserMapper.toUserDto(booking.getBooker()) : null)
                 .build();
     }
 
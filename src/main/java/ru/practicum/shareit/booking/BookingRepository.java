@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +10,7 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -86,4 +88,40 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "LEFT JOIN FETCH b.booker " +
             "WHERE b.id = :bookingId")
     Optional<Booking> findByIdWithItemAndBooker(@Param("bookingId") Long bookingId);
-}
\ No newline at end of file
+
+    /**
+     * Бронирующие с подтверждёнными бронированиями по возрастанию ID для постраничного пересчёта рекомендаций
+     *
+     * @param afterId  ID последнего бронирующего предыдущей страницы
+     * @param pageable размер страницы
+     * @return ID бронирующих
+     */
+    @Query("SELECT DISTINCT b.booker.id FROM Booking b " +
+            "WHERE b.status = 'APPROVED' AND b.booker.id > :afterId " +
+            "ORDER BY b.booker.id")
+    List<Long> findApprovedBookerIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Разные вещи из подтверждённых бронирований каждого бронирующего
+     *
+     * @param bookerIds ID бронирующих
+     * @return пары [ID бронирующего, ID вещи], сгруппированные по бронирующему
+     */
+    @Query("SELECT DISTINCT b.booker.id, b.item.id FROM Booking b " +
+            "WHERE b.status = 'APPROVED' AND b.booker.id IN :bookerIds " +
+            "ORDER BY b.booker.id")
+    List<Object[]> findApprovedItemIdsByBookerIdIn(@Param("bookerIds") Collection<Long> bookerIds);
+
+    /**
+     * Разные вещи из подтверждённых бронирований пользователя, кроме указанного бронирования
+     *
+     * @param bookerId  ID бронирующего
+     * @param bookingId ID исключаемого бронирования
+     * @param pageable  ограничение количества вещей
+     * @return ID вещей
+     */
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.booker.id = :bookerId AND b.status = 'APPROVED' AND b.id <> :bookingId")
+    List<Long> findApprovedItemIdsByBookerId(@Param("bookerId") long bookerId, @Param("bookingId") long bookingId,
+                                             Pageable pageable);
+}
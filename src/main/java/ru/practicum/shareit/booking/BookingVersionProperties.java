@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.bookings.etag")
+public class BookingVersionProperties {
+
+    /**
+     * Максимальное количество пользователей с отдельной версией списков бронирований.
+     * Вытесненные пользователи получают общую версию вытесненных, и их ETag один раз перестают совпадать
+     */
+    private long maxTrackedUsers = 100_000;
+}
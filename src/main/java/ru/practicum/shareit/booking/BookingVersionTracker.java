@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingStateParam;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики версий списков бронирований для формирования слабых ETag.
+ * <p>
+ * Версия пользователя увеличивается при любом изменении бронирования, где он букер или владелец вещи,
+ * глобальная версия — при изменениях вещей и пользователей, которые попадают в {@code BookingDto}.
+ * Счётчики живут в памяти, поэтому в ETag добавляется эпоха экземпляра приложения:
+ * после перезапуска или на другом экземпляре старые ETag просто не совпадут.
+ * <p>
+ * Версии пользователей хранятся в ограниченном кэше. Версия — отметка из общего возрастающего счётчика,
+ * а пользователь без записи получает наибольшую вытесненную отметку: после вытеснения его версия
+ * не возвращается ни к одному значению, выданному до последнего изменения, и старый ETag не совпадёт.
+ */
+@Component
+public class BookingVersionTracker {
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final AtomicLong userVersionSequence = new AtomicLong();
+    private final AtomicLong evictedUserVersion = new AtomicLong();
+    private final Cache<Long, Long> userVersions;
+
+    public BookingVersionTracker(BookingVersionProperties properties) {
+        this.userVersions = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedUsers())
+                // Слушатель вытеснения вызывается до того, как запись пропадёт из кэша
+                .evictionListener((Long userId, Long version, RemovalCause cause) ->
+                        evictedUserVersion.accumulateAndGet(version, Math::max))
+                .build();
+    }
+
+    /**
+     * Формирует ETag списка бронирований пользователя
+     *
+     * @param userId ID пользователя
+     * @param scope  вид списка (booker или owner) и набор полей, если ответ неполный
+     * @param state  состояние бронирования из запроса
+     * @return слабый ETag или null, если список зависит от текущего времени и не может кэшироваться
+     */
+    public String listTag(long userId, String scope, String state) {
+        BookingStateParam stateParam;
+        try {
+            stateParam = BookingStateParam.valueOf(state.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        // CURRENT, PAST и FUTURE меняются с течением времени без каких-либо изменений данных
+        switch (stateParam) {
+            case CURRENT:
+            case PAST:
+            case FUTURE:
+                return null;
+            default:
+                break;
+        }
+
+        Long userVersion = userVersions.getIfPresent(userId);
+        return String.format("W/\"%s-%d-%d-%s-%s\"", epoch, globalVersion.get(),
+                userVersion != null ? userVersion : evictedUserVersion.get(), scope, stateParam.name().toLowerCase());
+    }
+
+    /**
+     * Увеличивает версии пользователей после фиксации текущей транзакции
+     *
+     * @param userIds ID букера и владельца вещи
+     */
+    public void touch(Long... userIds) {
+        afterCommit(() -> {
+            for (Long userId : userIds) {
+                if (userId != null) {
+                    userVersions.asMap().merge(userId, userVersionSequence.incrementAndGet(), Math::max);
+                }
+            }
+        });
+    }
+
+    /**
+     * Сбрасывает ETag всех списков после фиксации текущей транзакции
+     */
+    public void touchAll() {
+        afterCommit(globalVersion::incrementAndGet);
+    }
+
+    private void afterCommit(Runnable action) {
+        // Версия меняется только после коммита, иначе клиент может закэшировать старые данные под новым ETag
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -9,12 +9,16 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class BookingDto {
+    // Допустимые значения параметра fields
+    public static final Set<String> FIELDS = Set.of("id", "start", "end", "item", "booker", "status");
+
     private Long id;
     private LocalDateTime start;
     private LocalDateTime end;
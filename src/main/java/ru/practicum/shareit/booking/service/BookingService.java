@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.util.FieldSet;
 
 import java.util.List;
 
@@ -53,6 +54,16 @@ public interface BookingService {
      */
     List<BookingDto> getUserBookings(Long userId, String state);
 
+    /**
+     * Получение бронирований пользователя только с запрошенными полями
+     *
+     * @param userId ID пользователя
+     * @param state  состояние бронирования
+     * @param fields запрошенные поля; вещь и букер не загружаются, если не запрошены
+     * @return список бронирований
+     */
+    List<BookingDto> getUserBookings(Long userId, String state, FieldSet fields);
+
     /**
      * Получение всех бронирований для вещей пользователя
      *
@@ -61,4 +72,14 @@ public interface BookingService {
      * @return список бронирований
      */
     List<BookingDto> getOwnerBookings(Long userId, String state);
+
+    /**
+     * Получение бронирований для вещей пользователя только с запрошенными полями
+     *
+     * @param userId ID пользователя
+     * @param state  состояние бронирования
+     * @param fields запрошенные поля; вещь и букер не загружаются, если не запрошены
+     * @return список бронирований
+     */
+    List<BookingDto> getOwnerBookings(Long userId, String state, FieldSet fields);
 }
\ No newline at end of file
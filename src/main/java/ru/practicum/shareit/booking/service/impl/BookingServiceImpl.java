@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingVersionTracker;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateParam;
@@ -16,9 +17,13 @@ import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.card.ItemCardProjector;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityTracker;
+import ru.practicum.shareit.item.related.CoBookingIndexer;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.FieldSet;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -33,6 +38,10 @@ public class BookingServiceImpl implements ru.practicum.shareit.booking.service.
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingVersionTracker versionTracker;
+    private final ItemCardProjector itemCardProjector;
+    private final ItemPopularityTracker popularityTracker;
+    private final CoBookingIndexer coBookingIndexer;
 
     @Override
     @Transactional
@@ -71,6 +80,8 @@ public class BookingServiceImpl implements ru.practicum.shareit.booking.service.
                 .build();
 
         Booking savedBooking = bookingRepository.save(booking);
+        versionTracker.touch(userId, item.getOwner().getId());
+        popularityTracker.recordBooking(item.getId());
 
         log.info("Создано новое бронирование с ID: {} для вещи с ID: {}", savedBooking.getId(), item.getId());
         return BookingMapper.toBookingDto(savedBooking);
@@ -97,6 +108,12 @@ public class BookingServiceImpl implements ru.practicum.shareit.booking.service.
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         Booking updatedBooking = bookingRepository.save(booking);
+        versionTracker.touch(booking.getBooker().getId(), userId);
+        if (approved) {
+            // В карточке вещи только подтверждённые бронирования, отклонение её не меняет
+            itemCardProjector.refresh(List.of(booking.getItem().getId()));
+            coBookingIndexer.recordApproved(booking.getBooker().getId(), booking.getItem().getId(), bookingId);
+        }
 
         String statusMessage = approved ? "подтверждено" : "отклонено";
         log.info("Бронирование с ID: {} {}", bookingId, statusMessage);
@@ -124,6 +141,7 @@ public class BookingServiceImpl implements ru.practicum.shareit.booking.service.
 
         booking.setStatus(BookingStatus.CANCELED);
         Booking updatedBooking = bookingRepository.save(booking);
+        versionTracker.touch(userId, booking.getItem().getOwner().getId());
 
         log.info("Бронирование с ID: {} отменено пользователем с ID: {}", bookingId, userId);
         return BookingMapper.toBookingDto(updatedBooking);
@@ -149,6 +167,11 @@ public class BookingServiceImpl implements ru.practicum.shareit.booking.service.
 
     @Override
     public List<BookingDto> getUserBookings(Long userId, String state) {
+        return getUserBookings(userId, state, FieldSet.ALL);
+    }
+
+    @Override
+    public List<BookingDto> getUserBookings(Long userId, String state, FieldSet fields) {
         if (!userRepository.existsById(userId)) {
             log.error("Пользователь с id={} не найден", userId);
             throw new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
@@ -196,12 +219,17 @@ public class BookingServiceImpl implements ru.practicum.shareit.booking.service.
         log.debug("Получено {} бронирований пользователя с ID: {} со статусом: {}",
                 bookings.size(), userId, state);
         return bookings.stream()
-                .map(BookingMapper::toBookingDto)
+                .map(booking -> BookingMapper.toBookingDto(booking, fields))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<BookingDto> getOwnerBookings(Long userId, String state) {
+        return getOwnerBookings(userId, state, FieldSet.ALL);
+    }
+
+    @Override
+    public List<BookingDto> getOwnerBookings(Long userId, String state, FieldSet fields) {
         if (!userRepository.existsById(userId)) {
             log.error("Пользователь с id={} не найден", userId);
             throw new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
@@ -249,7 +277,7 @@ public class BookingServiceImpl implements ru.practicum.shareit.booking.service.
         log.debug("Получено {} бронирований для вещей владельца с ID: {} со статусом: {}",
                 bookings.size(), userId, state);
         return bookings.stream()
-                .map(BookingMapper::toBookingDto)
+                .map(booking -> BookingMapper.toBookingDto(booking, fields))
                 .collect(Collectors.toList());
     }
 
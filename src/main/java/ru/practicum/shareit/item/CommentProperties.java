@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.comments")
+public class CommentProperties {
+
+    /**
+     * Сколько последних комментариев встраивается в карточку и список вещей
+     */
+    private int inlineLimit = 10;
+
+    /**
+     * Максимальный размер страницы комментариев
+     */
+    private int maxPageSize = 100;
+
+    /**
+     * Сколько ID вещей передаётся в один IN-запрос при пакетной загрузке комментариев
+     */
+    private int batchSize = 500;
+}
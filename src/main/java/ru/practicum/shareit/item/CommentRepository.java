@@ -1,11 +1,14 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,27 +24,70 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItemIdWithAuthor(@Param("itemId") Long itemId);
 
     /**
-     * Находит все комментарии для списка вещей с загрузкой информации об авторе
+     * Находит все комментарии для вещи по её ID
      *
-     * @param itemIds список ID вещей
-     * @return список комментариев с информацией об авторе
+     * @param itemId ID вещи
+     * @return список комментариев
      */
-    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id IN :itemIds ORDER BY c.created DESC")
-    List<Comment> findByItemIdInWithAuthor(@Param("itemIds") List<Long> itemIds);
+    List<Comment> findByItemIdOrderByCreatedDesc(Long itemId);
 
     /**
-     * Находит все комментарии для вещи по её ID
+     * Находит последние комментарии вещи с загрузкой информации об авторе
+     *
+     * @param itemId   ID вещи
+     * @param pageable количество комментариев
+     * @return комментарии от новых к старым
+     */
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = :itemId " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findNewestByItemId(@Param("itemId") Long itemId, Pageable pageable);
+
+    /**
+     * Находит комментарии вещи, оставленные раньше позиции курсора (keyset-пагинация по created и id)
+     *
+     * @param itemId   ID вещи
+     * @param created  дата создания последнего выданного комментария
+     * @param id       ID последнего выданного комментария
+     * @param pageable количество комментариев
+     * @return комментарии от новых к старым
+     */
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = :itemId " +
+            "AND (c.created < :created OR (c.created = :created AND c.id < :id)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findByItemIdBefore(@Param("itemId") Long itemId,
+                                     @Param("created") LocalDateTime created,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    /**
+     * Количество комментариев вещи
      *
      * @param itemId ID вещи
-     * @return список комментариев
+     * @return количество комментариев
      */
-    List<Comment> findByItemIdOrderByCreatedDesc(Long itemId);
+    long countByItemId(Long itemId);
 
     /**
-     * Находит все комментарии для списка вещей
+     * Находит ID последних комментариев каждой из вещей вместе с общим количеством комментариев вещи
      *
-     * @param itemIds список ID вещей
-     * @return список комментариев
+     * @param itemIds ID вещей
+     * @param limit   сколько последних комментариев брать для каждой вещи
+     * @return строки (item_id, id, total)
+     */
+    @Query(value = "SELECT t.item_id, t.id, t.total FROM (" +
+            "SELECT c.item_id, c.id, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS rn, " +
+            "COUNT(*) OVER (PARTITION BY c.item_id) AS total " +
+            "FROM comments c WHERE c.item_id IN (:itemIds)) t " +
+            "WHERE t.rn <= :limit", nativeQuery = true)
+    List<Object[]> findNewestIdsByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    /**
+     * Находит комментарии по ID с загрузкой информации об авторе
+     *
+     * @param ids ID комментариев
+     * @return комментарии от новых к старым
      */
-    List<Comment> findByItemIdInOrderByCreatedDesc(List<Long> itemIds);
-}
\ No newline at end of file
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.id IN :ids ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+}
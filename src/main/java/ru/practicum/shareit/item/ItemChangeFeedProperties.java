@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.items.changes")
+public class ItemChangeFeedProperties {
+
+    /**
+     * Максимальное количество изменений в одном ответе ленты
+     */
+    private int maxPageSize = 1000;
+}
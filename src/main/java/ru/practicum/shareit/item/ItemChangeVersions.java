@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.TreeSet;
+
+/**
+ * Выдаёт возрастающие номера версий изменений вещей для ленты изменений.
+ * <p>
+ * Номер выдаётся внутри транзакции, а видимым становится при коммите, поэтому транзакция с меньшим
+ * номером может зафиксироваться позже транзакции с большим. Чтобы потребитель ленты не перескочил
+ * через такое изменение, номера незавершённых транзакций отслеживаются, и лента отдаёт только версии
+ * ниже наименьшего из них. Счётчик живёт в памяти и при старте продолжается с максимума в базе,
+ * как и остальные структуры вещей в памяти, он рассчитан на один экземпляр приложения.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemChangeVersions {
+
+    private final ItemRepository itemRepository;
+
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private long lastAllocated = -1;
+
+    /**
+     * Выделяет номер версии для изменения вещи в текущей транзакции
+     *
+     * @return новый номер версии
+     */
+    public long next() {
+        return next(1);
+    }
+
+    /**
+     * Выделяет непрерывный диапазон версий для пакета изменений в текущей транзакции
+     *
+     * @param count размер диапазона
+     * @return первая версия диапазона
+     */
+    public synchronized long next(int count) {
+        ensureLoaded();
+        long version = lastAllocated + 1;
+        lastAllocated += count;
+        // Диапазон завершается одной транзакцией, для границы ленты достаточно его первой версии
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            inFlight.add(version);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // И коммит, и откат завершают транзакцию: откатанная версия просто остаётся пропуском
+                    release(version);
+                }
+            });
+        }
+        return version;
+    }
+
+    /**
+     * Граница ленты изменений: все версии ниже неё уже зафиксированы или откатаны
+     *
+     * @return наименьшая версия, которую ещё нельзя отдавать потребителям
+     */
+    public synchronized long stableBefore() {
+        ensureLoaded();
+        return inFlight.isEmpty() ? lastAllocated + 1 : inFlight.first();
+    }
+
+    private synchronized void release(long version) {
+        inFlight.remove(version);
+    }
+
+    private void ensureLoaded() {
+        if (lastAllocated < 0) {
+            lastAllocated = itemRepository.findMaxChangeVersion();
+            log.info("Счётчик версий изменений вещей продолжен с {}", lastAllocated);
+        }
+    }
+}
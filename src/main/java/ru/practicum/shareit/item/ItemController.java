@@ -1,14 +1,32 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.image.ImageFileSender;
+import ru.practicum.shareit.item.service.ItemImageService;
+import ru.practicum.shareit.item.service.ItemImportService;
+import ru.practicum.shareit.item.service.ItemPopularityService;
+import ru.practicum.shareit.item.service.ItemRecommendationService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.FieldSet;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -19,7 +37,15 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService service;
+    private final ItemImportService importService;
+    private final ItemPopularityService popularityService;
+    private final ItemRecommendationService recommendationService;
+    private final ItemImageService imageService;
+    private final ImageFileSender imageFileSender;
+    private final ObjectMapper objectMapper;
     public static final String OWNER_HEADER = "X-Sharer-User-Id";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    public static final String NEXT_SINCE_HEADER = "X-Next-Since";
 
     @PostMapping
     public ItemDto create(@RequestHeader(OWNER_HEADER) @NotNull Long userId,
@@ -28,6 +54,13 @@ public class ItemController {
         return service.create(itemData, userId);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemImportResultDto importItems(@RequestHeader(OWNER_HEADER) @NotNull Long userId,
+                                           InputStream body) throws IOException {
+        log.info("POST /items/import | userid={}", userId);
+        return importService.importItems(body, userId);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader(OWNER_HEADER) @NotNull Long userId,
                           @PathVariable long itemId,
@@ -36,10 +69,49 @@ public class ItemController {
         return service.update(newItemData, itemId, userId);
     }
 
+    @PatchMapping("/availability")
+    public ItemAvailabilityResultDto updateAvailability(@RequestHeader(OWNER_HEADER) @NotNull Long userId,
+                                                        @Valid @RequestBody ItemAvailabilityUpdateDto availabilityData) {
+        log.info("PATCH /items/availability -> {} | userid={}", availabilityData, userId);
+        return service.updateAvailability(availabilityData, userId);
+    }
+
     @GetMapping
-    public List<ItemWithBookingsDto> getList(@RequestHeader(OWNER_HEADER) @NotNull Long userId) {
-        log.info("GET /items | userid={}", userId);
-        return service.getList(userId);
+    public List<?> getList(@RequestHeader(OWNER_HEADER) @NotNull Long userId,
+                           @RequestParam(required = false) String fields) {
+        log.info("GET /items?fields={} | userid={}", fields, userId);
+        FieldSet fieldSet = FieldSet.parse(fields, ItemWithBookingsDto.FIELDS);
+        return fieldSet.write(service.getList(userId, fieldSet), objectMapper);
+    }
+
+    @GetMapping(path = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getChanges(@RequestParam(defaultValue = "0") @PositiveOrZero long since,
+                                                            @RequestParam(defaultValue = "1000") @Positive int limit) {
+        log.info("GET /items/changes?since={}&limit={}", since, limit);
+        // Граница страницы нужна заголовку до тела; сами изменения читаются из базы курсором уже при записи ответа,
+        // одна строка JSON на изменение: потребитель обрабатывает их по мере чтения
+        long nextSince = service.getChangesUntil(since, limit);
+        StreamingResponseBody body = out -> {
+            if (nextSince == since) {
+                return;
+            }
+            try {
+                service.streamChanges(since, nextSince, change -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(change));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(NEXT_SINCE_HEADER, String.valueOf(nextSince))
+                .body(body);
     }
 
     @GetMapping("/{itemId}")
@@ -50,9 +122,83 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
-        log.info("GET /items/search?text={}", text);
-        return service.search(text);
+    public ResponseEntity<List<ItemDto>> search(@RequestParam(required = false) String text,
+                                                @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                @RequestParam(defaultValue = "20") @Positive int size,
+                                                @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                @RequestParam(required = false) Double lat,
+                                                @RequestParam(required = false) Double lon,
+                                                @RequestParam(required = false) Double radiusKm,
+                                                @RequestParam(required = false) List<String> tags) {
+        log.info("GET /items/search?text={}&from={}&size={}&fuzzy={}&lat={}&lon={}&radiusKm={}&tags={}",
+                text, from, size, fuzzy, lat, lon, radiusKm, tags);
+        // С координатами или тегами текст необязателен: без него ищутся все доступные вещи в радиусе или с тегами
+        ItemSearchResultDto result;
+        if (lat != null || lon != null || radiusKm != null) {
+            result = service.searchNearby(text, tags, lat, lon, radiusKm, from, size, fuzzy);
+        } else if (tags != null && !tags.isEmpty()) {
+            result = service.searchByTags(text, tags, from, size, fuzzy);
+        } else {
+            result = service.search(text, from, size, fuzzy);
+        }
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(result.getTotal()))
+                .body(result.getItems());
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestParam(defaultValue = "10") @Positive int size) {
+        log.debug("GET /items/suggest?prefix={}&size={}", prefix, size);
+        return service.suggest(prefix, size);
+    }
+
+    @GetMapping("/facets")
+    public List<TagFacetDto> getFacets(@RequestParam(required = false) String text,
+                                       @RequestParam(required = false) List<String> tags,
+                                       @RequestParam(defaultValue = "20") @Positive int size) {
+        log.debug("GET /items/facets?text={}&tags={}&size={}", text, tags, size);
+        return service.getFacets(text, tags, size);
+    }
+
+    @GetMapping("/popular")
+    public PopularItemsDto getPopular(@RequestParam(defaultValue = "24h") String window,
+                                      @RequestParam(defaultValue = "10") @Positive int size) {
+        log.debug("GET /items/popular?window={}&size={}", window, size);
+        return popularityService.getPopular(window, size);
+    }
+
+    @GetMapping("/{itemId}/related")
+    public List<RelatedItemDto> getRelated(@PathVariable long itemId,
+                                           @RequestParam(defaultValue = "10") @Positive int size) {
+        log.debug("GET /items/{}/related?size={}", itemId, size);
+        return recommendationService.getRelated(itemId, size);
+    }
+
+    @PostMapping(path = "/{itemId}/images", consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE,
+            MediaType.IMAGE_GIF_VALUE, "image/webp"})
+    public ItemImageDto uploadImage(@RequestHeader(OWNER_HEADER) @NotNull Long userId,
+                                    @PathVariable long itemId,
+                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                    InputStream body) throws IOException {
+        log.info("POST /items/{}/images -> {} | userid={}", itemId, contentType, userId);
+        // Фильтр кодировки может дописать charset к заголовку; сервису нужен только сам тип
+        return imageService.upload(itemId, userId, contentType.split(";")[0].trim(), body);
+    }
+
+    @GetMapping("/{itemId}/images")
+    public List<ItemImageDto> getImages(@PathVariable long itemId) {
+        log.debug("GET /items/{}/images", itemId);
+        return imageService.getList(itemId);
+    }
+
+    @GetMapping("/{itemId}/images/{hash}")
+    public void getImage(@PathVariable long itemId,
+                         @PathVariable String hash,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        log.debug("GET /items/{}/images/{} range={}", itemId, hash, request.getHeader(HttpHeaders.RANGE));
+        imageFileSender.send(imageService.getFile(itemId, hash), request, response);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -62,4 +208,12 @@ public class ItemController {
         log.info("POST /items/{}/comment -> {} | userid={}", itemId, commentCreateDto, userId);
         return service.addComment(itemId, userId, commentCreateDto);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{itemId}/comments")
+    public CommentPageDto getComments(@PathVariable long itemId,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "20") @Positive int limit) {
+        log.info("GET /items/{}/comments?cursor={}&limit={}", itemId, cursor, limit);
+        return service.getComments(itemId, cursor, limit);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.items.import")
+public class ItemImportProperties {
+
+    /**
+     * Сколько вещей сохраняется в одной транзакции при импорте
+     */
+    private int batchSize = 500;
+
+    /**
+     * Сколько ошибок строк возвращается в ответе; остальные только подсчитываются
+     */
+    private int maxReportedErrors = 1000;
+}
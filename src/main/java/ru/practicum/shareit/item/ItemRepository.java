@@ -1,12 +1,22 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -20,15 +30,317 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwnerIdOrderById(Long ownerId);
 
     /**
-     * Поиск доступных вещей по тексту в названии или описании
+     * Вещи пользователя вместе с их карточками одним запросом по индексу владельца.
+     * Вещь без карточки возвращается с null на месте карточки
+     *
+     * @param ownerId ID владельца
+     * @return пары [Item, ItemCard] по возрастанию ID вещи
+     */
+    @Query("SELECT i, c FROM Item i " +
+            "LEFT JOIN ItemCard c ON c.itemId = i.id " +
+            "WHERE i.owner.id = :ownerId " +
+            "ORDER BY i.id")
+    List<Object[]> findWithCardsByOwnerId(@Param("ownerId") long ownerId);
+
+    /**
+     * Вещи пользователя с указанной доступностью. Строки блокируются до конца транзакции:
+     * пока пакетное изменение присваивает им версии, их доступность никто не переключит
+     *
+     * @param ownerId     ID владельца
+     * @param isAvailable доступность
+     * @return вещи по возрастанию ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Item> findForUpdateByOwnerIdAndIsAvailableOrderById(Long ownerId, Boolean isAvailable);
+
+    /**
+     * Вещи по ID с блокировкой строк до конца транзакции. Блокировки берутся по возрастанию ID,
+     * поэтому параллельные пакетные изменения пересекающихся вещей не блокируют друг друга взаимно
+     *
+     * @param ids ID вещей
+     * @return найденные вещи по возрастанию ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Item> findForUpdateByIdInOrderById(Collection<Long> ids);
+
+    /**
+     * Находит вещь и блокирует её строку до конца транзакции, чтобы параллельные изменения,
+     * зависящие от состояния вещи, выполнялись по очереди
+     *
+     * @param id ID вещи
+     * @return заблокированная вещь
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findForUpdateById(@Param("id") Long id);
+
+    /**
+     * Находит вещь вместе с владельцем одним запросом.
+     * Проверки владельца после такого чтения не обращаются к базе, даже если владельца нет в сессии
+     *
+     * @param id ID вещи
+     * @return вещь с загруженным владельцем
+     */
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findWithOwnerById(Long id);
+
+    /**
+     * Поиск доступных вещей по тексту в названии или описании.
+     * Совпадения в названии идут первыми, внутри группы — по возрастанию ID
+     *
+     * @param text     текст для поиска
+     * @param pageable ограничение количества результатов
+     * @return список найденных вещей
+     */
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.isAvailable = true " +
+            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
+            "ORDER BY CASE WHEN LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) THEN 0 ELSE 1 END, i.id")
+    List<Item> searchAvailableItems(@Param("text") String text, Pageable pageable);
+
+    /**
+     * Количество доступных вещей, найденных {@link #searchAvailableItems}
      *
      * @param text текст для поиска
+     * @return количество совпадений
+     */
+    @Query("SELECT COUNT(i) FROM Item i " +
+            "WHERE i.isAvailable = true " +
+            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
+    long countAvailableItems(@Param("text") String text);
+
+    /**
+     * Условие наличия у вещи всех тегов фильтра: неиспользуемые параметры передаются пустыми строками.
+     * Теги хранятся с запятыми по краям (см. {@link ru.practicum.shareit.item.dao.ItemTags}),
+     * поэтому тег не совпадает с частью другого тега
+     */
+    String TAG_CONDITION = "(:tag1 = '' OR i.tags LIKE CONCAT('%,', :tag1, ',%')) " +
+            "AND (:tag2 = '' OR i.tags LIKE CONCAT('%,', :tag2, ',%')) " +
+            "AND (:tag3 = '' OR i.tags LIKE CONCAT('%,', :tag3, ',%')) ";
+
+    /**
+     * Поиск доступных вещей по тексту среди вещей со всеми указанными тегами.
+     * Порядок тот же, что в {@link #searchAvailableItems}; пустой текст подходит любой вещи
+     *
+     * @param text     текст для поиска
+     * @param tag1     тег фильтра или пустая строка
+     * @param tag2     тег фильтра или пустая строка
+     * @param tag3     тег фильтра или пустая строка
+     * @param pageable ограничение количества результатов
      * @return список найденных вещей
      */
     @Query("SELECT i FROM Item i " +
             "WHERE i.isAvailable = true " +
+            "AND " + TAG_CONDITION +
+            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
+            "ORDER BY CASE WHEN LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) THEN 0 ELSE 1 END, i.id")
+    List<Item> searchAvailableItemsByTags(@Param("text") String text, @Param("tag1") String tag1,
+                                          @Param("tag2") String tag2, @Param("tag3") String tag3,
+                                          Pageable pageable);
+
+    /**
+     * Количество доступных вещей, найденных {@link #searchAvailableItemsByTags}
+     *
+     * @return количество совпадений
+     */
+    @Query("SELECT COUNT(i) FROM Item i " +
+            "WHERE i.isAvailable = true " +
+            "AND " + TAG_CONDITION +
             "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
             "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<Item> searchAvailableItems(@Param("text") String text);
+    long countAvailableItemsByTags(@Param("text") String text, @Param("tag1") String tag1,
+                                   @Param("tag2") String tag2, @Param("tag3") String tag3);
+
+    /**
+     * Условие попадания вещи в круг {@link ru.practicum.shareit.item.geo.GeoCircle}: диапазоны ячеек отбирают
+     * кандидатов по индексу geo_cell, расстояние в квадратах градусов широты проверяет их точно
+     */
+    String NEARBY_CONDITION = "(i.geoCell BETWEEN :from1 AND :to1 OR i.geoCell BETWEEN :from2 AND :to2 " +
+            "OR i.geoCell BETWEEN :from3 AND :to3 OR i.geoCell BETWEEN :from4 AND :to4) ";
+
+    // Параметры приводятся к double явно: иначе Hibernate выводит тип арифметики как float($p), который H2 не разбирает
+    String NEARBY_DISTANCE = "((i.latitude - CAST(:lat AS double)) * (i.latitude - CAST(:lat AS double)) + " +
+            "CAST(:lonScale AS double) * " +
+            "LEAST((i.longitude - CAST(:lon AS double)) * (i.longitude - CAST(:lon AS double)), " +
+            "(i.longitude - CAST(:wrappedLon AS double)) * (i.longitude - CAST(:wrappedLon AS double)))) ";
 
-}
\ No newline at end of file
+    /**
+     * Поиск доступных вещей по тексту и тегам в пределах круга, ближайшие первыми.
+     * Пустой текст подходит любой вещи
+     *
+     * @param text        текст для поиска
+     * @param tag1        тег фильтра или пустая строка, как и tag2, tag3
+     * @param lat         широта центра
+     * @param lon         долгота центра
+     * @param wrappedLon  долгота центра, сдвинутая на 360 градусов
+     * @param lonScale    квадрат косинуса широты центра
+     * @param maxDistance квадрат радиуса в градусах широты
+     * @param pageable    ограничение количества результатов
+     * @return список найденных вещей по возрастанию расстояния, при равенстве — по ID
+     */
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.isAvailable = true " +
+            "AND " + NEARBY_CONDITION +
+            "AND " + TAG_CONDITION +
+            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
+            "AND " + NEARBY_DISTANCE + "<= CAST(:maxDistance AS double) " +
+            "ORDER BY " + NEARBY_DISTANCE + ", i.id")
+    List<Item> searchAvailableItemsNearby(@Param("text") String text, @Param("tag1") String tag1,
+                                          @Param("tag2") String tag2, @Param("tag3") String tag3,
+                                          @Param("lat") double lat, @Param("lon") double lon,
+                                          @Param("wrappedLon") double wrappedLon, @Param("lonScale") double lonScale,
+                                          @Param("maxDistance") double maxDistance,
+                                          @Param("from1") long from1, @Param("to1") long to1,
+                                          @Param("from2") long from2, @Param("to2") long to2,
+                                          @Param("from3") long from3, @Param("to3") long to3,
+                                          @Param("from4") long from4, @Param("to4") long to4,
+                                          Pageable pageable);
+
+    /**
+     * Количество доступных вещей, найденных {@link #searchAvailableItemsNearby}
+     *
+     * @return количество совпадений
+     */
+    @Query("SELECT COUNT(i) FROM Item i " +
+            "WHERE i.isAvailable = true " +
+            "AND " + NEARBY_CONDITION +
+            "AND " + TAG_CONDITION +
+            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
+            "AND " + NEARBY_DISTANCE + "<= CAST(:maxDistance AS double)")
+    long countAvailableItemsNearby(@Param("text") String text, @Param("tag1") String tag1,
+                                   @Param("tag2") String tag2, @Param("tag3") String tag3,
+                                   @Param("lat") double lat, @Param("lon") double lon,
+                                   @Param("wrappedLon") double wrappedLon, @Param("lonScale") double lonScale,
+                                   @Param("maxDistance") double maxDistance,
+                                   @Param("from1") long from1, @Param("to1") long to1,
+                                   @Param("from2") long from2, @Param("to2") long to2,
+                                   @Param("from3") long from3, @Param("to3") long to3,
+                                   @Param("from4") long from4, @Param("to4") long to4);
+
+    /**
+     * Полнотекстовый поиск доступных вещей с ранжированием по релевантности (только PostgreSQL).
+     * Использует генерируемую колонку search_vector и GIN-индекс из schema-postgresql.sql
+     *
+     * @param text  текст для поиска в синтаксисе websearch_to_tsquery
+     * @param limit максимальное количество результатов
+     * @return найденные вещи по убыванию релевантности
+     */
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.is_available = true " +
+            "AND i.search_vector @@ websearch_to_tsquery('simple', :text) " +
+            "ORDER BY ts_rank(i.search_vector, websearch_to_tsquery('simple', :text)) DESC, i.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Item> searchAvailableItemsRanked(@Param("text") String text, @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM items i " +
+            "WHERE i.is_available = true " +
+            "AND i.search_vector @@ websearch_to_tsquery('simple', :text)", nativeQuery = true)
+    long countAvailableItemsRanked(@Param("text") String text);
+
+    /**
+     * Поиск доступных вещей по подстроке с использованием триграммных GIN-индексов (только PostgreSQL).
+     * В отличие от полнотекстового поиска находит фрагменты слов и артикулов
+     *
+     * @param text  текст для поиска в нижнем регистре
+     * @param limit максимальное количество результатов
+     * @return найденные вещи: совпадения в названии первыми, внутри группы по ID
+     */
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.is_available = true " +
+            "AND (lower(i.name) LIKE CONCAT('%', :text, '%') " +
+            "OR lower(i.description) LIKE CONCAT('%', :text, '%')) " +
+            "ORDER BY CASE WHEN lower(i.name) LIKE CONCAT('%', :text, '%') THEN 0 ELSE 1 END, i.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Item> searchAvailableItemsByTrigram(@Param("text") String text, @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM items i " +
+            "WHERE i.is_available = true " +
+            "AND (lower(i.name) LIKE CONCAT('%', :text, '%') " +
+            "OR lower(i.description) LIKE CONCAT('%', :text, '%'))", nativeQuery = true)
+    long countAvailableItemsByTrigram(@Param("text") String text);
+
+    /**
+     * Нечёткий поиск доступных вещей по словесному сходству триграмм (только PostgreSQL).
+     * Порог задаётся {@link #setWordSimilarityThreshold(String)} в той же транзакции
+     *
+     * @param text  текст для поиска в нижнем регистре
+     * @param limit максимальное количество результатов
+     * @return найденные вещи по убыванию сходства
+     */
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.is_available = true " +
+            "AND (:text <% lower(i.name) OR :text <% lower(i.description)) " +
+            "ORDER BY GREATEST(word_similarity(:text, lower(i.name)), " +
+            "word_similarity(:text, lower(i.description))) DESC, i.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Item> searchAvailableItemsBySimilarity(@Param("text") String text, @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM items i " +
+            "WHERE i.is_available = true " +
+            "AND (:text <% lower(i.name) OR :text <% lower(i.description))", nativeQuery = true)
+    long countAvailableItemsBySimilarity(@Param("text") String text);
+
+    /**
+     * Устанавливает порог word_similarity для оператора {@code <%} до конца текущей транзакции
+     *
+     * @param threshold порог от 0 до 1
+     * @return установленное значение
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+
+    /**
+     * Наибольшая выданная версия изменения вещей
+     *
+     * @return максимальная версия или 0, если вещей нет
+     */
+    @Query("SELECT COALESCE(MAX(i.changeVersion), 0) FROM Item i")
+    long findMaxChangeVersion();
+
+    /**
+     * Версии изменений вещей по возрастанию для ленты изменений: по последней из них определяется
+     * граница страницы до чтения самих вещей
+     *
+     * @param since    версия последнего полученного изменения
+     * @param before   граница зафиксированных версий, не включительно
+     * @param pageable размер страницы
+     * @return версии в интервале (since, before)
+     */
+    @Query("SELECT i.changeVersion FROM Item i " +
+            "WHERE i.changeVersion > :since AND i.changeVersion < :before " +
+            "ORDER BY i.changeVersion")
+    List<Long> findChangeVersionsBetween(@Param("since") long since, @Param("before") long before,
+                                         Pageable pageable);
+
+    /**
+     * Изменения вещей в порядке версий для ленты изменений. Вещи читаются из базы порциями по мере обхода,
+     * поэтому поток нужно закрыть внутри транзакции
+     *
+     * @param since версия последнего полученного изменения
+     * @param until версия последнего изменения страницы, включительно
+     * @return вещи с версией в интервале (since, until]
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.changeVersion > :since AND i.changeVersion <= :until " +
+            "ORDER BY i.changeVersion")
+    Stream<Item> streamChangedUpTo(@Param("since") long since, @Param("until") long until);
+
+    /**
+     * Постраничная выборка доступных вещей по возрастанию ID для построения поискового индекса
+     *
+     * @param afterId  ID последней вещи предыдущей страницы
+     * @param pageable размер страницы
+     * @return доступные вещи с ID больше указанного
+     */
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.isAvailable = true " +
+            "AND i.id > :afterId " +
+            "ORDER BY i.id")
+    List<Item> findAvailableAfter(@Param("afterId") long afterId, Pageable pageable);
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDetailedDto;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Кэш карточек вещей в том виде, в котором их видят не владельцы: без бронирований, с комментариями.
+ * <p>
+ * Загрузка выполняется через {@link Cache#get}, поэтому при промахе по одному ключу работает
+ * только один загрузчик, остальные запросы ждут его результат. Инвалидация во время загрузки
+ * дожидается её окончания и удаляет загруженное значение, так что устаревшая карточка в кэше не остаётся.
+ */
+@Component
+public class ItemDetailsCache {
+
+    private static final String CACHE_NAME = "itemDetails";
+
+    private final ItemDetailsCacheProperties properties;
+    private final Cache<Long, ItemDetailedDto> cache;
+
+    public ItemDetailsCache(ItemDetailsCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Возвращает закэшированную карточку или загружает её
+     *
+     * @param itemId ID вещи
+     * @param loader загрузка карточки при промахе
+     * @return карточка вещи без бронирований
+     */
+    public ItemDetailedDto get(long itemId, Supplier<ItemDetailedDto> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        return cache.get(itemId, id -> loader.get());
+    }
+
+    /**
+     * Удаляет карточку вещи после фиксации текущей транзакции
+     *
+     * @param itemId ID вещи
+     */
+    public void evictAfterCommit(long itemId) {
+        afterCommit(() -> cache.invalidate(itemId));
+    }
+
+    /**
+     * Удаляет карточки нескольких вещей после фиксации текущей транзакции
+     *
+     * @param itemIds ID вещей
+     */
+    public void evictAfterCommit(Collection<Long> itemIds) {
+        afterCommit(() -> cache.invalidateAll(itemIds));
+    }
+
+    /**
+     * Удаляет все карточки после фиксации текущей транзакции, например при смене имени автора комментариев
+     */
+    public void evictAllAfterCommit() {
+        afterCommit(cache::invalidateAll);
+    }
+
+    private void afterCommit(Runnable action) {
+        // До коммита другой запрос успел бы загрузить в кэш ещё старые данные
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
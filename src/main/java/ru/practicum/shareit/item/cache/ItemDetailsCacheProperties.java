@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.item-details-cache")
+public class ItemDetailsCacheProperties {
+
+    /**
+     * Кэшировать карточки вещей
+     */
+    private boolean enabled = true;
+
+    /**
+     * Максимальное количество закэшированных карточек
+     */
+    private long maxEntries = 10_000;
+
+    /**
+     * Страховочный срок жизни записи на случай пропущенной инвалидации
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
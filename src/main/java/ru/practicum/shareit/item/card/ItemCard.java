@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.card;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Денормализованная карточка вещи для списка вещей владельца: бронирования и комментарии,
+ * посчитанные заранее при изменении, а не при каждом чтении
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_cards")
+public class ItemCard {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    // Последние комментарии в JSON, в том же виде, что и в ответе
+    @Column(name = "latest_comments", length = 100_000)
+    private String latestComments;
+
+    // Момент, начиная с которого карточка устарела: текущее бронирование закончилось или началось следующее.
+    // null — карточка актуальна, пока её не изменят
+    @Column(name = "stale_at")
+    private LocalDateTime staleAt;
+
+    public boolean isFresh(LocalDateTime now) {
+        return staleAt == null || now.isBefore(staleAt);
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.card;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Досборка карточек вещей.
+ * <p>
+ * Создаёт карточки вещей, у которых их нет, и пересобирает карточки, устаревшие по времени
+ * (закончилось текущее бронирование или началось следующее) или помеченные устаревшими.
+ * Работа идемпотентна: повторный запуск пересобирает только то, что успело устареть,
+ * поэтому её безопасно запускать при старте и периодически.
+ */
+@Slf4j
+@Component
+public class ItemCardCatchUp {
+
+    private final ItemCardRepository cardRepository;
+    private final ItemCardProjector projector;
+    private final ItemCardProperties cardProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService scheduler;
+    private final Counter rebuiltCards;
+
+    public ItemCardCatchUp(ItemCardRepository cardRepository, ItemCardProjector projector,
+                           ItemCardProperties cardProperties, TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry) {
+        this.cardRepository = cardRepository;
+        this.projector = projector;
+        this.cardProperties = cardProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-card-catch-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rebuiltCards = Counter.builder("shareit.item-cards.rebuilt")
+                .description("Карточки вещей, пересобранные фоновой досборкой")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Duration interval = cardProperties.getCatchUpInterval();
+        if (interval.isZero()) {
+            log.info("Фоновая досборка карточек вещей отключена");
+            return;
+        }
+        // Первый проход — сразу после старта, но не задерживая его
+        scheduler.scheduleWithFixedDelay(this::runSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Создаёт недостающие и пересобирает устаревшие карточки
+     *
+     * @return количество пересобранных карточек
+     */
+    public int catchUp() {
+        Integer created = transactionTemplate.execute(status -> cardRepository.insertMissing(ItemCardProjector.NEVER_BUILT));
+        if (created != null && created > 0) {
+            log.info("Созданы недостающие карточки вещей, количество: {}", created);
+        }
+
+        // Граница фиксируется заранее: пересобранная карточка устаревает не раньше момента пересборки,
+        // поэтому в следующие пакеты она не попадает и цикл конечен
+        LocalDateTime before = LocalDateTime.now();
+        PageRequest batch = PageRequest.of(0, cardProperties.getBatchSize());
+        int rebuilt = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = transactionTemplate.execute(status -> {
+                List<Long> stale = cardRepository.findStaleItemIds(before, batch);
+                projector.refresh(stale);
+                return stale;
+            });
+            rebuilt += itemIds.size();
+        } while (itemIds.size() == cardProperties.getBatchSize());
+
+        if (rebuilt > 0) {
+            rebuiltCards.increment(rebuilt);
+            log.debug("Пересобраны устаревшие карточки вещей, количество: {}", rebuilt);
+        }
+        return rebuilt;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void runSafely() {
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            // Исключение в задаче отменило бы все следующие запуски
+            log.error("Ошибка досборки карточек вещей", e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.item.card;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.service.CommentBatchLoader;
+import ru.practicum.shareit.util.LongObjectMap;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Пересборка карточек вещей по бронированиям и комментариям.
+ * <p>
+ * Пересборка выполняется в транзакции изменения, поэтому карточка фиксируется вместе
+ * с бронированием или комментарием и не расходится с ними после отката. Строки карточек
+ * блокируются, так что параллельные изменения одной вещи не перезаписывают друг друга старыми данными.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemCardProjector {
+
+    // Момент устаревания карточек, которые ещё ни разу не собирались
+    public static final LocalDateTime NEVER_BUILT = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final TypeReference<List<CommentDto>> COMMENTS_TYPE = new TypeReference<>() {
+    };
+
+    private final ItemCardRepository cardRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentBatchLoader commentBatchLoader;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Создаёт пустые карточки только что созданных вещей
+     *
+     * @param itemIds ID вещей
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createEmpty(Collection<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            cardRepository.insertEmpty(itemIds);
+        }
+    }
+
+    /**
+     * Пересобирает карточки вещей по текущим бронированиям и комментариям
+     *
+     * @param itemIds ID вещей
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        List<ItemCard> cards = new ArrayList<>(cardRepository.findForUpdateByItemIdIn(itemIds));
+        Set<Long> missing = new HashSet<>(itemIds);
+        for (ItemCard card : cards) {
+            missing.remove(card.getItemId());
+        }
+        for (Long itemId : missing) {
+            cards.add(ItemCard.builder().itemId(itemId).build());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LongObjectMap<CommentBatchLoader.ItemComments> comments = commentBatchLoader.loadNewest(
+                cards.stream().map(ItemCard::getItemId).toList());
+        for (ItemCard card : cards) {
+            applyBookings(card, now);
+            CommentBatchLoader.ItemComments itemComments =
+                    comments.getOrDefault(card.getItemId(), CommentBatchLoader.ItemComments.EMPTY);
+            card.setCommentCount(itemComments.getCount());
+            card.setLatestComments(writeComments(itemComments.getComments()));
+        }
+        cardRepository.saveAll(cards);
+        log.debug("Пересобраны карточки вещей, количество: {}", cards.size());
+    }
+
+    /**
+     * Помечает устаревшими карточки вещей с комментариями автора
+     *
+     * @param authorId ID автора
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markStaleByCommentAuthor(long authorId) {
+        int marked = cardRepository.markStaleByCommentAuthor(authorId, LocalDateTime.now());
+        if (marked > 0) {
+            log.debug("Помечены устаревшими карточки вещей с комментариями пользователя с ID: {}, количество: {}",
+                    authorId, marked);
+        }
+    }
+
+    /**
+     * Последние комментарии из карточки
+     *
+     * @param card карточка вещи
+     * @return комментарии от новых к старым
+     */
+    public List<CommentDto> readComments(ItemCard card) {
+        if (card.getLatestComments() == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(card.getLatestComments(), COMMENTS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Повреждены комментарии в карточке вещи с ID: " + card.getItemId(), e);
+        }
+    }
+
+    private void applyBookings(ItemCard card, LocalDateTime now) {
+        // Те же правила, что и при сборке списка без карточек: lastBooking — текущее или последнее завершённое
+        Booking current = first(bookingRepository.findCurrentBookingForItem(card.getItemId(), now));
+        Booking last = current != null ? current : first(bookingRepository.findLastBookingForItem(card.getItemId(), now));
+        Booking next = first(bookingRepository.findNextBookingForItem(card.getItemId(), now));
+
+        card.setLastBookingId(last != null ? last.getId() : null);
+        card.setLastBookerId(last != null ? last.getBooker().getId() : null);
+        card.setNextBookingId(next != null ? next.getId() : null);
+        card.setNextBookerId(next != null ? next.getBooker().getId() : null);
+
+        // Карточка устаревает, когда текущее бронирование закончится или начнётся следующее
+        LocalDateTime staleAt = null;
+        if (current != null) {
+            staleAt = current.getEnd();
+        }
+        if (next != null && (staleAt == null || next.getStart().isBefore(staleAt))) {
+            staleAt = next.getStart();
+        }
+        card.setStaleAt(staleAt);
+    }
+
+    private String writeComments(List<CommentDto> comments) {
+        try {
+            return objectMapper.writeValueAsString(comments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сохранить комментарии в карточке вещи", e);
+        }
+    }
+
+    private static Booking first(List<Booking> bookings) {
+        return bookings.isEmpty() ? null : bookings.get(0);
+    }
+}
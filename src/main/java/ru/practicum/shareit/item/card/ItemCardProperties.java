@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.card;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.item-cards")
+public class ItemCardProperties {
+
+    /**
+     * Интервал фоновой досборки устаревших и отсутствующих карточек; 0 отключает досборку
+     */
+    private Duration catchUpInterval = Duration.ofMinutes(1);
+
+    /**
+     * Количество карточек, пересобираемых в одной транзакции
+     */
+    private int batchSize = 500;
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.card;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemCardRepository extends JpaRepository<ItemCard, Long> {
+
+    /**
+     * Карточки вещей с блокировкой строк до конца транзакции.
+     * Параллельные пересборки одной карточки выполняются по очереди, и последней записывается
+     * карточка, посчитанная по самым свежим данным
+     *
+     * @param itemIds ID вещей
+     * @return найденные карточки
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ItemCard c WHERE c.itemId IN :itemIds")
+    List<ItemCard> findForUpdateByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Создаёт пустые карточки новых вещей: у них ещё нет ни бронирований, ни комментариев
+     *
+     * @param itemIds ID вещей
+     * @return количество созданных карточек
+     */
+    @Modifying
+    @Query(value = "INSERT INTO item_cards (item_id, comment_count) " +
+            "SELECT i.id, 0 FROM items i WHERE i.id IN :itemIds", nativeQuery = true)
+    int insertEmpty(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Создаёт устаревшие карточки для вещей без карточки, например появившихся до ведения карточек.
+     * Повторный вызов ничего не меняет
+     *
+     * @param staleAt момент устаревания новых карточек
+     * @return количество созданных карточек
+     */
+    @Modifying
+    @Query(value = "INSERT INTO item_cards (item_id, comment_count, stale_at) " +
+            "SELECT i.id, 0, :staleAt FROM items i " +
+            "WHERE NOT EXISTS (SELECT 1 FROM item_cards c WHERE c.item_id = i.id)", nativeQuery = true)
+    int insertMissing(@Param("staleAt") LocalDateTime staleAt);
+
+    /**
+     * Помечает устаревшими карточки вещей с комментариями автора, например после смены его имени
+     *
+     * @param authorId ID автора комментариев
+     * @param staleAt  момент устаревания
+     * @return количество помеченных карточек
+     */
+    @Modifying
+    @Query("UPDATE ItemCard c SET c.staleAt = :staleAt " +
+            "WHERE c.itemId IN (SELECT cm.item.id FROM Comment cm WHERE cm.author.id = :authorId)")
+    int markStaleByCommentAuthor(@Param("authorId") long authorId, @Param("staleAt") LocalDateTime staleAt);
+
+    /**
+     * ID вещей, карточки которых устарели до указанного момента
+     *
+     * @param before   момент, не включительно
+     * @param pageable размер пакета
+     * @return ID вещей, начиная с давно устаревших
+     */
+    @Query("SELECT c.itemId FROM ItemCard c WHERE c.staleAt < :before ORDER BY c.staleAt, c.itemId")
+    List<Long> findStaleItemIds(@Param("before") LocalDateTime before, Pageable pageable);
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в ленте комментариев вещи: дата создания и ID последнего выданного комментария.
+ * Клиенту передаётся непрозрачной строкой.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime created;
+    private final long id;
+
+    public static CommentCursor after(CommentDto comment) {
+        return new CommentCursor(comment.getCreated(), comment.getId());
+    }
+
+    public String encode() {
+        String raw = created.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разбирает курсор из запроса
+     *
+     * @param cursor строка, полученная в nextCursor
+     * @return позиция в ленте
+     * @throws ValidationException если курсор повреждён
+     */
+    public static CommentCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new CommentCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("cursor", "некорректный курсор страницы комментариев");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dao;
 
+import ru.practicum.shareit.item.dto.ItemChangeDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
@@ -16,6 +17,29 @@ public class ItemMapper {
                 .description(item.getDescription())
                 .available(item.getIsAvailable())
                 .ownerId(item.getOwner() != null ? item.getOwner().getId() : null)
+                .requestId(item.getRequestId())
+                .latitude(item.getLatitude())
+                .longitude(item.getLongitude())
+                .tags(ItemTags.split(item.getTags()))
+                .build();
+    }
+
+    public static ItemChangeDto toItemChangeDto(Item item) {
+        if (item == null) {
+            return null;
+        }
+
+        return ItemChangeDto.builder()
+                .version(item.getChangeVersion())
+                .id(item.getId())
+                .ownerId(item.getOwner() != null ? item.getOwner().getId() : null)
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getIsAvailable())
+                .requestId(item.getRequestId())
+                .latitude(item.getLatitude())
+                .longitude(item.getLongitude())
+                .tags(ItemTags.split(item.getTags()))
                 .build();
     }
 
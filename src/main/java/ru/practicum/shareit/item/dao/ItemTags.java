@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.dao;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Теги вещей: нормализация и хранение в одной колонке items.tags.
+ * <p>
+ * В колонке теги записаны через запятую с запятыми по краям (",сад,инструменты,"),
+ * поэтому вещь с тегом находится условием {@code LIKE '%,тег,%'} без отдельной таблицы
+ * и без дополнительных запросов при чтении вещей.
+ */
+public final class ItemTags {
+
+    /**
+     * Максимальное количество тегов у вещи
+     */
+    public static final int MAX_TAGS = 10;
+
+    /**
+     * Максимальное количество тегов в фильтре поиска
+     */
+    public static final int MAX_FILTER_TAGS = 3;
+
+    /**
+     * Допустимый тег: буквы, цифры, пробелы и дефисы, начинается с буквы или цифры.
+     * Запятая и символы шаблонов LIKE исключены
+     */
+    public static final String PATTERN = "[\\p{L}\\p{N}][\\p{L}\\p{N} -]{0,31}";
+
+    private static final Pattern VALID = Pattern.compile(PATTERN);
+
+    private ItemTags() {
+    }
+
+    /**
+     * Приводит теги к нижнему регистру без пробелов по краям, убирает пустые и повторы
+     *
+     * @param tags теги из запроса или null
+     * @return теги по алфавиту
+     */
+    public static List<String> normalize(Collection<String> tags) {
+        if (tags == null) {
+            return List.of();
+        }
+        return tags.stream()
+                .filter(Objects::nonNull)
+                .map(tag -> tag.strip().toLowerCase(Locale.ROOT))
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    public static boolean isValid(String tag) {
+        return VALID.matcher(tag).matches();
+    }
+
+    /**
+     * Значение колонки items.tags
+     *
+     * @param tags нормализованные теги
+     * @return теги через запятую с запятыми по краям или null, если тегов нет
+     */
+    public static String join(List<String> tags) {
+        return tags.isEmpty() ? null : "," + String.join(",", tags) + ",";
+    }
+
+    /**
+     * Теги из значения колонки items.tags
+     *
+     * @param joined значение колонки или null
+     * @return теги в порядке хранения
+     */
+    public static List<String> split(String joined) {
+        if (joined == null || joined.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(joined.split(","))
+                .filter(tag -> !tag.isEmpty())
+                .toList();
+    }
+}
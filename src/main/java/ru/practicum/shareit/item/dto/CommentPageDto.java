@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentPageDto {
+    // Комментарии от новых к старым
+    private List<CommentDto> comments;
+
+    // Курсор следующей страницы или null, если страница последняя
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityResultDto {
+    // Количество вещей, доступность которых изменилась
+    private int updated;
+
+    // ID изменённых вещей; вещи, уже имевшие нужную доступность, не входят
+    private List<Long> itemIds;
+}
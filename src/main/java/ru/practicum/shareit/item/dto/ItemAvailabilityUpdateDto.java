@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityUpdateDto {
+
+    @NotNull(message = "Доступность не может быть пустой")
+    private Boolean available;
+
+    // ID вещей владельца; не задаются, если изменяются все вещи
+    @Size(max = 1000, message = "За один запрос можно изменить не больше 1000 вещей")
+    private List<@NotNull Long> itemIds;
+
+    // Изменить все вещи владельца
+    private boolean all;
+}
@@ -1,11 +1,20 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.dao.ItemTags;
+
+import java.util.List;
 
 @Data
 @Builder
@@ -21,4 +30,27 @@ public class ItemCreateDto {
 
     @NotNull(message = "Статус доступности обязателен")
     private Boolean available;
+
+    // ID запроса, в ответ на который добавляется вещь
+    private Long requestId;
+
+    // Местоположение вещи, необязательно
+    @DecimalMin(value = "-90.0", message = "Широта должна быть от -90 до 90")
+    @DecimalMax(value = "90.0", message = "Широта должна быть от -90 до 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Долгота должна быть от -180 до 180")
+    @DecimalMax(value = "180.0", message = "Долгота должна быть от -180 до 180")
+    private Double longitude;
+
+    // Теги для фильтрации поиска, необязательно
+    @Size(max = ItemTags.MAX_TAGS, message = "У вещи не больше 10 тегов")
+    private List<@Pattern(regexp = ItemTags.PATTERN,
+            message = "Тег — до 32 букв, цифр, пробелов и дефисов") String> tags;
+
+    @JsonIgnore
+    @AssertTrue(message = "Широта и долгота задаются вместе")
+    public boolean isLocationComplete() {
+        return (latitude == null) == (longitude == null);
+    }
 }
\ No newline at end of file
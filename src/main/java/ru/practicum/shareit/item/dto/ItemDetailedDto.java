@@ -18,7 +18,12 @@ public class ItemDetailedDto {
     private String name;
     private String description;
     private Boolean available;
+    private Double latitude;
+    private Double longitude;
+    private List<String> tags;
     private BookingInfoDto lastBooking;
     private BookingInfoDto nextBooking;
+    // Последние комментарии, полный список — через GET /items/{itemId}/comments
     private List<CommentDto> comments;
+    private Long commentCount;
 }
\ No newline at end of file
@@ -18,6 +18,10 @@ public class ItemDto {
     private String name;
     private String description;
     private Boolean available;
+    private Long requestId;
+    private Double latitude;
+    private Double longitude;
+    private List<String> tags;
 
     // Поля для бронирований (только для владельца)
     private BookingInfoDto lastBooking;
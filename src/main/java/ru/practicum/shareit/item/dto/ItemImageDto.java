@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImageDto {
+    // SHA-256 содержимого, он же ETag при скачивании
+    private String hash;
+    private String contentType;
+    private long size;
+    private String url;
+}
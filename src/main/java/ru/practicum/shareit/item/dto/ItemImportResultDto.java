@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportResultDto {
+    // Количество сохранённых вещей
+    private long imported;
+
+    // Количество строк, которые не удалось импортировать
+    private long failed;
+
+    // Ошибки по строкам; при большом количестве ошибок список усечён, полное число — в failed
+    private List<ItemImportErrorDto> errors;
+}
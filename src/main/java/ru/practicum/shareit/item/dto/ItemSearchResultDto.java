@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSearchResultDto {
+    // Страница результатов по убыванию релевантности
+    private List<ItemDto> items;
+
+    // Общее количество совпадений без учёта пагинации
+    private long total;
+}
@@ -7,12 +7,17 @@ import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
 
 import java.util.List;
+import java.util.Set;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class ItemWithBookingsDto {
+    // Допустимые значения параметра fields
+    public static final Set<String> FIELDS = Set.of("id", "ownerId", "name", "description", "available",
+            "lastBooking", "nextBooking", "comments", "commentCount");
+
     private Long id;
     private Long ownerId;
     private String name;
@@ -20,5 +25,7 @@ public class ItemWithBookingsDto {
     private Boolean available;
     private BookingInfoDto lastBooking;
     private BookingInfoDto nextBooking;
+    // Последние комментарии, полный список — через GET /items/{itemId}/comments
     private List<CommentDto> comments;
+    private Long commentCount;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PopularItemDto {
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean available;
+
+    // Оценка количества событий за окно сверху: счётчики приблизительные
+    private long count;
+}
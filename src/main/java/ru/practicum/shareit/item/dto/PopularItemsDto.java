@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PopularItemsDto {
+    // Окно, за которое посчитана популярность: 24h или 7d
+    private String window;
+
+    private List<PopularItemDto> mostBooked;
+    private List<PopularItemDto> mostViewed;
+}
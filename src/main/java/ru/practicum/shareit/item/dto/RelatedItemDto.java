@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedItemDto {
+    private Long id;
+    private String name;
+    private String description;
+
+    // Сколько пользователей бронировали и эту вещь, и исходную
+    private long coBookings;
+}
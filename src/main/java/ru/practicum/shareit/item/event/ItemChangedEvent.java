@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Событие изменения вещи. Публикуется сервисом вещей внутри транзакции,
+ * слушатели обрабатывают его после коммита.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemChangedEvent {
+    /**
+     * Состояние вещи до изменения, null для новой вещи
+     */
+    private final ItemDto previous;
+
+    /**
+     * Состояние вещи после изменения
+     */
+    private final ItemDto current;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+/**
+ * Событие пакетного создания вещей при импорте. Публикуется один раз на транзакцию пакета,
+ * чтобы слушатели не обрабатывали тысячи отдельных {@link ItemChangedEvent}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemsImportedEvent {
+    /**
+     * Созданные вещи
+     */
+    private final List<ItemDto> items;
+}
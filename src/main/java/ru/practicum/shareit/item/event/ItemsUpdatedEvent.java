@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+/**
+ * Событие пакетного изменения вещей одним UPDATE, например переключения доступности всех вещей владельца.
+ * Публикуется один раз на транзакцию, чтобы индексы и кэши обновлялись пакетом, а не по вещи.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemsUpdatedEvent {
+    /**
+     * Состояния вещей до изменения
+     */
+    private final List<ItemDto> previous;
+
+    /**
+     * Состояния вещей после изменения в том же порядке
+     */
+    private final List<ItemDto> current;
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ячейки сетки в порядке Z-кривой, как в geohash: биты долготы и широты чередуются,
+ * поэтому ячейка любого уровня — непрерывный диапазон кодов, а соседние по коду ячейки
+ * близки на карте. Код вещи хранится в items.geo_cell, и поиск по радиусу сводится
+ * к нескольким диапазонам по обычному индексу B-дерева.
+ */
+public final class GeoCells {
+
+    /**
+     * Бит на координату в коде ячейки: ячейка самого мелкого уровня — около 0,6 м по широте
+     */
+    public static final int BITS_PER_AXIS = 26;
+
+    /**
+     * Километров в градусе широты при среднем радиусе Земли 6371 км
+     */
+    public static final double KM_PER_DEGREE = 6371.0 * Math.PI / 180.0;
+
+    private static final long CELLS_PER_AXIS = 1L << BITS_PER_AXIS;
+
+    private GeoCells() {
+    }
+
+    /**
+     * Код ячейки самого мелкого уровня, в которую попадает точка
+     *
+     * @param latitude  широта в градусах
+     * @param longitude долгота в градусах
+     * @return код ячейки
+     */
+    public static long encode(double latitude, double longitude) {
+        return interleave(column(longitude, BITS_PER_AXIS), row(latitude, BITS_PER_AXIS), BITS_PER_AXIS);
+    }
+
+    /**
+     * Код ячейки для необязательного местоположения
+     *
+     * @param latitude  широта в градусах или null
+     * @param longitude долгота в градусах или null
+     * @return код ячейки или null, если местоположение не задано
+     */
+    public static Long encodeOrNull(Double latitude, Double longitude) {
+        return latitude == null || longitude == null ? null : encode(latitude, longitude);
+    }
+
+    /**
+     * Диапазоны кодов, покрывающие круг заданного радиуса.
+     * Уровень выбирается так, чтобы ячейка была не меньше диаметра круга, поэтому круг задевает
+     * не больше двух ячеек по каждой оси, а диапазонов не больше четырёх
+     *
+     * @param latitude  широта центра в градусах
+     * @param longitude долгота центра в градусах
+     * @param radiusKm  радиус в километрах
+     * @return пары [from, to] включительно по возрастанию from, соседние диапазоны объединены
+     */
+    public static List<long[]> cover(double latitude, double longitude, double radiusKm) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double longitudeSpan = latitudeSpan / Math.max(Math.cos(Math.toRadians(latitude)), 1e-9);
+
+        int level = 0;
+        while (level < BITS_PER_AXIS
+                && 180.0 / (1L << (level + 1)) >= 2 * latitudeSpan
+                && 360.0 / (1L << (level + 1)) >= 2 * longitudeSpan) {
+            level++;
+        }
+
+        long southRow = row(Math.max(latitude - latitudeSpan, -90.0), level);
+        long northRow = row(Math.min(latitude + latitudeSpan, 90.0), level);
+        // Ячейка шире круга, поэтому он задевает не больше двух столбцов, возможно через 180-й меридиан
+        long westColumn = column(normalizeLongitude(longitude - longitudeSpan), level);
+        long eastColumn = column(normalizeLongitude(longitude + longitudeSpan), level);
+
+        int shift = 2 * (BITS_PER_AXIS - level);
+        List<long[]> ranges = new ArrayList<>(4);
+        for (long row = southRow; row <= northRow; row++) {
+            addCell(ranges, interleave(westColumn, row, level), shift);
+            if (eastColumn != westColumn) {
+                addCell(ranges, interleave(eastColumn, row, level), shift);
+            }
+        }
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        List<long[]> merged = new ArrayList<>(ranges.size());
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && last[1] + 1 == range[0]) {
+                last[1] = range[1];
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Приводит долготу к диапазону [-180, 180)
+     *
+     * @param longitude долгота в градусах
+     * @return та же долгота в диапазоне [-180, 180)
+     */
+    public static double normalizeLongitude(double longitude) {
+        double normalized = (longitude + 180.0) % 360.0;
+        if (normalized < 0) {
+            normalized += 360.0;
+        }
+        return normalized - 180.0;
+    }
+
+    private static void addCell(List<long[]> ranges, long cell, int shift) {
+        long from = cell << shift;
+        ranges.add(new long[]{from, from | ((1L << shift) - 1)});
+    }
+
+    private static long row(double latitude, int level) {
+        return cellIndex((latitude + 90.0) / 180.0, level);
+    }
+
+    private static long column(double longitude, int level) {
+        return cellIndex((normalizeLongitude(longitude) + 180.0) / 360.0, level);
+    }
+
+    private static long cellIndex(double fraction, int level) {
+        // Индекс считается на самом мелком уровне и усекается: уровни вкладываются друг в друга без расхождений округления
+        long index = Math.min(Math.max((long) Math.floor(fraction * CELLS_PER_AXIS), 0), CELLS_PER_AXIS - 1);
+        return index >>> (BITS_PER_AXIS - level);
+    }
+
+    private static long interleave(long column, long row, int bits) {
+        long code = 0;
+        for (int bit = bits - 1; bit >= 0; bit--) {
+            code = (code << 2) | (((column >>> bit) & 1) << 1) | ((row >>> bit) & 1);
+        }
+        return code;
+    }
+}
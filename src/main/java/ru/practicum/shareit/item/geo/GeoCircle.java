@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.geo;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Круг поиска в виде параметров SQL-запроса: до четырёх диапазонов кодов ячеек
+ * и коэффициенты равнопромежуточной проекции для точной проверки расстояния.
+ * <p>
+ * Расстояние сравнивается в квадратах градусов широты: разница долгот умножается на косинус
+ * широты центра. Для радиусов в десятки километров вне полярных областей погрешность —
+ * доли процента, зато выражение переносимо между PostgreSQL и H2 и не требует тригонометрии в SQL.
+ */
+@Getter
+public class GeoCircle {
+
+    /**
+     * Число диапазонов в запросе; неиспользуемые заполняются повтором первого
+     */
+    public static final int RANGES = 4;
+
+    // Центр, сдвинутый на 360 градусов: вещи за 180-м меридианом сравниваются с ним.
+    // Сам центр в запрос передаётся как есть, без пересчёта, чтобы не накапливать погрешность
+    private final double wrappedLongitude;
+    private final double longitudeScale;
+    private final double maxDistance;
+    @Getter(AccessLevel.NONE)
+    private final long[] from = new long[RANGES];
+    @Getter(AccessLevel.NONE)
+    private final long[] to = new long[RANGES];
+
+    public GeoCircle(double latitude, double longitude, double radiusKm) {
+        this.wrappedLongitude = longitude < 0 ? longitude + 360.0 : longitude - 360.0;
+        double cos = Math.cos(Math.toRadians(latitude));
+        this.longitudeScale = cos * cos;
+        double radiusDegrees = radiusKm / GeoCells.KM_PER_DEGREE;
+        this.maxDistance = radiusDegrees * radiusDegrees;
+
+        List<long[]> ranges = GeoCells.cover(latitude, longitude, radiusKm);
+        for (int i = 0; i < RANGES; i++) {
+            long[] range = ranges.get(i < ranges.size() ? i : 0);
+            from[i] = range[0];
+            to[i] = range[1];
+        }
+    }
+
+    public long from(int range) {
+        return from[range];
+    }
+
+    public long to(int range) {
+        return to[range];
+    }
+}
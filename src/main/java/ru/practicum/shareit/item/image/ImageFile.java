@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.image;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Файл изображения, готовый к отдаче
+ */
+@Getter
+@AllArgsConstructor
+public class ImageFile {
+    private final String hash;
+    private final String contentType;
+    private final long size;
+    private final Path path;
+}
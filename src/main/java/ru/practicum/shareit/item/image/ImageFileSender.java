@@ -0,0 +1,125 @@
+package ru.practicum.shareit.item.image;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Отдаёт файл изображения с условными запросами и диапазонами.
+ * <p>
+ * Под Tomcat тело ответа передаётся через sendfile: контроллер только указывает файл и диапазон
+ * в атрибутах запроса, а коннектор после возврата из контроллера копирует байты из файла в сокет
+ * средствами ядра, минуя кучу и буфер ответа. Если контейнер sendfile не поддерживает, файл передаётся
+ * через {@link FileChannel#transferTo} в канал поверх потока ответа.
+ * <p>
+ * Несколько диапазонов в одном запросе (multipart/byteranges) не поддерживаются: как разрешает RFC 9110,
+ * в ответ на такой запрос отдаётся файл целиком.
+ */
+@Slf4j
+@Component
+public class ImageFileSender {
+
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Содержимое по хешу никогда не меняется
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    /**
+     * Пишет ответ: 304 по совпавшему If-None-Match, 206 для одного диапазона, 416 для недостижимого,
+     * иначе 200 с файлом целиком
+     *
+     * @param image    файл изображения
+     * @param request  запрос
+     * @param response ответ
+     */
+    public void send(ImageFile image, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = "\"" + image.getHash() + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        // Браузер не должен угадывать по содержимому другой тип, например HTML, вместо заявленного
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long length = image.getSize();
+        long start = 0;
+        long end = length;
+        HttpRange range = singleRange(request, etag);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length) + 1;
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start >= end) {
+                log.debug("Недостижимый диапазон {} для изображения {} размером {}",
+                        request.getHeader(HttpHeaders.RANGE), image.getHash(), length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+        }
+        response.setContentType(image.getContentType());
+        response.setContentLengthLong(end - start);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, image.getPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(image.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += file.transferTo(position, end - position, output);
+            }
+        }
+    }
+
+    /**
+     * Единственный диапазон из заголовка Range или null, если отдавать нужно весь файл:
+     * диапазона нет, он некорректен, их несколько или If-Range не совпал с текущим ETag
+     */
+    private static HttpRange singleRange(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        // If-Range с датой не совпадает никогда: у изображений нет Last-Modified, только строгий ETag
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            log.debug("Некорректный заголовок Range: {}", header);
+            return null;
+        }
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item.image;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Файловое хранилище изображений с адресацией по содержимому: имя файла — SHA-256 его байтов.
+ * <p>
+ * Загрузка идёт потоком через буфер фиксированного размера во временный файл того же каталога,
+ * хеш считается на лету, после чего файл атомарно переименовывается в итоговое имя. Файл под своим
+ * именем никогда не меняется, поэтому хеш служит строгим ETag, а одинаковые загрузки занимают место один раз.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageFileStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final ItemImageProperties properties;
+
+    public static boolean isHash(String value) {
+        return value != null && HASH.matcher(value).matches();
+    }
+
+    /**
+     * Сохраняет содержимое потока, не держа его в памяти целиком
+     *
+     * @param input тело загрузки
+     * @return хеш и размер сохранённого файла
+     * @throws ValidationException если поток пуст или больше допустимого размера
+     */
+    public StoredFile save(InputStream input) throws IOException {
+        Path root = root();
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long maxSize = properties.getMaxSize().toBytes();
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        log.error("Изображение больше допустимого размера {} байт", maxSize);
+                        throw new ValidationException("image", String.format("размер больше %s байт", maxSize));
+                    }
+                    digest.update(buffer, 0, read);
+                    output.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                log.error("Пустое тело загрузки изображения");
+                throw new ValidationException("image", "пустое тело запроса");
+            }
+
+            String hash = HEX.formatHex(digest.digest());
+            Path target = path(hash);
+            if (Files.exists(target)) {
+                log.debug("Изображение {} уже есть в хранилище", hash);
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Тот же файл только что сохранила параллельная загрузка
+                    log.debug("Изображение {} сохранено параллельной загрузкой", hash);
+                }
+            }
+            return new StoredFile(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Удаляет файл, если он есть
+     *
+     * @param hash SHA-256 содержимого в hex
+     */
+    public void delete(String hash) throws IOException {
+        Files.deleteIfExists(path(hash));
+    }
+
+    /**
+     * Путь к файлу по хешу; файла может не быть
+     *
+     * @param hash SHA-256 содержимого в hex
+     * @return путь внутри каталога хранилища
+     */
+    public Path path(String hash) {
+        if (!isHash(hash)) {
+            throw new IllegalArgumentException("Некорректный хеш изображения: " + hash);
+        }
+        return root().resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Path root() {
+        return Path.of(properties.getDirectory()).toAbsolutePath();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 обязателен для любой реализации Java
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Хеш и размер сохранённого файла
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class StoredFile {
+        private final String hash;
+        private final long size;
+    }
+}
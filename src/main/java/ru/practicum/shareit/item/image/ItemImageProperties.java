@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.image;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.items.images")
+public class ItemImageProperties {
+
+    /**
+     * Каталог хранилища изображений; файлы раскладываются по подкаталогам из первых двух символов хеша
+     */
+    private String directory = "data/images";
+
+    /**
+     * Максимальный размер одного изображения
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(10);
+
+    /**
+     * Максимальное количество изображений у одной вещи
+     */
+    private int maxPerItem = 10;
+}
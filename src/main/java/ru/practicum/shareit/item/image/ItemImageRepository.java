@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.image;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ItemImageRepository extends JpaRepository<ItemImage, Long> {
+
+    Optional<ItemImage> findByItemIdAndHash(long itemId, String hash);
+
+    List<ItemImage> findByItemIdOrderById(long itemId);
+
+    long countByItemId(long itemId);
+
+    boolean existsByHash(String hash);
+}
@@ -33,4 +33,21 @@ public class Item {
 
     @Column(name = "request_id")
     private Long requestId; // Для будущей функциональности запросов
+
+    @Column(name = "change_version")
+    private Long changeVersion;
+
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
+    // Код ячейки сетки по координатам (см. GeoCells), null для вещи без местоположения
+    @Column(name = "geo_cell")
+    private Long geoCell;
+
+    // Теги через запятую с запятыми по краям (см. ItemTags), null для вещи без тегов
+    @Column(name = "tags", length = 400)
+    private String tags;
 }
\ No newline at end of file
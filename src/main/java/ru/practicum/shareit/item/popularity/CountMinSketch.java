@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item.popularity;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch: приблизительные частоты ключей в памяти фиксированного размера.
+ * <p>
+ * Каждая строка — отдельная хеш-функция над массивом счётчиков; оценка частоты — минимум
+ * по строкам, поэтому она не меньше настоящей и завышена не больше чем на e / width
+ * от суммы всех добавлений с вероятностью 1 - e^(-depth). Хеш-функции детерминированы,
+ * так что сохранённый снимок остаётся верным после перезапуска. Не потокобезопасно.
+ */
+public class CountMinSketch {
+
+    // Независимые затравки хеш-функций строк; менять их нельзя, иначе сохранённые снимки станут неверными
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x2545F4914F6CDD1DL, 0x7FB5D329728EA185L
+    };
+
+    private final int width;
+    private final int depth;
+    private final long[] counts;
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Ширина Count-Min Sketch должна быть положительной, глубина — от 1 до "
+                    + SEEDS.length);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counts = new long[width * depth];
+    }
+
+    /**
+     * Увеличивает частоту ключа
+     *
+     * @param key   ключ
+     * @param count прибавляемое значение
+     */
+    public void add(long key, long count) {
+        for (int row = 0; row < depth; row++) {
+            counts[cell(row, key)] += count;
+        }
+    }
+
+    /**
+     * Оценка частоты ключа сверху
+     *
+     * @param key ключ
+     * @return минимум счётчиков ключа по строкам
+     */
+    public long estimate(long key) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts[cell(row, key)]);
+        }
+        return min;
+    }
+
+    /**
+     * Счётчик ключа в одной строке. Сумма счётчиков строки по нескольким скетчам с теми же
+     * размерами — оценка суммарной частоты, и минимум таких сумм точнее суммы минимумов
+     *
+     * @param row номер строки
+     * @param key ключ
+     * @return значение счётчика
+     */
+    public long rowCount(int row, long key) {
+        return counts[cell(row, key)];
+    }
+
+    /**
+     * Прибавляет счётчики скетча с теми же размерами
+     *
+     * @param other другой скетч
+     */
+    public void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Объединять можно только скетчи одинаковых размеров");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        for (long count : counts) {
+            out.writeLong(count);
+        }
+    }
+
+    public void readFrom(DataInput in) throws IOException {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = in.readLong();
+        }
+    }
+
+    private int cell(int row, long key) {
+        long hash = mix(key ^ SEEDS[row]);
+        return row * width + (int) Math.floorMod(hash, (long) width);
+    }
+
+    // Финализатор SplitMix64: соседние ID вещей расходятся по всей строке
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
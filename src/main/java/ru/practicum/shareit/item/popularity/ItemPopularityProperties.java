@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.popularity;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.items.popularity")
+public class ItemPopularityProperties {
+
+    /**
+     * Ширина Count-Min Sketch корзины; ошибка оценки — до e / width от числа событий корзины
+     */
+    private int sketchWidth = 1024;
+
+    /**
+     * Глубина Count-Min Sketch корзины, от 1 до 8
+     */
+    private int sketchDepth = 4;
+
+    /**
+     * Количество лучших вещей, запоминаемых в каждой корзине окна
+     */
+    private int topK = 100;
+
+    /**
+     * Максимальный размер списка популярных вещей в ответе
+     */
+    private int maxPageSize = 50;
+
+    /**
+     * Интервал сохранения снимка счётчиков в базу; 0 отключает снимки
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,185 @@
+package ru.practicum.shareit.item.popularity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Потоковые счётчики популярности вещей по бронированиям и просмотрам.
+ * <p>
+ * Каждое событие увеличивает скользящие окна за сутки и за неделю в памяти, без запросов
+ * к базе; список популярных вещей строится по этим окнам, а не агрегацией по таблице бронирований.
+ * Окна периодически сохраняются снимком в базу и восстанавливаются при старте.
+ */
+@Slf4j
+@Component
+public class ItemPopularityTracker {
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final PopularitySnapshotRepository snapshotRepository;
+    private final ItemPopularityProperties popularityProperties;
+    private final Map<PopularityMetric, Map<PopularityWindow, SlidingWindowCounter>> counters =
+            new EnumMap<>(PopularityMetric.class);
+    private final Map<PopularityMetric, Counter> recordedEvents = new EnumMap<>(PopularityMetric.class);
+    private final ScheduledExecutorService scheduler;
+
+    public ItemPopularityTracker(PopularitySnapshotRepository snapshotRepository,
+                                 ItemPopularityProperties popularityProperties, MeterRegistry meterRegistry) {
+        this.snapshotRepository = snapshotRepository;
+        this.popularityProperties = popularityProperties;
+        for (PopularityMetric metric : PopularityMetric.values()) {
+            Map<PopularityWindow, SlidingWindowCounter> windows = new EnumMap<>(PopularityWindow.class);
+            for (PopularityWindow window : PopularityWindow.values()) {
+                windows.put(window, new SlidingWindowCounter(window.getBucket().toMillis(), window.getBucketCount(),
+                        popularityProperties.getSketchWidth(), popularityProperties.getSketchDepth(),
+                        popularityProperties.getTopK()));
+            }
+            counters.put(metric, windows);
+            recordedEvents.put(metric, Counter.builder("shareit.items.popularity.events")
+                    .tag("metric", metric.name().toLowerCase())
+                    .description("События, учтённые в популярности вещей")
+                    .register(meterRegistry));
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-popularity-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Учитывает бронирование вещи после фиксации текущей транзакции
+     *
+     * @param itemId ID вещи
+     */
+    public void recordBooking(long itemId) {
+        // Откатившееся бронирование не должно попасть в счётчики
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(PopularityMetric.BOOKINGS, itemId);
+                }
+            });
+        } else {
+            record(PopularityMetric.BOOKINGS, itemId);
+        }
+    }
+
+    /**
+     * Учитывает просмотр вещи
+     *
+     * @param itemId ID вещи
+     */
+    public void recordView(long itemId) {
+        record(PopularityMetric.VIEWS, itemId);
+    }
+
+    /**
+     * Самые популярные вещи окна
+     *
+     * @param metric метрика популярности
+     * @param window окно
+     * @param limit  максимальное количество вещей
+     * @return ID вещей с оценкой количества событий по убыванию
+     */
+    public List<SlidingWindowCounter.Estimate> top(PopularityMetric metric, PopularityWindow window, int limit) {
+        return counters.get(metric).get(window).top(limit, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Duration interval = popularityProperties.getSnapshotInterval();
+        if (interval.isZero()) {
+            log.info("Снимки популярности вещей отключены");
+            return;
+        }
+        restoreSnapshots();
+        scheduler.scheduleWithFixedDelay(this::saveSnapshotsSafely, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (!popularityProperties.getSnapshotInterval().isZero()) {
+            // Последний снимок, чтобы перезапуск не потерял события с предыдущего
+            saveSnapshotsSafely();
+        }
+    }
+
+    private void saveSnapshots() throws IOException {
+        long now = System.currentTimeMillis();
+        for (PopularityMetric metric : PopularityMetric.values()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                for (PopularityWindow window : PopularityWindow.values()) {
+                    counters.get(metric).get(window).writeTo(out, now);
+                }
+            }
+            snapshotRepository.save(new PopularitySnapshot(metric.name(), LocalDateTime.now(), bytes.toByteArray()));
+            log.debug("Сохранён снимок популярности {}, байт: {}", metric, bytes.size());
+        }
+    }
+
+    private void restoreSnapshots() {
+        long now = System.currentTimeMillis();
+        for (PopularityMetric metric : PopularityMetric.values()) {
+            snapshotRepository.findById(metric.name()).ifPresent(snapshot -> {
+                try (DataInputStream in = new DataInputStream(
+                        new GZIPInputStream(new ByteArrayInputStream(snapshot.getData())))) {
+                    if (in.readInt() != SNAPSHOT_VERSION) {
+                        throw new IOException("Неизвестная версия снимка");
+                    }
+                    for (PopularityWindow window : PopularityWindow.values()) {
+                        counters.get(metric).get(window).readFrom(in, now);
+                    }
+                    log.info("Восстановлен снимок популярности {} от {}", metric, snapshot.getTaken());
+                } catch (IOException e) {
+                    // Счётчики популярности приблизительны: без снимка они просто начнутся заново
+                    log.warn("Снимок популярности {} не восстановлен: {}", metric, e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void saveSnapshotsSafely() {
+        try {
+            saveSnapshots();
+        } catch (IOException | RuntimeException e) {
+            log.error("Не удалось сохранить снимок популярности вещей", e);
+        }
+    }
+
+    private void record(PopularityMetric metric, long itemId) {
+        long now = System.currentTimeMillis();
+        for (SlidingWindowCounter counter : counters.get(metric).values()) {
+            counter.add(itemId, now);
+        }
+        recordedEvents.get(metric).increment();
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.popularity;
+
+/**
+ * События, по которым считается популярность вещей
+ */
+public enum PopularityMetric {
+    BOOKINGS,
+    VIEWS
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.popularity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Снимок счётчиков популярности одной метрики, чтобы перезапуск не обнулял окна
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "popularity_snapshots")
+public class PopularitySnapshot {
+    @Id
+    @Column(name = "metric", length = 32)
+    private String metric;
+
+    @Column(name = "taken", nullable = false)
+    private LocalDateTime taken;
+
+    // Сжатые корзины окон метрики
+    @Column(name = "data", nullable = false, length = 64 * 1024 * 1024)
+    private byte[] data;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.popularity;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PopularitySnapshotRepository extends JpaRepository<PopularitySnapshot, String> {
+}
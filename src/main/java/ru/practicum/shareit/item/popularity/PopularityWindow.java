@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.popularity;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Окна популярности вещей. Длиннее окно — крупнее корзины: память на окно ограничена числом корзин
+ */
+@Getter
+public enum PopularityWindow {
+    DAY("24h", Duration.ofHours(1), 24),
+    WEEK("7d", Duration.ofHours(6), 28);
+
+    private final String param;
+    private final Duration bucket;
+    private final int bucketCount;
+
+    PopularityWindow(String param, Duration bucket, int bucketCount) {
+        this.param = param;
+        this.bucket = bucket;
+        this.bucketCount = bucketCount;
+    }
+
+    /**
+     * Окно по значению параметра запроса
+     *
+     * @param param значение параметра, например 24h
+     * @return окно или null, если такого нет
+     */
+    public static PopularityWindow fromParam(String param) {
+        for (PopularityWindow window : values()) {
+            if (window.param.equalsIgnoreCase(param)) {
+                return window;
+            }
+        }
+        return null;
+    }
+}
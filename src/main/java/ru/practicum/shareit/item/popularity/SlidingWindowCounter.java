@@ -0,0 +1,239 @@
+package ru.practicum.shareit.item.popularity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Приблизительные частоты ключей за скользящее окно.
+ * <p>
+ * Окно разбито на корзины фиксированной длительности, хранящиеся по кругу: корзина,
+ * выпавшая из окна, очищается и переиспользуется при первой записи в её слот. В каждой корзине —
+ * Count-Min Sketch и куча её самых частых ключей. Лучшие ключи окна выбираются из объединения
+ * куч живых корзин по оценке за всё окно, поэтому память не зависит ни от числа ключей,
+ * ни от числа событий. Окно покрывает от bucketCount - 1 до bucketCount полных корзин.
+ */
+public class SlidingWindowCounter {
+
+    private static final Comparator<Estimate> ORDER = Comparator.comparingLong(Estimate::getCount)
+            .reversed()
+            .thenComparingLong(Estimate::getKey);
+
+    private final long bucketMillis;
+    private final int width;
+    private final int depth;
+    private final int topK;
+    private final Bucket[] buckets;
+
+    /**
+     * @param bucketMillis длительность корзины
+     * @param bucketCount  количество корзин в окне
+     * @param width        ширина Count-Min Sketch корзины
+     * @param depth        глубина Count-Min Sketch корзины
+     * @param topK         количество лучших ключей, запоминаемых в каждой корзине
+     */
+    public SlidingWindowCounter(long bucketMillis, int bucketCount, int width, int depth, int topK) {
+        this.bucketMillis = bucketMillis;
+        this.width = width;
+        this.depth = depth;
+        this.topK = topK;
+        this.buckets = new Bucket[bucketCount];
+    }
+
+    /**
+     * Учитывает событие ключа
+     *
+     * @param key       ключ
+     * @param nowMillis время события
+     */
+    public synchronized void add(long key, long nowMillis) {
+        Bucket bucket = bucketFor(nowMillis / bucketMillis);
+        bucket.sketch.add(key, 1);
+        bucket.top.offer(key, bucket.sketch.estimate(key));
+    }
+
+    /**
+     * Оценка частоты ключа за окно сверху
+     *
+     * @param key       ключ
+     * @param nowMillis текущее время
+     * @return количество событий ключа
+     */
+    public synchronized long estimate(long key, long nowMillis) {
+        return estimate(key, liveBuckets(nowMillis));
+    }
+
+    /**
+     * Самые частые ключи окна
+     *
+     * @param limit     максимальное количество ключей
+     * @param nowMillis текущее время
+     * @return ключи по убыванию оценки, при равенстве по возрастанию ключа
+     */
+    public synchronized List<Estimate> top(int limit, long nowMillis) {
+        List<Bucket> live = liveBuckets(nowMillis);
+        Set<Long> candidates = new HashSet<>();
+        for (Bucket bucket : live) {
+            for (int i = 0; i < bucket.top.size(); i++) {
+                candidates.add(bucket.top.keyAt(i));
+            }
+        }
+        List<Estimate> estimates = new ArrayList<>(candidates.size());
+        for (long key : candidates) {
+            estimates.add(new Estimate(key, estimate(key, live)));
+        }
+        estimates.sort(ORDER);
+        return estimates.subList(0, Math.min(limit, estimates.size()));
+    }
+
+    /**
+     * Записывает живые корзины окна
+     *
+     * @param out       поток снимка
+     * @param nowMillis текущее время
+     */
+    public synchronized void writeTo(DataOutput out, long nowMillis) throws IOException {
+        List<Bucket> live = liveBuckets(nowMillis);
+        out.writeLong(bucketMillis);
+        out.writeInt(buckets.length);
+        out.writeInt(width);
+        out.writeInt(depth);
+        out.writeInt(live.size());
+        for (Bucket bucket : live) {
+            out.writeLong(bucket.index);
+            bucket.sketch.writeTo(out);
+            out.writeInt(bucket.top.size());
+            for (int i = 0; i < bucket.top.size(); i++) {
+                out.writeLong(bucket.top.keyAt(i));
+                out.writeLong(bucket.top.valueAt(i));
+            }
+        }
+    }
+
+    /**
+     * Восстанавливает корзины из снимка; корзины, успевшие выпасть из окна, пропускаются
+     *
+     * @param in        поток снимка
+     * @param nowMillis текущее время
+     * @throws IOException если снимок повреждён или записан с другими размерами окна и скетча
+     */
+    public synchronized void readFrom(DataInput in, long nowMillis) throws IOException {
+        if (in.readLong() != bucketMillis || in.readInt() != buckets.length
+                || in.readInt() != width || in.readInt() != depth) {
+            throw new IOException("Снимок записан с другими размерами окна или Count-Min Sketch");
+        }
+        long current = nowMillis / bucketMillis;
+        int count = in.readInt();
+        for (int b = 0; b < count; b++) {
+            long index = in.readLong();
+            CountMinSketch sketch = new CountMinSketch(width, depth);
+            sketch.readFrom(in);
+            TopKHeap top = new TopKHeap(topK);
+            int topSize = in.readInt();
+            for (int i = 0; i < topSize; i++) {
+                top.offer(in.readLong(), in.readLong());
+            }
+            if (isLive(index, current)) {
+                restore(index, sketch, top);
+            }
+        }
+    }
+
+    private void restore(long index, CountMinSketch sketch, TopKHeap top) {
+        Bucket existing = buckets[slot(index)];
+        if (existing == null || existing.index != index) {
+            Bucket bucket = new Bucket(sketch, top);
+            bucket.index = index;
+            buckets[slot(index)] = bucket;
+            return;
+        }
+        // События, учтённые до восстановления, складываются со снимком
+        existing.sketch.merge(sketch);
+        List<Long> keys = new ArrayList<>(existing.top.size() + top.size());
+        for (int i = 0; i < existing.top.size(); i++) {
+            keys.add(existing.top.keyAt(i));
+        }
+        for (int i = 0; i < top.size(); i++) {
+            keys.add(top.keyAt(i));
+        }
+        for (long key : keys) {
+            existing.top.offer(key, existing.sketch.estimate(key));
+        }
+    }
+
+    private long estimate(long key, List<Bucket> live) {
+        // Минимум по строкам от сумм по корзинам: коллизии разных корзин не складываются
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long sum = 0;
+            for (Bucket bucket : live) {
+                sum += bucket.sketch.rowCount(row, key);
+            }
+            min = Math.min(min, sum);
+        }
+        return live.isEmpty() ? 0 : min;
+    }
+
+    private Bucket bucketFor(long index) {
+        int slot = slot(index);
+        Bucket bucket = buckets[slot];
+        if (bucket == null) {
+            bucket = new Bucket(new CountMinSketch(width, depth), new TopKHeap(topK));
+            buckets[slot] = bucket;
+        } else if (bucket.index != index) {
+            // Слот занят корзиной, выпавшей из окна
+            bucket.sketch.clear();
+            bucket.top.clear();
+        }
+        bucket.index = index;
+        return bucket;
+    }
+
+    private List<Bucket> liveBuckets(long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        List<Bucket> live = new ArrayList<>(buckets.length);
+        for (Bucket bucket : buckets) {
+            if (bucket != null && isLive(bucket.index, current)) {
+                live.add(bucket);
+            }
+        }
+        return live;
+    }
+
+    private boolean isLive(long index, long current) {
+        return index <= current && index > current - buckets.length;
+    }
+
+    private int slot(long index) {
+        return (int) Math.floorMod(index, (long) buckets.length);
+    }
+
+    private static final class Bucket {
+        private final CountMinSketch sketch;
+        private final TopKHeap top;
+        private long index;
+
+        private Bucket(CountMinSketch sketch, TopKHeap top) {
+            this.sketch = sketch;
+            this.top = top;
+        }
+    }
+
+    /**
+     * Ключ и оценка его частоты
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Estimate {
+        private final long key;
+        private final long count;
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.popularity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ключи с наибольшими значениями: двоичная куча по минимуму с индексом позиций.
+ * <p>
+ * Значение ключа в куче можно только увеличить, как и оценку в Count-Min Sketch, поэтому
+ * обновление — просеивание вниз за O(log K), а вытеснение — замена корня, самого слабого ключа.
+ * Не потокобезопасно.
+ */
+public class TopKHeap {
+
+    private final int capacity;
+    private final long[] keys;
+    private final long[] values;
+    private final Map<Long, Integer> positions;
+    private int size;
+
+    public TopKHeap(int capacity) {
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long keyAt(int index) {
+        return keys[index];
+    }
+
+    public long valueAt(int index) {
+        return values[index];
+    }
+
+    /**
+     * Учитывает новое значение ключа
+     *
+     * @param key   ключ
+     * @param value значение, не меньше предыдущего значения ключа
+     */
+    public void offer(long key, long value) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            values[position] = value;
+            siftDown(position);
+        } else if (size < capacity) {
+            keys[size] = key;
+            values[size] = value;
+            positions.put(key, size);
+            siftUp(size++);
+        } else if (value > values[0]) {
+            positions.remove(keys[0]);
+            keys[0] = key;
+            values[0] = value;
+            positions.put(key, 0);
+            siftDown(0);
+        }
+    }
+
+    public void clear() {
+        positions.clear();
+        Arrays.fill(keys, 0, size, 0);
+        Arrays.fill(values, 0, size, 0);
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (values[parent] <= values[index]) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && values[left] < values[smallest]) {
+                smallest = left;
+            }
+            if (right < size && values[right] < values[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        long key = keys[i];
+        long value = values[i];
+        keys[i] = keys[j];
+        values[i] = values[j];
+        keys[j] = key;
+        values[j] = value;
+        positions.put(keys[i], i);
+        positions.put(keys[j], j);
+    }
+}
@@ -0,0 +1,291 @@
+package ru.practicum.shareit.item.related;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.util.LongLongMap;
+import ru.practicum.shareit.util.LongObjectMap;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Модель совместных бронирований: пакетный пересчёт по подтверждённым бронированиям
+ * и пополнение при каждом новом подтверждении.
+ * <p>
+ * Пересчёт читает бронирующих страницами и раскладывает пары их вещей по частям модели:
+ * каждая часть считает соседей только для своих вещей (ID по модулю числа частей), поэтому
+ * части заполняются параллельно без блокировок и слияния. Готовая модель подменяет текущую
+ * целиком; подтверждения, пришедшие во время пересчёта, применяются к обеим, если страница
+ * их бронирующего уже прочитана, — иначе пересчёт сам прочитает их из базы.
+ */
+@Slf4j
+@Component
+public class CoBookingIndexer {
+
+    private final BookingRepository bookingRepository;
+    private final CoBookingProperties coBookingProperties;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+    private final Timer rebuildTimer;
+
+    private volatile CoBookingModel model;
+
+    // Подтверждения, пришедшие во время пересчёта; null, пока пересчёт не идёт
+    private List<Basket> pending;
+
+    // Последний бронирующий страниц, уже прочитанных пересчётом
+    private long afterBookerId;
+
+    public CoBookingIndexer(BookingRepository bookingRepository, CoBookingProperties coBookingProperties,
+                            MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.coBookingProperties = coBookingProperties;
+        this.model = new CoBookingModel(coBookingProperties.getMaxNeighbours(), 0);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "co-booking-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(coBookingProperties.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "co-booking-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rebuildTimer = Timer.builder("shareit.items.related.rebuild.duration")
+                .description("Время полного пересчёта модели совместных бронирований")
+                .register(meterRegistry);
+        Gauge.builder("shareit.items.related.items", this, indexer -> indexer.model.size())
+                .description("Вещи с соседями в модели совместных бронирований")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Duration interval = coBookingProperties.getRebuildInterval();
+        if (interval.isZero()) {
+            log.info("Пересчёт модели совместных бронирований отключён");
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::rebuildSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Соседи вещи по совместным бронированиям
+     *
+     * @param itemId ID вещи
+     * @return соседи по убыванию числа общих бронирующих
+     */
+    public List<CoBookingModel.Neighbour> related(long itemId) {
+        return model.neighbours(itemId);
+    }
+
+    /**
+     * Учитывает подтверждение бронирования после фиксации текущей транзакции.
+     * Вызывается в транзакции подтверждения: вещи бронирующего читаются вместе с ней
+     *
+     * @param bookerId  ID бронирующего
+     * @param itemId    ID вещи
+     * @param bookingId ID подтверждённого бронирования
+     */
+    public void recordApproved(long bookerId, long itemId, long bookingId) {
+        int maxBasketSize = coBookingProperties.getMaxBasketSize();
+        List<Long> others = bookingRepository.findApprovedItemIdsByBookerId(bookerId, bookingId,
+                PageRequest.of(0, maxBasketSize));
+        // Повторное бронирование той же вещи пар не добавляет; слишком большие корзины не учитываются, как и при пересчёте
+        if (others.isEmpty() || others.contains(itemId) || others.size() + 1 >= maxBasketSize) {
+            return;
+        }
+        Basket basket = new Basket(bookerId, itemId, others);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(basket);
+                }
+            });
+        } else {
+            apply(basket);
+        }
+    }
+
+    /**
+     * Полностью пересчитывает модель по подтверждённым бронированиям
+     *
+     * @return количество вещей с соседями
+     */
+    public int rebuild() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+            afterBookerId = 0;
+        }
+        int partitions = coBookingProperties.getParallelism();
+        List<LongObjectMap<LongLongMap>> parts = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            parts.add(new LongObjectMap<>());
+        }
+        long startedAt = System.nanoTime();
+        try {
+            long lastBookerId = 0;
+            List<Long> bookerIds;
+            do {
+                bookerIds = bookingRepository.findApprovedBookerIdsAfter(lastBookerId,
+                        PageRequest.of(0, coBookingProperties.getBookerBatchSize()));
+                if (bookerIds.isEmpty()) {
+                    break;
+                }
+                lastBookerId = bookerIds.get(bookerIds.size() - 1);
+                synchronized (this) {
+                    afterBookerId = lastBookerId;
+                }
+                List<long[]> baskets = loadBaskets(bookerIds);
+                runPartitions(partitions, p -> countPairs(baskets, parts.get(p), p, partitions));
+            } while (bookerIds.size() == coBookingProperties.getBookerBatchSize());
+
+            int items = 0;
+            for (LongObjectMap<LongLongMap> part : parts) {
+                items += part.size();
+            }
+            CoBookingModel built = new CoBookingModel(coBookingProperties.getMaxNeighbours(), items);
+            runPartitions(partitions, p -> {
+                parts.get(p).forEach((counts, itemId) -> built.putCounts(itemId, counts));
+                // Точные счётчики части больше не нужны, память освобождается до конца пересчёта
+                parts.set(p, new LongObjectMap<>());
+            });
+
+            synchronized (this) {
+                pending.forEach(basket -> built.addBasket(basket.itemId, basket.others));
+                pending = null;
+                model = built;
+            }
+            rebuildTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            log.info("Пересчитана модель совместных бронирований, вещей с соседями: {}", items);
+            return items;
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+    }
+
+    private synchronized void apply(Basket basket) {
+        model.addBasket(basket.itemId, basket.others);
+        // Подтверждение бронирующего с непрочитанной страницы пересчёт прочитает сам, повтор удвоил бы пары
+        if (pending != null && basket.bookerId <= afterBookerId) {
+            pending.add(basket);
+        }
+    }
+
+    private List<long[]> loadBaskets(List<Long> bookerIds) {
+        List<long[]> baskets = new ArrayList<>(bookerIds.size());
+        List<Long> items = new ArrayList<>();
+        long currentBookerId = -1;
+        for (Object[] row : bookingRepository.findApprovedItemIdsByBookerIdIn(bookerIds)) {
+            long bookerId = ((Number) row[0]).longValue();
+            if (bookerId != currentBookerId) {
+                addBasket(baskets, items);
+                items.clear();
+                currentBookerId = bookerId;
+            }
+            items.add(((Number) row[1]).longValue());
+        }
+        addBasket(baskets, items);
+        return baskets;
+    }
+
+    private void addBasket(List<long[]> baskets, List<Long> items) {
+        if (items.size() < 2 || items.size() >= coBookingProperties.getMaxBasketSize()) {
+            return;
+        }
+        baskets.add(items.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private static void countPairs(List<long[]> baskets, LongObjectMap<LongLongMap> part, int partition,
+                                   int partitions) {
+        for (long[] basket : baskets) {
+            for (long itemId : basket) {
+                if (Math.floorMod(itemId, partitions) != partition) {
+                    continue;
+                }
+                LongLongMap counts = part.computeIfAbsent(itemId, id -> new LongLongMap());
+                for (long other : basket) {
+                    if (other != itemId) {
+                        counts.addTo(other, 1);
+                    }
+                }
+            }
+        }
+    }
+
+    private void runPartitions(int partitions, PartitionTask task) {
+        List<Callable<Void>> tasks = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            int partition = p;
+            tasks.add(() -> {
+                task.run(partition);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : workers.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Пересчёт модели совместных бронирований прерван", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка пересчёта модели совместных бронирований", e.getCause());
+        }
+    }
+
+    private void rebuildSafely() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Исключение в задаче отменило бы все следующие запуски
+            log.error("Ошибка пересчёта модели совместных бронирований", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PartitionTask {
+        void run(int partition);
+    }
+
+    private static final class Basket {
+        private final long bookerId;
+        private final long itemId;
+        private final List<Long> others;
+
+        private Basket(long bookerId, long itemId, List<Long> others) {
+            this.bookerId = bookerId;
+            this.itemId = itemId;
+            this.others = others;
+        }
+    }
+}
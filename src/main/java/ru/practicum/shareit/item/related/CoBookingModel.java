@@ -0,0 +1,176 @@
+package ru.practicum.shareit.item.related;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.util.LongLongMap;
+import ru.practicum.shareit.util.LongObjectMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Соседи вещей по совместным бронированиям: для каждой вещи — не больше maxNeighbours вещей,
+ * которые чаще всего брали те же бронирующие, с числом таких бронирующих.
+ * <p>
+ * Соседи хранятся в двух плотных массивах на вещь (ID и счётчики), без объектов на пару,
+ * поэтому вещь с n соседями занимает около 12 * n байт плюс заголовки массивов.
+ * Пополнение — по алгоритму Space-Saving: новый сосед при заполненном списке вытесняет
+ * самого слабого и наследует его счётчик, так что частые соседи не теряются, а счётчик
+ * может быть завышен не больше чем на счётчик вытесненного.
+ */
+public class CoBookingModel {
+
+    private static final Comparator<Neighbour> ORDER = Comparator.comparingLong(Neighbour::getCount)
+            .reversed()
+            .thenComparingLong(Neighbour::getItemId);
+
+    private final int maxNeighbours;
+    private final LongObjectMap<Neighbours> neighbours;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public CoBookingModel(int maxNeighbours, int expectedItems) {
+        this.maxNeighbours = maxNeighbours;
+        this.neighbours = new LongObjectMap<>(expectedItems);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return neighbours.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Учитывает, что бронирующий, уже бравший вещи others, взял вещь itemId
+     *
+     * @param itemId новая вещь бронирующего
+     * @param others вещи, которые он брал раньше
+     */
+    public void addBasket(long itemId, List<Long> others) {
+        lock.writeLock().lock();
+        try {
+            for (long other : others) {
+                neighboursOf(itemId).increment(other, 1, maxNeighbours);
+                neighboursOf(other).increment(itemId, 1, maxNeighbours);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Записывает соседей вещи по точным счётчикам пакетного расчёта, оставляя самых частых
+     *
+     * @param itemId ID вещи
+     * @param counts число общих бронирующих по ID соседа
+     */
+    public void putCounts(long itemId, LongLongMap counts) {
+        Neighbour[] all = new Neighbour[counts.size()];
+        int[] size = {0};
+        counts.forEach((other, count) -> all[size[0]++] = new Neighbour(other, count));
+        Arrays.sort(all, ORDER);
+        int kept = Math.min(all.length, maxNeighbours);
+        Neighbours result = new Neighbours(kept);
+        for (int i = 0; i < kept; i++) {
+            result.append(all[i].getItemId(), all[i].getCount());
+        }
+        lock.writeLock().lock();
+        try {
+            neighbours.put(itemId, result);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Соседи вещи
+     *
+     * @param itemId ID вещи
+     * @return соседи по убыванию числа общих бронирующих
+     */
+    public List<Neighbour> neighbours(long itemId) {
+        lock.readLock().lock();
+        try {
+            Neighbours itemNeighbours = neighbours.get(itemId);
+            if (itemNeighbours == null) {
+                return List.of();
+            }
+            List<Neighbour> result = new ArrayList<>(itemNeighbours.size);
+            for (int i = 0; i < itemNeighbours.size; i++) {
+                result.add(new Neighbour(itemNeighbours.ids[i], itemNeighbours.counts[i]));
+            }
+            result.sort(ORDER);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Neighbours neighboursOf(long itemId) {
+        return neighbours.computeIfAbsent(itemId, id -> new Neighbours(1));
+    }
+
+    private static final class Neighbours {
+        private long[] ids;
+        private int[] counts;
+        private int size;
+
+        private Neighbours(int capacity) {
+            ids = new long[capacity];
+            counts = new int[capacity];
+        }
+
+        private void append(long itemId, long count) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(1, size * 2));
+                counts = Arrays.copyOf(counts, Math.max(1, size * 2));
+            }
+            ids[size] = itemId;
+            counts[size] = (int) Math.min(count, Integer.MAX_VALUE);
+            size++;
+        }
+
+        private void increment(long itemId, int delta, int maxSize) {
+            int weakest = 0;
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == itemId) {
+                    counts[i] += delta;
+                    return;
+                }
+                if (counts[i] < counts[weakest]) {
+                    weakest = i;
+                }
+            }
+            if (size < maxSize) {
+                // Массивы растут удвоением только до maxSize
+                if (size == ids.length) {
+                    int capacity = Math.min(maxSize, Math.max(1, size * 2));
+                    ids = Arrays.copyOf(ids, capacity);
+                    counts = Arrays.copyOf(counts, capacity);
+                }
+                ids[size] = itemId;
+                counts[size] = delta;
+                size++;
+                return;
+            }
+            ids[weakest] = itemId;
+            counts[weakest] += delta;
+        }
+    }
+
+    /**
+     * Соседняя вещь и число бронирующих, бравших обе вещи
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Neighbour {
+        private final long itemId;
+        private final long count;
+    }
+}
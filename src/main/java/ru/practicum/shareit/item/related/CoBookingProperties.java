@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.related;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.items.related")
+public class CoBookingProperties {
+
+    /**
+     * Количество соседей, хранимых для каждой вещи
+     */
+    private int maxNeighbours = 10;
+
+    /**
+     * Бронирующие, бравшие больше разных вещей, не учитываются: пар у них квадратично много,
+     * а о сходстве вещей они говорят мало
+     */
+    private int maxBasketSize = 200;
+
+    /**
+     * Количество бронирующих, читаемых из базы за один запрос при пересчёте
+     */
+    private int bookerBatchSize = 1000;
+
+    /**
+     * Количество потоков пересчёта модели
+     */
+    private int parallelism = 4;
+
+    /**
+     * Интервал полного пересчёта модели; 0 отключает пересчёт, модель пополняется только новыми бронированиями
+     */
+    private Duration rebuildInterval = Duration.ofHours(24);
+}
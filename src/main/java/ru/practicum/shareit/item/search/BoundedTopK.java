@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.search;
+
+/**
+ * Отбор K лучших результатов поиска за один проход без сортировки всех совпадений.
+ * <p>
+ * Хранит кандидатов в двоичной куче, в корне которой находится худший из отобранных:
+ * меньшая релевантность хуже, при равной релевантности хуже больший ID.
+ */
+public class BoundedTopK {
+
+    private final long[] ids;
+    private final double[] scores;
+    private int size;
+
+    public BoundedTopK(int capacity) {
+        this.ids = new long[Math.max(capacity, 0)];
+        this.scores = new double[Math.max(capacity, 0)];
+    }
+
+    /**
+     * Предлагает кандидата; он остаётся, только если лучше худшего из уже отобранных
+     *
+     * @param id    ID вещи
+     * @param score релевантность, больше — лучше
+     */
+    public void offer(long id, double score) {
+        if (ids.length == 0) {
+            return;
+        }
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (isWorse(ids[0], scores[0], id, score)) {
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Порог отбора для кандидатов, предлагаемых по возрастанию ID: кандидат с релевантностью не выше порога
+     * в отбор уже не попадёт. Пока отбор не заполнен, порог — минус бесконечность
+     *
+     * @return релевантность худшего из отобранных
+     */
+    public double threshold() {
+        if (ids.length == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return size < ids.length ? Double.NEGATIVE_INFINITY : scores[0];
+    }
+
+    /**
+     * Возвращает отобранные ID от лучшего к худшему. Куча после вызова пуста
+     *
+     * @return ID вещей по убыванию релевантности
+     */
+    public long[] drainBestFirst() {
+        long[] result = new long[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = ids[0];
+            size--;
+            ids[0] = ids[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    private static boolean isWorse(long id, double score, long otherId, double otherScore) {
+        return score < otherScore || (score == otherScore && id > otherId);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!isWorse(ids[index], scores[index], ids[parent], scores[parent])) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && isWorse(ids[left], scores[left], ids[worst], scores[worst])) {
+                worst = left;
+            }
+            if (right < size && isWorse(ids[right], scores[right], ids[worst], scores[worst])) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int first, int second) {
+        long id = ids[first];
+        ids[first] = ids[second];
+        ids[second] = id;
+        double score = scores[first];
+        scores[first] = scores[second];
+        scores[second] = score;
+    }
+}
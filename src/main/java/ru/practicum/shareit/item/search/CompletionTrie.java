@@ -0,0 +1,168 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Префиксное дерево токенов названий вещей с заранее посчитанными лучшими дополнениями в каждом узле.
+ * <p>
+ * Дети узла хранятся в отсортированных массивах символов, без отдельной карты на узел.
+ * Лучшие дополнения — токены, встречающиеся в названиях наибольшего числа вещей; при добавлении
+ * и удалении токена пересчитываются только узлы на его пути, поэтому ответ — это спуск по префиксу.
+ * Не потокобезопасно, синхронизация — на стороне индекса.
+ */
+public class CompletionTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    // Больше употреблений — выше; при равенстве по алфавиту
+    private static final Comparator<Node> ORDER = Comparator.comparingInt((Node node) -> node.count)
+            .reversed()
+            .thenComparing(node -> node.word);
+
+    private final int topSize;
+    private final Node root = new Node();
+
+    public CompletionTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    /**
+     * Учитывает ещё одно употребление токена
+     *
+     * @param token нормализованный токен
+     */
+    public void add(String token) {
+        Node[] path = new Node[token.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < token.length(); i++) {
+            node = node.childOrCreate(token.charAt(i));
+            path[i + 1] = node;
+        }
+        node.word = token;
+        node.count++;
+        refresh(path, token.length());
+    }
+
+    /**
+     * Снимает одно употребление токена; токен без употреблений удаляется из дерева
+     *
+     * @param token нормализованный токен
+     */
+    public void remove(String token) {
+        Node[] path = new Node[token.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < token.length(); i++) {
+            node = node.child(token.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path[i + 1] = node;
+        }
+        if (node.count == 0) {
+            return;
+        }
+        node.count--;
+        if (node.count == 0) {
+            node.word = null;
+        }
+        // Пустые ветви отрезаются, чтобы дерево не росло от переименований
+        int depth = token.length();
+        while (depth > 0 && path[depth].count == 0 && path[depth].childCount == 0) {
+            path[depth - 1].removeChild(token.charAt(depth - 1));
+            depth--;
+        }
+        refresh(path, depth);
+    }
+
+    /**
+     * Лучшие дополнения префикса
+     *
+     * @param prefix нормализованный префикс
+     * @param limit  максимальное количество дополнений
+     * @return токены по убыванию числа вещей
+     */
+    public List<String> complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        int size = Math.min(limit, node.top.length);
+        List<String> completions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            completions.add(node.top[i].word);
+        }
+        return completions;
+    }
+
+    private void refresh(Node[] path, int depth) {
+        for (int i = depth; i >= 0; i--) {
+            Node node = path[i];
+            List<Node> candidates = new ArrayList<>();
+            if (node.count > 0) {
+                candidates.add(node);
+            }
+            for (int c = 0; c < node.childCount; c++) {
+                candidates.addAll(Arrays.asList(node.children[c].top));
+            }
+            candidates.sort(ORDER);
+            node.top = candidates.subList(0, Math.min(topSize, candidates.size())).toArray(NO_NODES);
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_NODES;
+        private int childCount;
+
+        // Токен, заканчивающийся в этом узле, и число вещей с ним в названии
+        private String word;
+        private int count;
+
+        private Node[] top = NO_NODES;
+
+        private Node child(char key) {
+            int position = Arrays.binarySearch(keys, 0, childCount, key);
+            return position >= 0 ? children[position] : null;
+        }
+
+        private Node childOrCreate(char key) {
+            int position = Arrays.binarySearch(keys, 0, childCount, key);
+            if (position >= 0) {
+                return children[position];
+            }
+            int insertAt = -(position + 1);
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            Node child = new Node();
+            keys[insertAt] = key;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+
+        private void removeChild(char key) {
+            int position = Arrays.binarySearch(keys, 0, childCount, key);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(keys, position + 1, keys, position, childCount - position - 1);
+            System.arraycopy(children, position + 1, children, position, childCount - position - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+    }
+}
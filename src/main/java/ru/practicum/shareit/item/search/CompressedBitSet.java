@@ -0,0 +1,412 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Сжатое множество неотрицательных ID по схеме Roaring: ID делятся на блоки по 65536 значений,
+ * разреженный блок хранит отсортированные младшие 16 бит в массиве char, плотный — битовую карту
+ * из 1024 слов. Пересечение и мощность пересечения считаются поблочно, плотные блоки — через popcount.
+ * Не потокобезопасно, синхронизация — на стороне индекса.
+ */
+public class CompressedBitSet {
+
+    // Больше значений в массиве занимают больше места, чем битовая карта блока (8 КБ)
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final int GALLOP_RATIO = 32;
+
+    private static final long[] NO_KEYS = new long[0];
+    private static final Container[] NO_CONTAINERS = new Container[0];
+
+    // Старшие биты ID по возрастанию и блоки с младшими 16 битами
+    private long[] keys = NO_KEYS;
+    private Container[] containers = NO_CONTAINERS;
+    private int size;
+    private long cardinality;
+
+    public long cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Добавляет ID; добавление по возрастанию дописывает в последний блок без поиска
+     *
+     * @param id неотрицательный ID
+     * @return true, если ID ещё не было в множестве
+     */
+    public boolean add(long id) {
+        long key = id >>> 16;
+        int position = size > 0 && keys[size - 1] == key ? size - 1 : find(key);
+        if (position < 0) {
+            position = insertContainer(-(position + 1), key);
+        }
+        Container container = containers[position];
+        if (!container.add((char) id)) {
+            return false;
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * Удаляет ID, опустевший блок удаляется
+     *
+     * @param id неотрицательный ID
+     * @return true, если ID был в множестве
+     */
+    public boolean remove(long id) {
+        int position = find(id >>> 16);
+        if (position < 0 || !containers[position].remove((char) id)) {
+            return false;
+        }
+        cardinality--;
+        if (containers[position].cardinality == 0) {
+            System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+            System.arraycopy(containers, position + 1, containers, position, size - position - 1);
+            size--;
+            containers[size] = null;
+        }
+        return true;
+    }
+
+    public boolean contains(long id) {
+        int position = find(id >>> 16);
+        return position >= 0 && containers[position].contains((char) id);
+    }
+
+    /**
+     * Мощность пересечения без построения самого пересечения
+     *
+     * @param other другое множество
+     * @return количество общих ID
+     */
+    public long andCardinality(CompressedBitSet other) {
+        long count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                count += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Пересечение с другим множеством
+     *
+     * @param other другое множество
+     * @return новое множество общих ID
+     */
+    public CompressedBitSet and(CompressedBitSet other) {
+        CompressedBitSet result = new CompressedBitSet();
+        int capacity = Math.min(size, other.size);
+        result.keys = new long[capacity];
+        result.containers = new Container[capacity];
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container.cardinality > 0) {
+                    result.keys[result.size] = keys[i];
+                    result.containers[result.size] = container;
+                    result.size++;
+                    result.cardinality += container.cardinality;
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Копия, в которой каждый блок — битовая карта. Пересечение массива с картой стоит одной проверки бита
+     * на значение массива, поэтому множество, которое пересекается со многими другими, выгодно уплотнить
+     *
+     * @return копия с блоками в виде битовых карт
+     */
+    public CompressedBitSet toBitmaps() {
+        CompressedBitSet result = new CompressedBitSet();
+        result.keys = Arrays.copyOf(keys, size);
+        result.containers = new Container[size];
+        result.size = size;
+        result.cardinality = cardinality;
+        for (int i = 0; i < size; i++) {
+            result.containers[i] = containers[i].bitmapCopy();
+        }
+        return result;
+    }
+
+    /**
+     * Обходит ID по возрастанию
+     *
+     * @param consumer получает каждый ID
+     */
+    public void forEach(LongConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    private int find(long key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private int insertContainer(int insertAt, long key) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+        System.arraycopy(containers, insertAt, containers, insertAt + 1, size - insertAt);
+        keys[insertAt] = key;
+        containers[insertAt] = new Container();
+        size++;
+        return insertAt;
+    }
+
+    /**
+     * Блок из 65536 значений: отсортированный массив или битовая карта, но не то и другое сразу
+     */
+    private static final class Container {
+        private char[] values = new char[4];
+        private long[] bits;
+        private int cardinality;
+
+        private boolean contains(char value) {
+            if (bits != null) {
+                return (bits[value >>> 6] & (1L << value)) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        private boolean add(char value) {
+            if (bits != null) {
+                long mask = 1L << value;
+                if ((bits[value >>> 6] & mask) != 0) {
+                    return false;
+                }
+                bits[value >>> 6] |= mask;
+                cardinality++;
+                return true;
+            }
+            int position = cardinality > 0 && values[cardinality - 1] < value
+                    ? -(cardinality + 1)
+                    : Arrays.binarySearch(values, 0, cardinality, value);
+            if (position >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_MAX) {
+                toBitmap();
+                return add(value);
+            }
+            int insertAt = -(position + 1);
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, cardinality - insertAt);
+            values[insertAt] = value;
+            cardinality++;
+            return true;
+        }
+
+        private boolean remove(char value) {
+            if (bits != null) {
+                long mask = 1L << value;
+                if ((bits[value >>> 6] & mask) == 0) {
+                    return false;
+                }
+                bits[value >>> 6] &= ~mask;
+                cardinality--;
+                if (cardinality <= ARRAY_MAX / 2) {
+                    // Запас в половину порога, чтобы блок не переключался туда-обратно на границе
+                    toArray();
+                }
+                return true;
+            }
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+            cardinality--;
+            return true;
+        }
+
+        private long andCardinality(Container other) {
+            if (bits != null && other.bits != null) {
+                long count = 0;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    count += Long.bitCount(bits[w] & other.bits[w]);
+                }
+                return count;
+            }
+            if (bits != null) {
+                return other.andCardinality(this);
+            }
+            long count = 0;
+            if (other.bits != null) {
+                for (int k = 0; k < cardinality; k++) {
+                    char value = values[k];
+                    if ((other.bits[value >>> 6] & (1L << value)) != 0) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            if (cardinality * GALLOP_RATIO < other.cardinality) {
+                return gallopCount(other);
+            }
+            if (other.cardinality * GALLOP_RATIO < cardinality) {
+                return other.gallopCount(this);
+            }
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < other.cardinality) {
+                if (values[i] < other.values[j]) {
+                    i++;
+                } else if (values[i] > other.values[j]) {
+                    j++;
+                } else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count;
+        }
+
+        // Маленький массив против большого: двоичный поиск каждого значения дешевле слияния
+        private long gallopCount(Container larger) {
+            long count = 0;
+            int from = 0;
+            for (int k = 0; k < cardinality && from < larger.cardinality; k++) {
+                int position = Arrays.binarySearch(larger.values, from, larger.cardinality, values[k]);
+                if (position >= 0) {
+                    count++;
+                    from = position + 1;
+                } else {
+                    from = -(position + 1);
+                }
+            }
+            return count;
+        }
+
+        private Container and(Container other) {
+            Container result = new Container();
+            if (bits != null && other.bits != null) {
+                long[] words = new long[BITMAP_WORDS];
+                int count = 0;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    words[w] = bits[w] & other.bits[w];
+                    count += Long.bitCount(words[w]);
+                }
+                result.bits = words;
+                result.values = null;
+                result.cardinality = count;
+                if (count <= ARRAY_MAX) {
+                    result.toArray();
+                }
+                return result;
+            }
+            if (bits != null) {
+                return other.and(this);
+            }
+            char[] common = new char[Math.max(1, Math.min(cardinality, other.cardinality))];
+            int count = 0;
+            if (other.bits != null) {
+                for (int k = 0; k < cardinality; k++) {
+                    char value = values[k];
+                    if ((other.bits[value >>> 6] & (1L << value)) != 0) {
+                        common[count++] = value;
+                    }
+                }
+            } else {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < other.cardinality) {
+                    if (values[i] < other.values[j]) {
+                        i++;
+                    } else if (values[i] > other.values[j]) {
+                        j++;
+                    } else {
+                        common[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            }
+            result.values = common;
+            result.cardinality = count;
+            return result;
+        }
+
+        private void forEach(long base, LongConsumer consumer) {
+            if (bits == null) {
+                for (int k = 0; k < cardinality; k++) {
+                    consumer.accept(base | values[k]);
+                }
+                return;
+            }
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    consumer.accept(base | ((long) w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        private Container bitmapCopy() {
+            Container copy = new Container();
+            copy.cardinality = cardinality;
+            if (bits != null) {
+                copy.bits = bits.clone();
+            } else {
+                copy.values = values;
+                copy.toBitmap();
+            }
+            return copy;
+        }
+
+        private void toBitmap() {
+            bits = new long[BITMAP_WORDS];
+            for (int k = 0; k < cardinality; k++) {
+                bits[values[k] >>> 6] |= 1L << values[k];
+            }
+            values = null;
+        }
+
+        private void toArray() {
+            char[] array = new char[Math.max(1, cardinality)];
+            int count = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    array[count++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            values = array;
+            bits = null;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Словарь токенов для поиска слов в пределах заданного расстояния Левенштейна.
+ * <p>
+ * Слова хранятся в префиксном дереве; при поиске строка матрицы Левенштейна считается
+ * один раз на узел и наследуется детьми, а ветвь отсекается, как только минимум строки
+ * превышает допустимое расстояние. Так обходятся только префиксы, близкие к запросу,
+ * а не весь словарь. Не потокобезопасно, синхронизация — на стороне индекса.
+ */
+public class FuzzyVocabulary {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    private final Node root = new Node();
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Добавляет слово в словарь
+     *
+     * @param word нормализованное слово
+     * @return true, если слова ещё не было
+     */
+    public boolean add(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.childOrCreate(word.charAt(i));
+        }
+        if (node.word != null) {
+            return false;
+        }
+        node.word = word;
+        size++;
+        return true;
+    }
+
+    /**
+     * Удаляет слово из словаря вместе с опустевшими ветвями
+     *
+     * @param word нормализованное слово
+     * @return true, если слово было в словаре
+     */
+    public boolean remove(String word) {
+        Node[] path = new Node[word.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.child(word.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            path[i + 1] = node;
+        }
+        if (node.word == null) {
+            return false;
+        }
+        node.word = null;
+        size--;
+        for (int depth = word.length(); depth > 0 && path[depth].word == null && path[depth].childCount == 0; depth--) {
+            path[depth - 1].removeChild(word.charAt(depth - 1));
+        }
+        return true;
+    }
+
+    /**
+     * Находит слова словаря на расстоянии не больше заданного
+     *
+     * @param query       нормализованное слово запроса
+     * @param maxDistance максимальное расстояние Левенштейна
+     * @param visitor     получает найденное слово и расстояние до него
+     */
+    public void search(String query, int maxDistance, ObjIntConsumer<String> visitor) {
+        int[] firstRow = new int[query.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        if (root.word != null && firstRow[query.length()] <= maxDistance) {
+            visitor.accept(root.word, firstRow[query.length()]);
+        }
+        for (int c = 0; c < root.childCount; c++) {
+            search(root.children[c], root.keys[c], query, firstRow, maxDistance, visitor);
+        }
+    }
+
+    private static void search(Node node, char key, String query, int[] previousRow, int maxDistance,
+                               ObjIntConsumer<String> visitor) {
+        int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int substitution = previousRow[i - 1] + (query.charAt(i - 1) == key ? 0 : 1);
+            row[i] = Math.min(substitution, Math.min(previousRow[i], row[i - 1]) + 1);
+            rowMin = Math.min(rowMin, row[i]);
+        }
+        if (rowMin > maxDistance) {
+            // Дальнейшие символы расстояние только увеличивают
+            return;
+        }
+        int distance = row[row.length - 1];
+        if (node.word != null && distance <= maxDistance) {
+            visitor.accept(node.word, distance);
+        }
+        for (int c = 0; c < node.childCount; c++) {
+            search(node.children[c], node.keys[c], query, row, maxDistance, visitor);
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_NODES;
+        private int childCount;
+        private String word;
+
+        private Node child(char key) {
+            int position = Arrays.binarySearch(keys, 0, childCount, key);
+            return position >= 0 ? children[position] : null;
+        }
+
+        private Node childOrCreate(char key) {
+            int position = Arrays.binarySearch(keys, 0, childCount, key);
+            if (position >= 0) {
+                return children[position];
+            }
+            int insertAt = -(position + 1);
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            Node child = new Node();
+            keys[insertAt] = key;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+
+        private void removeChild(char key) {
+            int position = Arrays.binarySearch(keys, 0, childCount, key);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(keys, position + 1, keys, position, childCount - position - 1);
+            System.arraycopy(children, position + 1, children, position, childCount - position - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+    }
+}
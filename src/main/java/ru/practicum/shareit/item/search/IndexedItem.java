@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Документ индекса: доступная вещь вместе с нормализованным текстом для проверки совпадений.
+ */
+@Getter
+class IndexedItem {
+    private final long id;
+    private final Long ownerId;
+    private final Long requestId;
+    private final String name;
+    private final String description;
+    private final Double latitude;
+    private final Double longitude;
+    private final List<String> tags;
+    // Номера тегов в TagIndex: по ним считаются счётчики тегов без поиска по строкам
+    private final int[] tagOrdinals;
+    private final String searchName;
+    private final String searchDescription;
+
+    IndexedItem(ItemDto item, List<String> tags, int[] tagOrdinals) {
+        this.id = item.getId();
+        this.ownerId = item.getOwnerId();
+        this.requestId = item.getRequestId();
+        this.name = item.getName();
+        this.description = item.getDescription();
+        this.latitude = item.getLatitude();
+        this.longitude = item.getLongitude();
+        this.tags = tags;
+        this.tagOrdinals = tagOrdinals;
+        this.searchName = TextTokenizer.normalize(item.getName());
+        this.searchDescription = TextTokenizer.normalize(item.getDescription());
+    }
+
+    Set<String> tokens() {
+        Set<String> tokens = new LinkedHashSet<>(TextTokenizer.tokenize(searchName));
+        tokens.addAll(TextTokenizer.tokenize(searchDescription));
+        return tokens;
+    }
+
+    List<String> nameTokens() {
+        return TextTokenizer.tokenize(searchName);
+    }
+
+    ItemDto toItemDto() {
+        return ItemDto.builder()
+                .id(id)
+                .ownerId(ownerId)
+                .requestId(requestId)
+                .name(name)
+                .description(description)
+                .latitude(latitude)
+                .longitude(longitude)
+                .tags(tags)
+                .available(true)
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш страниц результатов поиска вещей.
+ * <p>
+ * Вытеснение — W-TinyLFU из Caffeine: новая запись попадает в основную область, только если
+ * её запрашивают чаще вытесняемой, поэтому редкие запросы не вымывают популярные.
+ * При изменении вещи сбрасываются только записи, токены запроса которых встречаются
+ * в старом или новом тексте вещи: остальные запросы эту вещь найти не могли.
+ */
+@Slf4j
+@Component
+public class ItemSearchCache {
+
+    private static final String CACHE_NAME = "itemSearch";
+
+    private final ItemSearchProperties searchProperties;
+    private final Cache<Key, ItemSearchResultDto> cache;
+    private final Counter invalidations;
+
+    // Увеличивается при каждом изменении вещей; ответ, посчитанный до изменения, в кэше не остаётся
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemSearchCache(ItemSearchProperties searchProperties, MeterRegistry meterRegistry) {
+        this.searchProperties = searchProperties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(searchProperties.getCacheMaxEntries())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("shareit.search.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Доля попаданий в кэш поиска вещей")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("shareit.search.cache.invalidations")
+                .description("Записи кэша поиска, сброшенные из-за изменения вещей")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Возвращает закэшированную страницу или вычисляет и кэширует её
+     *
+     * @param query  нормализованный текст запроса
+     * @param from   количество пропускаемых результатов
+     * @param limit  from + размер страницы после ограничений сервера
+     * @param fuzzy  поиск с исправлением опечаток
+     * @param loader вычисление страницы при промахе
+     * @return страница результатов поиска
+     */
+    public ItemSearchResultDto get(String query, int from, int limit, boolean fuzzy,
+                                   Supplier<ItemSearchResultDto> loader) {
+        if (!searchProperties.isCacheEnabled()) {
+            return loader.get();
+        }
+
+        Key key = new Key(query, from, limit, fuzzy);
+        ItemSearchResultDto cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long startGeneration = generation.get();
+        ItemSearchResultDto result = loader.get();
+        cache.put(key, result);
+        if (generation.get() != startGeneration) {
+            // Пока считали ответ, вещи изменились: ответ мог быть построен по старым данным
+            cache.invalidate(key);
+        }
+        return result;
+    }
+
+    /**
+     * Сбрасывает записи, на результаты которых могло повлиять изменение вещи
+     *
+     * @param previous состояние вещи до изменения или null для новой вещи
+     * @param current  состояние вещи после изменения
+     */
+    public void invalidate(ItemDto previous, ItemDto current) {
+        generation.incrementAndGet();
+        if (cache.estimatedSize() == 0) {
+            return;
+        }
+        if (searchProperties.getTrigramSimilarity() != null) {
+            // Нечёткий поиск находит вещи без точного вхождения токенов — сбрасываем всё
+            long size = cache.estimatedSize();
+            cache.invalidateAll();
+            invalidations.increment(size);
+            return;
+        }
+
+        String text = searchableText(previous) + '\n' + searchableText(current);
+        long before = cache.estimatedSize();
+        cache.asMap().keySet().removeIf(key -> key.isAffectedBy(text));
+        long removed = before - cache.estimatedSize();
+        if (removed > 0) {
+            invalidations.increment(removed);
+            log.debug("Из кэша поиска сброшено записей: {} после изменения вещи с ID: {}", removed, current.getId());
+        }
+    }
+
+    /**
+     * Сбрасывает весь кэш, например после пакетного импорта вещей
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        long size = cache.estimatedSize();
+        cache.invalidateAll();
+        if (size > 0) {
+            invalidations.increment(size);
+        }
+    }
+
+    private static String searchableText(ItemDto item) {
+        if (item == null) {
+            return "";
+        }
+        return TextTokenizer.normalize(item.getName()) + '\n' + TextTokenizer.normalize(item.getDescription());
+    }
+
+    @EqualsAndHashCode
+    private static final class Key {
+        private final String query;
+        private final int from;
+        private final int limit;
+        private final boolean fuzzy;
+        @EqualsAndHashCode.Exclude
+        private final List<String> tokens;
+        @EqualsAndHashCode.Exclude
+        private final boolean negated;
+
+        private Key(String query, int from, int limit, boolean fuzzy) {
+            this.query = query;
+            this.from = from;
+            this.limit = limit;
+            this.fuzzy = fuzzy;
+            String normalized = TextTokenizer.normalize(query);
+            this.tokens = TextTokenizer.tokenize(normalized);
+            // В полнотекстовом запросе "-слово" исключает вещи: результат зависит и от вещей без токенов
+            this.negated = normalized.startsWith("-") || normalized.contains(" -");
+        }
+
+        private boolean isAffectedBy(String itemText) {
+            // Запрос с исправлением опечаток находит вещи и без точного вхождения токенов
+            if (tokens.isEmpty() || negated || fuzzy) {
+                return true;
+            }
+            // Любое совпадение (LIKE, полнотекстовое, по триграммам) содержит хотя бы один токен запроса
+            for (String token : tokens) {
+                if (itemText.contains(token)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
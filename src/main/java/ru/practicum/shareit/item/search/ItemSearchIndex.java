@@ -0,0 +1,706 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemTags;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+import ru.practicum.shareit.item.dto.TagFacetDto;
+import ru.practicum.shareit.util.LongObjectMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Инвертированный индекс доступных вещей по токенам названия и описания.
+ * <p>
+ * Поиск сохраняет семантику {@code LIKE '%text%'}: токены документов, содержащие самый длинный токен
+ * запроса, находятся по триграммам словаря, их списки вещей сливаются по возрастанию ID, и каждый
+ * кандидат проверяется на вхождение всей строки запроса. Запросы, в которых все токены короче триграммы,
+ * индекс не обслуживает: такой токен входит почти в каждый документ, и ответ остаётся SQL-поиску.
+ * Вместе с индексом поддерживается дерево подсказок по токенам названий
+ * и сжатые множества вещей по тегам для фильтрации и счётчиков тегов.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+
+    private static final double NAME_MATCH_SCORE = 2.0;
+    private static final double DESCRIPTION_MATCH_SCORE = 1.0;
+
+    // Более короткие токены (предлоги, союзы) при сопоставлении текстов только добавляют шум
+    private static final int MIN_MATCH_TOKEN_LENGTH = 3;
+
+    /**
+     * Сколько дополнений префикса хранится в каждом узле дерева подсказок
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, LongPostingList> postings = new HashMap<>();
+    private LongObjectMap<IndexedItem> items = new LongObjectMap<>();
+    private CompletionTrie completions = new CompletionTrie(MAX_SUGGESTIONS);
+    private FuzzyVocabulary vocabulary = new FuzzyVocabulary();
+    private SubstringVocabulary substrings = new SubstringVocabulary();
+    private TagIndex tagIndex = new TagIndex();
+
+    // Изменения, пришедшие во время перестроения, переигрываются поверх загруженных данных
+    private List<ItemDto> pendingChanges;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Начинает перестроение индекса. Текущее содержимое продолжает обслуживать запросы до {@link #install}.
+     *
+     * @return построитель нового содержимого индекса
+     */
+    public Builder startRebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new Builder();
+    }
+
+    /**
+     * Подменяет содержимое индекса построенным и применяет изменения, пришедшие во время построения
+     *
+     * @param builder построитель, полученный из {@link #startRebuild()}
+     */
+    public void install(Builder builder) {
+        lock.writeLock().lock();
+        try {
+            postings = builder.postings;
+            items = builder.items;
+            completions = builder.completions;
+            vocabulary = builder.vocabulary;
+            substrings = builder.substrings;
+            tagIndex = builder.tagIndex;
+            if (pendingChanges != null) {
+                pendingChanges.forEach(this::applyLocked);
+                pendingChanges = null;
+            }
+            ready = true;
+            log.info("Поисковый индекс вещей построен, документов: {}, токенов: {}", items.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Применяет зафиксированное изменение вещи: недоступные вещи удаляются из индекса
+     *
+     * @param item состояние вещи после изменения
+     */
+    public void apply(ItemDto item) {
+        lock.writeLock().lock();
+        try {
+            applyLocked(item);
+            if (pendingChanges != null) {
+                pendingChanges.add(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Применяет пакет зафиксированных изменений под одной блокировкой
+     *
+     * @param changed изменённые вещи
+     */
+    public void applyAll(Collection<ItemDto> changed) {
+        lock.writeLock().lock();
+        try {
+            for (ItemDto item : changed) {
+                applyLocked(item);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.addAll(changed);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Поиск доступных вещей по тексту в названии или описании
+     *
+     * @param text текст для поиска
+     * @param from количество пропускаемых результатов
+     * @param size размер страницы
+     * @return страница результатов по релевантности или null, если индекс не может ответить на запрос
+     */
+    public ItemSearchResultDto search(String text, int from, int size) {
+        return search(text, List.of(), from, size);
+    }
+
+    /**
+     * Поиск доступных вещей по тексту в названии или описании среди вещей со всеми указанными тегами
+     *
+     * @param text текст для поиска, пустой — поиск только по тегам
+     * @param tags нормализованные теги фильтра, пустой список — без фильтра
+     * @param from количество пропускаемых результатов
+     * @param size размер страницы
+     * @return страница результатов по релевантности или null, если индекс не может ответить на запрос
+     */
+    public ItemSearchResultDto search(String text, List<String> tags, int from, int size) {
+        if (!ready) {
+            return null;
+        }
+        String query = TextTokenizer.normalize(text);
+        List<String> tokens = TextTokenizer.tokenize(query);
+        if (tokens.isEmpty() ? !query.isBlank() || tags.isEmpty() : !isSelective(tokens)) {
+            // Запрос из одних разделителей или из коротких токенов не отбирает кандидатов по токенам
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            CompressedBitSet filter = tagIndex.filter(tags);
+            // Как и в SQL-запросе: сначала совпадения в названии, затем в описании, внутри группы по ID.
+            // В куче держим только from + size лучших, остальные совпадения лишь подсчитываются
+            BoundedTopK topK = new BoundedTopK(from + size);
+            if (tokens.isEmpty()) {
+                // Только теги: все вещи фильтра с одинаковой релевантностью, то есть по ID
+                filter.forEach(id -> topK.offer(id, DESCRIPTION_MATCH_SCORE));
+                return toPage(topK.drainBestFirst(), from, filter.cardinality());
+            }
+
+            long[] total = new long[1];
+            forEachCandidate(tokens, id -> {
+                IndexedItem item = items.get(id);
+                double score = item == null || filter != null && !filter.contains(id) ? 0 : score(item, query);
+                if (score > 0) {
+                    topK.offer(id, score);
+                    total[0]++;
+                }
+            });
+
+            return toPage(topK.drainBestFirst(), from, total[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Самые частые теги среди вещей, которые нашёл бы поиск с теми же текстом и тегами
+     *
+     * @param text  текст для поиска, пустой — все доступные вещи
+     * @param tags  нормализованные теги фильтра, пустой список — без фильтра
+     * @param limit максимальное количество тегов
+     * @return теги по убыванию количества вещей или null, если индекс не может ответить на запрос,
+     *         в том числе на текст только из токенов короче триграммы
+     */
+    public List<TagFacetDto> facets(String text, List<String> tags, int limit) {
+        if (!ready) {
+            return null;
+        }
+        String query = TextTokenizer.normalize(text);
+        List<String> tokens = TextTokenizer.tokenize(query);
+        if (tokens.isEmpty() ? !query.isBlank() : !isSelective(tokens)) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            CompressedBitSet matches = tagIndex.filter(tags);
+            if (!tokens.isEmpty()) {
+                // Кандидаты идут по возрастанию ID, поэтому множество совпадений заполняется дописыванием
+                CompressedBitSet filter = matches;
+                CompressedBitSet textMatches = new CompressedBitSet();
+                // Запрос из одного токена и есть фрагмент, по которому отобраны кандидаты: каждый кандидат
+                // содержит его в названии или описании, а порядок по релевантности счётчикам не нужен
+                boolean verify = !query.equals(tokens.get(0));
+                forEachCandidate(tokens, id -> {
+                    if (filter != null && !filter.contains(id)) {
+                        return;
+                    }
+                    IndexedItem item = verify ? items.get(id) : null;
+                    if (!verify || item != null && score(item, query) > 0) {
+                        textMatches.add(id);
+                    }
+                });
+                matches = textMatches;
+            }
+            return tagIndex.facets(matches, id -> items.get(id).getTagOrdinals(), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Поиск с исправлением опечаток: каждый токен запроса раскрывается в токены словаря
+     * на расстоянии Левенштейна не больше допустимого, вещь должна содержать раскрытие каждого токена.
+     * Результаты упорядочены по сумме расстояний, при равенстве по ID
+     *
+     * @param text     текст для поиска
+     * @param maxEdits максимальное количество правок на токен
+     * @param from     количество пропускаемых результатов
+     * @param size     размер страницы
+     * @return страница результатов или null, если индекс не может ответить на запрос
+     */
+    public ItemSearchResultDto searchFuzzy(String text, int maxEdits, int from, int size) {
+        if (!ready) {
+            return null;
+        }
+        List<String> tokens = TextTokenizer.tokenize(TextTokenizer.normalize(text));
+        if (tokens.isEmpty()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            // Списки вещей раскрытий каждого токена сливаются курсорами, а токены пересекаются
+            // перескоком по отсортированным спискам: память зависит от числа раскрытий, а не от длины списков
+            List<TokenMatches> matches = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                TokenMatches tokenMatches = new TokenMatches();
+                vocabulary.search(token, allowedEdits(token, maxEdits),
+                        (word, distance) -> tokenMatches.add(postings.get(word), distance));
+                matches.add(tokenMatches);
+            }
+
+            BoundedTopK topK = new BoundedTopK(from + size);
+            long total = intersect(matches, topK);
+            return toPage(topK.drainBestFirst(), from, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Вещи, лучше всего подходящие к произвольному тексту, например к описанию запроса вещи.
+     * В отличие от поиска не требует вхождения всего текста: вещь получает вес каждого общего
+     * с текстом токена, редкие токены весят больше частых, совпадение в названии — больше, чем в описании
+     *
+     * @param text  текст для сопоставления
+     * @param limit максимальное количество вещей
+     * @return вещи по убыванию веса или null, если индекс не построен
+     */
+    public List<ItemDto> match(String text, int limit) {
+        if (!ready) {
+            return null;
+        }
+        List<String> tokens = TextTokenizer.tokenize(text);
+
+        lock.readLock().lock();
+        try {
+            // Токены по возрастанию наибольшего вклада; bounds[i] — сумма наибольших вкладов первых i токенов
+            List<MatchCursor> cursors = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                LongPostingList list = token.length() < MIN_MATCH_TOKEN_LENGTH ? null : postings.get(token);
+                if (list != null && !list.isEmpty()) {
+                    cursors.add(new MatchCursor(list, token, Math.log(1.0 + (double) items.size() / list.size())));
+                }
+            }
+            cursors.sort(Comparator.comparingDouble(MatchCursor::maxScore));
+            double[] bounds = new double[cursors.size() + 1];
+            for (int i = 0; i < cursors.size(); i++) {
+                bounds[i + 1] = bounds[i] + cursors.get(i).maxScore();
+            }
+
+            // Вещи обходятся по возрастанию ID. Когда отбор заполнен, вещь, в которой есть только токены
+            // с малым вкладом, не обгонит худшую из отобранных: перебираются лишь списки основных токенов,
+            // а в списках остальных вещь ищется двоичным поиском
+            BoundedTopK topK = new BoundedTopK(limit);
+            boolean[] matched = new boolean[cursors.size()];
+            int firstEssential = 0;
+            while (true) {
+                while (firstEssential < cursors.size() && bounds[firstEssential + 1] <= topK.threshold()) {
+                    firstEssential++;
+                }
+                long id = Long.MAX_VALUE;
+                for (int i = firstEssential; i < cursors.size(); i++) {
+                    MatchCursor cursor = cursors.get(i);
+                    if (!cursor.isExhausted()) {
+                        id = Math.min(id, cursor.current());
+                    }
+                }
+                if (id == Long.MAX_VALUE) {
+                    break;
+                }
+                // Сначала по спискам определяется, в каких токенах есть вещь, и оценка сверху её веса:
+                // вещь, которая не обгонит худшую из отобранных, не читается вовсе
+                double bound = 0;
+                for (int i = 0; i < cursors.size(); i++) {
+                    MatchCursor cursor = cursors.get(i);
+                    boolean contains = i < firstEssential
+                            ? cursor.seek(id) && cursor.current() == id
+                            : !cursor.isExhausted() && cursor.current() == id;
+                    if (contains) {
+                        bound += cursor.maxScore();
+                        if (i >= firstEssential) {
+                            cursor.advance();
+                        }
+                    }
+                    matched[i] = contains;
+                }
+                if (bound <= topK.threshold()) {
+                    continue;
+                }
+                // Вклады складываются в порядке токенов: иначе равные веса могли бы разойтись в последнем знаке
+                String searchName = items.get(id).getSearchName();
+                double score = 0;
+                for (int i = 0; i < cursors.size(); i++) {
+                    if (matched[i]) {
+                        score += cursors.get(i).score(searchName);
+                    }
+                }
+                topK.offer(id, score);
+            }
+            long[] best = topK.drainBestFirst();
+            return toPage(best, 0, best.length).getItems();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Подсказки для строки поиска: токены названий доступных вещей, начинающиеся с префикса
+     *
+     * @param prefix начало слова
+     * @param limit  максимальное количество подсказок, не больше {@link #MAX_SUGGESTIONS}
+     * @return токены по убыванию числа вещей, в названии которых они встречаются, или null, если индекс не построен
+     */
+    public List<String> suggest(String prefix, int limit) {
+        if (!ready) {
+            return null;
+        }
+        String normalized = TextTokenizer.normalize(prefix).trim();
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return completions.complete(normalized, Math.min(limit, MAX_SUGGESTIONS));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private ItemSearchResultDto toPage(long[] best, int from, long total) {
+        List<ItemDto> page = new ArrayList<>(Math.max(best.length - from, 0));
+        for (int i = from; i < best.length; i++) {
+            page.add(items.get(best[i]).toItemDto());
+        }
+        return new ItemSearchResultDto(page, total);
+    }
+
+    private static double score(IndexedItem item, String query) {
+        if (item.getSearchName().contains(query)) {
+            return NAME_MATCH_SCORE;
+        }
+        return item.getSearchDescription().contains(query) ? DESCRIPTION_MATCH_SCORE : 0;
+    }
+
+    private static int allowedEdits(String token, int maxEdits) {
+        // В коротких токенах одна-две правки превращают слово почти в любое другое
+        if (token.length() < 3) {
+            return 0;
+        }
+        return Math.min(token.length() == 3 ? 1 : 2, maxEdits);
+    }
+
+    private static boolean isSelective(List<String> tokens) {
+        return tokens.stream().anyMatch(token -> token.length() >= SubstringVocabulary.MIN_FRAGMENT_LENGTH);
+    }
+
+    /**
+     * Обходит по возрастанию ID вещи, в токенах которых встречается самый длинный токен запроса.
+     * Каждый токен запроса целиком входит в какой-то токен подходящего документа, поэтому достаточно
+     * одного токена, а длинный фрагмент встречается в меньшем числе токенов словаря
+     */
+    private void forEachCandidate(List<String> tokens, LongConsumer consumer) {
+        String longest = tokens.get(0);
+        for (String token : tokens) {
+            if (token.length() > longest.length()) {
+                longest = token;
+            }
+        }
+        List<LongPostingList> lists = new ArrayList<>();
+        substrings.forEachContaining(longest, token -> lists.add(postings.get(token)));
+        merge(lists, consumer);
+    }
+
+    /**
+     * Пересечение вещей всех токенов по возрастанию ID: отстающие токены перескакивают
+     * к наибольшему текущему ID, совпавшая вещь предлагается в отбор с суммой расстояний своих токенов
+     *
+     * @return количество вещей, найденных по всем токенам
+     */
+    private static long intersect(List<TokenMatches> matches, BoundedTopK topK) {
+        for (TokenMatches tokenMatches : matches) {
+            if (!tokenMatches.next()) {
+                return 0;
+            }
+        }
+        long total = 0;
+        while (true) {
+            long target = matches.get(0).current;
+            for (TokenMatches tokenMatches : matches) {
+                target = Math.max(target, tokenMatches.current);
+            }
+            boolean aligned = true;
+            for (TokenMatches tokenMatches : matches) {
+                if (tokenMatches.current < target && !tokenMatches.advanceTo(target)) {
+                    return total;
+                }
+                aligned &= tokenMatches.current == target;
+            }
+            if (!aligned) {
+                continue;
+            }
+            int distance = 0;
+            for (TokenMatches tokenMatches : matches) {
+                distance += tokenMatches.distance;
+            }
+            topK.offer(target, -distance);
+            total++;
+            for (TokenMatches tokenMatches : matches) {
+                if (!tokenMatches.next()) {
+                    return total;
+                }
+            }
+        }
+    }
+
+    /**
+     * Слияние отсортированных списков без повторов: в куче по одному курсору на список,
+     * память не зависит от суммарной длины списков
+     */
+    private static void merge(List<LongPostingList> lists, LongConsumer consumer) {
+        if (lists.size() == 1) {
+            LongPostingList list = lists.get(0);
+            for (int i = 0; i < list.size(); i++) {
+                consumer.accept(list.get(i));
+            }
+            return;
+        }
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(Math.max(1, lists.size()));
+        for (LongPostingList list : lists) {
+            if (!list.isEmpty()) {
+                heap.add(new Cursor(list));
+            }
+        }
+        long previous = -1;
+        while (!heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            long id = cursor.current();
+            if (id != previous) {
+                consumer.accept(id);
+                previous = id;
+            }
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+    }
+
+    private void applyLocked(ItemDto item) {
+        IndexedItem previous = items.remove(item.getId());
+        if (previous != null) {
+            for (String token : previous.tokens()) {
+                LongPostingList list = postings.get(token);
+                if (list != null && list.remove(previous.getId()) && list.isEmpty()) {
+                    postings.remove(token);
+                    vocabulary.remove(token);
+                    substrings.remove(token);
+                }
+            }
+            previous.nameTokens().forEach(completions::remove);
+            tagIndex.remove(previous.getId(), previous.getTagOrdinals());
+        }
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            addTo(postings, items, completions, vocabulary, substrings, tagIndex, item);
+        }
+    }
+
+    private static void addTo(Map<String, LongPostingList> postings, LongObjectMap<IndexedItem> items,
+                              CompletionTrie completions, FuzzyVocabulary vocabulary,
+                              SubstringVocabulary substrings, TagIndex tagIndex, ItemDto itemDto) {
+        List<String> tags = ItemTags.normalize(itemDto.getTags());
+        IndexedItem item = new IndexedItem(itemDto, tags, tagIndex.add(itemDto.getId(), tags));
+        items.put(item.getId(), item);
+        for (String token : item.tokens()) {
+            postings.computeIfAbsent(token, key -> {
+                vocabulary.add(key);
+                substrings.add(key);
+                return new LongPostingList();
+            }).add(item.getId());
+        }
+        item.nameTokens().forEach(completions::add);
+    }
+
+    /**
+     * Построитель содержимого индекса, заполняется без блокировок
+     */
+    public static class Builder {
+        private final Map<String, LongPostingList> postings = new HashMap<>();
+        private final LongObjectMap<IndexedItem> items = new LongObjectMap<>();
+        private final CompletionTrie completions = new CompletionTrie(MAX_SUGGESTIONS);
+        private final FuzzyVocabulary vocabulary = new FuzzyVocabulary();
+        private final SubstringVocabulary substrings = new SubstringVocabulary();
+        private final TagIndex tagIndex = new TagIndex();
+
+        public void add(ItemDto item) {
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                addTo(postings, items, completions, vocabulary, substrings, tagIndex, item);
+            }
+        }
+    }
+
+    /**
+     * Вещи, содержащие какое-либо раскрытие одного токена запроса, по возрастанию ID
+     * с наименьшим расстоянием среди раскрытий, найденных в вещи
+     */
+    private static final class TokenMatches {
+        private final PriorityQueue<Cursor> heap = new PriorityQueue<>();
+        private long current;
+        private int distance;
+
+        private void add(LongPostingList list, int distance) {
+            if (list != null && !list.isEmpty()) {
+                heap.add(new Cursor(list, distance));
+            }
+        }
+
+        private boolean next() {
+            if (heap.isEmpty()) {
+                return false;
+            }
+            Cursor cursor = heap.poll();
+            current = cursor.current();
+            distance = cursor.distance;
+            advance(cursor);
+            while (!heap.isEmpty() && heap.peek().current() == current) {
+                cursor = heap.poll();
+                distance = Math.min(distance, cursor.distance);
+                advance(cursor);
+            }
+            return true;
+        }
+
+        /**
+         * Переходит к первой вещи с ID не меньше заданного
+         *
+         * @return false, если таких вещей нет
+         */
+        private boolean advanceTo(long target) {
+            while (!heap.isEmpty() && heap.peek().current() < target) {
+                Cursor cursor = heap.poll();
+                if (cursor.seek(target)) {
+                    heap.add(cursor);
+                }
+            }
+            return next();
+        }
+
+        private void advance(Cursor cursor) {
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+    }
+
+    /**
+     * Позиция в списке вещей при слиянии
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+        private final LongPostingList list;
+        // Расстояние раскрытия, которому принадлежит список, при поиске с опечатками
+        private final int distance;
+        private int position;
+
+        private Cursor(LongPostingList list) {
+            this(list, 0);
+        }
+
+        private Cursor(LongPostingList list, int distance) {
+            this.list = list;
+            this.distance = distance;
+        }
+
+        private long current() {
+            return list.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < list.size();
+        }
+
+        private boolean seek(long target) {
+            position = list.indexAtLeast(target, position);
+            return position < list.size();
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return Long.compare(current(), other.current());
+        }
+    }
+
+    /**
+     * Позиция в списке вещей токена при сопоставлении текста, с токеном и его весом
+     */
+    private static final class MatchCursor {
+        private final LongPostingList list;
+        private final String token;
+        private final double idf;
+        private int position;
+
+        private MatchCursor(LongPostingList list, String token, double idf) {
+            this.list = list;
+            this.token = token;
+            this.idf = idf;
+        }
+
+        private double maxScore() {
+            return idf * NAME_MATCH_SCORE;
+        }
+
+        private double score(String searchName) {
+            // Вхождение подстрокой — дешёвое приближение принадлежности токена названию
+            return idf * (searchName.contains(token) ? NAME_MATCH_SCORE : DESCRIPTION_MATCH_SCORE);
+        }
+
+        private boolean isExhausted() {
+            return position >= list.size();
+        }
+
+        private long current() {
+            return list.get(position);
+        }
+
+        private void advance() {
+            position++;
+        }
+
+        private boolean seek(long target) {
+            position = list.indexAtLeast(target, position);
+            return position < list.size();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dao.ItemMapper;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsImportedEvent;
+import ru.practicum.shareit.item.event.ItemsUpdatedEvent;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Строит поисковый индекс при старте приложения и поддерживает его и кэш поиска по событиям изменения вещей.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndexer {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSearchCache searchCache;
+    private final ItemSearchProperties searchProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!searchProperties.isIndexEnabled()) {
+            log.info("Поисковый индекс вещей отключён, поиск выполняется SQL-запросом");
+            return;
+        }
+
+        ItemSearchIndex.Builder builder = searchIndex.startRebuild();
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findAvailableAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Item item : batch) {
+                builder.add(ItemMapper.toItemDto(item));
+                lastId = item.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        searchIndex.install(builder);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        log.debug("Обновление поискового индекса для вещи с ID: {}", event.getCurrent().getId());
+        searchIndex.apply(event.getCurrent());
+        // Кэш сбрасывается после индекса, иначе промах успеет заполнить его из старого индекса
+        searchCache.invalidate(event.getPrevious(), event.getCurrent());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemsImported(ItemsImportedEvent event) {
+        log.debug("Обновление поискового индекса для импортированных вещей, количество: {}", event.getItems().size());
+        searchIndex.applyAll(event.getItems());
+        // Пакет затрагивает сотни запросов: дешевле сбросить кэш, чем проверять каждую запись на каждую вещь
+        searchCache.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemsUpdated(ItemsUpdatedEvent event) {
+        log.debug("Обновление поискового индекса для изменённых вещей, количество: {}", event.getCurrent().size());
+        searchIndex.applyAll(event.getCurrent());
+        searchCache.invalidateAll();
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.search")
+public class ItemSearchProperties {
+
+    /**
+     * Отвечать на поиск из индекса в памяти, а не SQL-запросом
+     */
+    private boolean indexEnabled = true;
+
+    /**
+     * Сверять ответы индекса с SQL-запросом и логировать расхождения
+     */
+    private boolean verifyIndex = false;
+
+    /**
+     * Использовать полнотекстовый поиск PostgreSQL вместо LIKE, когда индекс в памяти не отвечает
+     */
+    private boolean fullTextEnabled = false;
+
+    /**
+     * Использовать триграммные индексы PostgreSQL для запросов-фрагментов и при промахе полнотекстового поиска
+     */
+    private boolean trigramEnabled = false;
+
+    /**
+     * Порог словесного сходства триграмм; если не задан, триграммный поиск ищет точную подстроку
+     */
+    private Double trigramSimilarity;
+
+    /**
+     * Максимальная глубина пагинации: результаты дальше этой позиции не выдаются
+     */
+    private int maxResults = 1000;
+
+    /**
+     * Максимальный размер страницы поиска, больший size из запроса урезается
+     */
+    private int maxPageSize = 100;
+
+    /**
+     * Максимальное количество правок на токен в поиске с исправлением опечаток
+     */
+    private int fuzzyMaxEdits = 2;
+
+    /**
+     * Кэшировать страницы результатов поиска
+     */
+    private boolean cacheEnabled = true;
+
+    /**
+     * Максимальное количество закэшированных страниц поиска
+     */
+    private long cacheMaxEntries = 10_000;
+
+    /**
+     * Максимальный радиус поиска по местоположению в километрах
+     */
+    private double geoMaxRadiusKm = 100;
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Отсортированный список ID вещей без упаковки в Long.
+ * Не потокобезопасен, синхронизация — на стороне индекса.
+ */
+public class LongPostingList {
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] ids = EMPTY;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long get(int index) {
+        return ids[index];
+    }
+
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * Позиция первого ID не меньше заданного
+     *
+     * @param id        искомый ID
+     * @param fromIndex позиция, с которой начинается поиск
+     * @return позиция или {@link #size()}, если все ID меньше
+     */
+    public int indexAtLeast(long id, int fromIndex) {
+        int position = Arrays.binarySearch(ids, fromIndex, size, id);
+        return position >= 0 ? position : -(position + 1);
+    }
+
+    /**
+     * Добавляет ID, сохраняя порядок; новые вещи обычно получают наибольший ID и дописываются в конец
+     *
+     * @param id ID вещи
+     * @return true, если ID ещё не было в списке
+     */
+    public boolean add(long id) {
+        int position = size > 0 && ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return false;
+        }
+        int insertAt = -(position + 1);
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(4, size + (size >> 1)));
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+        return true;
+    }
+
+    /**
+     * Удаляет ID из списка
+     *
+     * @param id ID вещи
+     * @return true, если ID был в списке
+     */
+    public boolean remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        if (size == 0) {
+            ids = EMPTY;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Словарь токенов для поиска токенов, содержащих фрагмент.
+ * <p>
+ * Каждый токен записан под всеми своими триграммами. Токен, содержащий фрагмент, содержит и все его
+ * триграммы, поэтому кандидаты берутся из самого короткого списка среди триграмм фрагмента и проверяются
+ * на вхождение целиком — без обхода всего словаря. Фрагменты короче триграммы так не ищутся.
+ * Не потокобезопасно, синхронизация — на стороне индекса.
+ */
+public class SubstringVocabulary {
+
+    /**
+     * Минимальная длина фрагмента, который можно искать по словарю
+     */
+    public static final int MIN_FRAGMENT_LENGTH = 3;
+
+    private static final Set<String> NO_TOKENS = Set.of();
+
+    private final Map<String, Set<String>> tokensByTrigram = new HashMap<>();
+
+    /**
+     * Добавляет токен; токены короче триграммы не содержат ни одного искомого фрагмента и не хранятся
+     *
+     * @param token нормализованный токен
+     */
+    public void add(String token) {
+        for (int i = 0; i + MIN_FRAGMENT_LENGTH <= token.length(); i++) {
+            tokensByTrigram.computeIfAbsent(token.substring(i, i + MIN_FRAGMENT_LENGTH), key -> new HashSet<>())
+                    .add(token);
+        }
+    }
+
+    /**
+     * Удаляет токен вместе с опустевшими триграммами
+     *
+     * @param token нормализованный токен
+     */
+    public void remove(String token) {
+        for (int i = 0; i + MIN_FRAGMENT_LENGTH <= token.length(); i++) {
+            String trigram = token.substring(i, i + MIN_FRAGMENT_LENGTH);
+            Set<String> tokens = tokensByTrigram.get(trigram);
+            if (tokens != null && tokens.remove(token) && tokens.isEmpty()) {
+                tokensByTrigram.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Обходит токены, содержащие фрагмент
+     *
+     * @param fragment нормализованный фрагмент не короче {@link #MIN_FRAGMENT_LENGTH}
+     * @param consumer получает каждый подходящий токен
+     */
+    public void forEachContaining(String fragment, Consumer<String> consumer) {
+        if (fragment.length() < MIN_FRAGMENT_LENGTH) {
+            throw new IllegalArgumentException("Фрагмент короче триграммы: " + fragment);
+        }
+        Set<String> shortest = null;
+        for (int i = 0; i + MIN_FRAGMENT_LENGTH <= fragment.length(); i++) {
+            Set<String> tokens = tokensByTrigram.getOrDefault(fragment.substring(i, i + MIN_FRAGMENT_LENGTH), NO_TOKENS);
+            if (shortest == null || tokens.size() < shortest.size()) {
+                shortest = tokens;
+            }
+            if (shortest.isEmpty()) {
+                return;
+            }
+        }
+        for (String token : shortest) {
+            if (token.contains(fragment)) {
+                consumer.accept(token);
+            }
+        }
+    }
+}
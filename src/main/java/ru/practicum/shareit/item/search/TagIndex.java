@@ -0,0 +1,161 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.TagFacetDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongFunction;
+
+/**
+ * Теги доступных вещей: для каждого тега — сжатое множество ID вещей с ним и порядковый номер тега.
+ * <p>
+ * Счётчики тегов по набору найденных вещей считаются одним из двух способов. Небольшой набор
+ * обходится по вещам, у каждой вещи известны номера её тегов. Большой набор пересекается
+ * с множеством каждого тега, теги перебираются по убыванию размера: как только размер тега меньше
+ * худшего из уже отобранных счётчиков, остальные теги в ответ попасть не могут.
+ * Не потокобезопасно, синхронизация — на стороне индекса.
+ */
+class TagIndex {
+
+    // До этого размера набора обход вещей дешевле пересечения с множеством каждого тега
+    static final int PER_ITEM_COUNT_LIMIT = 50_000;
+
+    private static final int[] NO_ORDINALS = new int[0];
+
+    // Больше вещей — выше; при равенстве по алфавиту
+    private static final Comparator<TagFacetDto> ORDER = Comparator.comparingLong(TagFacetDto::getCount)
+            .reversed()
+            .thenComparing(TagFacetDto::getTag);
+
+    // Тег без вещей остаётся со своим номером до перестроения индекса, чтобы номера у вещей не сдвигались
+    private final Map<String, Tag> tags = new HashMap<>();
+    private final List<Tag> byOrdinal = new ArrayList<>();
+
+    /**
+     * Добавляет вещь в множества её тегов
+     *
+     * @param id       ID вещи
+     * @param itemTags нормализованные теги вещи
+     * @return номера тегов вещи
+     */
+    int[] add(long id, List<String> itemTags) {
+        if (itemTags.isEmpty()) {
+            return NO_ORDINALS;
+        }
+        int[] ordinals = new int[itemTags.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            Tag tag = tags.computeIfAbsent(itemTags.get(i), name -> {
+                Tag created = new Tag(name, byOrdinal.size());
+                byOrdinal.add(created);
+                return created;
+            });
+            tag.items.add(id);
+            ordinals[i] = tag.ordinal;
+        }
+        return ordinals;
+    }
+
+    /**
+     * Удаляет вещь из множеств её тегов
+     *
+     * @param id       ID вещи
+     * @param ordinals номера тегов вещи, полученные из {@link #add}
+     */
+    void remove(long id, int[] ordinals) {
+        for (int ordinal : ordinals) {
+            byOrdinal.get(ordinal).items.remove(id);
+        }
+    }
+
+    /**
+     * Вещи, у которых есть все указанные теги
+     *
+     * @param filterTags нормализованные теги фильтра
+     * @return пересечение множеств тегов или null, если фильтра нет
+     */
+    CompressedBitSet filter(List<String> filterTags) {
+        CompressedBitSet result = null;
+        for (String name : filterTags) {
+            Tag tag = tags.get(name);
+            if (tag == null) {
+                return new CompressedBitSet();
+            }
+            // Пересечение с собой — копия: множество тега меняется при следующих изменениях вещей
+            result = result == null ? tag.items.and(tag.items) : result.and(tag.items);
+        }
+        return result;
+    }
+
+    /**
+     * Самые частые теги среди найденных вещей
+     *
+     * @param matches    найденные вещи или null, если подходят все
+     * @param ordinalsOf номера тегов вещи по её ID
+     * @param limit      максимальное количество тегов
+     * @return теги по убыванию количества вещей, без тегов с нулевым количеством
+     */
+    List<TagFacetDto> facets(CompressedBitSet matches, LongFunction<int[]> ordinalsOf, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        // В корне кучи худший из отобранных
+        PriorityQueue<TagFacetDto> best = new PriorityQueue<>(limit, ORDER.reversed());
+        if (matches != null && matches.cardinality() <= PER_ITEM_COUNT_LIMIT) {
+            long[] counts = new long[byOrdinal.size()];
+            matches.forEach(id -> {
+                for (int ordinal : ordinalsOf.apply(id)) {
+                    counts[ordinal]++;
+                }
+            });
+            for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+                offer(best, limit, byOrdinal.get(ordinal).name, counts[ordinal]);
+            }
+        } else {
+            // Набор пересекается с каждым тегом: в виде битовых карт это проверка бита на вещь тега вместо слияния массивов
+            CompressedBitSet dense = matches == null ? null : matches.toBitmaps();
+            List<Tag> bySize = new ArrayList<>(byOrdinal);
+            bySize.sort(Comparator.comparingLong((Tag tag) -> tag.items.cardinality()).reversed());
+            for (Tag tag : bySize) {
+                long size = tag.items.cardinality();
+                if (size == 0 || best.size() == limit && size < best.peek().getCount()) {
+                    // Счётчик тега не больше его размера, а размеры дальше только меньше
+                    break;
+                }
+                offer(best, limit, tag.name, dense == null ? size : tag.items.andCardinality(dense));
+            }
+        }
+        List<TagFacetDto> facets = new ArrayList<>(best);
+        facets.sort(ORDER);
+        return facets;
+    }
+
+    private static void offer(PriorityQueue<TagFacetDto> best, int limit, String tag, long count) {
+        if (count == 0) {
+            return;
+        }
+        if (best.size() < limit) {
+            best.add(new TagFacetDto(tag, count));
+            return;
+        }
+        TagFacetDto worst = best.peek();
+        if (count > worst.getCount() || count == worst.getCount() && tag.compareTo(worst.getTag()) < 0) {
+            best.poll();
+            best.add(new TagFacetDto(tag, count));
+        }
+    }
+
+    private static final class Tag {
+        private final String name;
+        private final int ordinal;
+        private final CompressedBitSet items = new CompressedBitSet();
+
+        private Tag(String name, int ordinal) {
+            this.name = name;
+            this.ordinal = ordinal;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@UtilityClass
+public class TextTokenizer {
+
+    /**
+     * Приводит текст к виду, в котором он хранится в индексах
+     *
+     * @param text исходный текст
+     * @return текст в нижнем регистре
+     */
+    public String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Разбивает текст на токены из букв и цифр
+     *
+     * @param text исходный текст
+     * @return уникальные токены в порядке появления
+     */
+    public List<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        String normalized = normalize(text);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean tokenChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+}
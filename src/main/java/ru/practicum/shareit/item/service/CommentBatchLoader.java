@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.CommentProperties;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.dao.CommentMapper;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.util.LongObjectMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Загрузка встраиваемых комментариев сразу для всех вещей ответа.
+ * <p>
+ * ID вещей разбиваются на порции по {@code shareit.comments.batch-size}; на порцию выполняются два запроса:
+ * ID последних комментариев каждой вещи вместе с их общим количеством и сами комментарии с авторами.
+ * Количество запросов не зависит ни от числа вещей в порции, ни от числа комментариев.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentBatchLoader {
+
+    private final CommentRepository commentRepository;
+    private final CommentProperties commentProperties;
+
+    /**
+     * Загружает последние комментарии и их количество для списка вещей
+     *
+     * @param itemIds ID вещей
+     * @return комментарии по ID вещи; вещей без комментариев в результате нет
+     */
+    public LongObjectMap<ItemComments> loadNewest(List<Long> itemIds) {
+        LongObjectMap<ItemComments> result = new LongObjectMap<>(itemIds.size());
+        int batchSize = commentProperties.getBatchSize();
+        for (int from = 0; from < itemIds.size(); from += batchSize) {
+            loadChunk(itemIds.subList(from, Math.min(from + batchSize, itemIds.size())), result);
+        }
+        log.debug("Загружены комментарии для {} вещей, с комментариями: {}", itemIds.size(), result.size());
+        return result;
+    }
+
+    private void loadChunk(List<Long> itemIds, LongObjectMap<ItemComments> result) {
+        List<Object[]> rows = commentRepository.findNewestIdsByItemIdIn(itemIds, commentProperties.getInlineLimit());
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Long> commentIds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            long itemId = ((Number) row[0]).longValue();
+            long total = ((Number) row[2]).longValue();
+            commentIds.add(((Number) row[1]).longValue());
+            result.computeIfAbsent(itemId, id -> new ItemComments(new ArrayList<>(), total));
+        }
+
+        // Запрос упорядочен от новых к старым, поэтому порядок внутри каждой вещи сохраняется
+        for (Comment comment : commentRepository.findWithAuthorByIdIn(commentIds)) {
+            result.get(comment.getItem().getId()).comments.add(CommentMapper.toCommentDto(comment));
+        }
+    }
+
+    /**
+     * Последние комментарии вещи и общее количество её комментариев
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ItemComments {
+        public static final ItemComments EMPTY = new ItemComments(Collections.emptyList(), 0);
+
+        private final List<CommentDto> comments;
+        private final long count;
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemImageDto;
+import ru.practicum.shareit.item.image.ImageFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public interface ItemImageService {
+
+    /**
+     * Сохраняет изображение вещи; повторная загрузка того же файла возвращает уже сохранённое изображение
+     *
+     * @param itemId      ID вещи
+     * @param userId      ID владельца вещи
+     * @param contentType тип содержимого из заголовка запроса
+     * @param input       тело запроса
+     * @return сохранённое изображение
+     */
+    ItemImageDto upload(long itemId, long userId, String contentType, InputStream input) throws IOException;
+
+    /**
+     * Изображения вещи в порядке загрузки
+     *
+     * @param itemId ID вещи
+     * @return изображения вещи
+     */
+    List<ItemImageDto> getList(long itemId);
+
+    /**
+     * Файл изображения вещи для отдачи
+     *
+     * @param itemId ID вещи
+     * @param hash   SHA-256 содержимого
+     * @return файл изображения
+     */
+    ImageFile getFile(long itemId, String hash);
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ItemImportService {
+    ItemImportResultDto importItems(InputStream input, long userId) throws IOException;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.PopularItemsDto;
+
+public interface ItemPopularityService {
+
+    /**
+     * Самые бронируемые и самые просматриваемые вещи за окно
+     *
+     * @param window окно: 24h или 7d
+     * @param size   размер каждого списка
+     * @return популярные вещи по убыванию количества событий
+     */
+    PopularItemsDto getPopular(String window, int size);
+}
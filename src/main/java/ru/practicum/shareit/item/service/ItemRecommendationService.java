@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.RelatedItemDto;
+
+import java.util.List;
+
+public interface ItemRecommendationService {
+
+    /**
+     * Доступные вещи, которые бронировали пользователи, бравшие указанную вещь
+     *
+     * @param itemId ID вещи
+     * @param size   максимальное количество рекомендаций
+     * @return вещи по убыванию числа общих бронирующих
+     */
+    List<RelatedItemDto> getRelated(long itemId, int size);
+}
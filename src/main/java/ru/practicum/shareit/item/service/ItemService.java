@@ -1,19 +1,40 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.util.FieldSet;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto create(ItemCreateDto itemData, long userId);
 
     ItemDto update(ItemUpdateDto itemData, long itemId, long userId);
 
+    ItemAvailabilityResultDto updateAvailability(ItemAvailabilityUpdateDto availabilityData, long userId);
+
     List<ItemWithBookingsDto> getList(long userId);
 
+    List<ItemWithBookingsDto> getList(long userId, FieldSet fields);
+
     ItemDetailedDto retrieve(long itemId, long userId);
 
-    List<ItemDto> search(String text);
+    ItemSearchResultDto search(String text, int from, int size, boolean fuzzy);
+
+    ItemSearchResultDto searchNearby(String text, List<String> tags, Double latitude, Double longitude,
+                                     Double radiusKm, int from, int size, boolean fuzzy);
+
+    ItemSearchResultDto searchByTags(String text, List<String> tags, int from, int size, boolean fuzzy);
+
+    List<TagFacetDto> getFacets(String text, List<String> tags, int size);
+
+    List<String> suggest(String prefix, int size);
 
     CommentDto addComment(long itemId, long userId, CommentCreateDto commentCreateDto);
+
+    CommentPageDto getComments(long itemId, String cursor, int limit);
+
+    long getChangesUntil(long since, int limit);
+
+    void streamChanges(long since, long until, Consumer<ItemChangeDto> consumer);
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package ru.practicum.shareit.item.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemImageDto;
+import ru.practicum.shareit.item.image.ImageFile;
+import ru.practicum.shareit.item.image.ImageFileStore;
+import ru.practicum.shareit.item.image.ItemImage;
+import ru.practicum.shareit.item.image.ItemImageProperties;
+import ru.practicum.shareit.item.image.ItemImageRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemImageService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemImageServiceImpl implements ItemImageService {
+
+    private static final Set<String> CONTENT_TYPES = Set.of(
+            MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE, "image/webp");
+
+    private final ItemRepository itemRepository;
+    private final ItemImageRepository itemImageRepository;
+    private final ItemImageProperties imageProperties;
+    private final ImageFileStore imageFileStore;
+    private final TransactionTemplate transactionTemplate;
+
+    // Без транзакции: соединение с базой не занимается, пока тело загрузки пишется на диск
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ItemImageDto upload(long itemId, long userId, String contentType, InputStream input) throws IOException {
+        String type = toContentType(contentType);
+        Item item = itemRepository.findWithOwnerById(itemId)
+                .orElseThrow(() -> {
+                    log.error("Предмет с id={} не найден", itemId);
+                    return new NotFoundException(String.format("Предмет с id=%s не найден", itemId));
+                });
+        if (!item.getOwner().getId().equals(userId)) {
+            log.error("Пользователь с id={} не является владельцем вещи с id={}", userId, itemId);
+            throw new AccessDeniedException(String.format(
+                    "Пользователь с id=%s не является владельцем вещи с id=%s", userId, itemId));
+        }
+        // Заведомо лишнюю загрузку отклоняем до записи тела на диск
+        checkImageLimit(itemId);
+
+        ImageFileStore.StoredFile stored = imageFileStore.save(input);
+        ItemImage image;
+        try {
+            image = transactionTemplate.execute(status -> saveImage(itemId, type, stored));
+        } catch (RuntimeException e) {
+            deleteUnreferenced(stored.getHash());
+            throw e;
+        }
+        log.info("Изображение {} вещи с ID: {} сохранено, размер: {}", image.getHash(), itemId, image.getSizeBytes());
+        return toDto(image);
+    }
+
+    @Override
+    public List<ItemImageDto> getList(long itemId) {
+        if (!itemRepository.existsById(itemId)) {
+            log.error("Предмет с id={} не найден", itemId);
+            throw new NotFoundException(String.format("Предмет с id=%s не найден", itemId));
+        }
+        return itemImageRepository.findByItemIdOrderById(itemId).stream()
+                .map(ItemImageServiceImpl::toDto)
+                .toList();
+    }
+
+    @Override
+    public ImageFile getFile(long itemId, String hash) {
+        ItemImage image = ImageFileStore.isHash(hash)
+                ? itemImageRepository.findByItemIdAndHash(itemId, hash).orElse(null)
+                : null;
+        if (image == null) {
+            log.error("Изображение {} вещи с id={} не найдено", hash, itemId);
+            throw new NotFoundException(String.format("Изображение %s вещи с id=%s не найдено", hash, itemId));
+        }
+        Path path = imageFileStore.path(hash);
+        if (!Files.isRegularFile(path)) {
+            log.error("Файл изображения {} отсутствует в хранилище", hash);
+            throw new NotFoundException(String.format("Изображение %s вещи с id=%s не найдено", hash, itemId));
+        }
+        return new ImageFile(hash, image.getContentType(), image.getSizeBytes(), path);
+    }
+
+    // Короткая транзакция под блокировкой строки вещи: параллельные загрузки той же вещи идут по очереди,
+    // и лимит проверяется с учётом изображений, сохранённых предыдущей загрузкой
+    private ItemImage saveImage(long itemId, String type, ImageFileStore.StoredFile stored) {
+        if (itemRepository.findForUpdateById(itemId).isEmpty()) {
+            log.error("Предмет с id={} не найден", itemId);
+            throw new NotFoundException(String.format("Предмет с id=%s не найден", itemId));
+        }
+        ItemImage existing = itemImageRepository.findByItemIdAndHash(itemId, stored.getHash()).orElse(null);
+        if (existing != null) {
+            return existing;
+        }
+        checkImageLimit(itemId);
+        return itemImageRepository.save(ItemImage.builder()
+                .itemId(itemId)
+                .hash(stored.getHash())
+                .contentType(type)
+                .sizeBytes(stored.getSize())
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    // Файл, уже сохранённый в хранилище, не должен остаться без записи, если запись не создана.
+    // Файл с тем же содержимым может принадлежать другим вещам, тогда он остаётся
+    private void deleteUnreferenced(String hash) {
+        if (itemImageRepository.existsByHash(hash)) {
+            return;
+        }
+        try {
+            imageFileStore.delete(hash);
+            log.debug("Файл изображения {} без записей удалён из хранилища", hash);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить файл изображения {} без записей", hash, e);
+        }
+    }
+
+    private void checkImageLimit(long itemId) {
+        if (itemImageRepository.countByItemId(itemId) >= imageProperties.getMaxPerItem()) {
+            log.error("У вещи с id={} уже {} изображений", itemId, imageProperties.getMaxPerItem());
+            throw new ValidationException("images",
+                    String.format("у вещи не может быть больше %s изображений", imageProperties.getMaxPerItem()));
+        }
+    }
+
+    private static String toContentType(String contentType) {
+        MediaType mediaType;
+        try {
+            // Параметры типа вроде charset к изображениям не относятся и отбрасываются до разбора:
+            // parseMediaType проверяет charset, и image/png; charset=binary иначе был бы отклонён
+            mediaType = contentType == null ? null : MediaType.parseMediaType(contentType.split(";")[0].trim());
+        } catch (InvalidMediaTypeException e) {
+            mediaType = null;
+        }
+        String type = mediaType == null ? null : mediaType.getType() + "/" + mediaType.getSubtype();
+        if (type == null || !CONTENT_TYPES.contains(type)) {
+            log.error("Неподдерживаемый тип изображения: {}", contentType);
+            throw new ValidationException("Content-Type", "допустимые значения: " + String.join(", ",
+                    CONTENT_TYPES.stream().sorted().toList()));
+        }
+        return type;
+    }
+
+    private static ItemImageDto toDto(ItemImage image) {
+        return ItemImageDto.builder()
+                .hash(image.getHash())
+                .contentType(image.getContentType())
+                .size(image.getSizeBytes())
+                .url(String.format("/items/%s/images/%s", image.getItemId(), image.getHash()))
+                .build();
+    }
+}
@@ -0,0 +1,195 @@
+package ru.practicum.shareit.item.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemChangeVersions;
+import ru.practicum.shareit.item.ItemImportProperties;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.card.ItemCardProjector;
+import ru.practicum.shareit.item.dao.ItemMapper;
+import ru.practicum.shareit.item.dao.ItemTags;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.event.ItemsImportedEvent;
+import ru.practicum.shareit.item.geo.GeoCells;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemImportService;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Импорт каталога вещей из NDJSON: одна вещь в формате {@link ItemCreateDto} на строку.
+ * <p>
+ * Поток читается построчно, тело запроса целиком в памяти не держится. Корректные строки копятся
+ * в пакет и сохраняются отдельной транзакцией на пакет, поэтому ошибка в одном пакете
+ * не откатывает уже сохранённые. Некорректные строки пропускаются и попадают в отчёт.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemImportServiceImpl implements ItemImportService {
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemImportProperties importProperties;
+    private final ItemChangeVersions itemChangeVersions;
+    private final ItemCardProjector itemCardProjector;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public ItemImportResultDto importItems(InputStream input, long userId) throws IOException {
+        if (!userRepository.existsById(userId)) {
+            log.error("Пользователь с id={} не найден", userId);
+            throw new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
+        }
+
+        Report report = new Report(importProperties.getMaxReportedErrors());
+        int batchSize = Math.max(1, importProperties.getBatchSize());
+        List<ItemCreateDto> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        // Существование запроса проверяется один раз на каждый ID, встреченный в потоке
+        Map<Long, Boolean> knownRequests = new HashMap<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ItemCreateDto itemData = parse(line, lineNumber, report);
+            if (itemData == null) {
+                continue;
+            }
+            Long requestId = itemData.getRequestId();
+            if (requestId != null && !knownRequests.computeIfAbsent(requestId, itemRequestRepository::existsById)) {
+                report.fail(lineNumber, String.format("Запрос с id=%s не найден", requestId));
+                continue;
+            }
+            batch.add(itemData);
+            batchLines.add(lineNumber);
+            if (batch.size() == batchSize) {
+                saveBatch(batch, batchLines, userId, report);
+                batch.clear();
+                batchLines.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(batch, batchLines, userId, report);
+        }
+
+        log.info("Импорт вещей пользователя с ID: {} завершён, сохранено: {}, ошибок: {}",
+                userId, report.imported, report.failed);
+        return new ItemImportResultDto(report.imported, report.failed, report.errors);
+    }
+
+    private ItemCreateDto parse(String line, long lineNumber, Report report) {
+        ItemCreateDto itemData;
+        try {
+            itemData = objectMapper.readValue(line, ItemCreateDto.class);
+        } catch (JsonProcessingException e) {
+            report.fail(lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+            return null;
+        }
+        if (itemData == null) {
+            report.fail(lineNumber, "Ожидался JSON-объект вещи");
+            return null;
+        }
+
+        Set<ConstraintViolation<ItemCreateDto>> violations = validator.validate(itemData);
+        if (!violations.isEmpty()) {
+            report.fail(lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        return itemData;
+    }
+
+    private void saveBatch(List<ItemCreateDto> batch, List<Long> batchLines, long userId, Report report) {
+        try {
+            List<ItemDto> saved = transactionTemplate.execute(status -> {
+                // Ссылка на владельца без запроса: существование пользователя проверено в начале импорта
+                User owner = userRepository.getReferenceById(userId);
+                long version = itemChangeVersions.next(batch.size());
+                List<Item> items = new ArrayList<>(batch.size());
+                for (ItemCreateDto itemData : batch) {
+                    items.add(Item.builder()
+                            .name(itemData.getName())
+                            .description(itemData.getDescription())
+                            .isAvailable(itemData.getAvailable())
+                            .requestId(itemData.getRequestId())
+                            .latitude(itemData.getLatitude())
+                            .longitude(itemData.getLongitude())
+                            .geoCell(GeoCells.encodeOrNull(itemData.getLatitude(), itemData.getLongitude()))
+                            .tags(ItemTags.join(ItemTags.normalize(itemData.getTags())))
+                            .owner(owner)
+                            .changeVersion(version++)
+                            .build());
+                }
+                List<ItemDto> itemDtos = itemRepository.saveAll(items).stream()
+                        .map(ItemMapper::toItemDto)
+                        .collect(Collectors.toList());
+                itemCardProjector.createEmpty(itemDtos.stream().map(ItemDto::getId).toList());
+                eventPublisher.publishEvent(new ItemsImportedEvent(itemDtos));
+                return itemDtos;
+            });
+            report.imported += saved == null ? 0 : saved.size();
+            log.debug("Импортирован пакет из {} вещей пользователя с ID: {}", batch.size(), userId);
+        } catch (DataAccessException e) {
+            log.error("Не удалось сохранить пакет строк {}-{} импорта пользователя с ID: {}",
+                    batchLines.get(0), batchLines.get(batchLines.size() - 1), userId, e);
+            for (Long lineNumber : batchLines) {
+                report.fail(lineNumber, "Пакет строк не сохранён из-за ошибки базы данных");
+            }
+        }
+    }
+
+    private static final class Report {
+        private final int maxReportedErrors;
+        private final List<ItemImportErrorDto> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private Report(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long lineNumber, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ItemImportErrorDto(lineNumber, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.PopularItemDto;
+import ru.practicum.shareit.item.dto.PopularItemsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityProperties;
+import ru.practicum.shareit.item.popularity.ItemPopularityTracker;
+import ru.practicum.shareit.item.popularity.PopularityMetric;
+import ru.practicum.shareit.item.popularity.PopularityWindow;
+import ru.practicum.shareit.item.popularity.SlidingWindowCounter;
+import ru.practicum.shareit.item.service.ItemPopularityService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemPopularityServiceImpl implements ItemPopularityService {
+
+    private final ItemRepository itemRepository;
+    private final ItemPopularityTracker popularityTracker;
+    private final ItemPopularityProperties popularityProperties;
+
+    @Override
+    public PopularItemsDto getPopular(String window, int size) {
+        PopularityWindow popularityWindow = PopularityWindow.fromParam(window);
+        if (popularityWindow == null) {
+            log.error("Неизвестное окно популярности: {}", window);
+            throw new ValidationException("window", "допустимые значения: 24h, 7d");
+        }
+        int limit = Math.min(size, popularityProperties.getMaxPageSize());
+
+        List<SlidingWindowCounter.Estimate> booked =
+                popularityTracker.top(PopularityMetric.BOOKINGS, popularityWindow, limit);
+        List<SlidingWindowCounter.Estimate> viewed =
+                popularityTracker.top(PopularityMetric.VIEWS, popularityWindow, limit);
+
+        // Вещи обоих списков читаются одним запросом
+        Set<Long> itemIds = new HashSet<>();
+        booked.forEach(estimate -> itemIds.add(estimate.getKey()));
+        viewed.forEach(estimate -> itemIds.add(estimate.getKey()));
+        Map<Long, Item> items = new HashMap<>();
+        if (!itemIds.isEmpty()) {
+            itemRepository.findAllById(itemIds).forEach(item -> items.put(item.getId(), item));
+        }
+
+        log.debug("Получены популярные вещи за {}: бронирований {}, просмотров {}",
+                popularityWindow.getParam(), booked.size(), viewed.size());
+        return PopularItemsDto.builder()
+                .window(popularityWindow.getParam())
+                .mostBooked(toPopularItems(booked, items))
+                .mostViewed(toPopularItems(viewed, items))
+                .build();
+    }
+
+    private static List<PopularItemDto> toPopularItems(List<SlidingWindowCounter.Estimate> estimates,
+                                                       Map<Long, Item> items) {
+        List<PopularItemDto> result = new ArrayList<>(estimates.size());
+        for (SlidingWindowCounter.Estimate estimate : estimates) {
+            Item item = items.get(estimate.getKey());
+            // Удалённые вещи остаются в счётчиках до конца окна, в ответ они не попадают
+            if (item == null) {
+                continue;
+            }
+            result.add(PopularItemDto.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getIsAvailable())
+                    .count(estimate.getCount())
+                    .build());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.RelatedItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.related.CoBookingIndexer;
+import ru.practicum.shareit.item.related.CoBookingModel;
+import ru.practicum.shareit.item.service.ItemRecommendationService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemRecommendationServiceImpl implements ItemRecommendationService {
+
+    private final ItemRepository itemRepository;
+    private final CoBookingIndexer coBookingIndexer;
+
+    @Override
+    public List<RelatedItemDto> getRelated(long itemId, int size) {
+        if (!itemRepository.existsById(itemId)) {
+            log.error("Предмет с id={} не найден", itemId);
+            throw new NotFoundException(String.format("Предмет с id=%s не найден", itemId));
+        }
+
+        List<CoBookingModel.Neighbour> neighbours = coBookingIndexer.related(itemId);
+        if (neighbours.isEmpty()) {
+            return List.of();
+        }
+        // Соседей немного, поэтому читаются все: часть из них может оказаться недоступной
+        Map<Long, Item> items = new HashMap<>();
+        itemRepository.findAllById(neighbours.stream().map(CoBookingModel.Neighbour::getItemId).toList())
+                .forEach(item -> items.put(item.getId(), item));
+
+        List<RelatedItemDto> result = new ArrayList<>(Math.min(size, neighbours.size()));
+        for (CoBookingModel.Neighbour neighbour : neighbours) {
+            Item item = items.get(neighbour.getItemId());
+            if (item == null || !Boolean.TRUE.equals(item.getIsAvailable())) {
+                continue;
+            }
+            result.add(RelatedItemDto.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .coBookings(neighbour.getCount())
+                    .build());
+            if (result.size() == size) {
+                break;
+            }
+        }
+        log.debug("Получены рекомендации для вещи с ID: {}, количество: {}", itemId, result.size());
+        return result;
+    }
+}
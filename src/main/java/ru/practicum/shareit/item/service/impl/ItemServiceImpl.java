@@ -1,32 +1,65 @@
 package ru.practicum.shareit.item.service.impl;
 
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingVersionTracker;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.CommentProperties;
 import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemChangeFeedProperties;
+import ru.practicum.shareit.item.ItemChangeVersions;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.card.ItemCard;
+import ru.practicum.shareit.item.card.ItemCardProjector;
+import ru.practicum.shareit.item.dao.CommentCursor;
 import ru.practicum.shareit.item.dao.CommentMapper;
 import ru.practicum.shareit.item.dao.ItemMapper;
+import ru.practicum.shareit.item.dao.ItemTags;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsUpdatedEvent;
+import ru.practicum.shareit.item.geo.GeoCells;
+import ru.practicum.shareit.item.geo.GeoCircle;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityTracker;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.TextTokenizer;
+import ru.practicum.shareit.item.service.CommentBatchLoader;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.FieldSet;
+import ru.practicum.shareit.util.LongObjectMap;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -35,9 +68,23 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
     private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final CommentProperties commentProperties;
+    private final CommentBatchLoader commentBatchLoader;
+    private final BookingVersionTracker bookingVersionTracker;
+    private final ItemChangeVersions itemChangeVersions;
+    private final ItemChangeFeedProperties changeFeedProperties;
+    private final ItemDetailsCache itemDetailsCache;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSearchCache searchCache;
+    private final ItemSearchProperties searchProperties;
+    private final ItemCardProjector itemCardProjector;
+    private final ItemPopularityTracker popularityTracker;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -48,16 +95,30 @@ public class ItemServiceImpl implements ItemService {
                     return new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
                 });
 
+        if (itemData.getRequestId() != null && !itemRequestRepository.existsById(itemData.getRequestId())) {
+            log.error("Запрос с id={} не найден", itemData.getRequestId());
+            throw new NotFoundException(String.format("Запрос с id=%s не найден", itemData.getRequestId()));
+        }
+
         Item item = Item.builder()
                 .name(itemData.getName())
                 .description(itemData.getDescription())
                 .isAvailable(itemData.getAvailable())
                 .owner(owner)
+                .requestId(itemData.getRequestId())
+                .latitude(itemData.getLatitude())
+                .longitude(itemData.getLongitude())
+                .geoCell(GeoCells.encodeOrNull(itemData.getLatitude(), itemData.getLongitude()))
+                .tags(ItemTags.join(ItemTags.normalize(itemData.getTags())))
+                .changeVersion(itemChangeVersions.next())
                 .build();
 
         Item savedItem = itemRepository.save(item);
+        itemCardProjector.createEmpty(List.of(savedItem.getId()));
+        ItemDto savedItemDto = ItemMapper.toItemDto(savedItem);
+        eventPublisher.publishEvent(new ItemChangedEvent(null, savedItemDto));
         log.info("Создана новая вещь с ID: {} для пользователя с ID: {}", savedItem.getId(), userId);
-        return ItemMapper.toItemDto(savedItem);
+        return savedItemDto;
     }
 
     @Override
@@ -69,7 +130,7 @@ public class ItemServiceImpl implements ItemService {
                     return new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
                 });
 
-        Item existingItem = itemRepository.findById(itemId)
+        Item existingItem = itemRepository.findWithOwnerById(itemId)
                 .orElseThrow(() -> {
                     log.error("Предмет с id={} не найден", itemId);
                     return new NotFoundException(String.format("Предмет с id=%s не найден", itemId));
@@ -81,6 +142,7 @@ public class ItemServiceImpl implements ItemService {
                     "Пользователь с id=%s не является владельцем вещи с id=%s", userId, itemId));
         }
 
+        ItemDto previousItemDto = ItemMapper.toItemDto(existingItem);
         if (itemData.getName() != null) {
             existingItem.setName(itemData.getName());
         }
@@ -90,55 +152,275 @@ public class ItemServiceImpl implements ItemService {
         if (itemData.getAvailable() != null) {
             existingItem.setIsAvailable(itemData.getAvailable());
         }
+        if (itemData.getLatitude() != null) {
+            existingItem.setLatitude(itemData.getLatitude());
+            existingItem.setLongitude(itemData.getLongitude());
+            existingItem.setGeoCell(GeoCells.encode(itemData.getLatitude(), itemData.getLongitude()));
+        }
+        if (itemData.getTags() != null) {
+            existingItem.setTags(ItemTags.join(ItemTags.normalize(itemData.getTags())));
+        }
+        existingItem.setChangeVersion(itemChangeVersions.next());
 
         Item updatedItem = itemRepository.save(existingItem);
+        ItemDto updatedItemDto = ItemMapper.toItemDto(updatedItem);
+        // Вещь входит в BookingDto, поэтому ETag списков бронирований больше не актуальны
+        bookingVersionTracker.touchAll();
+        itemDetailsCache.evictAfterCommit(itemId);
+        eventPublisher.publishEvent(new ItemChangedEvent(previousItemDto, updatedItemDto));
         log.info("Обновлена вещь с ID: {}", itemId);
-        return ItemMapper.toItemDto(updatedItem);
+        return updatedItemDto;
     }
 
     @Override
-    public List<ItemWithBookingsDto> getList(long userId) {
+    @Transactional
+    public ItemAvailabilityResultDto updateAvailability(ItemAvailabilityUpdateDto availabilityData, long userId) {
         if (!userRepository.existsById(userId)) {
             log.error("Пользователь с id={} не найден", userId);
             throw new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
         }
 
-        List<Item> items = itemRepository.findByOwnerIdOrderById(userId);
-        log.debug("Получен список вещей пользователя с ID: {}, количество: {}", userId, items.size());
+        boolean available = availabilityData.getAvailable();
+        List<Long> requestedIds = availabilityData.getItemIds();
+        boolean hasIds = requestedIds != null && !requestedIds.isEmpty();
+        if (hasIds == availabilityData.isAll()) {
+            log.error("Для изменения доступности нужно указать либо ID вещей, либо all=true");
+            throw new ValidationException("itemIds", "нужно указать ID вещей либо all=true, но не то и другое");
+        }
+
+        // Вещи, доступность которых уже нужная, не изменяются и не попадают в события.
+        // Строки читаются с блокировкой: параллельное переключение дождётся конца транзакции
+        List<Item> items = hasIds
+                ? ownedItems(requestedIds, userId).stream()
+                .filter(item -> item.getIsAvailable() != available)
+                .collect(Collectors.toList())
+                : itemRepository.findForUpdateByOwnerIdAndIsAvailableOrderById(userId, !available);
+        if (items.isEmpty()) {
+            log.info("Доступность вещей пользователя с ID: {} уже {}", userId, available);
+            return new ItemAvailabilityResultDto(0, Collections.emptyList());
+        }
 
-        return items.stream()
-                .map(this::enrichItemWithBookingsAndComments)
+        List<ItemDto> previous = items.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+        List<Long> itemIds = previous.stream()
+                .map(ItemDto::getId)
                 .collect(Collectors.toList());
+
+        // Каждая вещь получает свою версию из зарезервированного диапазона; UPDATE уходят одним пакетом JDBC при flush
+        long version = itemChangeVersions.next(items.size());
+        List<ItemDto> current = new ArrayList<>(items.size());
+        for (Item item : items) {
+            item.setIsAvailable(available);
+            item.setChangeVersion(version++);
+            current.add(ItemMapper.toItemDto(item));
+        }
+        int updated = items.size();
+        bookingVersionTracker.touchAll();
+        itemDetailsCache.evictAfterCommit(itemIds);
+        eventPublisher.publishEvent(new ItemsUpdatedEvent(previous, current));
+        log.info("Изменена доступность вещей пользователя с ID: {} на {}, количество: {}", userId, available, updated);
+        return new ItemAvailabilityResultDto(updated, itemIds);
+    }
+
+    @Override
+    public List<ItemWithBookingsDto> getList(long userId) {
+        return getList(userId, FieldSet.ALL);
+    }
+
+    @Override
+    public List<ItemWithBookingsDto> getList(long userId, FieldSet fields) {
+        if (!userRepository.existsById(userId)) {
+            log.error("Пользователь с id={} не найден", userId);
+            throw new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
+        }
+
+        // Вещи читаются одним запросом вместе с карточками, где бронирования и комментарии уже посчитаны
+        List<Object[]> rows = itemRepository.findWithCardsByOwnerId(userId);
+        log.debug("Получен список вещей пользователя с ID: {}, количество: {}", userId, rows.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Item> staleItems = new ArrayList<>();
+        for (Object[] row : rows) {
+            ItemCard card = (ItemCard) row[1];
+            if (card == null || !card.isFresh(now)) {
+                staleItems.add((Item) row[0]);
+            }
+        }
+
+        // Вещи без актуальной карточки собираются по бронированиям и комментариям, как до появления карточек.
+        // Комментарии таких вещей загружаются пакетно, а не отдельным запросом на каждую вещь
+        boolean withComments = fields.includesAny("comments", "commentCount");
+        LongObjectMap<CommentBatchLoader.ItemComments> comments = new LongObjectMap<>();
+        if (withComments && !staleItems.isEmpty()) {
+            comments = commentBatchLoader.loadNewest(staleItems.stream()
+                    .map(Item::getId)
+                    .collect(Collectors.toList()));
+        }
+        // Бронирования — три запроса на вещь, поэтому без запрошенных полей бронирований они не выполняются
+        boolean withBookings = fields.includesAny("lastBooking", "nextBooking");
+        List<ItemWithBookingsDto> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Item item = (Item) row[0];
+            ItemCard card = (ItemCard) row[1];
+            if (card != null && card.isFresh(now)) {
+                result.add(fromCard(item, card, withBookings, fields));
+                continue;
+            }
+            CommentBatchLoader.ItemComments itemComments = withComments
+                    ? comments.getOrDefault(item.getId(), CommentBatchLoader.ItemComments.EMPTY)
+                    : null;
+            result.add(enrichItemWithBookingsAndComments(item, withBookings, itemComments));
+        }
+        if (!staleItems.isEmpty()) {
+            log.debug("Вещей пользователя с ID: {} без актуальной карточки: {}", userId, staleItems.size());
+        }
+        return result;
     }
 
     @Override
     public ItemDetailedDto retrieve(long itemId, long userId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> {
-                    log.error("Предмет с id={} не найден", itemId);
-                    return new NotFoundException(String.format("Предмет с id=%s не найден", itemId));
-                });
+        // Общая часть карточки кэшируется, бронирования для владельца всегда читаются из базы
+        ItemDetailedDto details = itemDetailsCache.get(itemId, () -> loadDetails(itemId));
         log.debug("Получена вещь с ID: {} для пользователя с ID: {}", itemId, userId);
 
         // Проверяем, является ли пользователь владельцем вещи
-        boolean isOwner = item.getOwner().getId().equals(userId);
-        return convertToDetailedDto(item, isOwner);
+        boolean isOwner = Objects.equals(details.getOwnerId(), userId);
+        if (!isOwner) {
+            // Просмотры владельцем своей вещи популярность не увеличивают
+            popularityTracker.recordView(itemId);
+        }
+        return isOwner ? withOwnerBookings(details) : details;
     }
 
     @Override
-    public List<ItemDto> search(String text) {
+    public ItemSearchResultDto search(String text, int from, int size, boolean fuzzy) {
         if (text == null || text.isBlank()) {
             log.debug("Поиск с пустым текстом, возвращаем пустой список");
-            return Collections.emptyList();
+            return new ItemSearchResultDto(Collections.emptyList(), 0);
         }
 
-        String formattedText = text.toLowerCase();
-        List<Item> items = itemRepository.searchAvailableItems(formattedText);
-        log.debug("Выполнен поиск по тексту '{}', найдено: {} вещей", text, items.size());
+        // Жёсткие ограничения сервера: размер страницы и глубина пагинации
+        int limit = (int) Math.min((long) from + Math.min(size, searchProperties.getMaxPageSize()),
+                searchProperties.getMaxResults());
+        // Тот же нижний регистр, что в индексе и кэше, независимо от локали сервера
+        String formattedText = TextTokenizer.normalize(text);
+        return searchCache.get(formattedText, from, limit, fuzzy, () -> fuzzy
+                ? searchFuzzy(formattedText, from, limit)
+                : searchUncached(formattedText, from, limit));
+    }
 
-        return items.stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+    @Override
+    public ItemSearchResultDto searchNearby(String text, List<String> tags, Double latitude, Double longitude,
+                                            Double radiusKm, int from, int size, boolean fuzzy) {
+        List<String> filterTags = toFilterTags(tags);
+        if (latitude == null || longitude == null || radiusKm == null) {
+            log.error("Для поиска по местоположению нужны широта, долгота и радиус");
+            throw new ValidationException("lat, lon, radiusKm", "задаются вместе");
+        }
+        if (!(latitude >= -90 && latitude <= 90)) {
+            log.error("Некорректная широта: {}", latitude);
+            throw new ValidationException("lat", "должна быть от -90 до 90");
+        }
+        if (!(longitude >= -180 && longitude <= 180)) {
+            log.error("Некорректная долгота: {}", longitude);
+            throw new ValidationException("lon", "должна быть от -180 до 180");
+        }
+        double maxRadiusKm = searchProperties.getGeoMaxRadiusKm();
+        if (!(radiusKm > 0 && radiusKm <= maxRadiusKm)) {
+            log.error("Некорректный радиус поиска: {} км", radiusKm);
+            throw new ValidationException("radiusKm", String.format("должен быть больше 0 и не больше %s км", maxRadiusKm));
+        }
+        if (fuzzy) {
+            // Словарь опечаток есть только в индексе в памяти, а в нём нет координат
+            log.error("Поиск с исправлением опечаток не поддерживается вместе с поиском по местоположению");
+            throw new ValidationException("fuzzy", "не поддерживается вместе с поиском по местоположению");
+        }
+
+        int limit = (int) Math.min((long) from + Math.min(size, searchProperties.getMaxPageSize()),
+                searchProperties.getMaxResults());
+        String formattedText = text == null || text.isBlank() ? "" : TextTokenizer.normalize(text);
+        // Кэш поиска сбрасывается по тексту вещей и не знает о переносе вещи, поэтому здесь не используется
+        GeoCircle circle = new GeoCircle(latitude, longitude, radiusKm);
+        long total = itemRepository.countAvailableItemsNearby(formattedText,
+                tagAt(filterTags, 0), tagAt(filterTags, 1), tagAt(filterTags, 2),
+                latitude, longitude, circle.getWrappedLongitude(),
+                circle.getLongitudeScale(), circle.getMaxDistance(),
+                circle.from(0), circle.to(0), circle.from(1), circle.to(1),
+                circle.from(2), circle.to(2), circle.from(3), circle.to(3));
+        List<Item> items = total > from && limit > from
+                ? itemRepository.searchAvailableItemsNearby(formattedText,
+                tagAt(filterTags, 0), tagAt(filterTags, 1), tagAt(filterTags, 2),
+                latitude, longitude, circle.getWrappedLongitude(),
+                circle.getLongitudeScale(), circle.getMaxDistance(),
+                circle.from(0), circle.to(0), circle.from(1), circle.to(1),
+                circle.from(2), circle.to(2), circle.from(3), circle.to(3),
+                PageRequest.of(0, limit))
+                : Collections.emptyList();
+        log.debug("Выполнен поиск по тексту '{}' и тегам {} в радиусе {} км от ({}, {}), найдено: {} вещей",
+                formattedText, filterTags, radiusKm, latitude, longitude, total);
+        return toSearchPage(items, from, total);
+    }
+
+    @Override
+    public ItemSearchResultDto searchByTags(String text, List<String> tags, int from, int size, boolean fuzzy) {
+        List<String> filterTags = toFilterTags(tags);
+        if (filterTags.isEmpty()) {
+            return search(text, from, size, fuzzy);
+        }
+        if (fuzzy) {
+            log.error("Поиск с исправлением опечаток не поддерживается вместе с фильтром по тегам");
+            throw new ValidationException("fuzzy", "не поддерживается вместе с фильтром по тегам");
+        }
+
+        int limit = (int) Math.min((long) from + Math.min(size, searchProperties.getMaxPageSize()),
+                searchProperties.getMaxResults());
+        String formattedText = text == null || text.isBlank() ? "" : TextTokenizer.normalize(text);
+        // Кэш поиска сбрасывается по тексту вещей и не знает об изменении тегов, поэтому здесь не используется
+        ItemSearchResultDto indexed = searchProperties.isIndexEnabled()
+                ? searchIndex.search(formattedText, filterTags, Math.min(from, limit), Math.max(limit - from, 0))
+                : null;
+        if (indexed != null) {
+            log.debug("Выполнен поиск по индексу по тексту '{}' и тегам {}, найдено: {} вещей",
+                    formattedText, filterTags, indexed.getTotal());
+            return indexed;
+        }
+
+        long total = itemRepository.countAvailableItemsByTags(formattedText,
+                tagAt(filterTags, 0), tagAt(filterTags, 1), tagAt(filterTags, 2));
+        List<Item> items = total > from && limit > from
+                ? itemRepository.searchAvailableItemsByTags(formattedText,
+                tagAt(filterTags, 0), tagAt(filterTags, 1), tagAt(filterTags, 2), PageRequest.of(0, limit))
+                : Collections.emptyList();
+        log.debug("Выполнен поиск по тексту '{}' и тегам {}, найдено: {} вещей", formattedText, filterTags, total);
+        return toSearchPage(items, from, total);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TagFacetDto> getFacets(String text, List<String> tags, int size) {
+        List<String> filterTags = toFilterTags(tags);
+        String formattedText = text == null || text.isBlank() ? "" : TextTokenizer.normalize(text);
+        // Счётчики тегов отвечают только из памяти: в базе пришлось бы читать теги всех найденных вещей
+        List<TagFacetDto> facets = searchIndex.facets(formattedText, filterTags,
+                Math.min(size, searchProperties.getMaxPageSize()));
+        if (facets == null) {
+            log.debug("Поисковый индекс не может посчитать счётчики тегов для '{}'", formattedText);
+            return Collections.emptyList();
+        }
+        return facets;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> suggest(String prefix, int size) {
+        // Подсказки отвечают только из памяти: запрос на каждое нажатие клавиши не должен доходить до базы
+        List<String> suggestions = searchIndex.suggest(prefix, size);
+        if (suggestions == null) {
+            log.debug("Поисковый индекс ещё не построен, подсказки для '{}' недоступны", prefix);
+            return Collections.emptyList();
+        }
+        return suggestions;
     }
 
     @Override
@@ -172,12 +454,253 @@ public class ItemServiceImpl implements ItemService {
                 .build();
 
         Comment savedComment = commentRepository.save(comment);
+        itemCardProjector.refresh(List.of(itemId));
+        itemDetailsCache.evictAfterCommit(itemId);
         log.info("Добавлен комментарий к вещи с ID: {} от пользователя с ID: {}", itemId, userId);
 
         return CommentMapper.toCommentDto(savedComment);
     }
 
-    private ItemWithBookingsDto enrichItemWithBookingsAndComments(Item item) {
+    @Override
+    public CommentPageDto getComments(long itemId, String cursor, int limit) {
+        if (!itemRepository.existsById(itemId)) {
+            log.error("Предмет с id={} не найден", itemId);
+            throw new NotFoundException(String.format("Предмет с id=%s не найден", itemId));
+        }
+
+        int pageSize = Math.min(limit, commentProperties.getMaxPageSize());
+        // Запрашиваем на один комментарий больше, чтобы без COUNT узнать, есть ли следующая страница
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Comment> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findNewestByItemId(itemId, page);
+        } else {
+            CommentCursor position = decodeCursor(cursor);
+            comments = commentRepository.findByItemIdBefore(itemId, position.getCreated(), position.getId(), page);
+        }
+
+        List<CommentDto> commentDtos = comments.stream()
+                .limit(pageSize)
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList());
+        String nextCursor = comments.size() > pageSize
+                ? CommentCursor.after(commentDtos.get(commentDtos.size() - 1)).encode()
+                : null;
+        log.debug("Получена страница комментариев вещи с ID: {}, количество: {}", itemId, commentDtos.size());
+        return new CommentPageDto(commentDtos, nextCursor);
+    }
+
+    @Override
+    public long getChangesUntil(long since, int limit) {
+        int pageSize = Math.min(limit, changeFeedProperties.getMaxPageSize());
+        // Версии незавершённых транзакций не отдаём, чтобы потребитель не сдвинул since дальше них
+        long before = itemChangeVersions.stableBefore();
+        List<Long> versions = itemRepository.findChangeVersionsBetween(since, before, PageRequest.of(0, pageSize));
+        log.debug("Определена страница ленты изменений вещей после версии {}, количество: {}", since, versions.size());
+        return versions.isEmpty() ? since : versions.get(versions.size() - 1);
+    }
+
+    @Override
+    public void streamChanges(long since, long until, Consumer<ItemChangeDto> consumer) {
+        // Все версии до until зафиксированы, поэтому новых вещей в интервале не появится; вещь, изменённая
+        // после определения границы, уходит из интервала и придёт на следующей странице с новой версией
+        try (Stream<Item> items = itemRepository.streamChangedUpTo(since, until)) {
+            items.forEach(item -> {
+                consumer.accept(ItemMapper.toItemChangeDto(item));
+                // Отданная вещь больше не нужна: контекст не копит всю страницу
+                entityManager.detach(item);
+            });
+        }
+    }
+
+    private List<Item> ownedItems(List<Long> requestedIds, long userId) {
+        Set<Long> uniqueIds = new HashSet<>(requestedIds);
+        List<Item> items = itemRepository.findForUpdateByIdInOrderById(uniqueIds);
+        if (items.size() != uniqueIds.size()) {
+            items.forEach(item -> uniqueIds.remove(item.getId()));
+            log.error("Предметы с id={} не найдены", uniqueIds);
+            throw new NotFoundException(String.format("Предметы с id=%s не найдены", uniqueIds));
+        }
+        for (Item item : items) {
+            if (!item.getOwner().getId().equals(userId)) {
+                log.error("Пользователь с id={} не является владельцем вещи с id={}", userId, item.getId());
+                throw new AccessDeniedException(String.format(
+                        "Пользователь с id=%s не является владельцем вещи с id=%s", userId, item.getId()));
+            }
+        }
+        return items;
+    }
+
+    private CommentCursor decodeCursor(String cursor) {
+        try {
+            return CommentCursor.decode(cursor);
+        } catch (ValidationException e) {
+            log.error("Некорректный курсор страницы комментариев: {}", cursor);
+            throw e;
+        }
+    }
+
+    private PageRequest inlineCommentsPage() {
+        return PageRequest.of(0, commentProperties.getInlineLimit());
+    }
+
+    private List<String> toFilterTags(List<String> tags) {
+        List<String> filterTags = ItemTags.normalize(tags);
+        if (filterTags.size() > ItemTags.MAX_FILTER_TAGS) {
+            log.error("Слишком много тегов в фильтре: {}", filterTags);
+            throw new ValidationException("tags", String.format("не больше %s тегов", ItemTags.MAX_FILTER_TAGS));
+        }
+        for (String tag : filterTags) {
+            if (!ItemTags.isValid(tag)) {
+                log.error("Некорректный тег в фильтре: {}", tag);
+                throw new ValidationException("tags", "тег — до 32 букв, цифр, пробелов и дефисов");
+            }
+        }
+        return filterTags;
+    }
+
+    // Неиспользуемые параметры условия тегов в запросе передаются пустыми строками
+    private static String tagAt(List<String> tags, int index) {
+        return index < tags.size() ? tags.get(index) : "";
+    }
+
+    private ItemSearchResultDto searchUncached(String formattedText, int from, int limit) {
+        ItemSearchResultDto indexed = searchProperties.isIndexEnabled()
+                ? searchIndex.search(formattedText, Math.min(from, limit), Math.max(limit - from, 0))
+                : null;
+        if (indexed != null) {
+            log.debug("Выполнен поиск по индексу по тексту '{}', найдено: {} вещей", formattedText, indexed.getTotal());
+            if (searchProperties.isVerifyIndex()) {
+                verifyIndexedSearch(formattedText, from, limit, indexed);
+            }
+            return indexed;
+        }
+
+        ItemSearchResultDto result = searchInDatabase(formattedText, from, limit);
+        log.debug("Выполнен поиск по тексту '{}', найдено: {} вещей", formattedText, result.getTotal());
+        return result;
+    }
+
+    private ItemSearchResultDto searchFuzzy(String formattedText, int from, int limit) {
+        ItemSearchResultDto result = searchIndex.searchFuzzy(formattedText, searchProperties.getFuzzyMaxEdits(),
+                Math.min(from, limit), Math.max(limit - from, 0));
+        if (result == null) {
+            // Словарь для исправления опечаток есть только в индексе, без него ищем точные совпадения
+            log.debug("Поисковый индекс не готов, поиск по тексту '{}' выполняется без исправления опечаток", formattedText);
+            return searchUncached(formattedText, from, limit);
+        }
+        log.debug("Выполнен поиск с исправлением опечаток по тексту '{}', найдено: {} вещей",
+                formattedText, result.getTotal());
+        return result;
+    }
+
+    private ItemSearchResultDto searchInDatabase(String formattedText, int from, int limit) {
+        if (searchProperties.isTrigramEnabled() && (!searchProperties.isFullTextEnabled() || isFragment(formattedText))) {
+            return searchByTrigram(formattedText, from, limit);
+        }
+        if (searchProperties.isFullTextEnabled()) {
+            long total = itemRepository.countAvailableItemsRanked(formattedText);
+            if (total == 0 && searchProperties.isTrigramEnabled()) {
+                // Полнотекстовый поиск не находит части слов, поэтому при промахе пробуем триграммы
+                return searchByTrigram(formattedText, from, limit);
+            }
+            List<Item> items = total > from && limit > from
+                    ? itemRepository.searchAvailableItemsRanked(formattedText, limit)
+                    : Collections.emptyList();
+            return toSearchPage(items, from, total);
+        }
+
+        long total = itemRepository.countAvailableItems(formattedText);
+        List<Item> items = total > from && limit > from
+                ? itemRepository.searchAvailableItems(formattedText, PageRequest.of(0, limit))
+                : Collections.emptyList();
+        return toSearchPage(items, from, total);
+    }
+
+    private ItemSearchResultDto searchByTrigram(String formattedText, int from, int limit) {
+        Double similarity = searchProperties.getTrigramSimilarity();
+        if (similarity == null) {
+            long total = itemRepository.countAvailableItemsByTrigram(formattedText);
+            List<Item> items = total > from && limit > from
+                    ? itemRepository.searchAvailableItemsByTrigram(formattedText, limit)
+                    : Collections.emptyList();
+            return toSearchPage(items, from, total);
+        }
+
+        itemRepository.setWordSimilarityThreshold(similarity.toString());
+        long total = itemRepository.countAvailableItemsBySimilarity(formattedText);
+        List<Item> items = total > from && limit > from
+                ? itemRepository.searchAvailableItemsBySimilarity(formattedText, limit)
+                : Collections.emptyList();
+        return toSearchPage(items, from, total);
+    }
+
+    private ItemSearchResultDto toSearchPage(List<Item> items, int from, long total) {
+        List<ItemDto> page = items.stream()
+                .skip(from)
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+        return new ItemSearchResultDto(page, total);
+    }
+
+    private boolean isFragment(String formattedText) {
+        // Артикулы и фрагменты вроде "xr-7" содержат цифры или знаки внутри слова и не разбираются на лексемы
+        String trimmed = formattedText.trim();
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (Character.isDigit(c) || !(Character.isLetter(c) || Character.isWhitespace(c))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void verifyIndexedSearch(String formattedText, int from, int limit, ItemSearchResultDto indexed) {
+        // Контрольный прогон SQL-запроса: расхождения означают рассинхронизацию индекса с базой
+        long databaseTotal = itemRepository.countAvailableItems(formattedText);
+        List<Long> databaseIds = limit > from
+                ? itemRepository.searchAvailableItems(formattedText, PageRequest.of(0, limit)).stream()
+                .skip(from)
+                .map(Item::getId)
+                .collect(Collectors.toList())
+                : Collections.emptyList();
+        List<Long> indexedIds = indexed.getItems().stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        if (databaseTotal != indexed.getTotal() || !databaseIds.equals(indexedIds)) {
+            log.warn("Результаты поиска по индексу расходятся с базой для текста '{}': индекс={} из {}, база={} из {}",
+                    formattedText, indexedIds, indexed.getTotal(), databaseIds, databaseTotal);
+        }
+    }
+
+    private ItemWithBookingsDto fromCard(Item item, ItemCard card, boolean withBookings, FieldSet fields) {
+        ItemWithBookingsDto.ItemWithBookingsDtoBuilder itemBuilder = ItemWithBookingsDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getIsAvailable())
+                .ownerId(item.getOwner() != null ? item.getOwner().getId() : null);
+
+        // JSON комментариев разбирается, только если они запрошены
+        if (fields.includes("comments")) {
+            itemBuilder.comments(itemCardProjector.readComments(card));
+        }
+        if (fields.includesAny("comments", "commentCount")) {
+            itemBuilder.commentCount(card.getCommentCount());
+        }
+        if (withBookings) {
+            itemBuilder.lastBooking(card.getLastBookingId() != null
+                    ? new BookingInfoDto(card.getLastBookingId(), card.getLastBookerId())
+                    : null);
+            itemBuilder.nextBooking(card.getNextBookingId() != null
+                    ? new BookingInfoDto(card.getNextBookingId(), card.getNextBookerId())
+                    : null);
+        }
+        return itemBuilder.build();
+    }
+
+    private ItemWithBookingsDto enrichItemWithBookingsAndComments(Item item, boolean withBookings,
+                                                                  CommentBatchLoader.ItemComments comments) {
         ItemWithBookingsDto.ItemWithBookingsDtoBuilder itemBuilder = ItemWithBookingsDto.builder()
                 .id(item.getId())
                 .name(item.getName())
@@ -185,6 +708,15 @@ public class ItemServiceImpl implements ItemService {
                 .available(item.getIsAvailable())
                 .ownerId(item.getOwner() != null ? item.getOwner().getId() : null);
 
+        // Комментарии добавляются, только если загружены
+        if (comments != null) {
+            itemBuilder.comments(comments.getComments());
+            itemBuilder.commentCount(comments.getCount());
+        }
+        if (!withBookings) {
+            return itemBuilder.build();
+        }
+
         LocalDateTime now = LocalDateTime.now();
 
         // Получаем бронирования для владельца
@@ -208,59 +740,78 @@ public class ItemServiceImpl implements ItemService {
             itemBuilder.nextBooking(null);
         }
 
-        // Добавляем комментарии
-        List<Comment> comments = commentRepository.findByItemIdWithAuthor(item.getId());
-        List<CommentDto> commentDtos = comments.stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
-        itemBuilder.comments(commentDtos);
-
         return itemBuilder.build();
     }
 
-    private ItemDetailedDto convertToDetailedDto(Item item, boolean isOwner) {
-        ItemDetailedDto.ItemDetailedDtoBuilder dtoBuilder = ItemDetailedDto.builder()
+    private ItemDetailedDto loadDetails(long itemId) {
+        Item item = itemRepository.findWithOwnerById(itemId)
+                .orElseThrow(() -> {
+                    log.error("Предмет с id={} не найден", itemId);
+                    return new NotFoundException(String.format("Предмет с id=%s не найден", itemId));
+                });
+
+        // Комментарии показываем всем: последние встраиваются в карточку, остальные доступны постранично
+        List<Comment> comments = commentRepository.findNewestByItemId(item.getId(), inlineCommentsPage());
+        List<CommentDto> commentDtos = comments.stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toUnmodifiableList());
+        long commentCount = commentDtos.size() < commentProperties.getInlineLimit()
+                ? commentDtos.size()
+                : commentRepository.countByItemId(item.getId());
+
+        // Карточка без бронирований — так её видят все, кроме владельца
+        return ItemDetailedDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getIsAvailable())
-                .ownerId(item.getOwner() != null ? item.getOwner().getId() : null);
+                .ownerId(item.getOwner() != null ? item.getOwner().getId() : null)
+                .latitude(item.getLatitude())
+                .longitude(item.getLongitude())
+                .tags(ItemTags.split(item.getTags()))
+                .lastBooking(null)
+                .nextBooking(null)
+                .comments(commentDtos)
+                .commentCount(commentCount)
+                .build();
+    }
 
-        // Если пользователь не владелец, не показываем информацию о бронированиях
-        if (!isOwner) {
-            dtoBuilder.lastBooking(null);
-            dtoBuilder.nextBooking(null);
-        } else {
-            // Для владельца показываем информацию о бронированиях
-            LocalDateTime now = LocalDateTime.now();
-            List<Booking> lastBookings = bookingRepository.findLastBookingForItem(item.getId(), now);
-            List<Booking> nextBookings = bookingRepository.findNextBookingForItem(item.getId(), now);
-            List<Booking> currentBookings = bookingRepository.findCurrentBookingForItem(item.getId(), now);
-
-            // Устанавливаем lastBooking: сначала текущие, потом завершенные
-            if (!currentBookings.isEmpty()) {
-                dtoBuilder.lastBooking(BookingMapper.toBookingInfoDto(currentBookings.get(0)));
-            } else if (!lastBookings.isEmpty()) {
-                dtoBuilder.lastBooking(BookingMapper.toBookingInfoDto(lastBookings.get(0)));
-            } else {
-                dtoBuilder.lastBooking(null);
-            }
+    private ItemDetailedDto withOwnerBookings(ItemDetailedDto details) {
+        // Закэшированная карточка не меняется: для владельца собираем новую
+        ItemDetailedDto.ItemDetailedDtoBuilder dtoBuilder = ItemDetailedDto.builder()
+                .id(details.getId())
+                .name(details.getName())
+                .description(details.getDescription())
+                .available(details.getAvailable())
+                .ownerId(details.getOwnerId())
+                .latitude(details.getLatitude())
+                .longitude(details.getLongitude())
+                .tags(details.getTags())
+                .comments(details.getComments())
+                .commentCount(details.getCommentCount());
+
+        // Для владельца показываем информацию о бронированиях
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> lastBookings = bookingRepository.findLastBookingForItem(details.getId(), now);
+        List<Booking> nextBookings = bookingRepository.findNextBookingForItem(details.getId(), now);
+        List<Booking> currentBookings = bookingRepository.findCurrentBookingForItem(details.getId(), now);
 
-            // Устанавливаем nextBooking
-            if (!nextBookings.isEmpty()) {
-                dtoBuilder.nextBooking(BookingMapper.toBookingInfoDto(nextBookings.get(0)));
-            } else {
-                dtoBuilder.nextBooking(null);
-            }
+        // Устанавливаем lastBooking: сначала текущие, потом завершенные
+        if (!currentBookings.isEmpty()) {
+            dtoBuilder.lastBooking(BookingMapper.toBookingInfoDto(currentBookings.get(0)));
+        } else if (!lastBookings.isEmpty()) {
+            dtoBuilder.lastBooking(BookingMapper.toBookingInfoDto(lastBookings.get(0)));
+        } else {
+            dtoBuilder.lastBooking(null);
         }
 
-        // Комментарии показываем всем
-        List<Comment> comments = commentRepository.findByItemIdWithAuthor(item.getId());
-        List<CommentDto> commentDtos = comments.stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
-        dtoBuilder.comments(commentDtos);
+        // Устанавливаем nextBooking
+        if (!nextBookings.isEmpty()) {
+            dtoBuilder.nextBooking(BookingMapper.toBookingInfoDto(nextBookings.get(0)));
+        } else {
+            dtoBuilder.nextBooking(null);
+        }
 
         return dtoBuilder.build();
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,56 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
 
+import java.util.List;
+
+@Slf4j
+@Validated
 @RestController
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
 public class ItemRequestController {
-}
\ No newline at end of file
+
+    private final ItemRequestService service;
+    public static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @PostMapping
+    public ItemRequestDto create(@RequestHeader(USER_HEADER) @NotNull Long userId,
+                                 @Valid @RequestBody ItemRequestCreateDto requestData) {
+        log.info("POST /requests -> {} | userid={}", requestData, userId);
+        return service.create(requestData, userId);
+    }
+
+    @GetMapping
+    public List<ItemRequestDto> getOwn(@RequestHeader(USER_HEADER) @NotNull Long userId,
+                                       @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                       @RequestParam(defaultValue = "20") @Positive int size) {
+        log.info("GET /requests?from={}&size={} | userid={}", from, size, userId);
+        return service.getOwn(userId, from, size);
+    }
+
+    @GetMapping("/all")
+    public List<ItemRequestDto> getOthers(@RequestHeader(USER_HEADER) @NotNull Long userId,
+                                          @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                          @RequestParam(defaultValue = "20") @Positive int size) {
+        log.info("GET /requests/all?from={}&size={} | userid={}", from, size, userId);
+        return service.getOthers(userId, from, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto retrieve(@RequestHeader(USER_HEADER) @NotNull Long userId,
+                                   @PathVariable long requestId) {
+        log.info("GET /requests/{} | userid={}", requestId, userId);
+        return service.retrieve(requestId, userId);
+    }
+}
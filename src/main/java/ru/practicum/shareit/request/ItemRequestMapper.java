@@ -0,0 +1,24 @@
+package ru.practicum.shareit.request;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+@UtilityClass
+public class ItemRequestMapper {
+
+    public ItemRequestDto toItemRequestDto(ItemRequest request, List<ItemAnswerDto> answers) {
+        if (request == null) {
+            return null;
+        }
+
+        return ItemRequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .created(request.getCreated())
+                .items(answers)
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.requests")
+public class ItemRequestProperties {
+
+    /**
+     * Максимальный размер страницы списков запросов
+     */
+    private int maxPageSize = 100;
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    /**
+     * Запросы пользователя
+     *
+     * @param requestorId ID автора запросов
+     * @param pageable    страница с сортировкой
+     * @return страница запросов пользователя
+     */
+    List<ItemRequest> findByRequestorId(Long requestorId, Pageable pageable);
+
+    /**
+     * Запросы остальных пользователей
+     *
+     * @param requestorId ID пользователя, чьи запросы исключаются
+     * @param pageable    страница с сортировкой
+     * @return страница чужих запросов
+     */
+    List<ItemRequest> findByRequestorIdNot(Long requestorId, Pageable pageable);
+
+    /**
+     * Постраничная выборка запросов, созданных после указанного времени, по возрастанию ID
+     *
+     * @param created  граница времени создания
+     * @param afterId  ID последнего запроса предыдущей страницы
+     * @param pageable размер страницы
+     * @return запросы с ID больше указанного
+     */
+    List<ItemRequest> findByCreatedAfterAndIdGreaterThanOrderById(LocalDateTime created, Long afterId,
+                                                                 Pageable pageable);
+
+    /**
+     * Вещи, добавленные в ответ на запросы, одним запросом на всю страницу запросов.
+     * Проекция читает только нужные колонки и не загружает вещи и их владельцев как сущности
+     *
+     * @param requestIds ID запросов
+     * @return ответы на запросы по возрастанию ID вещи
+     */
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemAnswerDto(i.id, i.name, i.owner.id, i.requestId) " +
+            "FROM Item i WHERE i.requestId IN :requestIds ORDER BY i.id")
+    List<ItemAnswerDto> findAnswersByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+}
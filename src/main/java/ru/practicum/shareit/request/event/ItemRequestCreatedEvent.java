@@ -0,0 +1,25 @@
+package ru.practicum.shareit.request.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+/**
+ * Событие создания запроса вещи. Публикуется сервисом запросов внутри транзакции,
+ * слушатели обрабатывают его после коммита.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemRequestCreatedEvent {
+    /**
+     * Созданный запрос
+     */
+    private final ItemRequestDto request;
+
+    /**
+     * ID автора запроса
+     */
+    private final long requestorId;
+}
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.request.matching;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.util.BoundedAsyncExecutor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Подбор вещей к запросам и запросов к вещам.
+ * <p>
+ * Новый запрос сопоставляется с поисковым индексом доступных вещей, и владельцы лучших вещей
+ * получают уведомление. Новая вещь сопоставляется с индексом открытых запросов, и уведомление
+ * получают их авторы. Подбор выполняется после коммита в отдельном пуле с ограниченной очередью,
+ * поэтому не задерживает ответ и не копит задачи без предела при всплеске нагрузки.
+ */
+@Slf4j
+@Component
+public class ItemRequestMatcher {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    // Сколько лучших вещей просматривается на одного уведомляемого владельца
+    private static final int CANDIDATES_PER_OWNER = 4;
+
+    private final ItemSearchIndex searchIndex;
+    private final ItemRequestRepository requestRepository;
+    private final RequestMatchingProperties matchingProperties;
+    private final MatchNotifier notifier;
+    private final OpenRequestIndex openRequests = new OpenRequestIndex();
+    private final BoundedAsyncExecutor executor;
+    private final Timer requestMatchTimer;
+    private final Timer itemMatchTimer;
+
+    public ItemRequestMatcher(ItemSearchIndex searchIndex, ItemRequestRepository requestRepository,
+                              RequestMatchingProperties matchingProperties, MatchNotifier notifier,
+                              MeterRegistry meterRegistry) {
+        this.searchIndex = searchIndex;
+        this.requestRepository = requestRepository;
+        this.matchingProperties = matchingProperties;
+        this.notifier = notifier;
+
+        this.executor = new BoundedAsyncExecutor("request-matcher", matchingProperties.getThreads(),
+                matchingProperties.getQueueCapacity(), "подбора вещей и запросов", "shareit.requests.matching",
+                meterRegistry);
+
+        this.requestMatchTimer = Timer.builder("shareit.requests.matching.duration")
+                .description("Время подбора вещей к запросу и запросов к вещи")
+                .tag("source", "request")
+                .register(meterRegistry);
+        this.itemMatchTimer = Timer.builder("shareit.requests.matching.duration")
+                .description("Время подбора вещей к запросу и запросов к вещи")
+                .tag("source", "item")
+                .register(meterRegistry);
+        Gauge.builder("shareit.requests.matching.open", openRequests, OpenRequestIndex::size)
+                .description("Открытые запросы в индексе подбора")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenRequests() {
+        if (!matchingProperties.isEnabled()) {
+            log.info("Подбор вещей к запросам отключён");
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(matchingProperties.getOpenFor());
+        long lastId = 0;
+        List<ItemRequest> batch;
+        do {
+            batch = requestRepository.findByCreatedAfterAndIdGreaterThanOrderById(cutoff, lastId,
+                    PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (ItemRequest request : batch) {
+                openRequests.add(request.getId(), request.getRequestor().getId(), request.getDescription(),
+                        request.getCreated());
+                lastId = request.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        log.info("Загружены открытые запросы для подбора вещей, количество: {}", openRequests.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        if (matchingProperties.isEnabled()) {
+            executor.submit(() -> matchRequest(event.getRequest(), event.getRequestorId()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        // Подбираются только новые доступные вещи: правка существующей вещи не повод повторять уведомления
+        if (matchingProperties.isEnabled() && event.getPrevious() == null
+                && Boolean.TRUE.equals(event.getCurrent().getAvailable())) {
+            executor.submit(() -> matchItem(event.getCurrent()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Запоминает запрос как открытый и уведомляет владельцев лучших подходящих вещей
+     *
+     * @param request     новый запрос
+     * @param requestorId ID автора запроса
+     */
+    void matchRequest(ItemRequestDto request, long requestorId) {
+        requestMatchTimer.record(() -> {
+            openRequests.add(request.getId(), requestorId, request.getDescription(), request.getCreated());
+
+            int maxOwners = matchingProperties.getMaxOwners();
+            List<ItemDto> items = searchIndex.match(request.getDescription(), maxOwners * CANDIDATES_PER_OWNER);
+            if (items == null) {
+                log.debug("Поисковый индекс не построен, вещи к запросу с ID: {} не подобраны", request.getId());
+                return;
+            }
+
+            // Вещи идут по убыванию веса, поэтому первые встреченные владельцы — лучшие
+            Map<Long, List<Long>> itemsByOwner = new LinkedHashMap<>();
+            for (ItemDto item : items) {
+                if (item.getOwnerId() == null || item.getOwnerId() == requestorId) {
+                    continue;
+                }
+                List<Long> ownerItems = itemsByOwner.get(item.getOwnerId());
+                if (ownerItems == null && itemsByOwner.size() == maxOwners) {
+                    continue;
+                }
+                if (ownerItems == null) {
+                    ownerItems = new ArrayList<>();
+                    itemsByOwner.put(item.getOwnerId(), ownerItems);
+                }
+                ownerItems.add(item.getId());
+            }
+            itemsByOwner.forEach((ownerId, itemIds) -> notifier.notifyOwner(ownerId, request, itemIds));
+            log.debug("К запросу с ID: {} подобраны вещи владельцев: {}", request.getId(), itemsByOwner.keySet());
+        });
+    }
+
+    /**
+     * Уведомляет авторов открытых запросов, к которым подходит новая вещь
+     *
+     * @param item новая доступная вещь
+     */
+    void matchItem(ItemDto item) {
+        itemMatchTimer.record(() -> {
+            openRequests.expire(LocalDateTime.now().minus(matchingProperties.getOpenFor()));
+            long ownerId = item.getOwnerId() != null ? item.getOwnerId() : -1;
+            String text = item.getName() + ' ' + item.getDescription();
+            for (OpenRequestIndex.OpenRequest request : openRequests.match(text, ownerId,
+                    matchingProperties.getMaxRequests())) {
+                // Автор запроса, на который вещь добавлена, видит её в ответах на запрос
+                if (!Objects.equals(item.getRequestId(), request.getId())) {
+                    notifier.notifyRequestor(request.getRequestorId(), request.getId(), item);
+                }
+            }
+        });
+    }
+}
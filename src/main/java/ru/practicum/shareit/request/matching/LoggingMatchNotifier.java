@@ -0,0 +1,28 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+/**
+ * Уведомления о совпадениях в журнал, пока в приложении нет канала доставки уведомлений.
+ * Настоящая реализация {@link MatchNotifier} подключается бином с {@code @Primary}.
+ */
+@Slf4j
+@Component
+public class LoggingMatchNotifier implements MatchNotifier {
+
+    @Override
+    public void notifyOwner(long ownerId, ItemRequestDto request, List<Long> itemIds) {
+        log.info("Владельцу с ID: {} подходит запрос с ID: {}, вещи: {}", ownerId, request.getId(), itemIds);
+    }
+
+    @Override
+    public void notifyRequestor(long requestorId, long requestId, ItemDto item) {
+        log.info("Автору запроса с ID: {} подходит новая вещь с ID: {} по запросу с ID: {}",
+                requestorId, item.getId(), requestId);
+    }
+}
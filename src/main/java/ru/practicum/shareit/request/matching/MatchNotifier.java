@@ -0,0 +1,31 @@
+package ru.practicum.shareit.request.matching;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+/**
+ * Доставка уведомлений о найденных совпадениях запросов и вещей.
+ * Вызывается из потоков подбора, поэтому реализация не должна рассчитывать на транзакцию или запрос пользователя.
+ */
+public interface MatchNotifier {
+
+    /**
+     * Сообщает владельцу, что его вещи подходят к новому запросу
+     *
+     * @param ownerId ID владельца
+     * @param request новый запрос
+     * @param itemIds подходящие вещи владельца по убыванию релевантности
+     */
+    void notifyOwner(long ownerId, ItemRequestDto request, List<Long> itemIds);
+
+    /**
+     * Сообщает автору запроса о новой подходящей вещи
+     *
+     * @param requestorId ID автора запроса
+     * @param requestId   ID запроса
+     * @param item        новая вещь
+     */
+    void notifyRequestor(long requestorId, long requestId, ItemDto item);
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.search.BoundedTopK;
+import ru.practicum.shareit.item.search.LongPostingList;
+import ru.practicum.shareit.item.search.TextTokenizer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс открытых запросов вещей по токенам описания.
+ * <p>
+ * Запрос открыт, пока не истёк срок подбора к нему новых вещей. Запросы добавляются примерно
+ * в порядке создания, поэтому истёкшие снимаются с начала очереди без просмотра всего индекса.
+ */
+public class OpenRequestIndex {
+
+    // Более короткие токены (предлоги, союзы) при сопоставлении текстов только добавляют шум
+    private static final int MIN_TOKEN_LENGTH = 3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, LongPostingList> postings = new HashMap<>();
+    private final Map<Long, OpenRequest> requests = new HashMap<>();
+    private final ArrayDeque<OpenRequest> byCreation = new ArrayDeque<>();
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return requests.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Добавляет запрос; повторное добавление того же запроса ничего не меняет
+     *
+     * @param id          ID запроса
+     * @param requestorId ID автора запроса
+     * @param description описание запроса
+     * @param created     время создания запроса
+     */
+    public void add(long id, long requestorId, String description, LocalDateTime created) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TextTokenizer.tokenize(description)) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (requests.containsKey(id)) {
+                return;
+            }
+            OpenRequest request = new OpenRequest(id, requestorId, created, tokens);
+            requests.put(id, request);
+            byCreation.addLast(request);
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, key -> new LongPostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Снимает запросы, созданные раньше указанного времени
+     *
+     * @param cutoff граница открытых запросов
+     */
+    public void expire(LocalDateTime cutoff) {
+        lock.writeLock().lock();
+        try {
+            while (!byCreation.isEmpty() && byCreation.peekFirst().getCreated().isBefore(cutoff)) {
+                OpenRequest request = byCreation.pollFirst();
+                requests.remove(request.getId());
+                for (String token : request.getTokens()) {
+                    LongPostingList list = postings.get(token);
+                    if (list != null && list.remove(request.getId()) && list.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Открытые запросы, лучше всего подходящие к тексту вещи. Вес запроса — сумма весов общих токенов,
+     * редкие среди запросов токены весят больше частых
+     *
+     * @param text               название и описание вещи
+     * @param excludeRequestorId автор, чьи запросы не подбираются, — владелец вещи
+     * @param limit              максимальное количество запросов
+     * @return запросы по убыванию веса
+     */
+    public List<OpenRequest> match(String text, long excludeRequestorId, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            for (String token : TextTokenizer.tokenize(text)) {
+                LongPostingList list = postings.get(token);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (double) requests.size() / list.size());
+                for (int i = 0; i < list.size(); i++) {
+                    scores.merge(list.get(i), idf, Double::sum);
+                }
+            }
+
+            BoundedTopK topK = new BoundedTopK(limit);
+            scores.forEach((id, score) -> {
+                if (requests.get(id).getRequestorId() != excludeRequestorId) {
+                    topK.offer(id, score);
+                }
+            });
+            long[] best = topK.drainBestFirst();
+            List<OpenRequest> result = new ArrayList<>(best.length);
+            for (long id : best) {
+                result.add(requests.get(id));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class OpenRequest {
+        private final long id;
+        private final long requestorId;
+        private final LocalDateTime created;
+        private final List<String> tokens;
+    }
+}
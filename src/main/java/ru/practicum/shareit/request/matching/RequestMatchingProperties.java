@@ -0,0 +1,43 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.requests.matching")
+public class RequestMatchingProperties {
+
+    /**
+     * Подбирать ли вещи к запросам и запросы к новым вещам
+     */
+    private boolean enabled = true;
+
+    /**
+     * Скольким владельцам подходящих вещей отправляется уведомление о новом запросе
+     */
+    private int maxOwners = 5;
+
+    /**
+     * Скольким авторам подходящих запросов отправляется уведомление о новой вещи
+     */
+    private int maxRequests = 10;
+
+    /**
+     * Сколько времени после создания запросу подбираются новые вещи
+     */
+    private Duration openFor = Duration.ofDays(30);
+
+    /**
+     * Количество потоков подбора
+     */
+    private int threads = 2;
+
+    /**
+     * Сколько задач подбора может ждать в очереди; при переполнении новые задачи отбрасываются
+     */
+    private int queueCapacity = 10_000;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDto create(ItemRequestCreateDto requestData, long userId);
+
+    List<ItemRequestDto> getOwn(long userId, int from, int size);
+
+    List<ItemRequestDto> getOthers(long userId, int from, int size);
+
+    ItemRequestDto retrieve(long requestId, long userId);
+}
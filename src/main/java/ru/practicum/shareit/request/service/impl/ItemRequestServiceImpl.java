@@ -0,0 +1,127 @@
+package ru.practicum.shareit.request.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.ItemRequestProperties;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.LongObjectMap;
+import ru.practicum.shareit.util.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemRequestServiceImpl implements ItemRequestService {
+
+    // Новые запросы первыми; ID различает запросы, созданные в одно время
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id"));
+
+    private final ItemRequestRepository requestRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestProperties requestProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public ItemRequestDto create(ItemRequestCreateDto requestData, long userId) {
+        User requestor = userRepository.findById(userId)
+                .orElseThrow(() -> {
+                    log.error("Пользователь с id={} не найден", userId);
+                    return new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
+                });
+
+        ItemRequest request = ItemRequest.builder()
+                .description(requestData.getDescription())
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build();
+
+        ItemRequest savedRequest = requestRepository.save(request);
+        ItemRequestDto savedRequestDto = ItemRequestMapper.toItemRequestDto(savedRequest, Collections.emptyList());
+        // Подбор подходящих вещей выполняется после коммита и не задерживает ответ
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(savedRequestDto, userId));
+        log.info("Создан запрос вещи с ID: {} пользователем с ID: {}", savedRequest.getId(), userId);
+        return savedRequestDto;
+    }
+
+    @Override
+    public List<ItemRequestDto> getOwn(long userId, int from, int size) {
+        checkUserExists(userId);
+        List<ItemRequest> requests = requestRepository.findByRequestorId(userId, page(from, size));
+        log.debug("Получены запросы пользователя с ID: {}, количество: {}", userId, requests.size());
+        return withAnswers(requests);
+    }
+
+    @Override
+    public List<ItemRequestDto> getOthers(long userId, int from, int size) {
+        checkUserExists(userId);
+        List<ItemRequest> requests = requestRepository.findByRequestorIdNot(userId, page(from, size));
+        log.debug("Получены запросы других пользователей для пользователя с ID: {}, количество: {}",
+                userId, requests.size());
+        return withAnswers(requests);
+    }
+
+    @Override
+    public ItemRequestDto retrieve(long requestId, long userId) {
+        checkUserExists(userId);
+        ItemRequest request = requestRepository.findById(requestId)
+                .orElseThrow(() -> {
+                    log.error("Запрос с id={} не найден", requestId);
+                    return new NotFoundException(String.format("Запрос с id=%s не найден", requestId));
+                });
+        List<ItemAnswerDto> answers = requestRepository.findAnswersByRequestIdIn(List.of(requestId));
+        log.debug("Получен запрос с ID: {} для пользователя с ID: {}", requestId, userId);
+        return ItemRequestMapper.toItemRequestDto(request, answers);
+    }
+
+    private void checkUserExists(long userId) {
+        if (!userRepository.existsById(userId)) {
+            log.error("Пользователь с id={} не найден", userId);
+            throw new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
+        }
+    }
+
+    private OffsetPageRequest page(int from, int size) {
+        return OffsetPageRequest.of(from, Math.min(size, requestProperties.getMaxPageSize()), NEWEST_FIRST);
+    }
+
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Ответы на все запросы страницы загружаются одним IN-запросом, а не отдельно на каждый запрос
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        LongObjectMap<List<ItemAnswerDto>> answersByRequest = new LongObjectMap<>(requests.size());
+        for (ItemAnswerDto answer : requestRepository.findAnswersByRequestIdIn(requestIds)) {
+            answersByRequest.computeIfAbsent(answer.getRequestId(), id -> new ArrayList<>()).add(answer);
+        }
+
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestDto(request,
+                        answersByRequest.getOrDefault(request.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+}
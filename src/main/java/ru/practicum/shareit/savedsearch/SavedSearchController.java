@@ -0,0 +1,44 @@
+package ru.practicum.shareit.savedsearch;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchCreateDto;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchDto;
+import ru.practicum.shareit.savedsearch.service.SavedSearchService;
+
+import java.util.List;
+
+@Slf4j
+@Validated
+@RestController
+@RequestMapping(path = "/saved-searches")
+@RequiredArgsConstructor
+public class SavedSearchController {
+
+    private final SavedSearchService service;
+    public static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @PostMapping
+    public SavedSearchDto create(@RequestHeader(USER_HEADER) @NotNull Long userId,
+                                 @Valid @RequestBody SavedSearchCreateDto searchData) {
+        log.info("POST /saved-searches -> {} | userid={}", searchData, userId);
+        return service.create(searchData, userId);
+    }
+
+    @GetMapping
+    public List<SavedSearchDto> getOwn(@RequestHeader(USER_HEADER) @NotNull Long userId) {
+        log.info("GET /saved-searches | userid={}", userId);
+        return service.getOwn(userId);
+    }
+
+    @DeleteMapping("/{searchId}")
+    public void delete(@RequestHeader(USER_HEADER) @NotNull Long userId,
+                       @PathVariable long searchId) {
+        log.info("DELETE /saved-searches/{} | userid={}", searchId, userId);
+        service.delete(searchId, userId);
+    }
+}
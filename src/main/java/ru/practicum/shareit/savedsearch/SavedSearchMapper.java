@@ -0,0 +1,22 @@
+package ru.practicum.shareit.savedsearch;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchDto;
+import ru.practicum.shareit.savedsearch.model.SavedSearch;
+
+@UtilityClass
+public class SavedSearchMapper {
+
+    public SavedSearchDto toSavedSearchDto(SavedSearch savedSearch) {
+        if (savedSearch == null) {
+            return null;
+        }
+
+        return SavedSearchDto.builder()
+                .id(savedSearch.getId())
+                .userId(savedSearch.getUserId())
+                .query(savedSearch.getQuery())
+                .created(savedSearch.getCreated())
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.savedsearch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.saved-searches")
+public class SavedSearchProperties {
+
+    /**
+     * Сколько сохранённых поисков может быть у одного пользователя
+     */
+    private int maxPerUser = 50;
+
+    /**
+     * Количество потоков проверки вещей по сохранённым поискам
+     */
+    private int threads = 1;
+
+    /**
+     * Сколько проверок может ждать в очереди; при переполнении новые проверки отбрасываются
+     */
+    private int queueCapacity = 10_000;
+}
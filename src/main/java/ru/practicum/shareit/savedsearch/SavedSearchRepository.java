@@ -0,0 +1,31 @@
+package ru.practicum.shareit.savedsearch;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.savedsearch.model.SavedSearch;
+
+import java.util.List;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+
+    /**
+     * Сохранённые поиски пользователя
+     *
+     * @param userId ID пользователя
+     * @return поиски пользователя по возрастанию ID
+     */
+    List<SavedSearch> findByUserIdOrderById(Long userId);
+
+    long countByUserId(Long userId);
+
+    /**
+     * Постраничная выборка всех сохранённых поисков по возрастанию ID для построения индекса оповещений
+     *
+     * @param afterId  ID последнего поиска предыдущей страницы
+     * @param pageable размер страницы
+     * @return поиски с ID больше указанного
+     */
+    List<SavedSearch> findByIdGreaterThanOrderById(Long afterId, Pageable pageable);
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.savedsearch.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchCreateDto {
+
+    @NotBlank(message = "Текст поиска не может быть пустым")
+    @Size(max = 255, message = "Текст поиска не может быть длиннее 255 символов")
+    private String query;
+}
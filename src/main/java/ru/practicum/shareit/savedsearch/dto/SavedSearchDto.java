@@ -0,0 +1,19 @@
+package ru.practicum.shareit.savedsearch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchDto {
+    private Long id;
+    private Long userId;
+    private String query;
+    private LocalDateTime created;
+}
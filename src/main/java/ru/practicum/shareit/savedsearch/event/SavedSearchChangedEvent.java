@@ -0,0 +1,25 @@
+package ru.practicum.shareit.savedsearch.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchDto;
+
+/**
+ * Событие создания или удаления сохранённого поиска. Публикуется сервисом внутри транзакции,
+ * индекс оповещений обновляется после коммита.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SavedSearchChangedEvent {
+    /**
+     * Сохранённый поиск
+     */
+    private final SavedSearchDto savedSearch;
+
+    /**
+     * true, если поиск удалён
+     */
+    private final boolean removed;
+}
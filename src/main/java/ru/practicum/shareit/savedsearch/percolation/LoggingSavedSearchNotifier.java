@@ -0,0 +1,20 @@
+package ru.practicum.shareit.savedsearch.percolation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Оповещения по сохранённым поискам в журнал, пока в приложении нет канала доставки уведомлений.
+ * Настоящая реализация {@link SavedSearchNotifier} подключается бином с {@code @Primary}.
+ */
+@Slf4j
+@Component
+public class LoggingSavedSearchNotifier implements SavedSearchNotifier {
+
+    @Override
+    public void notifyUser(long userId, long searchId, String query, ItemDto item) {
+        log.info("Пользователю с ID: {} по сохранённому поиску с ID: {} ('{}') подходит вещь с ID: {}",
+                userId, searchId, query, item.getId());
+    }
+}
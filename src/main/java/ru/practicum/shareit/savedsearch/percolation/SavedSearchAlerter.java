@@ -0,0 +1,151 @@
+package ru.practicum.shareit.savedsearch.percolation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsImportedEvent;
+import ru.practicum.shareit.item.event.ItemsUpdatedEvent;
+import ru.practicum.shareit.savedsearch.SavedSearchProperties;
+import ru.practicum.shareit.savedsearch.SavedSearchRepository;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchDto;
+import ru.practicum.shareit.savedsearch.event.SavedSearchChangedEvent;
+import ru.practicum.shareit.savedsearch.model.SavedSearch;
+import ru.practicum.shareit.util.BoundedAsyncExecutor;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Оповещения по сохранённым поискам.
+ * <p>
+ * Каждое создание и изменение вещи после коммита один раз проверяется по индексу сохранённых поисков
+ * в отдельном пуле с ограниченной очередью. Оповещение уходит, только если вещь попала в результаты
+ * поиска, а до изменения в них не входила: так правка описания не повторяет оповещения,
+ * а включение доступности вещи их вызывает.
+ */
+@Slf4j
+@Component
+public class SavedSearchAlerter {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final SavedSearchProperties savedSearchProperties;
+    private final SavedSearchNotifier notifier;
+    private final SavedSearchPercolator percolator = new SavedSearchPercolator();
+    private final BoundedAsyncExecutor executor;
+    private final Timer matchTimer;
+    private final Counter alerts;
+
+    public SavedSearchAlerter(SavedSearchRepository savedSearchRepository, SavedSearchProperties savedSearchProperties,
+                              SavedSearchNotifier notifier, MeterRegistry meterRegistry) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.savedSearchProperties = savedSearchProperties;
+        this.notifier = notifier;
+
+        this.executor = new BoundedAsyncExecutor("saved-search-alerter", savedSearchProperties.getThreads(),
+                savedSearchProperties.getQueueCapacity(), "проверки вещей по сохранённым поискам",
+                "shareit.saved-searches", meterRegistry);
+
+        this.matchTimer = Timer.builder("shareit.saved-searches.match.duration")
+                .description("Время проверки вещи по сохранённым поискам")
+                .register(meterRegistry);
+        this.alerts = Counter.builder("shareit.saved-searches.alerts")
+                .description("Отправленные оповещения по сохранённым поискам")
+                .register(meterRegistry);
+        Gauge.builder("shareit.saved-searches.indexed", percolator, SavedSearchPercolator::size)
+                .description("Сохранённые поиски в индексе оповещений")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSavedSearches() {
+        long lastId = 0;
+        List<SavedSearch> batch;
+        do {
+            batch = savedSearchRepository.findByIdGreaterThanOrderById(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (SavedSearch savedSearch : batch) {
+                percolator.add(savedSearch.getId(), savedSearch.getUserId(), savedSearch.getQuery());
+                lastId = savedSearch.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        log.info("Загружены сохранённые поиски для оповещений, количество: {}", percolator.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSavedSearchChanged(SavedSearchChangedEvent event) {
+        SavedSearchDto savedSearch = event.getSavedSearch();
+        if (event.isRemoved()) {
+            percolator.remove(savedSearch.getId());
+        } else {
+            percolator.add(savedSearch.getId(), savedSearch.getUserId(), savedSearch.getQuery());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (Boolean.TRUE.equals(event.getCurrent().getAvailable())) {
+            executor.submit(() -> matchItem(event.getPrevious(), event.getCurrent()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemsImported(ItemsImportedEvent event) {
+        // Один пакет импорта — одна задача, а не тысячи задач в очереди
+        executor.submit(() -> event.getItems().forEach(item -> matchItem(null, item)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemsUpdated(ItemsUpdatedEvent event) {
+        executor.submit(() -> {
+            for (int i = 0; i < event.getCurrent().size(); i++) {
+                matchItem(event.getPrevious().get(i), event.getCurrent().get(i));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Оповещает владельцев сохранённых поисков, в результаты которых вещь попала этим изменением
+     *
+     * @param previous состояние вещи до изменения или null для новой вещи
+     * @param current  состояние вещи после изменения
+     */
+    void matchItem(ItemDto previous, ItemDto current) {
+        matchTimer.record(() -> {
+            List<SavedSearchPercolator.CompiledSearch> matched = percolator.match(current);
+            if (matched.isEmpty()) {
+                return;
+            }
+            Set<Long> matchedBefore = new HashSet<>();
+            for (SavedSearchPercolator.CompiledSearch search : percolator.match(previous)) {
+                matchedBefore.add(search.getId());
+            }
+            for (SavedSearchPercolator.CompiledSearch search : matched) {
+                // Свои вещи владельцу не интересны, а о вещи, уже бывшей в результатах, он знает
+                if (Objects.equals(current.getOwnerId(), search.getUserId()) || matchedBefore.contains(search.getId())) {
+                    continue;
+                }
+                notifier.notifyUser(search.getUserId(), search.getId(), search.getQuery(), current);
+                alerts.increment();
+            }
+        });
+    }
+}
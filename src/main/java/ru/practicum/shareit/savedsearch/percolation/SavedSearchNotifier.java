@@ -0,0 +1,20 @@
+package ru.practicum.shareit.savedsearch.percolation;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Доставка оповещений по сохранённым поискам.
+ * Вызывается из потоков проверки, поэтому реализация не должна рассчитывать на транзакцию или запрос пользователя.
+ */
+public interface SavedSearchNotifier {
+
+    /**
+     * Сообщает пользователю, что вещь попала в результаты его сохранённого поиска
+     *
+     * @param userId   ID владельца поиска
+     * @param searchId ID сохранённого поиска
+     * @param query    текст поиска
+     * @param item     вещь, ставшая доступной
+     */
+    void notifyUser(long userId, long searchId, String query, ItemDto item);
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.savedsearch.percolation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.TextTokenizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Обратный поисковый индекс: по вещи находит сохранённые поиски, в результаты которых она попадает.
+ * <p>
+ * Совпадение определяется так же, как в поиске вещей: доступная вещь, название или описание которой
+ * содержит текст поиска. Каждый токен текста поиска целиком лежит внутри какого-то токена вещи,
+ * поэтому поиск регистрируется под своим самым длинным токеном, а при проверке вещи просматриваются
+ * подстроки её токенов только тех длин, под которыми что-то зарегистрировано. Найденные кандидаты
+ * проверяются на вхождение всего текста.
+ */
+public class SavedSearchPercolator {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, List<CompiledSearch>> byAnchor = new HashMap<>();
+    private final Map<Long, CompiledSearch> byId = new HashMap<>();
+
+    // Длина якоря -> количество поисков с якорем такой длины
+    private final TreeMap<Integer, Integer> anchorLengths = new TreeMap<>();
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выбирает токен, под которым регистрируется текст поиска
+     *
+     * @param query текст поиска
+     * @return самый длинный токен или null, если в тексте нет букв и цифр
+     */
+    public static String anchorOf(String query) {
+        String anchor = null;
+        for (String token : TextTokenizer.tokenize(query)) {
+            if (anchor == null || token.length() > anchor.length()) {
+                anchor = token;
+            }
+        }
+        return anchor;
+    }
+
+    /**
+     * Регистрирует сохранённый поиск; повторная регистрация того же поиска ничего не меняет
+     *
+     * @param id     ID сохранённого поиска
+     * @param userId ID владельца поиска
+     * @param query  текст поиска
+     */
+    public void add(long id, long userId, String query) {
+        String normalized = TextTokenizer.normalize(query);
+        String anchor = anchorOf(normalized);
+        if (anchor == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (byId.containsKey(id)) {
+                return;
+            }
+            CompiledSearch search = new CompiledSearch(id, userId, normalized, anchor);
+            byId.put(id, search);
+            byAnchor.computeIfAbsent(anchor, key -> new ArrayList<>()).add(search);
+            anchorLengths.merge(anchor.length(), 1, Integer::sum);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Снимает сохранённый поиск с регистрации
+     *
+     * @param id ID сохранённого поиска
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            CompiledSearch search = byId.remove(id);
+            if (search == null) {
+                return;
+            }
+            List<CompiledSearch> anchored = byAnchor.get(search.getAnchor());
+            anchored.remove(search);
+            if (anchored.isEmpty()) {
+                byAnchor.remove(search.getAnchor());
+            }
+            anchorLengths.computeIfPresent(search.getAnchor().length(), (length, count) -> count > 1 ? count - 1 : null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Сохранённые поиски, в результаты которых попадает вещь
+     *
+     * @param item состояние вещи
+     * @return подходящие поиски; пусто для недоступной вещи
+     */
+    public List<CompiledSearch> match(ItemDto item) {
+        if (item == null || !Boolean.TRUE.equals(item.getAvailable())) {
+            return List.of();
+        }
+        String name = TextTokenizer.normalize(item.getName());
+        String description = TextTokenizer.normalize(item.getDescription());
+        Set<String> tokens = new HashSet<>(TextTokenizer.tokenize(name));
+        tokens.addAll(TextTokenizer.tokenize(description));
+
+        lock.readLock().lock();
+        try {
+            Set<Long> seen = new HashSet<>();
+            List<CompiledSearch> matched = new ArrayList<>();
+            for (String token : tokens) {
+                for (int length : anchorLengths.headMap(token.length(), true).keySet()) {
+                    for (int start = 0; start + length <= token.length(); start++) {
+                        List<CompiledSearch> anchored = byAnchor.get(token.substring(start, start + length));
+                        if (anchored == null) {
+                            continue;
+                        }
+                        for (CompiledSearch search : anchored) {
+                            if (seen.add(search.getId()) && search.matches(name, description)) {
+                                matched.add(search);
+                            }
+                        }
+                    }
+                }
+            }
+            return matched;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class CompiledSearch {
+        private final long id;
+        private final long userId;
+        private final String query;
+        private final String anchor;
+
+        /**
+         * Проверяет совпадение так же, как поиск вещей: вхождение текста в название или описание
+         *
+         * @param name        нормализованное название
+         * @param description нормализованное описание
+         * @return true, если вещь попадает в результаты поиска
+         */
+        public boolean matches(String name, String description) {
+            return name.contains(query) || description.contains(query);
+        }
+    }
+}
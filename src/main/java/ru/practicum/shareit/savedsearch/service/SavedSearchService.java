@@ -0,0 +1,21 @@
+package ru.practicum.shareit.savedsearch.service;
+
+import ru.practicum.shareit.savedsearch.dto.SavedSearchCreateDto;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchDto;
+
+import java.util.List;
+
+public interface SavedSearchService {
+    SavedSearchDto create(SavedSearchCreateDto searchData, long userId);
+
+    List<SavedSearchDto> getOwn(long userId);
+
+    void delete(long searchId, long userId);
+
+    /**
+     * Удаляет все сохранённые поиски пользователя и снимает их с индекса оповещений после коммита
+     *
+     * @param userId ID пользователя
+     */
+    void deleteAllOwn(long userId);
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.savedsearch.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.savedsearch.SavedSearchMapper;
+import ru.practicum.shareit.savedsearch.SavedSearchProperties;
+import ru.practicum.shareit.savedsearch.SavedSearchRepository;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchCreateDto;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchDto;
+import ru.practicum.shareit.savedsearch.event.SavedSearchChangedEvent;
+import ru.practicum.shareit.savedsearch.model.SavedSearch;
+import ru.practicum.shareit.savedsearch.percolation.SavedSearchPercolator;
+import ru.practicum.shareit.savedsearch.service.SavedSearchService;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SavedSearchServiceImpl implements SavedSearchService {
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final UserRepository userRepository;
+    private final SavedSearchProperties savedSearchProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public SavedSearchDto create(SavedSearchCreateDto searchData, long userId) {
+        checkUserExists(userId);
+
+        String query = searchData.getQuery().trim();
+        if (SavedSearchPercolator.anchorOf(query) == null) {
+            log.error("Сохранённый поиск '{}' не содержит ни букв, ни цифр", query);
+            throw new ValidationException("query", "должен содержать хотя бы одну букву или цифру");
+        }
+        if (savedSearchRepository.countByUserId(userId) >= savedSearchProperties.getMaxPerUser()) {
+            log.error("У пользователя с id={} уже максимум сохранённых поисков", userId);
+            throw new ValidationException(String.format("Нельзя сохранить больше %s поисков",
+                    savedSearchProperties.getMaxPerUser()));
+        }
+
+        SavedSearch savedSearch = SavedSearch.builder()
+                .userId(userId)
+                .query(query)
+                .created(LocalDateTime.now())
+                .build();
+
+        SavedSearchDto savedSearchDto = SavedSearchMapper.toSavedSearchDto(savedSearchRepository.save(savedSearch));
+        // Индекс оповещений обновляется после коммита
+        eventPublisher.publishEvent(new SavedSearchChangedEvent(savedSearchDto, false));
+        log.info("Сохранён поиск с ID: {} пользователя с ID: {}", savedSearchDto.getId(), userId);
+        return savedSearchDto;
+    }
+
+    @Override
+    public List<SavedSearchDto> getOwn(long userId) {
+        checkUserExists(userId);
+        List<SavedSearchDto> searches = savedSearchRepository.findByUserIdOrderById(userId).stream()
+                .map(SavedSearchMapper::toSavedSearchDto)
+                .collect(Collectors.toList());
+        log.debug("Получены сохранённые поиски пользователя с ID: {}, количество: {}", userId, searches.size());
+        return searches;
+    }
+
+    @Override
+    @Transactional
+    public void delete(long searchId, long userId) {
+        SavedSearch savedSearch = savedSearchRepository.findById(searchId)
+                .orElseThrow(() -> {
+                    log.error("Сохранённый поиск с id={} не найден", searchId);
+                    return new NotFoundException(String.format("Сохранённый поиск с id=%s не найден", searchId));
+                });
+        if (savedSearch.getUserId() != userId) {
+            log.error("Пользователь с id={} не владелец сохранённого поиска с id={}", userId, searchId);
+            throw new AccessDeniedException("Только владелец может удалить сохранённый поиск");
+        }
+
+        savedSearchRepository.delete(savedSearch);
+        eventPublisher.publishEvent(new SavedSearchChangedEvent(SavedSearchMapper.toSavedSearchDto(savedSearch), true));
+        log.info("Удалён сохранённый поиск с ID: {} пользователя с ID: {}", searchId, userId);
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllOwn(long userId) {
+        List<SavedSearch> searches = savedSearchRepository.findByUserIdOrderById(userId);
+        if (searches.isEmpty()) {
+            return;
+        }
+
+        savedSearchRepository.deleteAllInBatch(searches);
+        searches.forEach(savedSearch -> eventPublisher.publishEvent(
+                new SavedSearchChangedEvent(SavedSearchMapper.toSavedSearchDto(savedSearch), true)));
+        log.info("Удалены сохранённые поиски пользователя с ID: {}, количество: {}", userId, searches.size());
+    }
+
+    private void checkUserExists(long userId) {
+        if (!userRepository.existsById(userId)) {
+            log.error("Пользователь с id={} не найден", userId);
+            throw new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
+        }
+    }
+}
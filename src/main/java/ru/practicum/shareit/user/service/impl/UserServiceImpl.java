@@ -5,8 +5,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingVersionTracker;
 import ru.practicum.shareit.exception.DatabaseUniqueConstraintException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.card.ItemCardProjector;
+import ru.practicum.shareit.savedsearch.service.SavedSearchService;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserCreateDto;
@@ -24,6 +28,10 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final BookingVersionTracker bookingVersionTracker;
+    private final ItemDetailsCache itemDetailsCache;
+    private final ItemCardProjector itemCardProjector;
+    private final SavedSearchService savedSearchService;
 
     @Override
     @Transactional
@@ -56,7 +64,9 @@ public class UserServiceImpl implements UserService {
         }
 
         // Обновляем только не-null поля
+        boolean nameChanged = false;
         if (userData.getName() != null && !userData.getName().isBlank()) {
+            nameChanged = !userData.getName().equals(existingUser.getName());
             existingUser.setName(userData.getName());
         }
         if (userData.getEmail() != null && !userData.getEmail().isBlank()) {
@@ -64,6 +74,14 @@ public class UserServiceImpl implements UserService {
         }
 
         User updatedUser = userRepository.save(existingUser);
+        // Пользователь входит в BookingDto как букер, поэтому ETag списков бронирований больше не актуальны
+        bookingVersionTracker.touchAll();
+        // Имя пользователя показывается в комментариях закэшированных карточек вещей
+        itemDetailsCache.evictAllAfterCommit();
+        if (nameChanged) {
+            // Имя автора сохранено и в комментариях карточек списка вещей, их пересоберёт досборка
+            itemCardProjector.markStaleByCommentAuthor(userId);
+        }
         log.info("Обновлен пользователь с ID: {}", userId);
         return UserMapper.toUserDto(updatedUser);
     }
@@ -96,7 +114,10 @@ public class UserServiceImpl implements UserService {
             throw new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
         }
 
+        // Сохранённые поиски ссылаются на пользователя и зарегистрированы в индексе оповещений
+        savedSearchService.deleteAllOwn(userId);
         userRepository.deleteById(userId);
+        itemDetailsCache.evictAllAfterCommit();
         log.info("Удален пользователь с ID: {}", userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пул фоновых задач с ограниченной очередью: при всплеске нагрузки лишние задачи отбрасываются, а не копятся.
+ * Потоки пула — демоны, ошибка задачи записывается в лог и не останавливает поток.
+ * Публикует счётчик отброшенных задач {@code <prefix>.rejected} и размер очереди {@code <prefix>.queue}
+ */
+@Slf4j
+public class BoundedAsyncExecutor {
+
+    private final String taskName;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejectedTasks;
+
+    /**
+     * @param name          имя пула, из него строятся имена потоков
+     * @param threads       количество потоков
+     * @param queueCapacity размер очереди
+     * @param taskName      название задач в родительном падеже для логов, например "подбора вещей"
+     * @param metricPrefix  префикс имён метрик пула
+     * @param meterRegistry реестр метрик
+     */
+    public BoundedAsyncExecutor(String name, int threads, int queueCapacity, String taskName, String metricPrefix,
+                                MeterRegistry meterRegistry) {
+        this.taskName = taskName;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.rejectedTasks = Counter.builder(metricPrefix + ".rejected")
+                .description("Задачи " + taskName + ", отброшенные из-за переполнения очереди")
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + ".queue", executor, e -> e.getQueue().size())
+                .description("Задачи " + taskName + " в очереди")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ставит задачу в очередь; при переполненной очереди задача отбрасывается и учитывается в счётчике
+     *
+     * @param task задача
+     */
+    public void submit(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Ошибка {}", taskName, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedTasks.increment();
+            log.warn("Очередь {} переполнена, задача отброшена", taskName);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Набор полей ответа из параметра {@code fields=id,name,available}.
+ * <p>
+ * Сервис по нему решает, какие дополнительные запросы выполнять, а контроллер — какие свойства
+ * записывать в JSON. Без параметра ответ полный, как и раньше.
+ */
+public final class FieldSet {
+
+    public static final FieldSet ALL = new FieldSet(null);
+
+    // null — все поля
+    private final Set<String> fields;
+
+    private FieldSet(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Разбирает параметр fields
+     *
+     * @param fields  список полей через запятую или null
+     * @param allowed поля, которые есть в ответе
+     * @return набор полей; {@link #ALL}, если параметр не задан
+     */
+    public static FieldSet parse(String fields, Set<String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> unknown = new TreeSet<>(requested);
+        unknown.removeAll(allowed);
+        if (!unknown.isEmpty()) {
+            throw new ValidationException("fields", String.format("неизвестные поля %s, допустимые: %s",
+                    unknown, new TreeSet<>(allowed)));
+        }
+        return requested.isEmpty() ? ALL : new FieldSet(Collections.unmodifiableSet(requested));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    public boolean includesAny(String... candidates) {
+        for (String candidate : candidates) {
+            if (includes(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Оставляет в JSON-представлении объектов только запрошенные поля
+     *
+     * @param values       объекты ответа
+     * @param objectMapper преобразователь, настроенный как для обычного ответа
+     * @return исходный список, если запрошены все поля, иначе JSON-объекты с запрошенными полями
+     */
+    public List<?> write(List<?> values, ObjectMapper objectMapper) {
+        if (fields == null || values == null) {
+            return values;
+        }
+        List<ObjectNode> nodes = new ArrayList<>(values.size());
+        for (Object value : values) {
+            ObjectNode node = objectMapper.valueToTree(value);
+            node.retain(fields);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    @Override
+    public String toString() {
+        return fields == null ? "*" : String.join(",", new TreeSet<>(fields));
+    }
+}
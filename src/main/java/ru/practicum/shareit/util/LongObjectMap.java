@@ -0,0 +1,207 @@
+package ru.practicum.shareit.util;
+
+import java.util.function.LongFunction;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Хеш-таблица с ключами long без упаковки в Long: открытая адресация с линейным пробированием.
+ * Значения null не поддерживаются — пустая ячейка обозначается отсутствием значения.
+ * Не потокобезопасна.
+ *
+ * @param <V> тип значений
+ */
+public class LongObjectMap<V> {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    public LongObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize ожидаемое количество ключей, чтобы избежать перехеширования
+     */
+    public LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return values[indexOf(key)] != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        return (V) values[indexOf(key)];
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Связывает значение с ключом
+     *
+     * @param key   ключ
+     * @param value значение, не null
+     * @return предыдущее значение или null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("LongObjectMap не хранит null");
+        }
+        int index = indexOf(key);
+        V previous = (V) values[index];
+        keys[index] = key;
+        values[index] = value;
+        if (previous == null && ++size * 2 > keys.length) {
+            resize();
+        }
+        return previous;
+    }
+
+    /**
+     * Удаляет ключ. Следующие за ним ячейки той же цепочки сдвигаются назад, поэтому поиск
+     * по-прежнему останавливается на первой пустой ячейке и удалённых меток не остаётся
+     *
+     * @param key ключ
+     * @return удалённое значение или null, если ключа не было
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int mask = keys.length - 1;
+        int hole = indexOf(key);
+        V previous = (V) values[hole];
+        if (previous == null) {
+            return null;
+        }
+        values[hole] = null;
+        size--;
+        for (int index = (hole + 1) & mask; values[index] != null; index = (index + 1) & mask) {
+            int home = mix(keys[index]) & mask;
+            // Запись можно перенести в дыру, только если её исходная ячейка не лежит между дырой и ней
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                values[index] = null;
+                hole = index;
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Возвращает значение по ключу, создавая его при отсутствии
+     *
+     * @param key     ключ
+     * @param factory создание значения для нового ключа
+     * @return существующее или созданное значение
+     */
+    public V computeIfAbsent(long key, LongFunction<V> factory) {
+        V value = get(key);
+        if (value == null) {
+            value = factory.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Обходит все пары в произвольном порядке
+     *
+     * @param consumer получает значение и его ключ
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjLongConsumer<V> consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                consumer.accept((V) values[i], keys[i]);
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (values[index] != null && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        // Последовательные ID иначе легли бы в соседние ячейки длинными цепочками
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                if (result.length() > 1) {
+                    result.append(", ");
+                }
+                result.append(keys[i]).append('=').append(values[i]);
+            }
+        }
+        return result.append('}').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LongObjectMap<?> other) || other.size != size) {
+            return false;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null && !values[i].equals(other.get(keys[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                hash += Long.hashCode(keys[i]) ^ values[i].hashCode();
+            }
+        }
+        return hash;
+    }
+}
@@ -48,4 +48,75 @@ CREATE TABLE IF NOT EXISTS comments (
   CONSTRAINT pk_comment PRIMARY KEY (id),
   CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items(id),
   CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users(id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created DESC, id DESC);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS change_version BIGINT;
+
+UPDATE items SET change_version = id WHERE change_version IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_items_change_version ON items (change_version);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+CREATE TABLE IF NOT EXISTS saved_searches (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  user_id BIGINT NOT NULL,
+  query VARCHAR(255) NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT pk_saved_search PRIMARY KEY (id),
+  CONSTRAINT fk_saved_search_user FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_saved_searches_user ON saved_searches (user_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+
+CREATE TABLE IF NOT EXISTS item_cards (
+  item_id BIGINT NOT NULL,
+  last_booking_id BIGINT,
+  last_booker_id BIGINT,
+  next_booking_id BIGINT,
+  next_booker_id BIGINT,
+  comment_count BIGINT NOT NULL,
+  latest_comments TEXT,
+  stale_at TIMESTAMP WITHOUT TIME ZONE,
+  CONSTRAINT pk_item_card PRIMARY KEY (item_id),
+  CONSTRAINT fk_item_card_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_cards_stale_at ON item_cards (stale_at);
+
+CREATE TABLE IF NOT EXISTS popularity_snapshots (
+  metric VARCHAR(32) NOT NULL,
+  taken TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  data BYTEA NOT NULL,
+  CONSTRAINT pk_popularity_snapshot PRIMARY KEY (metric)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_item ON bookings (booker_id, status, item_id);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS geo_cell BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_items_geo_cell ON items (geo_cell);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS tags VARCHAR(400);
+
+CREATE TABLE IF NOT EXISTS item_images (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  item_id BIGINT NOT NULL,
+  hash VARCHAR(64) NOT NULL,
+  content_type VARCHAR(100) NOT NULL,
+  size_bytes BIGINT NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT pk_item_image PRIMARY KEY (id),
+  CONSTRAINT uq_item_image_hash UNIQUE (item_id, hash),
+  CONSTRAINT fk_item_image_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
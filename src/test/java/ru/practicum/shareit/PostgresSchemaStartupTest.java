@@ -0,0 +1,132 @@
+package ru.practicum.shareit;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemAvailabilityResultDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityUpdateDto;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserCreateDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Запуск приложения на пустой базе встроенного PostgreSQL со схемой из SQL-скриптов и проверкой схемы Hibernate,
+ * как в рабочей конфигурации
+ */
+@SpringBootTest
+class PostgresSchemaStartupTest {
+
+    // Останавливается при завершении JVM: контекст Spring кэшируется и держит соединения до конца прогона
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlInitializationProperties sqlInitializationProperties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.defer-datasource-initialization", () -> "false");
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+        registry.add("shareit.search.full-text-enabled", () -> "true");
+    }
+
+    // Тест запуска на пустой базе - общая схема выполняется раньше скрипта PostgreSQL, который её дополняет
+    @Test
+    void startsOnEmptyDatabase() {
+        assertEquals(List.of("classpath:schema.sql", "optional:classpath:schema-postgresql.sql"),
+                sqlInitializationProperties.getSchemaLocations());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns "
+                        + "WHERE table_name = 'items' AND column_name = 'search_vector'", Integer.class));
+    }
+
+    // Тест пакетного изменения доступности при параллельном переключении - заблокированная строка ждёт чужой коммит,
+    // вещь, доступность которой уже сменили, не изменяется, а оставшиеся получают по своей версии подряд
+    @Test
+    void updateAvailability_WaitsForConcurrentToggle() throws Exception {
+        long ownerId = userService.create(new UserCreateDto(null, "Owner", "owner@example.com")).getId();
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            itemIds.add(itemService.create(ItemCreateDto.builder()
+                    .name("Дрель " + i).description("Аккумуляторная").available(true).build(), ownerId).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch toggled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Future<?> toggle = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE items SET is_available = false WHERE id = ?", itemIds.get(1));
+                toggled.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(toggled.await(10, TimeUnit.SECONDS));
+
+            Future<ItemAvailabilityResultDto> bulk = executor.submit(() -> itemService.updateAvailability(
+                    new ItemAvailabilityUpdateDto(false, null, true), ownerId));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'", Integer.class) == 0) {
+                assertTrue(System.nanoTime() < deadline, "Пакетное изменение не ждёт блокировки строки");
+                Thread.sleep(10);
+            }
+            release.countDown();
+            toggle.get(10, TimeUnit.SECONDS);
+
+            ItemAvailabilityResultDto result = bulk.get(10, TimeUnit.SECONDS);
+            assertEquals(2, result.getUpdated());
+            assertEquals(List.of(itemIds.get(0), itemIds.get(2)), result.getItemIds());
+            List<Long> versions = jdbcTemplate.queryForList(
+                    "SELECT change_version FROM items WHERE id IN (?, ?) ORDER BY id", Long.class,
+                    itemIds.get(0), itemIds.get(2));
+            assertEquals(1, versions.get(1) - versions.get(0));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
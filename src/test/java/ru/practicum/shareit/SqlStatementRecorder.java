@@ -0,0 +1,40 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Запоминает SQL, который Hibernate отправляет в базу, чтобы тесты могли проверять количество запросов
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /**
+     * Количество запросов, читающих указанную таблицу
+     *
+     * @param table имя таблицы
+     * @return количество SELECT-запросов с этой таблицей во FROM или JOIN
+     */
+    public static long selectsFrom(String table) {
+        String from = "from " + table;
+        String join = "join " + table;
+        return STATEMENTS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " "))
+                .filter(sql -> sql.startsWith("select") && (sql.contains(from + " ") || sql.contains(join + " ")))
+                .count();
+    }
+}
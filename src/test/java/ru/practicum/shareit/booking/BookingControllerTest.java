@@ -19,6 +19,7 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.util.FieldSet;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,6 +27,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -42,6 +44,9 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingVersionTracker versionTracker;
+
     private BookingCreateDto bookingCreateDto;
     private BookingDto bookingDto;
     private BookingDto approvedBookingDto;
@@ -239,7 +244,7 @@ class BookingControllerTest {
     // Тест получения всех бронирований пользователя
     @Test
     void getUserBookings_ValidUser_ReturnsBookings() throws Exception {
-        Mockito.when(bookingService.getUserBookings(anyLong(), any()))
+        Mockito.when(bookingService.getUserBookings(anyLong(), any(), any()))
                 .thenReturn(List.of(bookingDto));
 
         mockMvc.perform(get("/bookings")
@@ -254,7 +259,7 @@ class BookingControllerTest {
     // Тест получения бронирований пользователя с разными состояниями
     @Test
     void getUserBookings_DifferentStates_ReturnsBookings() throws Exception {
-        Mockito.when(bookingService.getUserBookings(anyLong(), any()))
+        Mockito.when(bookingService.getUserBookings(anyLong(), any(), any()))
                 .thenReturn(List.of(bookingDto));
 
         // Test ALL state
@@ -285,7 +290,7 @@ class BookingControllerTest {
     // Тест получения бронирований пользователя с неизвестным состоянием
     @Test
     void getUserBookings_UnknownState_ReturnsBadRequest() throws Exception {
-        Mockito.when(bookingService.getUserBookings(anyLong(), any()))
+        Mockito.when(bookingService.getUserBookings(anyLong(), any(), any()))
                 .thenThrow(new ValidationException("Unknown state: UNKNOWN"));
 
         mockMvc.perform(get("/bookings")
@@ -297,7 +302,7 @@ class BookingControllerTest {
     // Тест получения бронирований для вещей владельца
     @Test
     void getOwnerBookings_ValidOwner_ReturnsBookings() throws Exception {
-        Mockito.when(bookingService.getOwnerBookings(anyLong(), any()))
+        Mockito.when(bookingService.getOwnerBookings(anyLong(), any(), any()))
                 .thenReturn(List.of(bookingDto));
 
         mockMvc.perform(get("/bookings/owner")
@@ -312,7 +317,7 @@ class BookingControllerTest {
     // Тест получения бронирований для несуществующего пользователя
     @Test
     void getOwnerBookings_UserNotFound_ReturnsNotFound() throws Exception {
-        Mockito.when(bookingService.getOwnerBookings(anyLong(), any()))
+        Mockito.when(bookingService.getOwnerBookings(anyLong(), any(), any()))
                 .thenThrow(new NotFoundException("Пользователь с id=999 не найден"));
 
         mockMvc.perform(get("/bookings/owner")
@@ -324,7 +329,7 @@ class BookingControllerTest {
     // Тест получения бронирований с дефолтным состоянием
     @Test
     void getUserBookings_DefaultState_ReturnsBookings() throws Exception {
-        Mockito.when(bookingService.getUserBookings(anyLong(), eq("ALL")))
+        Mockito.when(bookingService.getUserBookings(anyLong(), eq("ALL"), any()))
                 .thenReturn(List.of(bookingDto));
 
         mockMvc.perform(get("/bookings")
@@ -362,4 +367,59 @@ class BookingControllerTest {
                         .param("approved", "true"))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    // Тест условного запроса списка бронирований с актуальным ETag - должен вернуть 304 без обращения к сервису
+    @Test
+    void getUserBookings_MatchingETag_ReturnsNotModified() throws Exception {
+        String etag = "W/\"e-0-1-booker-all\"";
+        Mockito.when(versionTracker.listTag(2L, "booker", "ALL")).thenReturn(etag);
+
+        mockMvc.perform(get("/bookings")
+                        .header(BookingController.USER_HEADER, "2")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(bookingService, Mockito.never()).getUserBookings(anyLong(), any(), any());
+    }
+
+    // Тест условного запроса списка бронирований владельца с устаревшим ETag - должен вернуть список и новый ETag
+    @Test
+    void getOwnerBookings_StaleETag_ReturnsBookingsWithETag() throws Exception {
+        String etag = "W/\"e-0-2-owner-all\"";
+        Mockito.when(versionTracker.listTag(1L, "owner", "ALL")).thenReturn(etag);
+        Mockito.when(bookingService.getOwnerBookings(1L, "ALL", FieldSet.ALL)).thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(BookingController.USER_HEADER, "1")
+                        .header("If-None-Match", "W/\"e-0-1-owner-all\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    // Тест списка бронирований с параметром fields - в JSON только запрошенные поля, набор полей передаётся в сервис
+    @Test
+    void getUserBookings_WithFields_WritesOnlyRequestedFields() throws Exception {
+        Mockito.when(bookingService.getUserBookings(eq(2L), eq("ALL"),
+                        Mockito.argThat(fields -> fields.includes("status") && !fields.includes("item"))))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings")
+                        .header(BookingController.USER_HEADER, "2")
+                        .param("fields", "id,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].status").exists())
+                .andExpect(jsonPath("$[0].item").doesNotExist())
+                .andExpect(jsonPath("$[0].booker").doesNotExist());
+    }
+
+    // Тест списка бронирований с неизвестным полем - должен вернуть 400
+    @Test
+    void getOwnerBookings_UnknownField_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .header(BookingController.USER_HEADER, "1")
+                        .param("fields", "id,price"))
+                .andExpect(status().isBadRequest());
+    }
+}
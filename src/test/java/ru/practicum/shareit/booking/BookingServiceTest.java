@@ -16,7 +16,10 @@ import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.card.ItemCardProjector;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityTracker;
+import ru.practicum.shareit.item.related.CoBookingIndexer;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
@@ -40,6 +43,18 @@ class BookingServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BookingVersionTracker versionTracker;
+
+    @Mock
+    private ItemCardProjector itemCardProjector;
+
+    @Mock
+    private ItemPopularityTracker popularityTracker;
+
+    @Mock
+    private CoBookingIndexer coBookingIndexer;
+
     private BookingService bookingService;
 
     private User owner;
@@ -51,7 +66,8 @@ class BookingServiceTest {
 
     @BeforeEach
     void setUp() {
-        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository, versionTracker,
+                itemCardProjector, popularityTracker, coBookingIndexer);
 
         // Используем будущую дату для тестов создания бронирования
         futureTime = LocalDateTime.now().plusDays(1);
@@ -109,6 +125,7 @@ class BookingServiceTest {
         verify(userRepository, times(1)).findById(2L);
         verify(itemRepository, times(1)).findById(1L);
         verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(popularityTracker).recordBooking(1L);
     }
 
     // Тест создания бронирования для несуществующего пользователя
@@ -193,6 +210,9 @@ class BookingServiceTest {
 
         assertNotNull(result);
         assertEquals(BookingStatus.APPROVED, result.getStatus());
+        verify(versionTracker, times(1)).touch(2L, 1L);
+        verify(itemCardProjector).refresh(List.of(1L));
+        verify(coBookingIndexer).recordApproved(2L, 1L, 1L);
 
         verify(bookingRepository, times(1)).findByIdWithItemAndBooker(1L);
         verify(bookingRepository, times(1)).save(any(Booking.class));
@@ -208,6 +228,7 @@ class BookingServiceTest {
 
         assertNotNull(result);
         assertEquals(BookingStatus.REJECTED, result.getStatus());
+        verifyNoInteractions(itemCardProjector, coBookingIndexer);
 
         verify(bookingRepository, times(1)).findByIdWithItemAndBooker(1L);
         verify(bookingRepository, times(1)).save(any(Booking.class));
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingVersionTrackerTest {
+
+    private BookingVersionTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        BookingVersionProperties properties = new BookingVersionProperties();
+        properties.setMaxTrackedUsers(10);
+        tracker = new BookingVersionTracker(properties);
+    }
+
+    // Тест ETag списка, зависящего от времени - не формируется
+    @Test
+    void listTag_TimeDependentState_ReturnsNull() {
+        assertNull(tracker.listTag(1L, "booker", "CURRENT"));
+        assertNull(tracker.listTag(1L, "booker", "UNKNOWN"));
+        assertNotNull(tracker.listTag(1L, "booker", "ALL"));
+    }
+
+    // Тест изменения бронирования - меняется ETag только его участников
+    @Test
+    void touch_ChangesTagOfParticipantsOnly() {
+        String booker = tracker.listTag(1L, "booker", "ALL");
+        String other = tracker.listTag(3L, "booker", "ALL");
+
+        tracker.touch(1L, 2L);
+
+        assertNotEquals(booker, tracker.listTag(1L, "booker", "ALL"));
+        assertEquals(other, tracker.listTag(3L, "booker", "ALL"));
+    }
+
+    // Тест вытеснения версий - число записей ограничено, а ETag пользователя не возвращается к выданным ранее
+    @Test
+    void touch_ManyUsers_NeverRepeatsIssuedTag() {
+        Set<String> issued = new HashSet<>();
+        for (long round = 0; round < 5; round++) {
+            issued.add(tracker.listTag(1L, "booker", "ALL"));
+            tracker.touch(1L);
+            for (long userId = 2; userId < 1000; userId++) {
+                tracker.touch(userId);
+            }
+            assertFalse(issued.contains(tracker.listTag(1L, "booker", "ALL")));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Замер ранжированного полнотекстового поиска против прежнего запроса с LIKE на встроенном PostgreSQL
+ * с миллионом вещей. Запрос с LIKE замеряется до создания индексов из schema-postgresql.sql, как он
+ * выполнялся до полнотекстового поиска. Каждый замер — подсчёт и первая страница, как в сервисе.
+ * Запускается явно: mvn test -Dshareit.benchmark=true -Dtest=FullTextSearchBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class FullTextSearchBenchmarkTest {
+
+    private static final int ITEMS = 1_000_000;
+    private static final int LIMIT = 20;
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 20;
+    // Слово встречается в каждой десятой вещи, прилагательное — в каждой двенадцатой, бренд — в каждой восьмой
+    private static final List<String> QUERIES = List.of("дрель", "аккумуляторная", "makita");
+
+    // SQL, который Hibernate строит для ItemRepository.searchAvailableItems и countAvailableItems
+    private static final String LIKE_CONDITION = "i.is_available = true "
+            + "AND (lower(i.name) LIKE lower('%' || :text || '%') "
+            + "OR lower(i.description) LIKE lower('%' || :text || '%'))";
+    private static final String LIKE_COUNT = "SELECT COUNT(*) FROM items i WHERE " + LIKE_CONDITION;
+    private static final String LIKE_PAGE = "SELECT i.* FROM items i WHERE " + LIKE_CONDITION
+            + " ORDER BY CASE WHEN lower(i.name) LIKE lower('%' || :text || '%') THEN 0 ELSE 1 END, i.id"
+            + " LIMIT :limit";
+
+    private static PostgresItemCatalogue catalogue;
+    private static final Map<String, Double> likeMedians = new LinkedHashMap<>();
+
+    @BeforeAll
+    static void fillCatalogue() throws IOException {
+        catalogue = PostgresItemCatalogue.start(ITEMS);
+        for (String text : QUERIES) {
+            likeMedians.put(text, medianMillis(LIKE_COUNT, LIKE_PAGE, text));
+        }
+        catalogue.applyPostgresSchema();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        catalogue.close();
+    }
+
+    // Тест ранжированного поиска - по каждому запросу медиана меньше, чем у LIKE без индекса
+    @Test
+    void ranked_FasterThanLike() {
+        String count = PostgresItemCatalogue.repositoryQuery("countAvailableItemsRanked", String.class);
+        String page = PostgresItemCatalogue.repositoryQuery("searchAvailableItemsRanked", String.class, int.class);
+        for (String text : QUERIES) {
+            double ranked = medianMillis(count, page, text);
+            double like = likeMedians.get(text);
+            System.out.printf("Поиск '%s' среди %d вещей: LIKE %.1f мс, ts_rank %.1f мс%n", text, ITEMS, like, ranked);
+            assertTrue(ranked < like, String.format("ts_rank %.1f мс не быстрее LIKE %.1f мс для '%s'",
+                    ranked, like, text));
+        }
+    }
+
+    private static double medianMillis(String countSql, String pageSql, String text) {
+        Map<String, Object> params = Map.of("text", text, "limit", LIMIT);
+        return PostgresItemCatalogue.percentilesMillis(() -> {
+            Long total = catalogue.jdbc().queryForObject(countSql, params, Long.class);
+            assertNotNull(total);
+            assertTrue(total > 0, "Нет совпадений для " + text);
+            assertFalse(catalogue.jdbc().queryForList(pageSql, params).isEmpty());
+        }, WARMUP_RUNS, MEASURED_RUNS, 0.5)[0];
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemChangeVersionsTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemChangeVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        versions = new ItemChangeVersions(itemRepository);
+        when(itemRepository.findMaxChangeVersion()).thenReturn(41L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Тест выдачи версий - счётчик продолжается с максимума в базе, который читается один раз
+    @Test
+    void next_ContinuesFromDatabaseMaximum() {
+        assertEquals(42L, versions.next());
+        assertEquals(43L, versions.next(3));
+        assertEquals(46L, versions.next());
+        assertEquals(47L, versions.stableBefore());
+
+        verify(itemRepository, times(1)).findMaxChangeVersion();
+    }
+
+    // Тест границы ленты - изменение незавершённой транзакции задерживает более поздние версии
+    @Test
+    void stableBefore_WaitsForEarlierTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        long earlier = versions.next();
+        List<TransactionSynchronization> earlierTransaction = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        versions.next();
+        List<TransactionSynchronization> laterTransaction = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Поздняя транзакция зафиксирована первой, но граница остаётся на ранней версии
+        laterTransaction.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(earlier, versions.stableBefore());
+
+        earlierTransaction.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(44L, versions.stableBefore());
+    }
+}
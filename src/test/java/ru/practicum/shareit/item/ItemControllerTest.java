@@ -3,34 +3,60 @@ package ru.practicum.shareit.item;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.image.ImageFile;
+import ru.practicum.shareit.item.image.ImageFileSender;
+import ru.practicum.shareit.item.service.ItemImageService;
+import ru.practicum.shareit.item.service.ItemImportService;
+import ru.practicum.shareit.item.service.ItemPopularityService;
+import ru.practicum.shareit.item.service.ItemRecommendationService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.FieldSet;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
+@Import(ImageFileSender.class)
 @ActiveProfiles("test")
 class ItemControllerTest {
 
+    private static final String IMAGE_HASH = "ab".repeat(32);
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -40,6 +66,21 @@ class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemImportService itemImportService;
+
+    @MockBean
+    private ItemPopularityService itemPopularityService;
+
+    @MockBean
+    private ItemRecommendationService itemRecommendationService;
+
+    @MockBean
+    private ItemImageService itemImageService;
+
+    @TempDir
+    private Path tempDir;
+
     private ItemCreateDto validItemCreateDto;
     private ItemCreateDto invalidItemCreateDto;
     private ItemDto itemDto;
@@ -189,10 +230,35 @@ class ItemControllerTest {
                 .andExpect(status().isForbidden());
     }
 
+    // Тест пакетного изменения доступности - путь /availability не должен приниматься за ID вещи
+    @Test
+    void updateAvailabilityReturnsChangedItems() throws Exception {
+        Mockito.when(itemService.updateAvailability(any(ItemAvailabilityUpdateDto.class), eq(1L)))
+                .thenReturn(new ItemAvailabilityResultDto(2, List.of(1L, 5L)));
+
+        mockMvc.perform(patch("/items/availability")
+                        .header(ItemController.OWNER_HEADER, "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ItemAvailabilityUpdateDto(false, null, true))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(2)))
+                .andExpect(jsonPath("$.itemIds[1]", is(5)));
+    }
+
+    // Тест пакетного изменения без доступности - должен вернуть 400
+    @Test
+    void updateAvailabilityWithoutAvailableReturnsBadRequest() throws Exception {
+        mockMvc.perform(patch("/items/availability")
+                        .header(ItemController.OWNER_HEADER, "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"all\":true}"))
+                .andExpect(status().isBadRequest());
+    }
+
     // Тест получения списка предметов пользователя - должен вернуть список предметов
     @Test
     void getItemsValidUserIdReturnsItemList() throws Exception {
-        Mockito.when(itemService.getList(1L)).thenReturn(List.of(itemWithBookingsDto));
+        Mockito.when(itemService.getList(1L, FieldSet.ALL)).thenReturn(List.of(itemWithBookingsDto));
 
         mockMvc.perform(get("/items")
                         .header(ItemController.OWNER_HEADER, "1"))
@@ -204,6 +270,21 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].comments[0].text", is("Great item!")));
     }
 
+    // Тест списка вещей с параметром fields - в JSON только запрошенные поля
+    @Test
+    void getItemsWithFieldsWritesOnlyRequestedFields() throws Exception {
+        Mockito.when(itemService.getList(eq(1L), any(FieldSet.class))).thenReturn(List.of(itemWithBookingsDto));
+
+        mockMvc.perform(get("/items")
+                        .header(ItemController.OWNER_HEADER, "1")
+                        .param("fields", "id,name,available"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].name", is("Item")))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].comments").doesNotExist());
+    }
+
     // Тест получения конкретного предмета по ID - должен вернуть предмет
     @Test
     void getItemValidIdsReturnsItem() throws Exception {
@@ -226,21 +307,60 @@ class ItemControllerTest {
                 .andExpect(status().isNotFound());
     }
 
-    // Тест поиска предметов по тексту - должен вернуть найденные предметы
+    // Тест поиска предметов по тексту - должен вернуть найденные предметы и общее количество в заголовке
     @Test
     void searchItemsValidTextReturnsItems() throws Exception {
-        Mockito.when(itemService.search("test")).thenReturn(List.of(searchItemDto));
+        Mockito.when(itemService.search("test", 0, 20, false))
+                .thenReturn(new ItemSearchResultDto(List.of(searchItemDto), 1));
 
         mockMvc.perform(get("/items/search")
                         .param("text", "test"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.TOTAL_COUNT_HEADER, "1"))
                 .andExpect(jsonPath("$[0].id", is(1)));
     }
 
+    // Тест поиска с параметрами пагинации - должен передать их в сервис
+    @Test
+    void searchItemsWithPagingPassesParameters() throws Exception {
+        Mockito.when(itemService.search("test", 40, 10, false))
+                .thenReturn(new ItemSearchResultDto(List.of(searchItemDto), 41));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "test")
+                        .param("from", "40")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.TOTAL_COUNT_HEADER, "41"))
+                .andExpect(jsonPath("$.length()", is(1)));
+    }
+
+    // Тест поиска с исправлением опечаток - флаг fuzzy должен передаваться в сервис
+    @Test
+    void searchItemsFuzzyPassesFlag() throws Exception {
+        Mockito.when(itemService.search("drel", 0, 20, true))
+                .thenReturn(new ItemSearchResultDto(List.of(searchItemDto), 1));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drel")
+                        .param("fuzzy", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    // Тест поиска с нулевым размером страницы - должен вернуть ошибку валидации
+    @Test
+    void searchItemsZeroSizeReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "test")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     // Тест поиска с пустым текстом - должен вернуть пустой список
     @Test
     void searchItemsEmptyTextReturnsEmptyList() throws Exception {
-        Mockito.when(itemService.search("")).thenReturn(List.of());
+        Mockito.when(itemService.search("", 0, 20, false)).thenReturn(new ItemSearchResultDto(List.of(), 0));
 
         mockMvc.perform(get("/items/search")
                         .param("text", ""))
@@ -248,6 +368,140 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.length()", is(0)));
     }
 
+    // Тест поиска по местоположению - координаты и радиус передаются в сервис, текст необязателен
+    @Test
+    void searchItemsNearbyPassesLocation() throws Exception {
+        Mockito.when(itemService.searchNearby(null, null, 55.75, 37.62, 5.0, 0, 20, false))
+                .thenReturn(new ItemSearchResultDto(List.of(searchItemDto), 1));
+
+        mockMvc.perform(get("/items/search")
+                        .param("lat", "55.75")
+                        .param("lon", "37.62")
+                        .param("radiusKm", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.TOTAL_COUNT_HEADER, "1"))
+                .andExpect(jsonPath("$[0].id", is(1)));
+        Mockito.verify(itemService, Mockito.never()).search(any(), anyInt(), anyInt(), anyBoolean());
+    }
+
+    // Тест поиска по тегам - теги передаются в сервис, текст необязателен
+    @Test
+    void searchItemsByTagsPassesTags() throws Exception {
+        Mockito.when(itemService.searchByTags(null, List.of("сад", "инструменты"), 0, 20, false))
+                .thenReturn(new ItemSearchResultDto(List.of(searchItemDto), 1));
+
+        mockMvc.perform(get("/items/search")
+                        .param("tags", "сад", "инструменты"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.TOTAL_COUNT_HEADER, "1"))
+                .andExpect(jsonPath("$[0].id", is(1)));
+        Mockito.verify(itemService, Mockito.never()).search(any(), anyInt(), anyInt(), anyBoolean());
+    }
+
+    // Тест счётчиков тегов - текст, теги и размер передаются в сервис
+    @Test
+    void getFacetsReturnsTagCounts() throws Exception {
+        Mockito.when(itemService.getFacets("дрель", List.of("сад"), 5))
+                .thenReturn(List.of(new TagFacetDto("инструменты", 4), new TagFacetDto("сад", 2)));
+
+        mockMvc.perform(get("/items/facets")
+                        .param("text", "дрель")
+                        .param("tags", "сад")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tag", is("инструменты")))
+                .andExpect(jsonPath("$[0].count", is(4)))
+                .andExpect(jsonPath("$.length()", is(2)));
+    }
+
+    // Тест создания вещи с некорректным тегом - должен вернуть ошибку валидации
+    @Test
+    void createItemWithInvalidTagReturnsBadRequest() throws Exception {
+        validItemCreateDto.setTags(List.of("сад,огород"));
+
+        mockMvc.perform(post("/items")
+                        .header(ItemController.OWNER_HEADER, "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validItemCreateDto)))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(itemService);
+    }
+
+    // Тест создания вещи только с широтой - должен вернуть ошибку валидации
+    @Test
+    void createItemWithLatitudeOnlyReturnsBadRequest() throws Exception {
+        validItemCreateDto.setLatitude(55.75);
+
+        mockMvc.perform(post("/items")
+                        .header(ItemController.OWNER_HEADER, "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validItemCreateDto)))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(itemService);
+    }
+
+    // Тест подсказок по префиксу - должен вернуть токены из сервиса
+    @Test
+    void suggestReturnsCompletions() throws Exception {
+        Mockito.when(itemService.suggest("др", 5)).thenReturn(List.of("дрель", "дрели"));
+
+        mockMvc.perform(get("/items/suggest")
+                        .param("prefix", "др")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is("дрель")))
+                .andExpect(jsonPath("$.length()", is(2)));
+    }
+
+    // Тест популярных вещей - окно и размер передаются в сервис, по умолчанию 24h
+    @Test
+    void getPopular_ReturnsMostBookedAndViewed() throws Exception {
+        PopularItemDto drill = PopularItemDto.builder().id(1L).name("Дрель").available(true).count(12).build();
+        Mockito.when(itemPopularityService.getPopular("24h", 5))
+                .thenReturn(new PopularItemsDto("24h", List.of(drill), List.of()));
+
+        mockMvc.perform(get("/items/popular")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window", is("24h")))
+                .andExpect(jsonPath("$.mostBooked[0].name", is("Дрель")))
+                .andExpect(jsonPath("$.mostBooked[0].count", is(12)))
+                .andExpect(jsonPath("$.mostViewed.length()", is(0)));
+    }
+
+    // Тест неизвестного окна популярности - должен вернуть 400
+    @Test
+    void getPopular_UnknownWindow_ReturnsBadRequest() throws Exception {
+        Mockito.when(itemPopularityService.getPopular("1y", 10))
+                .thenThrow(new ValidationException("window", "допустимые значения: 24h, 7d"));
+
+        mockMvc.perform(get("/items/popular")
+                        .param("window", "1y"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Тест рекомендаций к вещи - список из сервиса с числом общих бронирующих
+    @Test
+    void getRelated_ReturnsCoBookedItems() throws Exception {
+        RelatedItemDto saw = RelatedItemDto.builder().id(2L).name("Пила").coBookings(4).build();
+        Mockito.when(itemRecommendationService.getRelated(1L, 3)).thenReturn(List.of(saw));
+
+        mockMvc.perform(get("/items/1/related")
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[0].coBookings", is(4)));
+    }
+
+    // Тест рекомендаций к несуществующей вещи - должен вернуть 404
+    @Test
+    void getRelated_ItemNotFound_ReturnsNotFound() throws Exception {
+        Mockito.when(itemRecommendationService.getRelated(99L, 10)).thenThrow(new NotFoundException("Предмет с id=99 не найден"));
+
+        mockMvc.perform(get("/items/99/related"))
+                .andExpect(status().isNotFound());
+    }
+
     // Тест поиска без параметра text - должен вернуть ошибку сервера
     @Test
     void searchItems_MissingText_ReturnsBadRequest() throws Exception {
@@ -318,4 +572,171 @@ class ItemControllerTest {
                         .content(objectMapper.writeValueAsString(emptyComment)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    // Тест получения страницы комментариев - должен вернуть комментарии и курсор следующей страницы
+    @Test
+    void getCommentsReturnsPage() throws Exception {
+        Mockito.when(itemService.getComments(1L, "abc", 5))
+                .thenReturn(new CommentPageDto(List.of(commentDto), "next"));
+
+        mockMvc.perform(get("/items/1/comments")
+                        .param("cursor", "abc")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments.length()", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    // Тест импорта вещей из NDJSON - должен вернуть сводку с ошибками строк
+    @Test
+    void importItemsReturnsSummary() throws Exception {
+        Mockito.when(itemImportService.importItems(any(), eq(1L)))
+                .thenReturn(new ItemImportResultDto(1, 1, List.of(new ItemImportErrorDto(2, "Некорректный JSON"))));
+
+        mockMvc.perform(post("/items/import")
+                        .header(ItemController.OWNER_HEADER, "1")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n{oops\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)));
+    }
+
+    // Тест ленты изменений - изменения отдаются построчно в NDJSON, версия для продолжения в заголовке
+    @Test
+    void getChangesStreamsNdjson() throws Exception {
+        Mockito.when(itemService.getChangesUntil(5L, 1000)).thenReturn(9L);
+        Mockito.doAnswer(invocation -> {
+            Consumer<ItemChangeDto> consumer = invocation.getArgument(2);
+            consumer.accept(ItemChangeDto.builder().version(6L).id(1L).name("Дрель").build());
+            consumer.accept(ItemChangeDto.builder().version(9L).id(2L).name("Пила").build());
+            return null;
+        }).when(itemService).streamChanges(eq(5L), eq(9L), any());
+
+        MvcResult result = mockMvc.perform(get("/items/changes").param("since", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.NEXT_SINCE_HEADER, "9"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"version\":6")))
+                .andExpect(content().string(endsWith("}\n")));
+    }
+
+    // Тест пустой ленты изменений - тело пустое, since не сдвигается, вещи не читаются
+    @Test
+    void getChangesWithoutChangesReturnsEmptyBody() throws Exception {
+        Mockito.when(itemService.getChangesUntil(5L, 1000)).thenReturn(5L);
+
+        MvcResult result = mockMvc.perform(get("/items/changes").param("since", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.NEXT_SINCE_HEADER, "5"))
+                .andExpect(content().string(""));
+        Mockito.verify(itemService, Mockito.never()).streamChanges(anyLong(), anyLong(), any());
+    }
+
+    // Тест загрузки изображения - тело передаётся сервису потоком вместе с типом содержимого
+    @Test
+    void uploadImageReturnsImage() throws Exception {
+        Mockito.when(itemImageService.upload(eq(1L), eq(2L), eq(MediaType.IMAGE_PNG_VALUE), any()))
+                .thenReturn(new ItemImageDto(IMAGE_HASH, MediaType.IMAGE_PNG_VALUE, 4,
+                        "/items/1/images/" + IMAGE_HASH));
+
+        mockMvc.perform(post("/items/1/images")
+                        .header(ItemController.OWNER_HEADER, "2")
+                        .contentType(MediaType.IMAGE_PNG)
+                        .content(new byte[]{1, 2, 3, 4}))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hash", is(IMAGE_HASH)))
+                .andExpect(jsonPath("$.size", is(4)));
+    }
+
+    // Тест загрузки файла неподдерживаемого типа - должен вернуть 415
+    @Test
+    void uploadImage_UnsupportedType_ReturnsUnsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/items/1/images")
+                        .header(ItemController.OWNER_HEADER, "2")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("text"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        Mockito.verifyNoInteractions(itemImageService);
+    }
+
+    // Тест скачивания изображения - файл целиком, строгий ETag, поддержка диапазонов и запрет угадывания типа
+    @Test
+    void getImageReturnsFileWithStrongEtag() throws Exception {
+        mockImageFile();
+
+        mockMvc.perform(get("/items/1/images/" + IMAGE_HASH))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + IMAGE_HASH + "\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().string("0123456789"));
+    }
+
+    // Тест скачивания диапазона - должен вернуть 206 с запрошенными байтами
+    @Test
+    void getImage_WithRange_ReturnsPartialContent() throws Exception {
+        mockImageFile();
+
+        mockMvc.perform(get("/items/1/images/" + IMAGE_HASH).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get("/items/1/images/" + IMAGE_HASH).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("789"));
+    }
+
+    // Тест диапазона за концом файла - должен вернуть 416 с размером файла
+    @Test
+    void getImage_RangeOutOfFile_ReturnsNotSatisfiable() throws Exception {
+        mockImageFile();
+
+        mockMvc.perform(get("/items/1/images/" + IMAGE_HASH).header(HttpHeaders.RANGE, "bytes=10-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    // Тест диапазона с устаревшим If-Range - должен вернуть файл целиком
+    @Test
+    void getImage_IfRangeMismatch_ReturnsWholeFile() throws Exception {
+        mockImageFile();
+
+        mockMvc.perform(get("/items/1/images/" + IMAGE_HASH)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0123456789"));
+    }
+
+    // Тест повторного скачивания с If-None-Match - должен вернуть 304 без тела
+    @Test
+    void getImage_EtagMatches_ReturnsNotModified() throws Exception {
+        mockImageFile();
+
+        mockMvc.perform(get("/items/1/images/" + IMAGE_HASH)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + IMAGE_HASH + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    private void mockImageFile() throws Exception {
+        Path file = Files.writeString(tempDir.resolve(IMAGE_HASH), "0123456789", StandardCharsets.US_ASCII);
+        Mockito.when(itemImageService.getFile(1L, IMAGE_HASH))
+                .thenReturn(new ImageFile(IMAGE_HASH, MediaType.IMAGE_PNG_VALUE, 10, file));
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.image.ItemImageRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Скачивание изображений через настоящий коннектор Tomcat, где тело ответа отдаётся через sendfile
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit.items.images.directory=target/test-images-download",
+        "shareit.items.images.max-size=4MB"
+})
+@ActiveProfiles("test")
+class ItemImageDownloadTest {
+
+    private static final int CLIENTS = 8;
+    private static final int DOWNLOADS_PER_CLIENT = 16;
+    private static final int IMAGE_SIZE = 2 * 1024 * 1024;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemImageRepository itemImageRepository;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private User owner;
+    private Item item;
+    private byte[] image;
+    private String imageUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        owner = userRepository.save(User.builder().name("Owner").email("images-owner@example.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("Фотоаппарат")
+                .description("Плёночный")
+                .isAvailable(true)
+                .owner(owner)
+                .build());
+        image = new byte[IMAGE_SIZE];
+        new Random(42).nextBytes(image);
+
+        HttpResponse<String> upload = client.send(HttpRequest.newBuilder(uri("/items/" + item.getId() + "/images"))
+                .header(ItemController.OWNER_HEADER, String.valueOf(owner.getId()))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.IMAGE_JPEG_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(image))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, upload.statusCode(), upload.body());
+        imageUrl = "/items/" + item.getId() + "/images/" + sha256(image);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemImageRepository.deleteAll(itemImageRepository.findByItemIdOrderById(item.getId()));
+        itemRepository.delete(item);
+        userRepository.delete(owner);
+    }
+
+    // Тест параллельных скачиваний - каждый клиент получает файл целиком и без искажений
+    @Test
+    void concurrentDownloads_ReturnWholeFile() throws Exception {
+        String expectedHash = sha256(image);
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Callable<Long>> clients = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(() -> {
+                    long received = 0;
+                    for (int i = 0; i < DOWNLOADS_PER_CLIENT; i++) {
+                        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri(imageUrl)).build(),
+                                HttpResponse.BodyHandlers.ofByteArray());
+                        assertEquals(200, response.statusCode());
+                        assertEquals(expectedHash, sha256(response.body()));
+                        received += response.body().length;
+                    }
+                    return received;
+                });
+            }
+            long received = 0;
+            for (Future<Long> result : executor.invokeAll(clients)) {
+                received += result.get();
+            }
+            assertEquals((long) CLIENTS * DOWNLOADS_PER_CLIENT * IMAGE_SIZE, received);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Тест диапазона через коннектор - отдаются ровно запрошенные байты с Content-Range
+    @Test
+    void rangeDownload_ReturnsRequestedBytes() throws Exception {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri(imageUrl))
+                .header(HttpHeaders.RANGE, "bytes=1000-1999")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(206, response.statusCode());
+        assertEquals("bytes 1000-1999/" + IMAGE_SIZE,
+                response.headers().firstValue(HttpHeaders.CONTENT_RANGE).orElseThrow());
+        assertArrayEquals(Arrays.copyOfRange(image, 1000, 2000), response.body());
+    }
+
+    // Тест условного запроса через коннектор - совпавший ETag даёт 304 без тела
+    @Test
+    void conditionalDownload_ReturnsNotModified() throws Exception {
+        HttpResponse<byte[]> first = client.send(HttpRequest.newBuilder(uri(imageUrl)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        String etag = first.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+
+        HttpResponse<byte[]> second = client.send(HttpRequest.newBuilder(uri(imageUrl))
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals("\"" + sha256(image) + "\"", etag);
+        assertEquals(304, second.statusCode());
+        assertEquals(0, second.body().length);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
@@ -0,0 +1,213 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemImageDto;
+import ru.practicum.shareit.item.image.ImageFile;
+import ru.practicum.shareit.item.image.ImageFileStore;
+import ru.practicum.shareit.item.image.ItemImage;
+import ru.practicum.shareit.item.image.ItemImageProperties;
+import ru.practicum.shareit.item.image.ItemImageRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.impl.ItemImageServiceImpl;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImageServiceTest {
+
+    private static final byte[] PNG = "\u0089PNG image bytes".getBytes(StandardCharsets.ISO_8859_1);
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemImageRepository itemImageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path storeDir;
+
+    private ItemImageServiceImpl imageService;
+    private ImageFileStore imageFileStore;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        ItemImageProperties imageProperties = new ItemImageProperties();
+        imageProperties.setDirectory(storeDir.toString());
+        imageProperties.setMaxSize(DataSize.ofBytes(64));
+        imageProperties.setMaxPerItem(2);
+        imageFileStore = new ImageFileStore(imageProperties);
+        imageService = new ItemImageServiceImpl(itemRepository, itemImageRepository, imageProperties, imageFileStore,
+                new TransactionTemplate(transactionManager));
+        User owner = User.builder().id(1L).name("Owner").email("owner@example.com").build();
+        item = Item.builder().id(10L).name("Дрель").description("Ударная").isAvailable(true).owner(owner).build();
+    }
+
+    // Тест загрузки - файл сохраняется под SHA-256 содержимого, тип без параметров
+    @Test
+    void upload_StoresFileUnderContentHash() throws Exception {
+        when(itemRepository.findWithOwnerById(10L)).thenReturn(Optional.of(item));
+        when(itemRepository.findForUpdateById(10L)).thenReturn(Optional.of(item));
+        when(itemImageRepository.countByItemId(10L)).thenReturn(0L);
+        when(itemImageRepository.findByItemIdAndHash(eq(10L), anyString())).thenReturn(Optional.empty());
+        when(itemImageRepository.save(any(ItemImage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItemImageDto result = imageService.upload(10L, 1L, "image/png; charset=binary", new ByteArrayInputStream(PNG));
+
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(PNG));
+        assertEquals(hash, result.getHash());
+        assertEquals("image/png", result.getContentType());
+        assertEquals(PNG.length, result.getSize());
+        assertEquals("/items/10/images/" + hash, result.getUrl());
+        assertArrayEquals(PNG, Files.readAllBytes(imageFileStore.path(hash)));
+        assertEquals(1, countFiles());
+    }
+
+    // Тест повторной загрузки того же файла - новая запись не создаётся, файл хранится один раз
+    @Test
+    void upload_SameContent_ReturnsExistingImage() throws Exception {
+        when(itemRepository.findWithOwnerById(10L)).thenReturn(Optional.of(item));
+        when(itemRepository.findForUpdateById(10L)).thenReturn(Optional.of(item));
+        when(itemImageRepository.countByItemId(10L)).thenReturn(1L);
+        when(itemImageRepository.findByItemIdAndHash(eq(10L), anyString())).thenAnswer(invocation ->
+                Optional.of(ItemImage.builder().itemId(10L).hash(invocation.getArgument(1))
+                        .contentType("image/png").sizeBytes(PNG.length).build()));
+
+        ItemImageDto first = imageService.upload(10L, 1L, "image/png", new ByteArrayInputStream(PNG));
+        ItemImageDto second = imageService.upload(10L, 1L, "image/png", new ByteArrayInputStream(PNG));
+
+        assertEquals(first.getHash(), second.getHash());
+        verify(itemImageRepository, never()).save(any());
+        assertEquals(1, countFiles());
+    }
+
+    // Тест загрузки не владельцем - должен выбросить AccessDeniedException до чтения тела
+    @Test
+    void upload_NotOwner_ThrowsAccessDenied() {
+        when(itemRepository.findWithOwnerById(10L)).thenReturn(Optional.of(item));
+
+        assertThrows(AccessDeniedException.class,
+                () -> imageService.upload(10L, 2L, "image/png", new ByteArrayInputStream(PNG)));
+        verifyNoInteractions(itemImageRepository);
+    }
+
+    // Тест загрузки файла больше допустимого - должен выбросить ValidationException и не оставить файлов
+    @Test
+    void upload_TooLarge_ThrowsValidationAndCleansUp() throws Exception {
+        when(itemRepository.findWithOwnerById(10L)).thenReturn(Optional.of(item));
+        when(itemImageRepository.countByItemId(10L)).thenReturn(0L);
+
+        assertThrows(ValidationException.class,
+                () -> imageService.upload(10L, 1L, "image/png", new ByteArrayInputStream(new byte[65])));
+        assertEquals(0, countFiles());
+        verify(itemImageRepository, never()).save(any());
+    }
+
+    // Тест загрузки сверх лимита изображений вещи - должен выбросить ValidationException
+    @Test
+    void upload_LimitReached_ThrowsValidation() {
+        when(itemRepository.findWithOwnerById(10L)).thenReturn(Optional.of(item));
+        when(itemImageRepository.countByItemId(10L)).thenReturn(2L);
+
+        assertThrows(ValidationException.class,
+                () -> imageService.upload(10L, 1L, "image/png", new ByteArrayInputStream(PNG)));
+    }
+
+    // Тест загрузки, пока параллельная загрузка заняла последнее место - лимит перепроверяется под блокировкой вещи
+    @Test
+    void upload_LimitReachedWhileStoring_ThrowsValidation() throws Exception {
+        when(itemRepository.findWithOwnerById(10L)).thenReturn(Optional.of(item));
+        when(itemRepository.findForUpdateById(10L)).thenReturn(Optional.of(item));
+        when(itemImageRepository.countByItemId(10L)).thenReturn(1L, 2L);
+        when(itemImageRepository.findByItemIdAndHash(eq(10L), anyString())).thenReturn(Optional.empty());
+
+        assertThrows(ValidationException.class,
+                () -> imageService.upload(10L, 1L, "image/png", new ByteArrayInputStream(PNG)));
+        verify(itemImageRepository, never()).save(any());
+        verify(transactionManager).rollback(any());
+        // Файл без записей не остаётся в хранилище
+        assertEquals(0, countFiles());
+    }
+
+    // Тест отклонённой загрузки файла, который уже есть у другой вещи - общий файл не удаляется
+    @Test
+    void upload_RejectedSharedFile_KeepsFile() throws Exception {
+        when(itemRepository.findWithOwnerById(10L)).thenReturn(Optional.of(item));
+        when(itemRepository.findForUpdateById(10L)).thenReturn(Optional.of(item));
+        when(itemImageRepository.countByItemId(10L)).thenReturn(1L, 2L);
+        when(itemImageRepository.findByItemIdAndHash(eq(10L), anyString())).thenReturn(Optional.empty());
+        when(itemImageRepository.existsByHash(anyString())).thenReturn(true);
+
+        assertThrows(ValidationException.class,
+                () -> imageService.upload(10L, 1L, "image/png", new ByteArrayInputStream(PNG)));
+        assertEquals(1, countFiles());
+    }
+
+    // Тест загрузки неподдерживаемого типа - должен выбросить ValidationException без обращения к базе
+    @Test
+    void upload_UnsupportedType_ThrowsValidation() {
+        assertThrows(ValidationException.class,
+                () -> imageService.upload(10L, 1L, "image/svg+xml", new ByteArrayInputStream(PNG)));
+        verifyNoInteractions(itemRepository);
+    }
+
+    // Тест получения файла по некорректному хешу - должен выбросить NotFoundException без запроса к базе
+    @Test
+    void getFile_InvalidHash_ThrowsNotFound() {
+        assertThrows(NotFoundException.class, () -> imageService.getFile(10L, "../../etc/passwd"));
+        verify(itemImageRepository, never()).findByItemIdAndHash(anyLong(), anyString());
+    }
+
+    // Тест получения сохранённого файла - путь в хранилище и тип из записи
+    @Test
+    void getFile_ReturnsStoredFile() throws Exception {
+        when(itemRepository.findWithOwnerById(10L)).thenReturn(Optional.of(item));
+        when(itemRepository.findForUpdateById(10L)).thenReturn(Optional.of(item));
+        when(itemImageRepository.countByItemId(10L)).thenReturn(0L);
+        when(itemImageRepository.findByItemIdAndHash(eq(10L), anyString())).thenReturn(Optional.empty());
+        when(itemImageRepository.save(any(ItemImage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        String hash = imageService.upload(10L, 1L, "image/png", new ByteArrayInputStream(PNG)).getHash();
+        when(itemImageRepository.findByItemIdAndHash(10L, hash)).thenReturn(Optional.of(ItemImage.builder()
+                .itemId(10L).hash(hash).contentType("image/png").sizeBytes(PNG.length).build()));
+
+        ImageFile file = imageService.getFile(10L, hash);
+
+        assertEquals(imageFileStore.path(hash), file.getPath());
+        assertEquals("image/png", file.getContentType());
+        assertEquals(PNG.length, file.getSize());
+    }
+
+    private long countFiles() throws Exception {
+        try (Stream<Path> files = Files.walk(storeDir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.card.ItemCardProjector;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.event.ItemsImportedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.impl.ItemImportServiceImpl;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImportServiceTest {
+
+    private static final String DRILL = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}";
+    private static final String SAW = "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":false}";
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ItemChangeVersions itemChangeVersions;
+
+    @Mock
+    private ItemCardProjector itemCardProjector;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ItemImportServiceImpl importService;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        ItemImportProperties importProperties = new ItemImportProperties();
+        importProperties.setBatchSize(2);
+        importService = new ItemImportServiceImpl(itemRepository, userRepository, itemRequestRepository,
+                importProperties, itemChangeVersions,
+                itemCardProjector, new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(transactionManager), eventPublisher);
+        owner = User.builder().id(1L).name("Owner").email("owner@example.com").build();
+    }
+
+    // Тест импорта - корректные строки сохраняются пакетами, ошибочные попадают в отчёт с номерами строк
+    @Test
+    void importItems_MixedLines_SavesValidInBatches() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+        List<Integer> batchSizes = new ArrayList<>();
+        AtomicLong ids = new AtomicLong();
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            batchSizes.add(items.size());
+            items.forEach(item -> item.setId(ids.incrementAndGet()));
+            return items;
+        });
+
+        ItemImportResultDto result = importService.importItems(ndjson(
+                DRILL, "", "{oops", "{\"description\":\"Без названия\",\"available\":true}", SAW, DRILL), 1L);
+
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(3L, 4L), result.getErrors().stream().map(ItemImportErrorDto::getLine).toList());
+        assertEquals("Название вещи не может быть пустым", result.getErrors().get(1).getMessage());
+        assertEquals(List.of(2, 1), batchSizes);
+        verify(eventPublisher, times(2)).publishEvent(any(ItemsImportedEvent.class));
+        verify(itemCardProjector, times(2)).createEmpty(anyList());
+        verify(userRepository, never()).findById(any());
+    }
+
+    // Тест ошибки базы данных - строки пакета отмечаются ошибочными, следующие пакеты сохраняются
+    @Test
+    void importItems_BatchFails_ReportsLinesAndContinues() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+        when(itemRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("value too long"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItemImportResultDto result = importService.importItems(ndjson(DRILL, SAW, DRILL), 1L);
+
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(1L, 2L), result.getErrors().stream().map(ItemImportErrorDto::getLine).toList());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    // Тест импорта вещей по запросам - ID запроса сохраняется, неизвестный запрос попадает в отчёт
+    @Test
+    void importItems_WithRequestIds_SavesKnownAndReportsUnknown() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+        when(itemRequestRepository.existsById(7L)).thenReturn(true);
+        when(itemRequestRepository.existsById(8L)).thenReturn(false);
+        List<Item> saved = new ArrayList<>();
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            saved.addAll(items);
+            return items;
+        });
+
+        ItemImportResultDto result = importService.importItems(ndjson(
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true,\"requestId\":7}",
+                "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":true,\"requestId\":8}",
+                "{\"name\":\"Лопата\",\"description\":\"Штыковая\",\"available\":true,\"requestId\":7}",
+                DRILL), 1L);
+
+        assertEquals(3, result.getImported());
+        assertEquals(List.of(new ItemImportErrorDto(2L, "Запрос с id=8 не найден")), result.getErrors());
+        assertEquals(List.of(7L, 7L), saved.stream().limit(2).map(Item::getRequestId).toList());
+        assertNull(saved.get(2).getRequestId());
+        verify(itemRequestRepository, times(1)).existsById(7L);
+    }
+
+    // Тест импорта несуществующим пользователем - должен выбросить NotFoundException до чтения потока
+    @Test
+    void importItems_UserNotFound_ThrowsException() {
+        when(userRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> importService.importItems(ndjson(DRILL), 999L));
+
+        verifyNoInteractions(itemRepository, eventPublisher);
+    }
+
+    private static InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,280 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.SqlStatementRecorder;
+import ru.practicum.shareit.item.card.ItemCardCatchUp;
+import ru.practicum.shareit.item.dto.ItemAvailabilityResultDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityUpdateDto;
+import ru.practicum.shareit.item.dto.ItemDetailedDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.geo.GeoCells;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.FieldSet;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.SqlStatementRecorder",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.comments.inline-limit=2",
+        "shareit.comments.batch-size=2"
+})
+@ActiveProfiles("test")
+@Transactional
+class ItemQueryCountTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemChangeVersions itemChangeVersions;
+
+    @Autowired
+    private ItemCardCatchUp itemCardCatchUp;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User author;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email("owner@example.com").build());
+        author = userRepository.save(User.builder().name("Author").email("author@example.com").build());
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 3; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("Item " + i)
+                    .description("Description " + i)
+                    .isAvailable(true)
+                    .owner(owner)
+                    .build());
+            for (int c = 0; c <= i; c++) {
+                commentRepository.save(Comment.builder()
+                        .text("Comment " + c)
+                        .item(item)
+                        .author(author)
+                        .created(created.plusHours(c))
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // Счётчик версий читает максимум из базы один раз за жизнь приложения, в подсчёт это не входит
+        itemChangeVersions.stableBefore();
+        SqlStatementRecorder.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // Тест списка вещей владельца - комментарии загружаются двумя запросами на порцию вещей, а не на каждую вещь
+    @Test
+    void getList_LoadsCommentsInBatches() {
+        List<ItemWithBookingsDto> items = itemService.getList(owner.getId());
+
+        assertEquals(3, items.size());
+        assertEquals(List.of(1, 2, 2), items.stream().map(item -> item.getComments().size()).toList());
+        assertEquals(List.of(1L, 2L, 3L), items.stream().map(ItemWithBookingsDto::getCommentCount).toList());
+        assertEquals("Comment 2", items.get(2).getComments().get(0).getText());
+
+        // Три вещи при порции в две вещи: две порции по два запроса
+        assertEquals(4, SqlStatementRecorder.selectsFrom("comments"));
+    }
+
+    // Тест списка по собранным карточкам - один запрос вещей с карточками, без запросов к комментариям и бронированиям
+    @Test
+    void getList_WithCards_ReadsItemsAndCardsOnly() {
+        assertEquals(3, itemCardCatchUp.catchUp());
+        // Повторная досборка ничего не пересобирает
+        assertEquals(0, itemCardCatchUp.catchUp());
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementRecorder.clear();
+        statistics.clear();
+
+        List<ItemWithBookingsDto> items = itemService.getList(owner.getId());
+
+        assertEquals(List.of(1, 2, 2), items.stream().map(item -> item.getComments().size()).toList());
+        assertEquals(List.of(1L, 2L, 3L), items.stream().map(ItemWithBookingsDto::getCommentCount).toList());
+        assertEquals("Comment 2", items.get(2).getComments().get(0).getText());
+        assertEquals(0, SqlStatementRecorder.selectsFrom("comments"));
+        assertEquals(0, SqlStatementRecorder.selectsFrom("bookings"));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    // Тест списка вещей без бронирований и комментариев в fields - выполняются только проверка пользователя и выборка вещей
+    @Test
+    void getList_WithSparseFields_SkipsEnrichment() {
+        List<ItemWithBookingsDto> items = itemService.getList(owner.getId(),
+                FieldSet.parse("id,name,available", ItemWithBookingsDto.FIELDS));
+
+        assertEquals(3, items.size());
+        assertNull(items.get(0).getComments());
+        assertEquals(0, SqlStatementRecorder.selectsFrom("comments"));
+        assertEquals(0, SqlStatementRecorder.selectsFrom("bookings"));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    // Тест карточки вещи - владелец читается вместе с вещью, без отдельного запроса к users
+    @Test
+    void retrieve_LoadsOwnerWithItem() {
+        Long itemId = itemRepository.findByOwnerIdOrderById(owner.getId()).get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        ItemDetailedDto result = itemService.retrieve(itemId, author.getId());
+
+        assertEquals(owner.getId(), result.getOwnerId());
+        // Вещь с владельцем и комментарии; COUNT не нужен, комментариев меньше лимита
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    // Тест обновления вещи - проверка владельца не инициализирует прокси отдельным запросом
+    @Test
+    void update_ChecksOwnerWithoutExtraQuery() {
+        Long itemId = itemRepository.findByOwnerIdOrderById(owner.getId()).get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        ItemUpdateDto update = new ItemUpdateDto();
+        update.setName("Renamed");
+        ItemDto result = itemService.update(update, itemId, owner.getId());
+
+        assertEquals("Renamed", result.getName());
+        // Пользователь и вещь с владельцем; UPDATE уйдёт только при фиксации транзакции
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    // Тест пакетного изменения доступности - три запроса на любое количество вещей, у каждой своя версия
+    @Test
+    void updateAvailability_UsesSingleUpdateBatch() {
+        ItemAvailabilityResultDto result = itemService.updateAvailability(
+                new ItemAvailabilityUpdateDto(false, null, true), owner.getId());
+        entityManager.flush();
+
+        assertEquals(3, result.getUpdated());
+        // Проверка пользователя, выборка изменяемых вещей и один пакет UPDATE
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        List<Item> items = itemRepository.findByOwnerIdOrderById(owner.getId());
+        assertTrue(items.stream().noneMatch(Item::getIsAvailable));
+        assertEquals(3, items.stream().map(Item::getChangeVersion).distinct().count());
+        // Зарезервировано ровно по версии на вещь
+        assertEquals(2, items.get(2).getChangeVersion() - items.get(0).getChangeVersion());
+    }
+
+    // Тест выдачи ленты изменений - вещи читаются одним запросом по порядку версий и не остаются в контексте
+    @Test
+    void streamChanges_ReadsItemsInVersionOrderWithSingleQuery() {
+        List<Item> items = itemRepository.findByOwnerIdOrderById(owner.getId());
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setChangeVersion(10L - i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Long> versions = new ArrayList<>();
+        itemService.streamChanges(8L, 10L, change -> versions.add(change.getVersion()));
+
+        assertEquals(List.of(9L, 10L), versions);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+        assertEquals(List.of(9L, 10L),
+                itemRepository.findChangeVersionsBetween(8L, 11L, PageRequest.of(0, 5)));
+    }
+
+    // Тест поиска по местоположению - вещи в радиусе по возрастанию расстояния, запрос количества и запрос страницы
+    @Test
+    void searchNearby_ReturnsClosestFirst() {
+        Item far = saveAt("Дрель в Петербурге", 59.9343, 30.3351);
+        Item near = saveAt("Дрель на Арбате", 55.7520, 37.5920);
+        Item center = saveAt("Дрель в центре", 55.7558, 37.6173);
+        saveAt("Пила в центре", 55.7558, 37.6173);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        ItemSearchResultDto result = itemService.searchNearby("дрель", null, 55.7558, 37.6173, 10.0, 0, 20, false);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(center.getId(), near.getId()), result.getItems().stream().map(ItemDto::getId).toList());
+        assertEquals(55.752, result.getItems().get(1).getLatitude());
+        assertFalse(result.getItems().stream().anyMatch(item -> item.getId().equals(far.getId())));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    // Тест запроса по тегам в базе - нужны все теги фильтра, тег не совпадает с частью другого тега
+    @Test
+    void searchAvailableItemsByTags_MatchesWholeTags() {
+        Item both = saveTagged("Лопата", ",инструменты,сад,");
+        Item garden = saveTagged("Грабли", ",сад,");
+        saveTagged("Садовая тачка", ",садовый инвентарь,");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Item> gardenItems = itemRepository.searchAvailableItemsByTags("", "сад", "", "", PageRequest.of(0, 20));
+        List<Item> bothItems = itemRepository.searchAvailableItemsByTags("", "инструменты", "сад", "",
+                PageRequest.of(0, 20));
+
+        assertEquals(List.of(both.getId(), garden.getId()), gardenItems.stream().map(Item::getId).toList());
+        assertEquals(List.of(both.getId()), bothItems.stream().map(Item::getId).toList());
+        assertEquals(1, itemRepository.countAvailableItemsByTags("лопата", "сад", "", ""));
+    }
+
+    private Item saveTagged(String name, String tags) {
+        return itemRepository.save(Item.builder()
+                .name(name)
+                .description("Описание")
+                .isAvailable(true)
+                .owner(owner)
+                .tags(tags)
+                .build());
+    }
+
+    private Item saveAt(String name, double latitude, double longitude) {
+        return itemRepository.save(Item.builder()
+                .name(name)
+                .description("Описание")
+                .isAvailable(true)
+                .owner(owner)
+                .latitude(latitude)
+                .longitude(longitude)
+                .geoCell(GeoCells.encode(latitude, longitude))
+                .build());
+    }
+}
@@ -1,26 +1,51 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingVersionTracker;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.cache.ItemDetailsCacheProperties;
+import ru.practicum.shareit.item.card.ItemCard;
+import ru.practicum.shareit.item.card.ItemCardProjector;
+import ru.practicum.shareit.item.dao.CommentCursor;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsUpdatedEvent;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityTracker;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.service.CommentBatchLoader;
 import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.LongObjectMap;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,15 +57,44 @@ class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
     @Mock
     private BookingRepository bookingRepository;
 
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private BookingVersionTracker bookingVersionTracker;
+
+    @Mock
+    private CommentBatchLoader commentBatchLoader;
+
+    @Mock
+    private ItemChangeVersions itemChangeVersions;
+
+    @Mock
+    private ItemSearchIndex searchIndex;
+
+    @Mock
+    private ItemCardProjector itemCardProjector;
+
+    @Mock
+    private ItemPopularityTracker popularityTracker;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ItemSearchProperties searchProperties;
+
     private ItemServiceImpl itemService;
 
     private User owner;
@@ -51,7 +105,13 @@ class ItemServiceTest {
 
     @BeforeEach
     void setUp() {
-        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository);
+        searchProperties = new ItemSearchProperties();
+        itemService = new ItemServiceImpl(itemRepository, entityManager, userRepository, itemRequestRepository, bookingRepository, commentRepository,
+                new CommentProperties(), commentBatchLoader,
+                bookingVersionTracker, itemChangeVersions, new ItemChangeFeedProperties(),
+                new ItemDetailsCache(new ItemDetailsCacheProperties(), new SimpleMeterRegistry()),
+                searchIndex, new ItemSearchCache(searchProperties, new SimpleMeterRegistry()),
+                searchProperties, itemCardProjector, popularityTracker, eventPublisher);
 
         fixedTime = LocalDateTime.of(2024, 1, 1, 12, 0);
 
@@ -112,6 +172,8 @@ class ItemServiceTest {
 
         verify(userRepository, times(1)).findById(1L);
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(itemCardProjector).createEmpty(List.of(1L));
+        verify(eventPublisher, times(1)).publishEvent(any(ItemChangedEvent.class));
     }
 
     // Тест создания предмета для несуществующего пользователя - должен выбросить NotFoundException
@@ -130,6 +192,19 @@ class ItemServiceTest {
         verify(itemRepository, never()).save(any(Item.class));
     }
 
+    // Тест создания предмета в ответ на несуществующий запрос - должен выбросить NotFoundException
+    @Test
+    void createItem_RequestNotFound_ThrowsException() {
+        ItemCreateDto itemCreateDto = new ItemCreateDto("Item", "Description", true, 42L, null, null, null);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        when(itemRequestRepository.existsById(42L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.create(itemCreateDto, 1L));
+
+        verify(itemRepository, never()).save(any(Item.class));
+    }
+
     // Тест обновления предмета не владельцем - должен выбросить AccessDeniedException
     @Test
     void updateItem_NotOwner_ThrowsException() {
@@ -144,12 +219,12 @@ class ItemServiceTest {
         existingItem.setOwner(owner);
 
         when(userRepository.findById(2L)).thenReturn(Optional.of(notOwner));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(existingItem));
+        when(itemRepository.findWithOwnerById(1L)).thenReturn(Optional.of(existingItem));
 
         assertThrows(AccessDeniedException.class, () -> itemService.update(itemUpdateDto, 1L, 2L));
 
         verify(userRepository, times(1)).findById(2L);
-        verify(itemRepository, times(1)).findById(1L);
+        verify(itemRepository, times(1)).findWithOwnerById(1L);
         verify(itemRepository, never()).save(any(Item.class));
     }
 
@@ -163,25 +238,258 @@ class ItemServiceTest {
         item.setIsAvailable(true);
         item.setOwner(owner);
 
-        when(itemRepository.searchAvailableItems("drill")).thenReturn(List.of(item));
+        when(itemRepository.countAvailableItems("drill")).thenReturn(1L);
+        when(itemRepository.searchAvailableItems("drill", PageRequest.of(0, 20))).thenReturn(List.of(item));
+
+        ItemSearchResultDto results = itemService.search("drill", 0, 20, false);
+
+        assertEquals(1, results.getTotal());
+        assertEquals(1, results.getItems().size());
+        assertEquals("Drill", results.getItems().get(0).getName());
+
+        verify(itemRepository, times(1)).searchAvailableItems("drill", PageRequest.of(0, 20));
+    }
+
+    // Тест повторного поиска - должен отвечать из кэша без запроса к базе
+    @Test
+    void searchItems_RepeatedQuery_ServedFromCache() {
+        when(itemRepository.countAvailableItems("drill")).thenReturn(1L);
+        when(itemRepository.searchAvailableItems("drill", PageRequest.of(0, 20))).thenReturn(List.of(item));
+
+        ItemSearchResultDto first = itemService.search("drill", 0, 20, false);
+        ItemSearchResultDto second = itemService.search("DRILL", 0, 20, false);
+
+        assertEquals(first, second);
+        verify(itemRepository, times(1)).countAvailableItems("drill");
+        verify(itemRepository, times(1)).searchAvailableItems("drill", PageRequest.of(0, 20));
+    }
+
+    // Тест поиска при турецкой локали сервера - текст приводится к нижнему регистру без учёта локали
+    @Test
+    void searchItems_TurkishDefaultLocale_LowercasesWithRootLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            when(itemRepository.countAvailableItems("drill")).thenReturn(1L);
+            when(itemRepository.searchAvailableItems("drill", PageRequest.of(0, 20))).thenReturn(List.of(item));
+
+            ItemSearchResultDto results = itemService.search("DRILL", 0, 20, false);
+
+            assertEquals(1, results.getTotal());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    // Тест поиска второй страницы - должен запросить только from + size строк и пропустить первые from
+    @Test
+    void searchItems_SecondPage_SkipsFirstResults() {
+        Item second = new Item();
+        second.setId(2L);
+        second.setName("Drill bit");
+        second.setIsAvailable(true);
+        second.setOwner(owner);
+        when(itemRepository.countAvailableItems("drill")).thenReturn(5L);
+        when(itemRepository.searchAvailableItems("drill", PageRequest.of(0, 2))).thenReturn(List.of(item, second));
+
+        ItemSearchResultDto results = itemService.search("drill", 1, 1, false);
+
+        assertEquals(5, results.getTotal());
+        assertEquals(1, results.getItems().size());
+        assertEquals(2L, results.getItems().get(0).getId());
+    }
+
+    // Тест слишком большой страницы - размер должен быть ограничен настройками сервера
+    @Test
+    void searchItems_PageSizeAboveLimit_IsCapped() {
+        searchProperties.setMaxPageSize(10);
+        when(itemRepository.countAvailableItems("drill")).thenReturn(50L);
+        when(itemRepository.searchAvailableItems("drill", PageRequest.of(0, 10))).thenReturn(List.of(item));
+
+        itemService.search("drill", 0, 500, false);
+
+        verify(itemRepository).searchAvailableItems("drill", PageRequest.of(0, 10));
+    }
+
+    // Тест страницы за пределами результатов - строки не должны запрашиваться
+    @Test
+    void searchItems_FromBeyondTotal_SkipsFetch() {
+        when(itemRepository.countAvailableItems("drill")).thenReturn(3L);
+
+        ItemSearchResultDto results = itemService.search("drill", 20, 20, false);
+
+        assertEquals(3, results.getTotal());
+        assertTrue(results.getItems().isEmpty());
+        verify(itemRepository, never()).searchAvailableItems(anyString(), any(Pageable.class));
+    }
+
+    // Тест поиска по местоположению без текста - подходит любая вещь в радиусе, кэш не используется
+    @Test
+    void searchNearby_WithoutText_MatchesAnyItem() {
+        when(itemRepository.countAvailableItemsNearby(eq(""), eq(""), eq(""), eq(""), eq(55.75), eq(37.62),
+                anyDouble(), anyDouble(), anyDouble(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(1L);
+        when(itemRepository.searchAvailableItemsNearby(eq(""), eq(""), eq(""), eq(""), eq(55.75), eq(37.62),
+                anyDouble(), anyDouble(), anyDouble(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(),
+                eq(PageRequest.of(0, 20)))).thenReturn(List.of(item));
+
+        itemService.searchNearby(null, null, 55.75, 37.62, 5.0, 0, 20, false);
+        ItemSearchResultDto results = itemService.searchNearby(" ", null, 55.75, 37.62, 5.0, 0, 20, false);
+
+        assertEquals(1, results.getTotal());
+        assertEquals(item.getId(), results.getItems().get(0).getId());
+        verify(itemRepository, times(2)).countAvailableItemsNearby(eq(""), anyString(), anyString(), anyString(),
+                anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    // Тест поиска по тегам до построения индекса - теги нормализуются, поиск выполняется в базе
+    @Test
+    void searchByTags_IndexNotReady_SearchesDatabase() {
+        when(searchIndex.search("", List.of("сад"), 0, 20)).thenReturn(null);
+        when(itemRepository.countAvailableItemsByTags("", "сад", "", "")).thenReturn(1L);
+        when(itemRepository.searchAvailableItemsByTags("", "сад", "", "", PageRequest.of(0, 20)))
+                .thenReturn(List.of(item));
+
+        ItemSearchResultDto results = itemService.searchByTags(null, List.of(" Сад ", "сад"), 0, 20, false);
+
+        assertEquals(1, results.getTotal());
+        assertEquals(item.getId(), results.getItems().get(0).getId());
+    }
+
+    // Тест фильтра с лишними или некорректными тегами - должен выбросить ValidationException без запросов к базе
+    @Test
+    void searchByTags_InvalidFilter_ThrowsValidationException() {
+        assertThrows(ValidationException.class,
+                () -> itemService.searchByTags("drill", List.of("a", "b", "c", "d"), 0, 20, false));
+        assertThrows(ValidationException.class,
+                () -> itemService.searchByTags("drill", List.of("сад%"), 0, 20, false));
+        assertThrows(ValidationException.class,
+                () -> itemService.searchByTags("drill", List.of("сад"), 0, 20, true));
+        verifyNoInteractions(itemRepository, searchIndex);
+    }
+
+    // Тест счётчиков тегов - отвечают только из индекса, размер ограничен, до построения индекса пусто
+    @Test
+    void getFacets_AnswersFromIndexOnly() {
+        searchProperties.setMaxPageSize(10);
+        List<TagFacetDto> facets = List.of(new TagFacetDto("сад", 3));
+        when(searchIndex.facets("дрель", List.of("инструменты"), 10)).thenReturn(facets);
+        when(searchIndex.facets("", List.of(), 5)).thenReturn(null);
+
+        assertEquals(facets, itemService.getFacets("Дрель", List.of("Инструменты"), 50));
+        assertTrue(itemService.getFacets(null, null, 5).isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    // Тест радиуса больше допустимого - должен выбросить ValidationException без запросов к базе
+    @Test
+    void searchNearby_RadiusAboveLimit_ThrowsValidationException() {
+        searchProperties.setGeoMaxRadiusKm(50);
+
+        assertThrows(ValidationException.class,
+                () -> itemService.searchNearby("drill", null, 55.75, 37.62, 51.0, 0, 20, false));
+        assertThrows(ValidationException.class,
+                () -> itemService.searchNearby("drill", null, 55.75, null, 5.0, 0, 20, false));
+        assertThrows(ValidationException.class,
+                () -> itemService.searchNearby("drill", null, 95.0, 37.62, 5.0, 0, 20, false));
+        verifyNoInteractions(itemRepository);
+    }
+
+    // Тест полнотекстового поиска в базе - должен использовать ранжированный запрос
+    @Test
+    void searchItems_FullTextEnabled_UsesRankedQuery() {
+        searchProperties.setIndexEnabled(false);
+        searchProperties.setFullTextEnabled(true);
+        when(itemRepository.countAvailableItemsRanked("drill")).thenReturn(1L);
+        when(itemRepository.searchAvailableItemsRanked("drill", 20)).thenReturn(List.of(item));
+
+        ItemSearchResultDto results = itemService.search("drill", 0, 20, false);
+
+        assertEquals(1, results.getItems().size());
+        verify(itemRepository, never()).searchAvailableItems(anyString(), any(Pageable.class));
+        verify(searchIndex, never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    // Тест поиска фрагмента артикула - должен использовать триграммный запрос вместо полнотекстового
+    @Test
+    void searchItems_FragmentQuery_UsesTrigramQuery() {
+        searchProperties.setIndexEnabled(false);
+        searchProperties.setFullTextEnabled(true);
+        searchProperties.setTrigramEnabled(true);
+        when(itemRepository.countAvailableItemsByTrigram("xr-7")).thenReturn(1L);
+        when(itemRepository.searchAvailableItemsByTrigram("xr-7", 20)).thenReturn(List.of(item));
+
+        ItemSearchResultDto results = itemService.search("XR-7", 0, 20, false);
+
+        assertEquals(1, results.getItems().size());
+        verify(itemRepository, never()).searchAvailableItemsRanked(anyString(), anyInt());
+    }
+
+    // Тест промаха полнотекстового поиска - должен повторить запрос по триграммам
+    @Test
+    void searchItems_FullTextMiss_FallsBackToTrigram() {
+        searchProperties.setIndexEnabled(false);
+        searchProperties.setFullTextEnabled(true);
+        searchProperties.setTrigramEnabled(true);
+        when(itemRepository.countAvailableItemsRanked("дрел")).thenReturn(0L);
+        when(itemRepository.countAvailableItemsByTrigram("дрел")).thenReturn(1L);
+        when(itemRepository.searchAvailableItemsByTrigram("дрел", 20)).thenReturn(List.of(item));
+
+        ItemSearchResultDto results = itemService.search("дрел", 0, 20, false);
+
+        assertEquals(1, results.getItems().size());
+    }
+
+    // Тест поиска по построенному индексу - база не должна запрашиваться
+    @Test
+    void searchItems_IndexReady_ReturnsIndexedItems() {
+        ItemDto indexed = ItemDto.builder().id(1L).name("Drill").available(true).build();
+        ItemSearchResultDto page = new ItemSearchResultDto(List.of(indexed), 1);
+        when(searchIndex.search("drill", 0, 20)).thenReturn(page);
+
+        ItemSearchResultDto results = itemService.search("Drill", 0, 20, false);
+
+        assertEquals(page, results);
+        verify(itemRepository, never()).searchAvailableItems(anyString(), any(Pageable.class));
+    }
 
-        List<ItemDto> results = itemService.search("drill");
+    // Тест подсказок до построения индекса - должен вернуть пустой список без запросов к базе
+    @Test
+    void suggest_IndexNotReady_ReturnsEmptyList() {
+        when(searchIndex.suggest("др", 10)).thenReturn(null);
 
-        assertFalse(results.isEmpty());
-        assertEquals(1, results.size());
-        assertEquals("Drill", results.get(0).getName());
+        List<String> suggestions = itemService.suggest("др", 10);
 
-        verify(itemRepository, times(1)).searchAvailableItems("drill");
+        assertTrue(suggestions.isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    // Тест поиска с исправлением опечаток - должен отвечать из индекса с допустимым числом правок
+    @Test
+    void searchItems_Fuzzy_UsesIndexVocabulary() {
+        ItemDto indexed = ItemDto.builder().id(1L).name("Drill").available(true).build();
+        ItemSearchResultDto page = new ItemSearchResultDto(List.of(indexed), 1);
+        when(searchIndex.searchFuzzy("drel", 2, 0, 20)).thenReturn(page);
+
+        ItemSearchResultDto results = itemService.search("drel", 0, 20, true);
+
+        assertEquals(page, results);
+        verify(searchIndex, never()).search(anyString(), anyInt(), anyInt());
+        verifyNoInteractions(itemRepository);
     }
 
     // Тест поиска с пустым текстом - должен вернуть пустой список
     @Test
     void searchItems_EmptyText_ReturnsEmptyList() {
-        List<ItemDto> results = itemService.search("");
+        ItemSearchResultDto results = itemService.search("", 0, 20, false);
 
-        assertTrue(results.isEmpty());
+        assertTrue(results.getItems().isEmpty());
+        assertEquals(0, results.getTotal());
 
-        verify(itemRepository, never()).searchAvailableItems(anyString());
+        verify(itemRepository, never()).searchAvailableItems(anyString(), any(Pageable.class));
     }
 
     // Тест получения списка предметов пользователя
@@ -202,18 +510,61 @@ class ItemServiceTest {
         item2.setOwner(owner);
 
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(itemRepository.findByOwnerIdOrderById(1L)).thenReturn(List.of(item1, item2));
+        when(itemRepository.findWithCardsByOwnerId(1L)).thenReturn(List.of(new Object[]{item1, null}, new Object[]{item2, null}));
         when(bookingRepository.findLastBookingForItem(anyLong(), any())).thenReturn(List.of());
         when(bookingRepository.findNextBookingForItem(anyLong(), any())).thenReturn(List.of());
-        when(commentRepository.findByItemIdWithAuthor(anyLong())).thenReturn(List.of());
+        LongObjectMap<CommentBatchLoader.ItemComments> comments = new LongObjectMap<>();
+        comments.put(1L, new CommentBatchLoader.ItemComments(List.of(CommentDto.builder().id(5L).build()), 12));
+        when(commentBatchLoader.loadNewest(List.of(1L, 2L))).thenReturn(comments);
 
         List<ItemWithBookingsDto> results = itemService.getList(1L);
 
         assertNotNull(results);
         assertEquals(2, results.size());
+        assertEquals(12L, results.get(0).getCommentCount());
+        assertEquals(1, results.get(0).getComments().size());
+        assertEquals(0L, results.get(1).getCommentCount());
+        assertTrue(results.get(1).getComments().isEmpty());
 
         verify(userRepository, times(1)).existsById(1L);
-        verify(itemRepository, times(1)).findByOwnerIdOrderById(1L);
+        verify(itemRepository, times(1)).findWithCardsByOwnerId(1L);
+    }
+
+    // Тест списка с актуальной карточкой - бронирования и комментарии берутся из карточки без запросов
+    @Test
+    void getList_FreshCard_BuildsFromCard() {
+        ItemCard card = ItemCard.builder()
+                .itemId(1L)
+                .lastBookingId(7L)
+                .lastBookerId(2L)
+                .commentCount(3)
+                .latestComments("[]")
+                .staleAt(LocalDateTime.now().plusDays(1))
+                .build();
+        ItemCard staleCard = ItemCard.builder()
+                .itemId(2L)
+                .staleAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+        Item item2 = Item.builder().id(2L).name("Item2").description("Description2").isAvailable(true).owner(owner).build();
+        List<CommentDto> comments = List.of(CommentDto.builder().id(5L).build());
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.findWithCardsByOwnerId(1L)).thenReturn(List.of(new Object[]{item, card}, new Object[]{item2, staleCard}));
+        when(itemCardProjector.readComments(card)).thenReturn(comments);
+        when(commentBatchLoader.loadNewest(List.of(2L))).thenReturn(new LongObjectMap<>());
+        when(bookingRepository.findLastBookingForItem(eq(2L), any())).thenReturn(List.of());
+        when(bookingRepository.findNextBookingForItem(eq(2L), any())).thenReturn(List.of());
+
+        List<ItemWithBookingsDto> results = itemService.getList(1L);
+
+        assertEquals(List.of(1L, 2L), results.stream().map(ItemWithBookingsDto::getId).toList());
+        assertEquals(7L, results.get(0).getLastBooking().getId());
+        assertEquals(2L, results.get(0).getLastBooking().getBookerId());
+        assertNull(results.get(0).getNextBooking());
+        assertEquals(3L, results.get(0).getCommentCount());
+        assertEquals(comments, results.get(0).getComments());
+        verify(bookingRepository, never()).findLastBookingForItem(eq(1L), any());
+        verify(bookingRepository, never()).findCurrentBookingForItem(eq(1L), any());
     }
 
     // Тест получения предмета по ID
@@ -226,10 +577,10 @@ class ItemServiceTest {
         item.setIsAvailable(true);
         item.setOwner(owner);
 
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithOwnerById(1L)).thenReturn(Optional.of(item));
         when(bookingRepository.findLastBookingForItem(anyLong(), any())).thenReturn(List.of());
         when(bookingRepository.findNextBookingForItem(anyLong(), any())).thenReturn(List.of());
-        when(commentRepository.findByItemIdWithAuthor(anyLong())).thenReturn(List.of());
+        when(commentRepository.findNewestByItemId(anyLong(), any(Pageable.class))).thenReturn(List.of());
 
         ItemDetailedDto result = itemService.retrieve(1L, 1L);
 
@@ -239,7 +590,41 @@ class ItemServiceTest {
         assertEquals("Description", result.getDescription());
         assertTrue(result.getAvailable());
 
-        verify(itemRepository, times(1)).findById(1L);
+        verify(itemRepository, times(1)).findWithOwnerById(1L);
+    }
+
+    // Тест повторного просмотра карточки не владельцем - вещь и комментарии загружаются один раз
+    @Test
+    void retrieveItem_NonOwnerRepeated_LoadsOnce() {
+        when(itemRepository.findWithOwnerById(1L)).thenReturn(Optional.of(item));
+        when(commentRepository.findNewestByItemId(eq(1L), any(Pageable.class))).thenReturn(List.of());
+
+        ItemDetailedDto first = itemService.retrieve(1L, 2L);
+        ItemDetailedDto second = itemService.retrieve(1L, 3L);
+
+        assertEquals(first, second);
+        assertNull(second.getLastBooking());
+        verify(itemRepository, times(1)).findWithOwnerById(1L);
+        verify(commentRepository, times(1)).findNewestByItemId(eq(1L), any(Pageable.class));
+        verifyNoInteractions(bookingRepository);
+        verify(popularityTracker, times(2)).recordView(1L);
+    }
+
+    // Тест просмотра карточки владельцем после кэширования - бронирования читаются из базы
+    @Test
+    void retrieveItem_OwnerAfterCached_ReadsLiveBookings() {
+        when(itemRepository.findWithOwnerById(1L)).thenReturn(Optional.of(item));
+        when(commentRepository.findNewestByItemId(eq(1L), any(Pageable.class))).thenReturn(List.of());
+        when(bookingRepository.findLastBookingForItem(eq(1L), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findNextBookingForItem(eq(1L), any())).thenReturn(List.of());
+        when(bookingRepository.findCurrentBookingForItem(eq(1L), any())).thenReturn(List.of());
+
+        itemService.retrieve(1L, 2L);
+        ItemDetailedDto ownerView = itemService.retrieve(1L, 1L);
+
+        assertNotNull(ownerView.getLastBooking());
+        assertEquals(booking.getId(), ownerView.getLastBooking().getId());
+        verify(itemRepository, times(1)).findWithOwnerById(1L);
     }
 
     // Тест обновления предмета владельцем
@@ -258,7 +643,7 @@ class ItemServiceTest {
         updateDto.setAvailable(false);
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(existingItem));
+        when(itemRepository.findWithOwnerById(1L)).thenReturn(Optional.of(existingItem));
         when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         ItemDto result = itemService.update(updateDto, 1L, 1L);
@@ -269,10 +654,85 @@ class ItemServiceTest {
         assertFalse(result.getAvailable());
 
         verify(userRepository, times(1)).findById(1L);
-        verify(itemRepository, times(1)).findById(1L);
+        verify(itemRepository, times(1)).findWithOwnerById(1L);
         verify(itemRepository, times(1)).save(any(Item.class));
     }
 
+    // Тест выключения доступности всех вещей - изменяются заблокированные вещи, версии по числу вещей, одно событие
+    @Test
+    void updateAvailability_All_UpdatesOnlyLockedItems() {
+        Item second = Item.builder().id(5L).name("Tent").description("Tent").isAvailable(true).owner(owner).build();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.findForUpdateByOwnerIdAndIsAvailableOrderById(1L, true)).thenReturn(List.of(item, second));
+        when(itemChangeVersions.next(2)).thenReturn(100L);
+
+        ItemAvailabilityResultDto result = itemService.updateAvailability(
+                new ItemAvailabilityUpdateDto(false, null, true), 1L);
+
+        assertEquals(2, result.getUpdated());
+        assertEquals(List.of(1L, 5L), result.getItemIds());
+        assertFalse(item.getIsAvailable());
+        assertFalse(second.getIsAvailable());
+        assertEquals(100L, item.getChangeVersion());
+        assertEquals(101L, second.getChangeVersion());
+        verify(itemRepository, never()).save(any(Item.class));
+        verify(bookingVersionTracker).touchAll();
+        ArgumentCaptor<ItemsUpdatedEvent> event = ArgumentCaptor.forClass(ItemsUpdatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertTrue(event.getValue().getPrevious().get(0).getAvailable());
+        assertFalse(event.getValue().getCurrent().get(1).getAvailable());
+    }
+
+    // Тест выключения доступности по списку ID - версии резервируются по числу изменяемых вещей, а не по разбросу ID
+    @Test
+    void updateAvailability_Ids_ReservesVersionPerChangedItem() {
+        Item far = Item.builder().id(1_000_000L).name("Tent").description("Tent").isAvailable(true).owner(owner).build();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.findForUpdateByIdInOrderById(Set.of(1L, 1_000_000L))).thenReturn(List.of(item, far));
+        when(itemChangeVersions.next(2)).thenReturn(100L);
+
+        ItemAvailabilityResultDto result = itemService.updateAvailability(
+                new ItemAvailabilityUpdateDto(false, List.of(1L, 1_000_000L), false), 1L);
+
+        assertEquals(2, result.getUpdated());
+        assertEquals(100L, item.getChangeVersion());
+        assertEquals(101L, far.getChangeVersion());
+        verify(itemRepository, never()).findForUpdateByOwnerIdAndIsAvailableOrderById(anyLong(), anyBoolean());
+    }
+
+    // Тест изменения доступности чужой вещи по списку ID - должен выбросить AccessDeniedException
+    @Test
+    void updateAvailability_ForeignItem_ThrowsAccessDeniedException() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(itemRepository.findForUpdateByIdInOrderById(Set.of(1L))).thenReturn(List.of(item));
+
+        assertThrows(AccessDeniedException.class, () -> itemService.updateAvailability(
+                new ItemAvailabilityUpdateDto(false, List.of(1L, 1L), false), 2L));
+        verify(itemChangeVersions, never()).next(anyInt());
+    }
+
+    // Тест изменения доступности без списка ID и без all - должен выбросить ValidationException
+    @Test
+    void updateAvailability_NeitherIdsNorAll_ThrowsValidationException() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> itemService.updateAvailability(
+                new ItemAvailabilityUpdateDto(false, List.of(), false), 1L));
+    }
+
+    // Тест вещей, уже имеющих нужную доступность - UPDATE не выполняется
+    @Test
+    void updateAvailability_AlreadyInState_DoesNothing() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.findForUpdateByIdInOrderById(Set.of(1L))).thenReturn(List.of(item));
+
+        ItemAvailabilityResultDto result = itemService.updateAvailability(
+                new ItemAvailabilityUpdateDto(true, List.of(1L), false), 1L);
+
+        assertEquals(0, result.getUpdated());
+        verifyNoInteractions(itemChangeVersions, eventPublisher);
+    }
+
     // Тест добавления комментария с валидными данными
     @Test
     void addComment_ValidData_ReturnsCommentDto() {
@@ -302,6 +762,7 @@ class ItemServiceTest {
         verify(userRepository, times(1)).findById(2L);
         verify(bookingRepository, times(1)).existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(), any(), any());
         verify(commentRepository, times(1)).save(any(Comment.class));
+        verify(itemCardProjector).refresh(List.of(1L));
     }
 
     // Тест добавления комментария пользователем, который не брал вещь - должен выбросить исключение
@@ -323,14 +784,99 @@ class ItemServiceTest {
         verify(commentRepository, never()).save(any(Comment.class));
     }
 
+    // Тест границы страницы ленты - версии незавершённых транзакций не попадают в страницу
+    @Test
+    void getChangesUntil_ReturnsLastVersionBeforeStableVersion() {
+        when(itemChangeVersions.stableBefore()).thenReturn(9L);
+        when(itemRepository.findChangeVersionsBetween(eq(5L), eq(9L), any(Pageable.class))).thenReturn(List.of(6L, 7L));
+
+        assertEquals(7L, itemService.getChangesUntil(5L, 5000));
+        verify(itemRepository).findChangeVersionsBetween(5L, 9L, PageRequest.of(0, 1000));
+    }
+
+    // Тест границы пустой страницы ленты - since не сдвигается
+    @Test
+    void getChangesUntil_NoChanges_ReturnsSince() {
+        when(itemChangeVersions.stableBefore()).thenReturn(9L);
+        when(itemRepository.findChangeVersionsBetween(eq(5L), eq(9L), any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(5L, itemService.getChangesUntil(5L, 10));
+    }
+
+    // Тест выдачи изменений - вещи отдаются по одной и отсоединяются от контекста после выдачи
+    @Test
+    void streamChanges_PassesChangesAndDetachesItems() {
+        item.setChangeVersion(7L);
+        when(itemRepository.streamChangedUpTo(5L, 7L)).thenReturn(Stream.of(item));
+        List<ItemChangeDto> changes = new ArrayList<>();
+
+        itemService.streamChanges(5L, 7L, changes::add);
+
+        assertEquals(1, changes.size());
+        assertEquals(7L, changes.get(0).getVersion());
+        assertEquals(owner.getId(), changes.get(0).getOwnerId());
+        verify(entityManager).detach(item);
+    }
+
+    // Тест первой страницы комментариев - должен вернуть limit комментариев и курсор следующей страницы
+    @Test
+    void getComments_FirstPage_ReturnsNextCursor() {
+        Comment newest = comment(3L, fixedTime);
+        Comment middle = comment(2L, fixedTime.minusHours(1));
+        Comment oldest = comment(1L, fixedTime.minusHours(2));
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findNewestByItemId(1L, PageRequest.of(0, 3))).thenReturn(List.of(newest, middle, oldest));
+
+        CommentPageDto page = itemService.getComments(1L, null, 2);
+
+        assertEquals(2, page.getComments().size());
+        assertEquals(3L, page.getComments().get(0).getId());
+        assertNotNull(page.getNextCursor());
+
+        CommentCursor cursor = CommentCursor.decode(page.getNextCursor());
+        assertEquals(middle.getCreated(), cursor.getCreated());
+        assertEquals(2L, cursor.getId());
+    }
+
+    // Тест следующей страницы комментариев - должен запросить комментарии раньше позиции курсора
+    @Test
+    void getComments_WithCursor_UsesKeysetQuery() {
+        String cursor = new CommentCursor(fixedTime.minusHours(1), 2L).encode();
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findByItemIdBefore(1L, fixedTime.minusHours(1), 2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(comment(1L, fixedTime.minusHours(2))));
+
+        CommentPageDto page = itemService.getComments(1L, cursor, 2);
+
+        assertEquals(1, page.getComments().size());
+        assertNull(page.getNextCursor());
+        verify(commentRepository, never()).findNewestByItemId(anyLong(), any(Pageable.class));
+    }
+
+    // Тест повреждённого курсора - должен выбросить ValidationException
+    @Test
+    void getComments_InvalidCursor_ThrowsValidationException() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> itemService.getComments(1L, "not-a-cursor", 20));
+    }
+
+    // Тест комментариев несуществующей вещи - должен выбросить NotFoundException
+    @Test
+    void getComments_ItemNotFound_ThrowsException() {
+        when(itemRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.getComments(999L, null, 20));
+    }
+
     // Тест получения несуществующего предмета - должен выбросить NotFoundException
     @Test
     void retrieveItem_ItemNotFound_ThrowsException() {
-        when(itemRepository.findById(999L)).thenReturn(Optional.empty());
+        when(itemRepository.findWithOwnerById(999L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.retrieve(999L, 1L));
 
-        verify(itemRepository, times(1)).findById(999L);
+        verify(itemRepository, times(1)).findWithOwnerById(999L);
     }
 
     // Тест получения списка предметов несуществующего пользователя - должен выбросить NotFoundException
@@ -341,7 +887,7 @@ class ItemServiceTest {
         assertThrows(NotFoundException.class, () -> itemService.getList(999L));
 
         verify(userRepository, times(1)).existsById(999L);
-        verify(itemRepository, never()).findByOwnerIdOrderById(anyLong());
+        verify(itemRepository, never()).findWithCardsByOwnerId(anyLong());
     }
 
     // Тест добавления комментария к несуществующей вещи
@@ -374,4 +920,14 @@ class ItemServiceTest {
         verify(userRepository, times(1)).findById(999L);
         verify(bookingRepository, never()).existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(), any(), any());
     }
-}
\ No newline at end of file
+
+    private Comment comment(long id, LocalDateTime created) {
+        return Comment.builder()
+                .id(id)
+                .text("Comment " + id)
+                .item(item)
+                .author(booker)
+                .created(created)
+                .build();
+    }
+}
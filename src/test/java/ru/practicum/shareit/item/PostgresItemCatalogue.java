@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Встроенный PostgreSQL с синтетическим каталогом вещей для замеров запросов поиска.
+ * Общая схема создаётся сразу, скрипт PostgreSQL с полнотекстовой колонкой и триграммными индексами
+ * выполняется отдельно после заполнения, чтобы замерить запросы и без него, и с ним
+ */
+class PostgresItemCatalogue implements AutoCloseable {
+
+    static final String[] WORDS = {"дрель", "пила", "лопата", "молоток", "палатка", "велосипед",
+            "фотоаппарат", "стремянка", "насос", "ключ"};
+    static final String[] BRANDS = {"xr", "bosch", "makita", "dewalt", "zubr", "sturm", "hammer", "interskol"};
+    static final String[] ADJECTIVES = {"аккумуляторная", "новая", "мощная", "лёгкая", "складная", "большая",
+            "компактная", "профессиональная", "садовая", "туристическая", "детская", "запасная"};
+    // Простое число: номера моделей повторяются редко, как артикулы в настоящем каталоге
+    static final int MODELS = 9973;
+
+    private final EmbeddedPostgres postgres;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    private PostgresItemCatalogue(EmbeddedPostgres postgres) {
+        this.postgres = postgres;
+        this.jdbc = new NamedParameterJdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    /**
+     * Запускает базу, создаёт общую схему и заполняет её вещами одного владельца.
+     * Название вещи — слово, бренд и номер модели («дрель xr-4711»), описание — прилагательное и слово;
+     * каждая седьмая вещь недоступна
+     *
+     * @param items количество вещей
+     * @return каталог без скрипта PostgreSQL
+     */
+    static PostgresItemCatalogue start(int items) throws IOException {
+        PostgresItemCatalogue catalogue = new PostgresItemCatalogue(EmbeddedPostgres.start());
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"))
+                .execute(catalogue.postgres.getPostgresDatabase());
+        catalogue.jdbc.getJdbcTemplate().update("INSERT INTO users (name, email) VALUES ('owner', 'owner@mail.ru')");
+        catalogue.jdbc.getJdbcTemplate().update("INSERT INTO items "
+                + "(name, description, is_available, owner_id, change_version) "
+                + "SELECT " + pick(WORDS, "g * 7919") + " || ' ' || " + pick(BRANDS, "g * 104729")
+                + " || '-' || (g % " + MODELS + "), "
+                + pick(ADJECTIVES, "g * 31") + " || ' ' || " + pick(WORDS, "g * 13") + ", "
+                + "g % 7 <> 0, 1, g "
+                + "FROM generate_series(1, CAST(? AS bigint)) g", items);
+        catalogue.analyze();
+        return catalogue;
+    }
+
+    /**
+     * Выполняет schema-postgresql.sql: полнотекстовая колонка, GIN-индекс по ней и триграммные индексы
+     */
+    void applyPostgresSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema-postgresql.sql"))
+                .execute(postgres.getPostgresDatabase());
+        analyze();
+    }
+
+    NamedParameterJdbcTemplate jdbc() {
+        return jdbc;
+    }
+
+    /**
+     * Текст запроса из аннотации {@link Query} метода {@link ItemRepository}:
+     * замеряется тот же SQL, что выполняет приложение
+     */
+    static String repositoryQuery(String method, Class<?>... parameterTypes) {
+        try {
+            return ItemRepository.class.getMethod(method, parameterTypes).getAnnotation(Query.class).value();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Медиана и заданный перцентиль времени запроса после прогрева, в миллисекундах
+     */
+    static double[] percentilesMillis(Runnable query, int warmupRuns, int measuredRuns, double percentile) {
+        for (int i = 0; i < warmupRuns; i++) {
+            query.run();
+        }
+        double[] millis = new double[measuredRuns];
+        for (int i = 0; i < measuredRuns; i++) {
+            long start = System.nanoTime();
+            query.run();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return new double[]{millis[measuredRuns / 2],
+                millis[Math.min(measuredRuns - 1, (int) Math.ceil(measuredRuns * percentile) - 1)]};
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+
+    private void analyze() {
+        jdbc.getJdbcTemplate().execute("VACUUM ANALYZE items");
+    }
+
+    private static String pick(String[] values, String index) {
+        return "(ARRAY['" + String.join("', '", values) + "'])[1 + (" + index + ") % " + values.length + "]";
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Замер поиска по фрагментам артикулов с триграммными GIN-индексами против прежнего запроса с LIKE
+ * на встроенном PostgreSQL с миллионом вещей. Запрос с LIKE замеряется до создания индексов.
+ * Каждый замер — подсчёт и первая страница, как в сервисе.
+ * Запускается явно: mvn test -Dshareit.benchmark=true -Dtest=TrigramSearchBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class TrigramSearchBenchmarkTest {
+
+    private static final int ITEMS = 1_000_000;
+    private static final int LIMIT = 20;
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 20;
+    private static final String SIMILARITY_THRESHOLD = "0.6";
+    // Фрагменты артикулов: от сотни до десятка тысяч совпадений
+    private static final List<String> FRAGMENTS = List.of("xr-47", "makita-123", "4711", "ta-99");
+
+    // SQL, который Hibernate строит для ItemRepository.searchAvailableItems и countAvailableItems
+    private static final String LIKE_CONDITION = "i.is_available = true "
+            + "AND (lower(i.name) LIKE lower('%' || :text || '%') "
+            + "OR lower(i.description) LIKE lower('%' || :text || '%'))";
+    private static final String LIKE_COUNT = "SELECT COUNT(*) FROM items i WHERE " + LIKE_CONDITION;
+    private static final String LIKE_PAGE = "SELECT i.* FROM items i WHERE " + LIKE_CONDITION
+            + " ORDER BY CASE WHEN lower(i.name) LIKE lower('%' || :text || '%') THEN 0 ELSE 1 END, i.id"
+            + " LIMIT :limit";
+
+    private static PostgresItemCatalogue catalogue;
+    private static TransactionTemplate transactionTemplate;
+    private static final Map<String, Double> likeMedians = new LinkedHashMap<>();
+
+    @BeforeAll
+    static void fillCatalogue() throws IOException {
+        catalogue = PostgresItemCatalogue.start(ITEMS);
+        transactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(catalogue.jdbc().getJdbcTemplate().getDataSource()));
+        for (String text : FRAGMENTS) {
+            likeMedians.put(text, medianMillis(LIKE_COUNT, LIKE_PAGE, text, null));
+        }
+        catalogue.applyPostgresSchema();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        catalogue.close();
+    }
+
+    // Тест поиска подстроки по триграммному индексу - находит то же, что LIKE, и быстрее него
+    @Test
+    void trigram_SameTotalsAndFasterThanLike() {
+        String count = PostgresItemCatalogue.repositoryQuery("countAvailableItemsByTrigram", String.class);
+        String page = PostgresItemCatalogue.repositoryQuery("searchAvailableItemsByTrigram",
+                String.class, int.class);
+        for (String text : FRAGMENTS) {
+            assertEquals(total(LIKE_COUNT, text), total(count, text), "Разное количество совпадений для " + text);
+            double trigram = medianMillis(count, page, text, null);
+            double like = likeMedians.get(text);
+            System.out.printf("Фрагмент '%s' среди %d вещей: LIKE %.1f мс, триграммы %.1f мс%n",
+                    text, ITEMS, like, trigram);
+            assertTrue(trigram < like, String.format("Триграммы %.1f мс не быстрее LIKE %.1f мс для '%s'",
+                    trigram, like, text));
+        }
+    }
+
+    // Тест поиска по словесному сходству с порогом - замер для сравнения с точной подстрокой
+    @Test
+    void similarity_Measured() {
+        String count = PostgresItemCatalogue.repositoryQuery("countAvailableItemsBySimilarity", String.class);
+        String page = PostgresItemCatalogue.repositoryQuery("searchAvailableItemsBySimilarity",
+                String.class, int.class);
+        for (String text : FRAGMENTS) {
+            double similarity = medianMillis(count, page, text, SIMILARITY_THRESHOLD);
+            System.out.printf("Фрагмент '%s' среди %d вещей: сходство не ниже %s %.1f мс%n",
+                    text, ITEMS, SIMILARITY_THRESHOLD, similarity);
+        }
+    }
+
+    private static long total(String countSql, String text) {
+        Long total = catalogue.jdbc().queryForObject(countSql, Map.of("text", text), Long.class);
+        assertNotNull(total);
+        return total;
+    }
+
+    private static double medianMillis(String countSql, String pageSql, String text, String threshold) {
+        Map<String, Object> params = Map.of("text", text, "limit", LIMIT);
+        return PostgresItemCatalogue.percentilesMillis(() -> transactionTemplate.executeWithoutResult(status -> {
+            if (threshold != null) {
+                // Порог действует до конца транзакции, как в ItemRepository.setWordSimilarityThreshold
+                catalogue.jdbc().queryForObject(
+                        PostgresItemCatalogue.repositoryQuery("setWordSimilarityThreshold", String.class),
+                        Map.of("threshold", threshold), String.class);
+            }
+            assertTrue(total(countSql, text) > 0, "Нет совпадений для " + text);
+            assertFalse(catalogue.jdbc().queryForList(pageSql, params).isEmpty());
+        }), WARMUP_RUNS, MEASURED_RUNS, 0.5)[0];
+    }
+}
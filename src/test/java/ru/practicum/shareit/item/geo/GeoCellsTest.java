@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoCellsTest {
+
+    // Тест покрытия - точки внутри круга попадают в диапазоны, диапазонов не больше четырёх
+    @Test
+    void cover_ContainsPointsInsideCircle() {
+        List<long[]> ranges = GeoCells.cover(55.7558, 37.6173, 10);
+
+        assertTrue(ranges.size() <= GeoCircle.RANGES);
+        assertTrue(contains(ranges, GeoCells.encode(55.7558, 37.6173)));
+        // Около 9 км к северу и к востоку от центра
+        assertTrue(contains(ranges, GeoCells.encode(55.8367, 37.6173)));
+        assertTrue(contains(ranges, GeoCells.encode(55.7558, 37.7600)));
+        assertFalse(contains(ranges, GeoCells.encode(59.9343, 30.3351)));
+    }
+
+    // Тест круга у 180-го меридиана - покрываются ячейки по обе стороны
+    @Test
+    void cover_CrossingAntimeridian_CoversBothSides() {
+        List<long[]> ranges = GeoCells.cover(-16.5, 179.95, 20);
+
+        assertTrue(contains(ranges, GeoCells.encode(-16.5, 179.99)));
+        assertTrue(contains(ranges, GeoCells.encode(-16.5, -179.9)));
+    }
+
+    // Тест малого радиуса - диапазон узкий, а не вся сетка
+    @Test
+    void cover_SmallRadius_UsesFineCells() {
+        List<long[]> ranges = GeoCells.cover(0.1, 0.1, 1);
+
+        long covered = ranges.stream().mapToLong(range -> range[1] - range[0] + 1).sum();
+        assertTrue(covered < (1L << (2 * GeoCells.BITS_PER_AXIS)) / 1_000_000);
+    }
+
+    private static boolean contains(List<long[]> ranges, long cell) {
+        return ranges.stream().anyMatch(range -> range[0] <= cell && cell <= range[1]);
+    }
+}
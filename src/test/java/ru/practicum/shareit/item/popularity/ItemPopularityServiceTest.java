@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item.popularity;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.PopularItemDto;
+import ru.practicum.shareit.item.dto.PopularItemsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.impl.ItemPopularityServiceImpl;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemPopularityServiceTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemPopularityTracker popularityTracker;
+
+    private ItemPopularityProperties popularityProperties;
+
+    private ItemPopularityServiceImpl popularityService;
+
+    @BeforeEach
+    void setUp() {
+        popularityProperties = new ItemPopularityProperties();
+        popularityService = new ItemPopularityServiceImpl(itemRepository, popularityTracker, popularityProperties);
+    }
+
+    // Тест популярных вещей - порядок счётчиков сохраняется, удалённые вещи пропускаются, вещи читаются одним запросом
+    @Test
+    void getPopular_KeepsOrderAndSkipsDeletedItems() {
+        when(popularityTracker.top(PopularityMetric.BOOKINGS, PopularityWindow.WEEK, 10)).thenReturn(List.of(
+                new SlidingWindowCounter.Estimate(2L, 8), new SlidingWindowCounter.Estimate(99L, 5),
+                new SlidingWindowCounter.Estimate(1L, 3)));
+        when(popularityTracker.top(PopularityMetric.VIEWS, PopularityWindow.WEEK, 10)).thenReturn(List.of(
+                new SlidingWindowCounter.Estimate(1L, 40)));
+        when(itemRepository.findAllById(Set.of(1L, 2L, 99L))).thenReturn(List.of(item(1L), item(2L)));
+
+        PopularItemsDto result = popularityService.getPopular("7d", 10);
+
+        assertEquals("7d", result.getWindow());
+        assertEquals(List.of(2L, 1L), result.getMostBooked().stream().map(PopularItemDto::getId).toList());
+        assertEquals(8, result.getMostBooked().get(0).getCount());
+        assertEquals(List.of(1L), result.getMostViewed().stream().map(PopularItemDto::getId).toList());
+        verify(itemRepository, times(1)).findAllById(any());
+    }
+
+    // Тест размера больше допустимого - ограничивается настройкой
+    @Test
+    void getPopular_LargeSize_IsCapped() {
+        popularityProperties.setMaxPageSize(5);
+        when(popularityTracker.top(any(), eq(PopularityWindow.DAY), eq(5))).thenReturn(List.of());
+
+        PopularItemsDto result = popularityService.getPopular("24h", 100);
+
+        assertTrue(result.getMostBooked().isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    // Тест неизвестного окна - должен выбросить ValidationException
+    @Test
+    void getPopular_UnknownWindow_ThrowsException() {
+        assertThrows(ValidationException.class, () -> popularityService.getPopular("1y", 10));
+
+        verifyNoInteractions(popularityTracker);
+    }
+
+    private static Item item(long id) {
+        return Item.builder().id(id).name("Item " + id).description("Description").isAvailable(true).build();
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    // Тест лучших ключей окна - по убыванию частоты, редкие ключи не вытесняют частые
+    @Test
+    void top_ReturnsMostFrequentFirst() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(HOUR, 24, 256, 4, 3);
+        long now = 100 * HOUR;
+        add(counter, 1L, 5, now);
+        add(counter, 2L, 9, now);
+        add(counter, 3L, 2, now);
+        for (long key = 10; key < 50; key++) {
+            counter.add(key, now);
+        }
+
+        List<SlidingWindowCounter.Estimate> top = counter.top(2, now);
+
+        assertEquals(List.of(2L, 1L), top.stream().map(SlidingWindowCounter.Estimate::getKey).toList());
+        assertTrue(top.get(0).getCount() >= 9);
+        assertTrue(top.get(1).getCount() >= 5);
+    }
+
+    // Тест скользящего окна - события складываются по корзинам и выпадают вместе со своей корзиной
+    @Test
+    void estimate_OldBucketsLeaveWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(HOUR, 24, 256, 4, 3);
+        long start = 100 * HOUR;
+        add(counter, 1L, 3, start);
+        add(counter, 1L, 4, start + 5 * HOUR);
+
+        assertEquals(7, counter.estimate(1L, start + 23 * HOUR));
+        assertEquals(4, counter.estimate(1L, start + 24 * HOUR));
+        assertEquals(0, counter.estimate(1L, start + 29 * HOUR));
+        assertTrue(counter.top(10, start + 29 * HOUR).isEmpty());
+    }
+
+    // Тест переиспользования слота - корзина, выпавшая из окна, очищается перед записью
+    @Test
+    void add_ReusedSlot_StartsFromZero() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(HOUR, 24, 256, 4, 3);
+        long start = 100 * HOUR;
+        add(counter, 1L, 5, start);
+
+        counter.add(1L, start + 24 * HOUR);
+
+        assertEquals(1, counter.estimate(1L, start + 24 * HOUR));
+    }
+
+    // Тест снимка - восстановленное окно даёт те же оценки и складывается с уже учтёнными событиями
+    @Test
+    void readFrom_Snapshot_RestoresAndMergesBuckets() throws IOException {
+        SlidingWindowCounter counter = new SlidingWindowCounter(HOUR, 24, 256, 4, 3);
+        long now = 100 * HOUR;
+        add(counter, 1L, 3, now - 2 * HOUR);
+        add(counter, 2L, 6, now);
+        byte[] snapshot = write(counter, now);
+
+        SlidingWindowCounter restored = new SlidingWindowCounter(HOUR, 24, 256, 4, 3);
+        restored.add(1L, now);
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(snapshot)), now);
+
+        assertEquals(4, restored.estimate(1L, now));
+        assertEquals(6, restored.estimate(2L, now));
+        assertEquals(List.of(2L, 1L), restored.top(2, now).stream().map(SlidingWindowCounter.Estimate::getKey).toList());
+    }
+
+    // Тест снимка с другими размерами - восстановление отклоняется
+    @Test
+    void readFrom_DifferentDimensions_Throws() throws IOException {
+        SlidingWindowCounter counter = new SlidingWindowCounter(HOUR, 24, 256, 4, 3);
+        byte[] snapshot = write(counter, 100 * HOUR);
+
+        SlidingWindowCounter other = new SlidingWindowCounter(HOUR, 24, 512, 4, 3);
+
+        assertThrows(IOException.class,
+                () -> other.readFrom(new DataInputStream(new ByteArrayInputStream(snapshot)), 100 * HOUR));
+    }
+
+    private static void add(SlidingWindowCounter counter, long key, int times, long nowMillis) {
+        for (int i = 0; i < times; i++) {
+            counter.add(key, nowMillis);
+        }
+    }
+
+    private static byte[] write(SlidingWindowCounter counter, long nowMillis) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            counter.writeTo(out, nowMillis);
+        }
+        return bytes.toByteArray();
+    }
+}
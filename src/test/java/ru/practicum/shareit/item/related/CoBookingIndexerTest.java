@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.related;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoBookingIndexerTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private CoBookingProperties coBookingProperties;
+
+    private CoBookingIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        coBookingProperties = new CoBookingProperties();
+        coBookingProperties.setParallelism(2);
+        coBookingProperties.setMaxBasketSize(4);
+        indexer = new CoBookingIndexer(bookingRepository, coBookingProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        indexer.shutdown();
+    }
+
+    // Тест пересчёта - пары считаются по разным вещам каждого бронирующего, большие корзины пропускаются
+    @Test
+    void rebuild_CountsPairsPerBooker() {
+        when(bookingRepository.findApprovedBookerIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(10L, 11L, 12L));
+        when(bookingRepository.findApprovedItemIdsByBookerIdIn(List.of(10L, 11L, 12L))).thenReturn(List.of(
+                new Object[]{10L, 1L}, new Object[]{10L, 2L}, new Object[]{10L, 3L},
+                new Object[]{11L, 1L}, new Object[]{11L, 2L},
+                new Object[]{12L, 1L}, new Object[]{12L, 5L}, new Object[]{12L, 6L}, new Object[]{12L, 7L}));
+
+        assertEquals(3, indexer.rebuild());
+
+        List<CoBookingModel.Neighbour> related = indexer.related(1L);
+        assertEquals(List.of(2L, 3L), related.stream().map(CoBookingModel.Neighbour::getItemId).toList());
+        assertEquals(2, related.get(0).getCount());
+        assertTrue(indexer.related(5L).isEmpty());
+    }
+
+    // Тест подтверждений во время пересчёта - повторяются только подтверждения бронирующих с прочитанных страниц
+    @Test
+    void rebuild_ApprovalsDuringRebuild_CountedOnce() {
+        coBookingProperties.setBookerBatchSize(1);
+        when(bookingRepository.findApprovedBookerIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(10L));
+        when(bookingRepository.findApprovedBookerIdsAfter(eq(10L), any(Pageable.class))).thenReturn(List.of(20L));
+        when(bookingRepository.findApprovedBookerIdsAfter(eq(20L), any(Pageable.class))).thenReturn(List.of());
+        when(bookingRepository.findApprovedItemIdsByBookerId(eq(10L), eq(8L), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(bookingRepository.findApprovedItemIdsByBookerId(eq(20L), eq(9L), any(Pageable.class)))
+                .thenReturn(List.of(5L));
+        // Оба подтверждения фиксируются, когда первая страница уже прочитана без них
+        when(bookingRepository.findApprovedItemIdsByBookerIdIn(List.of(10L))).thenAnswer(invocation -> {
+            indexer.recordApproved(10L, 3L, 8L);
+            indexer.recordApproved(20L, 6L, 9L);
+            return List.of(new Object[]{10L, 1L}, new Object[]{10L, 2L});
+        });
+        // Вторая страница читается после подтверждения и уже содержит его
+        when(bookingRepository.findApprovedItemIdsByBookerIdIn(List.of(20L)))
+                .thenReturn(List.of(new Object[]{20L, 5L}, new Object[]{20L, 6L}));
+
+        indexer.rebuild();
+
+        assertEquals(List.of(2L, 3L), indexer.related(1L).stream().map(CoBookingModel.Neighbour::getItemId).toList());
+        List<CoBookingModel.Neighbour> related = indexer.related(6L);
+        assertEquals(List.of(5L), related.stream().map(CoBookingModel.Neighbour::getItemId).toList());
+        assertEquals(1, related.get(0).getCount());
+    }
+
+    // Тест подтверждения вне транзакции - пары добавляются сразу
+    @Test
+    void recordApproved_NewItem_AddsPairs() {
+        when(bookingRepository.findApprovedItemIdsByBookerId(eq(10L), eq(7L), any(Pageable.class)))
+                .thenReturn(List.of(2L, 3L));
+
+        indexer.recordApproved(10L, 1L, 7L);
+
+        assertEquals(List.of(1L), indexer.related(2L).stream().map(CoBookingModel.Neighbour::getItemId).toList());
+        assertEquals(2, indexer.related(1L).size());
+    }
+
+    // Тест повторного бронирования той же вещи - пары уже учтены и не удваиваются
+    @Test
+    void recordApproved_RepeatedItem_IsIgnored() {
+        when(bookingRepository.findApprovedItemIdsByBookerId(anyLong(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+
+        indexer.recordApproved(10L, 1L, 7L);
+
+        assertTrue(indexer.related(1L).isEmpty());
+        assertTrue(indexer.related(2L).isEmpty());
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.related;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.util.LongLongMap;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoBookingModelTest {
+
+    // Тест пакетной записи - остаются самые частые соседи по убыванию счётчика
+    @Test
+    void putCounts_KeepsMostFrequentNeighbours() {
+        CoBookingModel model = new CoBookingModel(2, 0);
+        LongLongMap counts = new LongLongMap();
+        counts.put(2L, 3);
+        counts.put(3L, 7);
+        counts.put(4L, 1);
+
+        model.putCounts(1L, counts);
+
+        assertEquals(List.of(3L, 2L), ids(model.neighbours(1L)));
+        assertEquals(7, model.neighbours(1L).get(0).getCount());
+        assertTrue(model.neighbours(5L).isEmpty());
+    }
+
+    // Тест пополнения - пара учитывается в обе стороны
+    @Test
+    void addBasket_CountsBothDirections() {
+        CoBookingModel model = new CoBookingModel(5, 0);
+
+        model.addBasket(1L, List.of(2L, 3L));
+        model.addBasket(3L, List.of(1L));
+
+        assertEquals(List.of(3L, 2L), ids(model.neighbours(1L)));
+        assertEquals(2, model.neighbours(1L).get(0).getCount());
+        assertEquals(List.of(1L), ids(model.neighbours(2L)));
+        assertEquals(3, model.size());
+    }
+
+    // Тест заполненного списка соседей - новый сосед вытесняет самого слабого и наследует его счётчик
+    @Test
+    void addBasket_FullNeighbours_ReplacesWeakest() {
+        CoBookingModel model = new CoBookingModel(2, 0);
+        model.addBasket(1L, List.of(2L, 2L, 3L));
+
+        model.addBasket(1L, List.of(4L));
+
+        List<CoBookingModel.Neighbour> neighbours = model.neighbours(1L);
+        assertEquals(List.of(2L, 4L), ids(neighbours));
+        assertEquals(2, neighbours.get(1).getCount());
+    }
+
+    private static List<Long> ids(List<CoBookingModel.Neighbour> neighbours) {
+        return neighbours.stream().map(CoBookingModel.Neighbour::getItemId).toList();
+    }
+}
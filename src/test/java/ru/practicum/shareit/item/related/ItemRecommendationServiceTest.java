@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.related;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.RelatedItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.impl.ItemRecommendationServiceImpl;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemRecommendationServiceTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private CoBookingIndexer coBookingIndexer;
+
+    private ItemRecommendationServiceImpl recommendationService;
+
+    @BeforeEach
+    void setUp() {
+        recommendationService = new ItemRecommendationServiceImpl(itemRepository, coBookingIndexer);
+    }
+
+    // Тест рекомендаций - порядок модели сохраняется, недоступные и удалённые вещи пропускаются
+    @Test
+    void getRelated_KeepsOrderAndSkipsUnavailableItems() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(coBookingIndexer.related(1L)).thenReturn(List.of(
+                new CoBookingModel.Neighbour(3L, 5), new CoBookingModel.Neighbour(4L, 4),
+                new CoBookingModel.Neighbour(99L, 3), new CoBookingModel.Neighbour(2L, 1)));
+        when(itemRepository.findAllById(List.of(3L, 4L, 99L, 2L)))
+                .thenReturn(List.of(item(2L, true), item(3L, true), item(4L, false)));
+
+        List<RelatedItemDto> result = recommendationService.getRelated(1L, 10);
+
+        assertEquals(List.of(3L, 2L), result.stream().map(RelatedItemDto::getId).toList());
+        assertEquals(5, result.get(0).getCoBookings());
+    }
+
+    // Тест размера - возвращается не больше запрошенного числа вещей
+    @Test
+    void getRelated_StopsAtSize() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(coBookingIndexer.related(1L)).thenReturn(List.of(
+                new CoBookingModel.Neighbour(3L, 5), new CoBookingModel.Neighbour(2L, 1)));
+        when(itemRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(item(2L, true), item(3L, true)));
+
+        List<RelatedItemDto> result = recommendationService.getRelated(1L, 1);
+
+        assertEquals(List.of(3L), result.stream().map(RelatedItemDto::getId).toList());
+    }
+
+    // Тест несуществующей вещи - NotFoundException
+    @Test
+    void getRelated_ItemNotFound_ThrowsNotFound() {
+        when(itemRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> recommendationService.getRelated(1L, 10));
+        verifyNoInteractions(coBookingIndexer);
+    }
+
+    private static Item item(long id, boolean available) {
+        return Item.builder().id(id).name("Item " + id).description("Description").isAvailable(available).build();
+    }
+}
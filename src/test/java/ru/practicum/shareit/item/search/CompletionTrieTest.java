@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletionTrieTest {
+
+    // Тест дополнения префикса - сначала самые частые токены, при равенстве по алфавиту
+    @Test
+    void complete_Prefix_ReturnsMostFrequentFirst() {
+        CompletionTrie trie = new CompletionTrie(3);
+        trie.add("дрель");
+        trie.add("дрель");
+        trie.add("дрели");
+        trie.add("доска");
+        trie.add("домкрат");
+        trie.add("домкрат");
+        trie.add("домкрат");
+
+        assertEquals(List.of("домкрат", "дрель", "доска"), trie.complete("д", 10));
+        assertEquals(List.of("дрель", "дрели"), trie.complete("др", 10));
+        assertEquals(List.of("домкрат"), trie.complete("д", 1));
+        assertEquals(List.of(), trie.complete("пила", 10));
+    }
+
+    // Тест удаления - токен без употреблений пропадает, порядок пересчитывается
+    @Test
+    void remove_LastOccurrence_DropsToken() {
+        CompletionTrie trie = new CompletionTrie(3);
+        trie.add("дрель");
+        trie.add("дрели");
+        trie.add("дрели");
+
+        trie.remove("дрели");
+        trie.remove("дрели");
+        trie.remove("дрели");
+
+        assertEquals(List.of("дрель"), trie.complete("дре", 10));
+        assertEquals(List.of(), trie.complete("дрели", 10));
+    }
+
+    // Тест токена, который является префиксом другого - удаление не затрагивает более длинный
+    @Test
+    void remove_PrefixToken_KeepsLongerToken() {
+        CompletionTrie trie = new CompletionTrie(3);
+        trie.add("бит");
+        trie.add("биты");
+
+        trie.remove("бит");
+
+        assertEquals(List.of("биты"), trie.complete("би", 10));
+    }
+}
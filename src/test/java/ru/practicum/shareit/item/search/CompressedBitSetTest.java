@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedBitSetTest {
+
+    // Тест добавления и удаления - повторы не учитываются, порядок обхода по возрастанию
+    @Test
+    void addAndRemove_KeepsSortedDistinctIds() {
+        CompressedBitSet set = new CompressedBitSet();
+
+        assertTrue(set.add(70_000));
+        assertTrue(set.add(5));
+        assertFalse(set.add(5));
+        assertTrue(set.add(1L << 40));
+
+        assertEquals(3, set.cardinality());
+        assertEquals(List.of(5L, 70_000L, 1L << 40), toList(set));
+        assertTrue(set.remove(70_000));
+        assertFalse(set.remove(70_000));
+        assertFalse(set.contains(70_000));
+        assertEquals(List.of(5L, 1L << 40), toList(set));
+    }
+
+    // Тест плотного блока - переход в битовую карту и обратно не теряет значения
+    @Test
+    void denseBlock_SwitchesRepresentationWithoutLosingIds() {
+        CompressedBitSet set = new CompressedBitSet();
+        for (long id = 0; id < 10_000; id++) {
+            set.add(id * 3);
+        }
+        for (long id = 0; id < 9_000; id++) {
+            set.remove(id * 3);
+        }
+
+        assertEquals(1_000, set.cardinality());
+        assertTrue(set.contains(27_000));
+        assertFalse(set.contains(26_997));
+        assertEquals(27_000L, toList(set).get(0));
+    }
+
+    // Тест пересечения - совпадает с пересечением TreeSet для разреженных и плотных блоков
+    @Test
+    void and_MatchesNaiveIntersection() {
+        Random random = new Random(42);
+        CompressedBitSet dense = new CompressedBitSet();
+        CompressedBitSet sparse = new CompressedBitSet();
+        TreeSet<Long> expectedDense = new TreeSet<>();
+        TreeSet<Long> expectedSparse = new TreeSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            long id = random.nextInt(200_000);
+            dense.add(id);
+            expectedDense.add(id);
+            if (i % 20 == 0) {
+                long other = random.nextInt(200_000);
+                sparse.add(other);
+                expectedSparse.add(other);
+            }
+        }
+        expectedSparse.retainAll(expectedDense);
+
+        assertEquals(expectedSparse.size(), dense.andCardinality(sparse));
+        assertEquals(expectedSparse.size(), sparse.andCardinality(dense));
+        assertEquals(new ArrayList<>(expectedSparse), toList(dense.and(sparse)));
+        assertEquals(expectedDense.size(), dense.andCardinality(dense));
+        assertEquals(expectedSparse.size(), dense.andCardinality(sparse.toBitmaps()));
+        assertEquals(toList(sparse), toList(sparse.toBitmaps()));
+    }
+
+    private static List<Long> toList(CompressedBitSet set) {
+        List<Long> ids = new ArrayList<>();
+        set.forEach(ids::add);
+        return ids;
+    }
+}
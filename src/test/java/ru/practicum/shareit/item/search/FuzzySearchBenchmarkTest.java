@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Замер поиска с исправлением опечаток на индексе из миллиона вещей. Название вещи — одно из десяти частых
+ * слов, описание — случайное слово, так что в словаре около миллиона токенов.
+ * Запросы — слова из индекса с одной или двумя правками: редкое слово, частое слово и их пара.
+ * Запускается явно: mvn test -Dshareit.benchmark=true -Dtest=FuzzySearchBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class FuzzySearchBenchmarkTest {
+
+    private static final int ITEMS = 1_000_000;
+    private static final int QUERIES = 200;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MAX_EDITS = 2;
+    private static final double MAX_P99_MS = 50.0;
+    private static final String[] WORDS = {"дрель", "пила", "лопата", "молоток", "палатка", "велосипед",
+            "фотоаппарат", "стремянка", "насос", "ключ"};
+    private static final String LETTERS = "абвгдежзиклмнопрстуфхцчшщэюя";
+
+    private static ItemSearchIndex index;
+    private static final List<String> rareWords = new ArrayList<>();
+
+    @BeforeAll
+    static void buildIndex() {
+        Random random = new Random(1);
+        index = new ItemSearchIndex();
+        ItemSearchIndex.Builder builder = index.startRebuild();
+        for (long id = 1; id <= ITEMS; id++) {
+            String rareWord = randomWord(random);
+            if (id % (ITEMS / QUERIES) == 0) {
+                rareWords.add(rareWord);
+            }
+            builder.add(ItemDto.builder()
+                    .id(id)
+                    .ownerId(1L)
+                    .name(WORDS[random.nextInt(WORDS.length)])
+                    .description(rareWord)
+                    .available(true)
+                    .build());
+        }
+        index.install(builder);
+    }
+
+    // Тест редкого слова с опечаткой - раскрытия находят несколько вещей
+    @Test
+    void searchFuzzy_RareWord_P99UnderLimit() {
+        Random random = new Random(2);
+        assertP99UnderLimit("редкое слово", rareWords.stream().map(word -> misspell(word, random)).toList());
+    }
+
+    // Тест частого слова с опечаткой - раскрытие совпадает с десятой частью вещей
+    @Test
+    void searchFuzzy_CommonWord_P99UnderLimit() {
+        Random random = new Random(3);
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(misspell(WORDS[i % WORDS.length], random));
+        }
+        assertP99UnderLimit("частое слово", queries);
+    }
+
+    // Тест пары из частого и редкого слова с опечатками - пересечение раскрытий двух токенов
+    @Test
+    void searchFuzzy_CommonAndRareWords_P99UnderLimit() {
+        Random random = new Random(4);
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(misspell(WORDS[i % WORDS.length], random) + " " + misspell(rareWords.get(i), random));
+        }
+        assertP99UnderLimit("частое и редкое слово", queries);
+    }
+
+    private static void assertP99UnderLimit(String name, List<String> queries) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            queries.forEach(query -> assertNotNull(index.searchFuzzy(query, MAX_EDITS, 0, 20)));
+        }
+        double[] millis = new double[queries.size()];
+        for (int i = 0; i < queries.size(); i++) {
+            long start = System.nanoTime();
+            assertNotNull(index.searchFuzzy(queries.get(i), MAX_EDITS, 0, 20));
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        double p50 = millis[millis.length / 2];
+        double p99 = millis[(int) Math.ceil(millis.length * 0.99) - 1];
+        System.out.printf("Поиск с опечатками, %s: p50 %.2f мс, p99 %.2f мс%n", name, p50, p99);
+        assertTrue(p99 < MAX_P99_MS, String.format("p99 %.2f мс (%s) больше %.0f мс", p99, name, MAX_P99_MS));
+    }
+
+    private static String randomWord(Random random) {
+        char[] word = new char[5 + random.nextInt(6)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+        }
+        return new String(word);
+    }
+
+    private static String misspell(String word, Random random) {
+        StringBuilder result = new StringBuilder(word);
+        int edits = 1 + random.nextInt(MAX_EDITS);
+        for (int i = 0; i < edits; i++) {
+            // Замена буквы: длина не меняется, и бюджет правок токена остаётся прежним
+            result.setCharAt(random.nextInt(result.length()), LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return result.toString();
+    }
+}
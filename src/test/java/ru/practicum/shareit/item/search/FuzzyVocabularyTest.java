@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyVocabularyTest {
+
+    // Тест поиска с опечатками - находит слова в пределах расстояния вместе с расстоянием
+    @Test
+    void search_WithinDistance_ReturnsWordsAndDistances() {
+        FuzzyVocabulary vocabulary = new FuzzyVocabulary();
+        vocabulary.add("drill");
+        vocabulary.add("drills");
+        vocabulary.add("grill");
+        vocabulary.add("saw");
+
+        Map<String, Integer> found = new HashMap<>();
+        vocabulary.search("drel", 2, found::put);
+
+        assertEquals(Map.of("drill", 2), found);
+
+        found.clear();
+        vocabulary.search("gril", 1, found::put);
+
+        assertEquals(Map.of("grill", 1), found);
+    }
+
+    // Тест удаления - удалённое слово больше не находится, соседние остаются
+    @Test
+    void remove_Word_ExcludesItFromSearch() {
+        FuzzyVocabulary vocabulary = new FuzzyVocabulary();
+        vocabulary.add("drill");
+        vocabulary.add("drills");
+
+        assertTrue(vocabulary.remove("drill"));
+        assertFalse(vocabulary.remove("drill"));
+
+        Map<String, Integer> found = new HashMap<>();
+        vocabulary.search("drill", 1, found::put);
+
+        assertEquals(Map.of("drills", 1), found);
+        assertEquals(1, vocabulary.size());
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchCacheTest {
+
+    private ItemSearchCache cache;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(new ItemSearchProperties(), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    // Тест повторного запроса - второй раз ответ берётся из кэша
+    @Test
+    void get_RepeatedQuery_LoadsOnce() {
+        load("дрель");
+        load("дрель");
+
+        assertEquals(1, loads.get());
+        assertEquals(0.5, meterRegistry.get("shareit.search.cache.hit.ratio").gauge().value());
+    }
+
+    // Тест изменения вещи - сбрасываются только запросы, токены которых есть в тексте вещи
+    @Test
+    void invalidate_ChangedItem_DropsOnlyMatchingQueries() {
+        load("дрель");
+        load("отвёртка");
+
+        cache.invalidate(null, item("Дрель ударная", "Сетевая"));
+        load("дрель");
+        load("отвёртка");
+
+        assertEquals(3, loads.get());
+        assertEquals(1.0, meterRegistry.get("shareit.search.cache.invalidations").counter().count());
+    }
+
+    // Тест переименования - сбрасываются запросы и по старому, и по новому тексту
+    @Test
+    void invalidate_RenamedItem_DropsOldAndNewQueries() {
+        load("дрель");
+        load("шуруп");
+        load("пила");
+
+        cache.invalidate(item("Дрель", "Аккумуляторная"), item("Шуруповёрт", "Аккумуляторный"));
+        load("дрель");
+        load("шуруп");
+        load("пила");
+
+        assertEquals(5, loads.get());
+    }
+
+    // Тест изменения во время вычисления - ответ по старым данным не должен остаться в кэше
+    @Test
+    void get_ItemChangedWhileLoading_DoesNotKeepStaleResult() {
+        cache.get("дрель", 0, 20, false, () -> {
+            loads.incrementAndGet();
+            cache.invalidate(null, item("Пила", "Ручная"));
+            return new ItemSearchResultDto(List.of(), 0);
+        });
+        load("дрель");
+
+        assertEquals(2, loads.get());
+    }
+
+    // Тест полного сброса после импорта - повторный запрос снова вычисляется
+    @Test
+    void invalidateAll_DropsEveryQuery() {
+        load("дрель");
+        load("пила");
+
+        cache.invalidateAll();
+        load("дрель");
+        load("пила");
+
+        assertEquals(4, loads.get());
+        assertEquals(2.0, meterRegistry.get("shareit.search.cache.invalidations").counter().count());
+    }
+
+    private void load(String query) {
+        cache.get(query, 0, 20, false, () -> {
+            loads.incrementAndGet();
+            return new ItemSearchResultDto(List.of(), 0);
+        });
+    }
+
+    private static ItemDto item(String name, String description) {
+        return ItemDto.builder()
+                .id(1L)
+                .name(name)
+                .description(description)
+                .available(true)
+                .build();
+    }
+}
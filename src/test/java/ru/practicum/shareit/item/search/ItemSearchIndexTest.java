@@ -0,0 +1,212 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+import ru.practicum.shareit.item.dto.TagFacetDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchIndexTest {
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex();
+        ItemSearchIndex.Builder builder = index.startRebuild();
+        builder.add(item(1L, "Дрель", "Аккумуляторная дрель", true));
+        builder.add(item(2L, "Отвёртка", "Крестовая отвёртка", true));
+        builder.add(item(3L, "Дрель ударная", "Сетевая", false));
+        index.install(builder);
+    }
+
+    // Тест поиска до построения индекса - индекс не должен отвечать
+    @Test
+    void search_NotBuilt_ReturnsNull() {
+        assertNull(new ItemSearchIndex().search("дрель", 0, 10));
+    }
+
+    // Тест поиска по подстроке - семантика совпадает с LIKE '%text%'
+    @Test
+    void search_Substring_ReturnsAvailableMatches() {
+        assertEquals(List.of(1L), ids(index.search("ДРЕ", 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("аккумуляторная др", 0, 10)));
+        assertEquals(List.of(), ids(index.search("дрель сетевая", 0, 10)));
+    }
+
+    // Тест применения изменений - индекс отражает доступность и новый текст
+    @Test
+    void apply_ChangedItems_UpdatesIndex() {
+        index.apply(item(3L, "Дрель ударная", "Сетевая", true));
+        index.apply(item(1L, "Шуруповёрт", "Аккумуляторный", true));
+        index.apply(item(2L, "Отвёртка", "Крестовая отвёртка", false));
+
+        assertEquals(List.of(3L), ids(index.search("дрель", 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("шуруп", 0, 10)));
+        assertEquals(List.of(), ids(index.search("отвёртка", 0, 10)));
+    }
+
+    // Тест пагинации - совпадения в названии идут раньше совпадений в описании, total считает все совпадения
+    @Test
+    void search_Paged_ReturnsRankedPageAndTotal() {
+        index.apply(item(4L, "Набор бит", "Биты для дрели", true));
+        index.apply(item(5L, "Дрель-миксер", "Для раствора", true));
+
+        ItemSearchResultDto first = index.search("дрел", 0, 2);
+        ItemSearchResultDto second = index.search("дрел", 2, 2);
+
+        assertEquals(List.of(1L, 5L), ids(first));
+        assertEquals(3, first.getTotal());
+        assertEquals(List.of(4L), ids(second));
+        assertEquals(3, second.getTotal());
+    }
+
+    // Тест поиска с опечатками - ближайшие по расстоянию совпадения идут первыми
+    @Test
+    void searchFuzzy_Misspelled_RanksByDistance() {
+        index.apply(item(4L, "Дрели", "Набор", true));
+
+        ItemSearchResultDto result = index.searchFuzzy("дрели", 2, 0, 10);
+
+        assertEquals(List.of(4L, 1L), ids(result));
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(2L), ids(index.searchFuzzy("отвертка", 2, 0, 10)));
+        assertEquals(List.of(), ids(index.searchFuzzy("пила", 2, 0, 10)));
+    }
+
+    // Тест подсказок - токены названий доступных вещей, изменения применяются сразу
+    @Test
+    void suggest_Prefix_ReturnsNameTokens() {
+        assertEquals(List.of("дрель"), index.suggest("ДР", 10));
+        assertEquals(List.of(), index.suggest("акк", 10));
+
+        index.apply(item(1L, "Дрель-шуруповёрт", "Аккумуляторная", true));
+
+        assertEquals(List.of("дрель"), index.suggest("др", 10));
+        assertEquals(List.of("шуруповёрт"), index.suggest("шу", 10));
+        assertNull(new ItemSearchIndex().suggest("др", 10));
+    }
+
+    // Тест запроса без букв и цифр - индекс передаёт запрос SQL-поиску
+    @Test
+    void search_OnlySeparators_ReturnsNull() {
+        assertNull(index.search("--", 0, 10));
+    }
+
+    // Тест запроса только из коротких токенов - индекс передаёт запрос SQL-поиску, а не перебирает почти все вещи
+    @Test
+    void search_OnlyShortTokens_ReturnsNull() {
+        assertNull(index.search("др", 0, 10));
+        assertNull(index.facets("а б", List.of(), 10));
+    }
+
+    // Тест фрагмента, входящего в несколько токенов одной вещи - вещь находится один раз
+    @Test
+    void search_FragmentInSeveralTokens_ReturnsEachItemOnce() {
+        index.apply(item(4L, "Дрель", "Две дрели в наборе", true));
+        index.apply(item(5L, "Бормашина", "Дрелька", true));
+
+        ItemSearchResultDto result = index.search("дрел", 0, 10);
+
+        assertEquals(List.of(1L, 4L, 5L), ids(result));
+        assertEquals(3, result.getTotal());
+    }
+
+    // Тест сопоставления с описанием запроса - достаточно общих токенов, совпадения в названии весят больше
+    @Test
+    void match_RequestDescription_RanksByTokenWeight() {
+        index.apply(item(4L, "Перфоратор", "Может работать как дрель", true));
+
+        List<Long> matched = index.match("Нужна аккумуляторная дрель на выходные", 10).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(1L, 4L), matched);
+        assertNull(new ItemSearchIndex().match("дрель", 10));
+    }
+
+    // Тест сопоставления с малым лимитом - отсечение слабых вещей не меняет начало полного ранжирования
+    @Test
+    void match_SmallLimit_ReturnsTopOfFullRanking() {
+        String[] words = {"дрель", "перфоратор", "аккумуляторная", "ударная", "makita"};
+        for (long id = 10; id < 200; id++) {
+            index.apply(item(id, words[(int) (id % 5)] + " " + words[(int) (id * 7 % 5)],
+                    words[(int) (id * 3 % 5)] + " " + words[(int) (id / 5 % 5)], true));
+        }
+        String text = "Нужна аккумуляторная дрель makita или ударная";
+
+        List<ItemDto> full = index.match(text, 1000);
+        for (int limit : new int[]{1, 3, 10, 40}) {
+            assertEquals(full.subList(0, limit), index.match(text, limit), "Лимит " + limit);
+        }
+    }
+
+    // Тест фильтра по тегам - вещь должна иметь все теги, без текста вещи идут по ID
+    @Test
+    void search_WithTags_ReturnsItemsHavingAllTags() {
+        index.apply(item(4L, "Дрель", "Садовая", true, "инструменты", "сад"));
+        index.apply(item(5L, "Лопата", "Штыковая", true, "сад"));
+        index.apply(item(6L, "Грабли", "Веерные", true, "сад"));
+
+        assertEquals(List.of(4L, 5L, 6L), ids(index.search("", List.of("сад"), 0, 10)));
+        assertEquals(List.of(5L), ids(index.search("", List.of("сад"), 1, 1)));
+        assertEquals(3, index.search("", List.of("сад"), 1, 1).getTotal());
+        assertEquals(List.of(4L), ids(index.search("дрель", List.of("инструменты", "сад"), 0, 10)));
+        assertEquals(List.of(), ids(index.search("дрель", List.of("кухня"), 0, 10)));
+        assertNull(index.search("", List.of(), 0, 10));
+    }
+
+    // Тест счётчиков тегов - по найденным вещам, по убыванию количества, при равенстве по алфавиту
+    @Test
+    void facets_CountsTagsOfMatches() {
+        index.apply(item(4L, "Дрель", "Садовая", true, "инструменты", "сад"));
+        index.apply(item(5L, "Лопата", "Штыковая", true, "сад"));
+        index.apply(item(6L, "Дрель угловая", "Для кухни", true, "инструменты", "кухня"));
+
+        assertEquals(List.of(new TagFacetDto("инструменты", 2), new TagFacetDto("сад", 2),
+                new TagFacetDto("кухня", 1)), index.facets("", List.of(), 10));
+        assertEquals(List.of(new TagFacetDto("инструменты", 2), new TagFacetDto("кухня", 1)),
+                index.facets("дрель", List.of(), 2));
+        assertEquals(List.of(new TagFacetDto("сад", 2), new TagFacetDto("инструменты", 1)),
+                index.facets("", List.of("сад"), 10));
+
+        index.apply(item(4L, "Дрель", "Садовая", false, "инструменты", "сад"));
+
+        assertEquals(List.of(new TagFacetDto("инструменты", 1), new TagFacetDto("кухня", 1),
+                new TagFacetDto("сад", 1)), index.facets("", List.of(), 10));
+        assertNull(new ItemSearchIndex().facets("", List.of(), 10));
+    }
+
+    // Тест счётчиков по фрагменту токена и по нескольким токенам - учитываются только вещи, которые нашёл бы поиск
+    @Test
+    void facets_TextMatches_CountsOnlySearchResults() {
+        index.apply(item(4L, "Дрель", "Садовая", true, "инструменты", "сад"));
+        index.apply(item(5L, "Лопата", "Садовая лопата", true, "сад"));
+        index.apply(item(6L, "Тачка", "Для сада", true, "сад", "хозяйство"));
+
+        assertEquals(List.of(new TagFacetDto("сад", 2), new TagFacetDto("инструменты", 1)),
+                index.facets("САДОВ", List.of(), 10));
+        assertEquals(List.of(new TagFacetDto("сад", 1)), index.facets("садовая лопата", List.of(), 10));
+        assertEquals(List.of(), index.facets("лопата садовая", List.of(), 10));
+    }
+
+    private static ItemDto item(long id, String name, String description, boolean available, String... tags) {
+        return ItemDto.builder()
+                .id(id)
+                .ownerId(10L)
+                .name(name)
+                .description(description)
+                .available(available)
+                .tags(List.of(tags))
+                .build();
+    }
+
+    private static List<Long> ids(ItemSearchResultDto result) {
+        return result.getItems().stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
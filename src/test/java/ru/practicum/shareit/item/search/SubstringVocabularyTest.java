@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubstringVocabularyTest {
+
+    // Тест поиска фрагмента - находятся все токены, содержащие фрагмент в любом месте, и только они
+    @Test
+    void forEachContaining_ReturnsTokensWithFragment() {
+        SubstringVocabulary vocabulary = new SubstringVocabulary();
+        vocabulary.add("дрель");
+        vocabulary.add("дрели");
+        vocabulary.add("бордрель");
+        vocabulary.add("рель");
+        vocabulary.add("др");
+
+        assertEquals(Set.of("дрель", "дрели", "бордрель"), containing(vocabulary, "дре"));
+        assertEquals(Set.of("дрель", "бордрель", "рель"), containing(vocabulary, "рель"));
+        assertEquals(Set.of(), containing(vocabulary, "рельс"));
+    }
+
+    // Тест удаления - токен больше не находится, общие триграммы других токенов сохраняются
+    @Test
+    void remove_KeepsOtherTokensSharingTrigrams() {
+        SubstringVocabulary vocabulary = new SubstringVocabulary();
+        vocabulary.add("дрель");
+        vocabulary.add("дрели");
+        vocabulary.remove("дрель");
+
+        assertEquals(Set.of("дрели"), containing(vocabulary, "дре"));
+        assertEquals(Set.of(), containing(vocabulary, "рель"));
+    }
+
+    // Тест фрагмента короче триграммы - по словарю не ищется
+    @Test
+    void forEachContaining_ShortFragment_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new SubstringVocabulary().forEachContaining("др", token -> {
+        }));
+    }
+
+    private static Set<String> containing(SubstringVocabulary vocabulary, String fragment) {
+        Set<String> tokens = new TreeSet<>();
+        vocabulary.forEachContaining(fragment, tokens::add);
+        return tokens;
+    }
+}
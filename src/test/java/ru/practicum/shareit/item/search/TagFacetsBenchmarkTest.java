@@ -0,0 +1,122 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Замер счётчиков тегов на индексе из миллиона вещей с тысячей тегов, частоты которых распределены по Ципфу.
+ * Текст из нескольких токенов счётчики проверяют тем же проходом, что и поиск, поэтому для него
+ * ограничение проверяется для разницы со временем поиска.
+ * Запускается явно: mvn test -Dshareit.benchmark=true -Dtest=TagFacetsBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class TagFacetsBenchmarkTest {
+
+    private static final int ITEMS = 1_000_000;
+    private static final int TAGS = 1000;
+    private static final int WARMUP_RUNS = 30;
+    private static final int MEASURED_RUNS = 50;
+    private static final double MAX_MEDIAN_MS = 10.0;
+    private static final String[] WORDS = {"дрель", "пила", "лопата", "молоток", "палатка", "велосипед",
+            "фотоаппарат", "стремянка", "насос", "ключ"};
+
+    private static ItemSearchIndex index;
+
+    @BeforeAll
+    static void buildIndex() {
+        Random random = new Random(1);
+        double[] cumulative = new double[TAGS];
+        double sum = 0;
+        for (int i = 0; i < TAGS; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+
+        index = new ItemSearchIndex();
+        ItemSearchIndex.Builder builder = index.startRebuild();
+        for (long id = 1; id <= ITEMS; id++) {
+            TreeSet<String> tags = new TreeSet<>();
+            int tagCount = 1 + random.nextInt(5);
+            for (int i = 0; i < tagCount; i++) {
+                int tag = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                tags.add(String.format("tag%04d", tag < 0 ? -tag - 1 : tag));
+            }
+            builder.add(ItemDto.builder()
+                    .id(id)
+                    .ownerId(1L)
+                    .name(WORDS[random.nextInt(WORDS.length)] + " " + id % 97)
+                    .description("описание")
+                    .available(true)
+                    .tags(new ArrayList<>(tags))
+                    .build());
+        }
+        index.install(builder);
+    }
+
+    // Тест счётчиков без фильтра - считаются теги всех доступных вещей
+    @Test
+    void facets_AllItems_MedianUnderLimit() {
+        assertMedianUnderLimit("", List.of());
+    }
+
+    // Тест счётчиков с фильтром по самому частому и по редкому тегу
+    @Test
+    void facets_TagFilter_MedianUnderLimit() {
+        assertMedianUnderLimit("", List.of("tag0000"));
+        assertMedianUnderLimit("", List.of("tag0300"));
+        assertMedianUnderLimit("", List.of("tag0000", "tag0001"));
+    }
+
+    // Тест счётчиков по одному токену и по токену с тегом - кандидаты не проверяются на вхождение текста
+    @Test
+    void facets_Token_MedianUnderLimit() {
+        assertMedianUnderLimit("дрель", List.of());
+        assertMedianUnderLimit("дрель", List.of("tag0003"));
+    }
+
+    // Тест счётчиков по тексту из нескольких токенов - сверх проверки текста, которую делает и поиск
+    @Test
+    void facets_SeveralTokens_MedianOverSearchUnderLimit() {
+        assertMedianOverSearchUnderLimit("дрель 4", List.of());
+        assertMedianOverSearchUnderLimit("дрель 4", List.of("tag0003"));
+    }
+
+    private static void assertMedianUnderLimit(String text, List<String> tags) {
+        double median = medianMillis(() -> assertNotNull(index.facets(text, tags, 20)));
+        System.out.printf("Счётчики тегов '%s' %s: медиана %.2f мс%n", text, tags, median);
+        assertTrue(median < MAX_MEDIAN_MS,
+                String.format("Медиана %.2f мс для '%s' %s больше %.0f мс", median, text, tags, MAX_MEDIAN_MS));
+    }
+
+    private static void assertMedianOverSearchUnderLimit(String text, List<String> tags) {
+        double search = medianMillis(() -> assertNotNull(index.search(text, tags, 0, 20)));
+        double facets = medianMillis(() -> assertNotNull(index.facets(text, tags, 20)));
+        System.out.printf("Счётчики тегов '%s' %s: медиана %.2f мс, поиск %.2f мс%n", text, tags, facets, search);
+        assertTrue(facets - search < MAX_MEDIAN_MS, String.format(
+                "Медиана %.2f мс для '%s' %s больше поиска на %.0f мс и более", facets, text, tags, MAX_MEDIAN_MS));
+    }
+
+    private static double medianMillis(Runnable query) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            query.run();
+        }
+        double[] millis = new double[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[MEASURED_RUNS / 2];
+    }
+}
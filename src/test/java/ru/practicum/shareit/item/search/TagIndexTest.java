@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.TagFacetDto;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagIndexTest {
+
+    // Тест счётчиков по большому набору - пересечения с отсечением дают тот же ответ, что обход вещей
+    @Test
+    void facets_LargeMatches_SameAsCountingPerItem() {
+        TagIndex tagIndex = new TagIndex();
+        Map<Long, int[]> ordinals = new HashMap<>();
+        Map<String, Long> expected = new HashMap<>();
+        CompressedBitSet matches = new CompressedBitSet();
+        for (long id = 1; id <= 2L * TagIndex.PER_ITEM_COUNT_LIMIT; id++) {
+            List<String> tags = List.of("t" + id % 7, "u" + id % 13);
+            ordinals.put(id, tagIndex.add(id, tags));
+            if (id % 3 != 0) {
+                matches.add(id);
+                tags.forEach(tag -> expected.merge(tag, 1L, Long::sum));
+            }
+        }
+
+        List<TagFacetDto> facets = tagIndex.facets(matches, ordinals::get, 5);
+
+        assertTrue(matches.cardinality() > TagIndex.PER_ITEM_COUNT_LIMIT);
+        assertEquals(5, facets.size());
+        for (TagFacetDto facet : facets) {
+            assertEquals(expected.get(facet.getTag()), facet.getCount(), facet.getTag());
+            assertTrue(facet.getTag().startsWith("t"));
+        }
+        List<Long> top = expected.values().stream().sorted((a, b) -> Long.compare(b, a)).limit(5).toList();
+        assertEquals(top, facets.stream().map(TagFacetDto::getCount).toList());
+    }
+
+    // Тест фильтра - пересечение тегов, неизвестный тег даёт пустое множество, без тегов фильтра нет
+    @Test
+    void filter_ReturnsItemsHavingAllTags() {
+        TagIndex tagIndex = new TagIndex();
+        tagIndex.add(1, List.of("сад"));
+        int[] removed = tagIndex.add(2, List.of("инструменты", "сад"));
+        tagIndex.add(3, List.of("инструменты", "сад"));
+        tagIndex.remove(2, removed);
+
+        assertEquals(2, tagIndex.filter(List.of("сад")).cardinality());
+        assertTrue(tagIndex.filter(List.of("инструменты", "сад")).contains(3));
+        assertEquals(1, tagIndex.filter(List.of("инструменты", "сад")).cardinality());
+        assertTrue(tagIndex.filter(List.of("кухня")).isEmpty());
+        assertNull(tagIndex.filter(List.of()));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ItemRequestController.class)
+@ActiveProfiles("test")
+class ItemRequestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ItemRequestService requestService;
+
+    private final ItemRequestDto requestDto = ItemRequestDto.builder()
+            .id(1L)
+            .description("Нужна дрель")
+            .created(LocalDateTime.of(2024, 1, 1, 12, 0))
+            .items(List.of(new ItemAnswerDto(5L, "Дрель", 2L, 1L)))
+            .build();
+
+    // Тест создания запроса - должен вернуть созданный запрос
+    @Test
+    void createReturnsRequest() throws Exception {
+        Mockito.when(requestService.create(any(ItemRequestCreateDto.class), anyLong())).thenReturn(requestDto);
+
+        mockMvc.perform(post("/requests")
+                        .header(ItemRequestController.USER_HEADER, "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ItemRequestCreateDto("Нужна дрель"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.description", is("Нужна дрель")));
+    }
+
+    // Тест создания запроса с пустым описанием - должен вернуть 400
+    @Test
+    void createWithBlankDescriptionReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/requests")
+                        .header(ItemRequestController.USER_HEADER, "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ItemRequestCreateDto(" "))))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Тест списка своих запросов - должен вернуть запросы с ответами
+    @Test
+    void getOwnReturnsRequestsWithAnswers() throws Exception {
+        Mockito.when(requestService.getOwn(1L, 0, 10)).thenReturn(List.of(requestDto));
+
+        mockMvc.perform(get("/requests")
+                        .header(ItemRequestController.USER_HEADER, "1")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].items[0].name", is("Дрель")))
+                .andExpect(jsonPath("$[0].items[0].ownerId", is(2)));
+    }
+
+    // Тест списка чужих запросов с отрицательным смещением - должен вернуть 400
+    @Test
+    void getOthersWithNegativeFromReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/requests/all")
+                        .header(ItemRequestController.USER_HEADER, "1")
+                        .param("from", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Тест получения несуществующего запроса - должен вернуть 404
+    @Test
+    void retrieveUnknownReturnsNotFound() throws Exception {
+        Mockito.when(requestService.retrieve(42L, 1L)).thenThrow(new NotFoundException("Запрос с id=42 не найден"));
+
+        mockMvc.perform(get("/requests/42")
+                        .header(ItemRequestController.USER_HEADER, "1"))
+                .andExpect(status().isNotFound());
+    }
+}
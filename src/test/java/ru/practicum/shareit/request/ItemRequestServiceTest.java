@@ -0,0 +1,149 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.service.impl.ItemRequestServiceImpl;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemRequestServiceTest {
+
+    @Mock
+    private ItemRequestRepository requestRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ItemRequestServiceImpl requestService;
+
+    private User requestor;
+    private LocalDateTime fixedTime;
+
+    @BeforeEach
+    void setUp() {
+        requestService = new ItemRequestServiceImpl(requestRepository, userRepository, new ItemRequestProperties(),
+                eventPublisher);
+        requestor = User.builder().id(1L).name("Requestor").email("requestor@example.com").build();
+        fixedTime = LocalDateTime.of(2024, 1, 1, 12, 0);
+    }
+
+    // Тест создания запроса - должен вернуть запрос без ответов
+    @Test
+    void create_ValidData_ReturnsRequestDto() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(requestor));
+        when(requestRepository.save(any(ItemRequest.class))).thenAnswer(invocation -> {
+            ItemRequest request = invocation.getArgument(0);
+            request.setId(10L);
+            return request;
+        });
+
+        ItemRequestDto result = requestService.create(new ItemRequestCreateDto("Нужна дрель"), 1L);
+
+        assertEquals(10L, result.getId());
+        assertEquals("Нужна дрель", result.getDescription());
+        assertNotNull(result.getCreated());
+        assertTrue(result.getItems().isEmpty());
+        verify(eventPublisher).publishEvent(any(ItemRequestCreatedEvent.class));
+    }
+
+    // Тест создания запроса несуществующим пользователем - должен выбросить NotFoundException
+    @Test
+    void create_UserNotFound_ThrowsException() {
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> requestService.create(new ItemRequestCreateDto("Нужна дрель"), 999L));
+
+        verify(requestRepository, never()).save(any(ItemRequest.class));
+    }
+
+    // Тест списка своих запросов - ответы на всю страницу загружаются одним запросом
+    @Test
+    void getOwn_LoadsAnswersForPageInOneQuery() {
+        ItemRequest newer = request(2L, fixedTime);
+        ItemRequest older = request(1L, fixedTime.minusDays(1));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(requestRepository.findByRequestorId(eq(1L), any(Pageable.class))).thenReturn(List.of(newer, older));
+        when(requestRepository.findAnswersByRequestIdIn(List.of(2L, 1L))).thenReturn(List.of(
+                new ItemAnswerDto(5L, "Дрель", 3L, 1L),
+                new ItemAnswerDto(6L, "Перфоратор", 4L, 1L)));
+
+        List<ItemRequestDto> result = requestService.getOwn(1L, 5, 500);
+
+        assertEquals(List.of(2L, 1L), result.stream().map(ItemRequestDto::getId).toList());
+        assertTrue(result.get(0).getItems().isEmpty());
+        assertEquals(List.of(5L, 6L), result.get(1).getItems().stream().map(ItemAnswerDto::getId).toList());
+        // Смещение сохраняется точно, размер страницы ограничен сервером
+        verify(requestRepository).findByRequestorId(1L, OffsetPageRequest.of(5, 100,
+                Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id"))));
+        verify(requestRepository, times(1)).findAnswersByRequestIdIn(any());
+    }
+
+    // Тест пустой страницы чужих запросов - запрос ответов не выполняется
+    @Test
+    void getOthers_EmptyPage_SkipsAnswersQuery() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(requestRepository.findByRequestorIdNot(eq(1L), any(Pageable.class))).thenReturn(List.of());
+
+        assertTrue(requestService.getOthers(1L, 0, 20).isEmpty());
+
+        verify(requestRepository, never()).findAnswersByRequestIdIn(any());
+    }
+
+    // Тест получения несуществующего запроса - должен выбросить NotFoundException
+    @Test
+    void retrieve_RequestNotFound_ThrowsException() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(requestRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> requestService.retrieve(42L, 1L));
+    }
+
+    // Тест получения запроса - должен вернуть запрос с ответами
+    @Test
+    void retrieve_ReturnsRequestWithAnswers() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(requestRepository.findById(1L)).thenReturn(Optional.of(request(1L, fixedTime)));
+        when(requestRepository.findAnswersByRequestIdIn(List.of(1L)))
+                .thenReturn(List.of(new ItemAnswerDto(5L, "Дрель", 2L, 1L)));
+
+        ItemRequestDto result = requestService.retrieve(1L, 2L);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(2L, result.getItems().get(0).getOwnerId());
+    }
+
+    private ItemRequest request(Long id, LocalDateTime created) {
+        return ItemRequest.builder()
+                .id(id)
+                .description("Запрос " + id)
+                .requestor(requestor)
+                .created(created)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.request.matching;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemRequestMatcherTest {
+
+    @Mock
+    private ItemSearchIndex searchIndex;
+
+    @Mock
+    private ItemRequestRepository requestRepository;
+
+    @Mock
+    private MatchNotifier notifier;
+
+    private RequestMatchingProperties matchingProperties;
+    private ItemRequestMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        matchingProperties = new RequestMatchingProperties();
+        matchingProperties.setMaxOwners(2);
+        matcher = new ItemRequestMatcher(searchIndex, requestRepository, matchingProperties, notifier,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        matcher.shutdown();
+    }
+
+    // Тест подбора к запросу - уведомляются лучшие владельцы, кроме автора запроса, вещи группируются по владельцу
+    @Test
+    void matchRequest_NotifiesTopOwnersExceptRequestor() {
+        ItemRequestDto request = request(1L, "Нужна дрель");
+        when(searchIndex.match("Нужна дрель", 8)).thenReturn(List.of(
+                item(11L, 7L), item(12L, 5L), item(13L, 7L), item(14L, 6L), item(15L, 8L)));
+
+        matcher.matchRequest(request, 5L);
+
+        verify(notifier).notifyOwner(7L, request, List.of(11L, 13L));
+        verify(notifier).notifyOwner(6L, request, List.of(14L));
+        verifyNoMoreInteractions(notifier);
+    }
+
+    // Тест подбора к новой вещи - уведомляются авторы открытых запросов, кроме запроса, на который вещь добавлена
+    @Test
+    void matchItem_NotifiesRequestorsOfOpenRequests() {
+        when(searchIndex.match(any(), anyInt())).thenReturn(List.of());
+        matcher.matchRequest(request(1L, "Нужна дрель"), 5L);
+        matcher.matchRequest(request(2L, "Ищу дрель на день"), 6L);
+        matcher.matchRequest(request(3L, "Нужна палатка"), 7L);
+
+        ItemDto drill = item(20L, 9L);
+        drill.setRequestId(2L);
+        matcher.matchItem(drill);
+
+        verify(notifier).notifyRequestor(5L, 1L, drill);
+        verify(notifier, never()).notifyRequestor(eq(6L), anyLong(), any());
+        verify(notifier, never()).notifyRequestor(eq(7L), anyLong(), any());
+    }
+
+    // Тест подбора при непостроенном индексе - запрос запоминается, уведомлений нет
+    @Test
+    void matchRequest_IndexNotReady_SkipsNotifications() {
+        when(searchIndex.match(any(), anyInt())).thenReturn(null);
+
+        matcher.matchRequest(request(1L, "Нужна дрель"), 5L);
+        matcher.matchItem(item(20L, 9L));
+
+        verify(notifier, never()).notifyOwner(anyLong(), any(), any());
+        verify(notifier).notifyRequestor(eq(5L), eq(1L), any());
+    }
+
+    private static ItemRequestDto request(long id, String description) {
+        return ItemRequestDto.builder()
+                .id(id)
+                .description(description)
+                .created(LocalDateTime.now())
+                .items(List.of())
+                .build();
+    }
+
+    private static ItemDto item(long id, long ownerId) {
+        return ItemDto.builder()
+                .id(id)
+                .ownerId(ownerId)
+                .name("Дрель")
+                .description("Ударная")
+                .available(true)
+                .build();
+    }
+}
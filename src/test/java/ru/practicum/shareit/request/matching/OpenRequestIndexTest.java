@@ -0,0 +1,55 @@
+package ru.practicum.shareit.request.matching;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OpenRequestIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private OpenRequestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new OpenRequestIndex();
+        index.add(1L, 10L, "Нужна дрель на выходные", NOW.minusDays(40));
+        index.add(2L, 20L, "Ищу ударную дрель", NOW.minusDays(2));
+        index.add(3L, 30L, "Нужна палатка", NOW.minusDays(1));
+        index.add(4L, 40L, "Дрель или перфоратор для бетона", NOW);
+    }
+
+    // Тест подбора - запросы с большим числом редких общих токенов идут первыми, автор-владелец исключается
+    @Test
+    void match_RanksByTokenWeightAndSkipsOwnRequests() {
+        assertEquals(List.of(2L, 1L, 4L), ids(index.match("Дрель ударную", 99L, 10)));
+        assertEquals(List.of(2L, 1L), ids(index.match("Дрель ударную", 40L, 10)));
+    }
+
+    // Тест истечения срока - старые запросы больше не подбираются
+    @Test
+    void expire_RemovesOldRequests() {
+        index.expire(NOW.minusDays(30));
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(2L, 4L), ids(index.match("дрель", 99L, 10)));
+    }
+
+    // Тест повторного добавления - запрос не дублируется
+    @Test
+    void add_SameRequestTwice_KeepsOne() {
+        index.add(3L, 30L, "Нужна палатка", NOW.minusDays(1));
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(3L), ids(index.match("палатка", 99L, 10)));
+    }
+
+    private static List<Long> ids(List<OpenRequestIndex.OpenRequest> requests) {
+        return requests.stream().map(OpenRequestIndex.OpenRequest::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.request.matching;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Замер пропускной способности подбора: поток новых запросов и новых вещей проходит через слушатели событий
+ * и пул подбора с настройками по умолчанию. Поисковый индекс — двести тысяч вещей десяти тысяч владельцев.
+ * Запускается явно: mvn test -Dshareit.benchmark=true -Dtest=RequestMatchingBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class RequestMatchingBenchmarkTest {
+
+    private static final int ITEMS = 200_000;
+    private static final int OWNERS = 10_000;
+    private static final int WARMUP_EVENTS = 2_000;
+    // Требование — десять тысяч запросов в минуту; столько же новых вещей идёт в том же потоке
+    private static final int MEASURED_EVENTS = 10_000;
+    private static final long MINUTE_MILLIS = 60_000;
+    private static final String[] WORDS = {"дрель", "пила", "лопата", "молоток", "палатка", "велосипед",
+            "фотоаппарат", "стремянка", "насос", "ключ"};
+    private static final String[] BRANDS = {"xr", "bosch", "makita", "dewalt", "zubr", "sturm", "hammer", "interskol"};
+    private static final String[] ADJECTIVES = {"аккумуляторная", "новая", "мощная", "лёгкая", "складная", "большая",
+            "компактная", "профессиональная", "садовая", "туристическая", "детская", "запасная"};
+
+    private static final AtomicLong ownerNotifications = new AtomicLong();
+    private static final AtomicLong requestorNotifications = new AtomicLong();
+
+    private static ItemSearchIndex searchIndex;
+    private static MeterRegistry meterRegistry;
+    private static ItemRequestMatcher matcher;
+    private static final Random random = new Random(1);
+    private static long nextId = ITEMS;
+
+    @BeforeAll
+    static void buildIndex() {
+        searchIndex = new ItemSearchIndex();
+        ItemSearchIndex.Builder builder = searchIndex.startRebuild();
+        for (long id = 1; id <= ITEMS; id++) {
+            builder.add(item(id));
+        }
+        searchIndex.install(builder);
+
+        RequestMatchingProperties matchingProperties = new RequestMatchingProperties();
+        // Очередь вмещает весь замер: отброшенная задача исказила бы пропускную способность
+        matchingProperties.setQueueCapacity(2 * (WARMUP_EVENTS + MEASURED_EVENTS));
+        meterRegistry = new SimpleMeterRegistry();
+        matcher = new ItemRequestMatcher(searchIndex, mock(ItemRequestRepository.class), matchingProperties,
+                new MatchNotifier() {
+                    @Override
+                    public void notifyOwner(long ownerId, ItemRequestDto request, List<Long> itemIds) {
+                        ownerNotifications.incrementAndGet();
+                    }
+
+                    @Override
+                    public void notifyRequestor(long requestorId, long requestId, ItemDto item) {
+                        requestorNotifications.incrementAndGet();
+                    }
+                }, meterRegistry);
+    }
+
+    @AfterAll
+    static void shutdown() {
+        matcher.shutdown();
+    }
+
+    // Тест потока запросов и вещей - десять тысяч запросов и десять тысяч вещей подбираются меньше чем за минуту
+    @Test
+    void requestsAndItems_TenThousandPerMinute() throws InterruptedException {
+        publish(WARMUP_EVENTS);
+        awaitMatched(WARMUP_EVENTS);
+        ownerNotifications.set(0);
+        requestorNotifications.set(0);
+
+        long start = System.nanoTime();
+        publish(MEASURED_EVENTS);
+        awaitMatched(WARMUP_EVENTS + MEASURED_EVENTS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(0.0, meterRegistry.get("shareit.requests.matching.rejected").counter().count());
+        assertTrue(ownerNotifications.get() > 0);
+        assertTrue(requestorNotifications.get() > 0);
+        System.out.printf("Подбор %d запросов и %d вещей: %d мс, %.0f запросов в минуту; "
+                        + "запрос в среднем %.2f мс, вещь в среднем %.2f мс; уведомлений владельцам %d, авторам %d%n",
+                MEASURED_EVENTS, MEASURED_EVENTS, elapsedMillis, MEASURED_EVENTS * 60_000.0 / elapsedMillis,
+                timer("request").mean(TimeUnit.MILLISECONDS), timer("item").mean(TimeUnit.MILLISECONDS),
+                ownerNotifications.get(), requestorNotifications.get());
+        assertTrue(elapsedMillis < MINUTE_MILLIS, "Подбор занял " + elapsedMillis + " мс");
+    }
+
+    private static void publish(int events) {
+        for (int i = 0; i < events; i++) {
+            long requestorId = 1 + random.nextInt(OWNERS);
+            ItemRequestDto request = ItemRequestDto.builder()
+                    .id(++nextId)
+                    .description("Нужна " + pick(ADJECTIVES) + " " + pick(WORDS) + " " + pick(BRANDS)
+                            + " на выходные")
+                    .created(LocalDateTime.now())
+                    .build();
+            matcher.onRequestCreated(new ItemRequestCreatedEvent(request, requestorId));
+            matcher.onItemChanged(new ItemChangedEvent(null, item(++nextId)));
+        }
+    }
+
+    private static void awaitMatched(long events) throws InterruptedException {
+        while (timer("request").count() < events || timer("item").count() < events) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static Timer timer(String source) {
+        return meterRegistry.get("shareit.requests.matching.duration").tag("source", source).timer();
+    }
+
+    private static ItemDto item(long id) {
+        return ItemDto.builder()
+                .id(id)
+                .ownerId(1 + id % OWNERS)
+                .name(pick(WORDS) + " " + pick(BRANDS) + "-" + random.nextInt(10_000))
+                .description(pick(ADJECTIVES) + " " + pick(WORDS))
+                .available(true)
+                .build();
+    }
+
+    private static String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.savedsearch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchCreateDto;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchDto;
+import ru.practicum.shareit.savedsearch.service.SavedSearchService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SavedSearchController.class)
+@ActiveProfiles("test")
+class SavedSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private SavedSearchService savedSearchService;
+
+    private final SavedSearchDto savedSearchDto = SavedSearchDto.builder()
+            .id(1L)
+            .userId(2L)
+            .query("палатка на 4")
+            .created(LocalDateTime.of(2024, 1, 1, 12, 0))
+            .build();
+
+    // Тест сохранения поиска - должен вернуть сохранённый поиск
+    @Test
+    void createReturnsSavedSearch() throws Exception {
+        Mockito.when(savedSearchService.create(any(SavedSearchCreateDto.class), anyLong())).thenReturn(savedSearchDto);
+
+        mockMvc.perform(post("/saved-searches")
+                        .header(SavedSearchController.USER_HEADER, "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SavedSearchCreateDto("палатка на 4"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.query", is("палатка на 4")));
+    }
+
+    // Тест сохранения пустого поиска - должен вернуть 400
+    @Test
+    void createWithBlankQueryReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/saved-searches")
+                        .header(SavedSearchController.USER_HEADER, "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SavedSearchCreateDto(" "))))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Тест списка своих поисков - должен вернуть поиски пользователя
+    @Test
+    void getOwnReturnsSavedSearches() throws Exception {
+        Mockito.when(savedSearchService.getOwn(2L)).thenReturn(List.of(savedSearchDto));
+
+        mockMvc.perform(get("/saved-searches")
+                        .header(SavedSearchController.USER_HEADER, "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].query", is("палатка на 4")));
+    }
+
+    // Тест удаления чужого поиска - должен вернуть 403
+    @Test
+    void deleteForeignReturnsForbidden() throws Exception {
+        Mockito.doThrow(new AccessDeniedException("Только владелец может удалить сохранённый поиск"))
+                .when(savedSearchService).delete(1L, 3L);
+
+        mockMvc.perform(delete("/saved-searches/1")
+                        .header(SavedSearchController.USER_HEADER, "3"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.savedsearch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchCreateDto;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchDto;
+import ru.practicum.shareit.savedsearch.event.SavedSearchChangedEvent;
+import ru.practicum.shareit.savedsearch.model.SavedSearch;
+import ru.practicum.shareit.savedsearch.service.impl.SavedSearchServiceImpl;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SavedSearchServiceTest {
+
+    @Mock
+    private SavedSearchRepository savedSearchRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SavedSearchProperties savedSearchProperties;
+    private SavedSearchServiceImpl savedSearchService;
+
+    @BeforeEach
+    void setUp() {
+        savedSearchProperties = new SavedSearchProperties();
+        savedSearchService = new SavedSearchServiceImpl(savedSearchRepository, userRepository, savedSearchProperties,
+                eventPublisher);
+    }
+
+    // Тест создания поиска - текст обрезается, индекс оповещений получает событие
+    @Test
+    void create_ValidQuery_SavesAndPublishesEvent() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(savedSearchRepository.countByUserId(1L)).thenReturn(0L);
+        when(savedSearchRepository.save(any(SavedSearch.class))).thenAnswer(invocation -> {
+            SavedSearch savedSearch = invocation.getArgument(0);
+            savedSearch.setId(10L);
+            return savedSearch;
+        });
+
+        SavedSearchDto result = savedSearchService.create(new SavedSearchCreateDto("  палатка на 4  "), 1L);
+
+        assertEquals(10L, result.getId());
+        assertEquals("палатка на 4", result.getQuery());
+        ArgumentCaptor<SavedSearchChangedEvent> event = ArgumentCaptor.forClass(SavedSearchChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertFalse(event.getValue().isRemoved());
+        assertEquals(10L, event.getValue().getSavedSearch().getId());
+    }
+
+    // Тест лимита - пользователь с максимумом поисков не может сохранить ещё один
+    @Test
+    void create_LimitReached_ThrowsValidationException() {
+        savedSearchProperties.setMaxPerUser(2);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(savedSearchRepository.countByUserId(1L)).thenReturn(2L);
+
+        assertThrows(ValidationException.class,
+                () -> savedSearchService.create(new SavedSearchCreateDto("палатка"), 1L));
+        verify(savedSearchRepository, never()).save(any());
+    }
+
+    // Тест текста без букв и цифр - такой поиск ничего не найдёт и отклоняется
+    @Test
+    void create_QueryWithoutTokens_ThrowsValidationException() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(ValidationException.class,
+                () -> savedSearchService.create(new SavedSearchCreateDto("?!"), 1L));
+    }
+
+    // Тест удаления чужого поиска - должно выбросить AccessDeniedException
+    @Test
+    void delete_NotOwner_ThrowsAccessDeniedException() {
+        when(savedSearchRepository.findById(10L)).thenReturn(Optional.of(savedSearch(10L, 1L)));
+
+        assertThrows(AccessDeniedException.class, () -> savedSearchService.delete(10L, 2L));
+        verify(savedSearchRepository, never()).delete(any());
+    }
+
+    // Тест удаления своего поиска - поиск удаляется и снимается с индекса оповещений
+    @Test
+    void delete_Owner_DeletesAndPublishesEvent() {
+        SavedSearch savedSearch = savedSearch(10L, 1L);
+        when(savedSearchRepository.findById(10L)).thenReturn(Optional.of(savedSearch));
+
+        savedSearchService.delete(10L, 1L);
+
+        verify(savedSearchRepository).delete(savedSearch);
+        verify(eventPublisher).publishEvent(any(SavedSearchChangedEvent.class));
+    }
+
+    // Тест удаления несуществующего поиска - должно выбросить NotFoundException
+    @Test
+    void delete_UnknownSearch_ThrowsNotFoundException() {
+        when(savedSearchRepository.findById(10L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> savedSearchService.delete(10L, 1L));
+    }
+
+    // Тест удаления всех поисков пользователя - удаляются одним запросом, каждый снимается с индекса оповещений
+    @Test
+    void deleteAllOwn_DeletesInBatchAndPublishesEventPerSearch() {
+        List<SavedSearch> searches = List.of(savedSearch(10L, 1L), savedSearch(11L, 1L));
+        when(savedSearchRepository.findByUserIdOrderById(1L)).thenReturn(searches);
+
+        savedSearchService.deleteAllOwn(1L);
+
+        verify(savedSearchRepository).deleteAllInBatch(searches);
+        ArgumentCaptor<SavedSearchChangedEvent> captor = ArgumentCaptor.forClass(SavedSearchChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(captor.capture());
+        assertTrue(captor.getAllValues().stream().allMatch(SavedSearchChangedEvent::isRemoved));
+        assertEquals(List.of(10L, 11L), captor.getAllValues().stream()
+                .map(event -> event.getSavedSearch().getId())
+                .toList());
+    }
+
+    // Тест удаления поисков пользователя без поисков - в базу ничего не пишется
+    @Test
+    void deleteAllOwn_NoSearches_DoesNothing() {
+        when(savedSearchRepository.findByUserIdOrderById(1L)).thenReturn(List.of());
+
+        savedSearchService.deleteAllOwn(1L);
+
+        verify(savedSearchRepository, never()).deleteAllInBatch(any());
+        verify(eventPublisher, never()).publishEvent(any(SavedSearchChangedEvent.class));
+    }
+
+    private static SavedSearch savedSearch(long id, long userId) {
+        return SavedSearch.builder()
+                .id(id)
+                .userId(userId)
+                .query("палатка")
+                .created(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.savedsearch.percolation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.savedsearch.SavedSearchProperties;
+import ru.practicum.shareit.savedsearch.SavedSearchRepository;
+import ru.practicum.shareit.savedsearch.dto.SavedSearchDto;
+import ru.practicum.shareit.savedsearch.event.SavedSearchChangedEvent;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SavedSearchAlerterTest {
+
+    @Mock
+    private SavedSearchRepository savedSearchRepository;
+
+    @Mock
+    private SavedSearchNotifier notifier;
+
+    private SavedSearchAlerter alerter;
+
+    @BeforeEach
+    void setUp() {
+        alerter = new SavedSearchAlerter(savedSearchRepository, new SavedSearchProperties(), notifier,
+                new SimpleMeterRegistry());
+        alerter.onSavedSearchChanged(new SavedSearchChangedEvent(search(1L, 5L, "палатка"), false));
+        alerter.onSavedSearchChanged(new SavedSearchChangedEvent(search(2L, 7L, "палатка"), false));
+    }
+
+    @AfterEach
+    void tearDown() {
+        alerter.shutdown();
+    }
+
+    // Тест новой вещи - оповещаются владельцы подходящих поисков, кроме владельца вещи
+    @Test
+    void matchItem_NewItem_NotifiesOtherUsers() {
+        ItemDto tent = item(true, "Лёгкая");
+
+        alerter.matchItem(null, tent);
+
+        verify(notifier).notifyUser(5L, 1L, "палатка", tent);
+        verifyNoMoreInteractions(notifier);
+    }
+
+    // Тест включения доступности - вещь впервые попала в результаты, оповещение уходит
+    @Test
+    void matchItem_BecameAvailable_Notifies() {
+        ItemDto tent = item(true, "Лёгкая");
+
+        alerter.matchItem(item(false, "Лёгкая"), tent);
+
+        verify(notifier).notifyUser(5L, 1L, "палатка", tent);
+    }
+
+    // Тест правки описания - вещь уже была в результатах, оповещение не повторяется
+    @Test
+    void matchItem_DescriptionEdited_DoesNotNotifyAgain() {
+        alerter.matchItem(item(true, "Лёгкая"), item(true, "Лёгкая, с тентом"));
+
+        verifyNoInteractions(notifier);
+    }
+
+    // Тест удалённого поиска - по нему оповещения больше не приходят
+    @Test
+    void onSavedSearchChanged_Removed_StopsNotifications() {
+        alerter.onSavedSearchChanged(new SavedSearchChangedEvent(search(1L, 5L, "палатка"), true));
+
+        alerter.matchItem(null, item(true, "Лёгкая"));
+
+        verifyNoInteractions(notifier);
+    }
+
+    private static SavedSearchDto search(long id, long userId, String query) {
+        return SavedSearchDto.builder()
+                .id(id)
+                .userId(userId)
+                .query(query)
+                .build();
+    }
+
+    private static ItemDto item(boolean available, String description) {
+        return ItemDto.builder()
+                .id(20L)
+                .name("Палатка 4-местная")
+                .description(description)
+                .available(available)
+                .ownerId(7L)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.savedsearch.percolation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SavedSearchPercolatorTest {
+
+    private SavedSearchPercolator percolator;
+
+    @BeforeEach
+    void setUp() {
+        percolator = new SavedSearchPercolator();
+    }
+
+    // Тест совпадения - поиск находит вещь так же, как поиск по вхождению текста в название или описание
+    @Test
+    void match_ReturnsSearchesContainedInItemText() {
+        percolator.add(1L, 10L, "палатка 4");
+        percolator.add(2L, 11L, "Дрель");
+        percolator.add(3L, 12L, "латка");
+        percolator.add(4L, 13L, "палатка 2");
+
+        assertEquals(List.of(1L, 3L), ids(percolator.match(item("Палатка 4-местная", "Лёгкая", true))));
+    }
+
+    // Тест недоступной вещи - в результаты поиска она не попадает
+    @Test
+    void match_UnavailableItem_ReturnsNothing() {
+        percolator.add(1L, 10L, "палатка");
+
+        assertTrue(percolator.match(item("Палатка", "Лёгкая", false)).isEmpty());
+        assertTrue(percolator.match(null).isEmpty());
+    }
+
+    // Тест удаления - снятый с регистрации поиск больше не совпадает
+    @Test
+    void remove_DropsSearch() {
+        percolator.add(1L, 10L, "палатка");
+        percolator.add(2L, 11L, "палатка");
+
+        percolator.remove(1L);
+
+        assertEquals(List.of(2L), ids(percolator.match(item("Палатка", "Лёгкая", true))));
+        assertEquals(1, percolator.size());
+    }
+
+    // Тест текста без букв и цифр - такой поиск не регистрируется
+    @Test
+    void add_QueryWithoutTokens_IsIgnored() {
+        percolator.add(1L, 10L, " - ");
+
+        assertEquals(0, percolator.size());
+        assertNull(SavedSearchPercolator.anchorOf("!?"));
+        assertEquals("палатка", SavedSearchPercolator.anchorOf("палатка на 4"));
+    }
+
+    private static List<Long> ids(List<SavedSearchPercolator.CompiledSearch> searches) {
+        return searches.stream()
+                .map(SavedSearchPercolator.CompiledSearch::getId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static ItemDto item(String name, String description, boolean available) {
+        return ItemDto.builder()
+                .id(1L)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -3,12 +3,17 @@ package ru.practicum.shareit.user;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import ru.practicum.shareit.booking.BookingVersionTracker;
 import ru.practicum.shareit.exception.DatabaseUniqueConstraintException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.card.ItemCardProjector;
+import ru.practicum.shareit.savedsearch.service.SavedSearchService;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -28,11 +33,24 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BookingVersionTracker bookingVersionTracker;
+
+    @Mock
+    private ItemDetailsCache itemDetailsCache;
+
+    @Mock
+    private ItemCardProjector itemCardProjector;
+
+    @Mock
+    private SavedSearchService savedSearchService;
+
     private UserServiceImpl userService;
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, bookingVersionTracker, itemDetailsCache, itemCardProjector,
+                savedSearchService);
     }
 
     // Тест создания пользователя с валидными данными - должен вернуть UserDto
@@ -99,6 +117,7 @@ class UserServiceTest {
 
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).save(any(User.class));
+        verify(itemCardProjector).markStaleByCommentAuthor(1L);
     }
 
     // Тест получения несуществующего пользователя - должен выбросить NotFoundException
@@ -122,6 +141,18 @@ class UserServiceTest {
         verify(userRepository, times(1)).deleteById(1L);
     }
 
+    // Тест удаления пользователя - сохранённые поиски удаляются до самого пользователя
+    @Test
+    void deleteUser_ExistingId_DeletesSavedSearchesFirst() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        userService.delete(1L);
+
+        InOrder inOrder = inOrder(savedSearchService, userRepository);
+        inOrder.verify(savedSearchService).deleteAllOwn(1L);
+        inOrder.verify(userRepository).deleteById(1L);
+    }
+
     // Тест получения списка всех пользователей
     @Test
     void getList_ReturnsUserList() {
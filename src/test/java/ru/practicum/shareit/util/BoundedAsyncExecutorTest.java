@@ -0,0 +1,46 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedAsyncExecutorTest {
+
+    // Тест переполнения очереди - лишняя задача отбрасывается и учитывается в счётчике, ошибка задачи не останавливает поток
+    @Test
+    void submit_QueueFull_RejectsAndCounts() throws InterruptedException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BoundedAsyncExecutor executor = new BoundedAsyncExecutor("test-pool", 1, 1, "тестовых задач",
+                "shareit.test", meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        try {
+            executor.submit(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("Ошибка задачи");
+            });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            executor.submit(finished::countDown);
+            executor.submit(() -> fail("Задача сверх очереди не должна выполняться"));
+
+            assertEquals(1.0, meterRegistry.get("shareit.test.rejected").counter().count());
+            assertEquals(1.0, meterRegistry.get("shareit.test.queue").gauge().value());
+
+            release.countDown();
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
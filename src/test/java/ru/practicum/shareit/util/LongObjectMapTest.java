@@ -0,0 +1,52 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectMapTest {
+
+    // Тест удаления - ключи той же цепочки остаются доступны, повторное удаление ничего не меняет
+    @Test
+    void remove_KeepsCollidingKeysReachable() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        for (long key = 1; key <= 100; key++) {
+            map.put(key, "v" + key);
+        }
+
+        for (long key = 1; key <= 100; key += 2) {
+            assertEquals("v" + key, map.remove(key));
+        }
+
+        assertNull(map.remove(1));
+        assertEquals(50, map.size());
+        for (long key = 1; key <= 100; key++) {
+            assertEquals(key % 2 == 0 ? "v" + key : null, map.get(key));
+        }
+    }
+
+    // Тест случайной последовательности операций - содержимое совпадает с HashMap
+    @Test
+    void randomOperations_MatchHashMap() {
+        Random random = new Random(7);
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+}